@@ -0,0 +1,57 @@
+#!/usr/bin/env sh
+# Compares throughput and latency of the servlet (Tomcat) and reactive (Reactor Netty) web stacks.
+#
+# Starts the packaged service once per stack, warms it up and drives it with wrk, then writes the
+# wrk latency report of each run to build/stack-comparison/<stack>.txt.
+#
+# Usage: scripts/compare-web-stacks.sh [duration] [connections] [threads]
+# Requires wrk (https://github.com/wg/wrk) and a jar built with ./gradlew bootJar.
+# Point the providers at stand-ins with WEATHERSTACK_API_URL / OPENWEATHERMAP_API_URL to keep
+# upstream latency and quotas out of the measurement. A stack that is not healthy within STARTUP_TIMEOUT
+# seconds (default 120) fails the run.
+set -eu
+
+DURATION=${1:-30s}
+CONNECTIONS=${2:-64}
+THREADS=${3:-4}
+PORT=${PORT:-8080}
+CITIES=${CITIES:-melbourne}
+STARTUP_TIMEOUT=${STARTUP_TIMEOUT:-120}
+JAR=$(ls build/libs/*-SNAPSHOT.jar | grep -v plain | head -n 1)
+OUT=build/stack-comparison
+mkdir -p "$OUT"
+
+run_stack() {
+  stack=$1
+  profile=$2
+  echo "Starting $stack stack"
+  java -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profile" > "$OUT/$stack.log" 2>&1 &
+  pid=$!
+  trap 'kill $pid 2>/dev/null || true' EXIT
+
+  attempts=0
+  until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+    attempts=$((attempts + 1))
+    if [ "$attempts" -ge "$STARTUP_TIMEOUT" ] || ! kill -0 "$pid" 2>/dev/null; then
+      echo "The $stack stack did not become healthy within $STARTUP_TIMEOUT seconds, last log lines:" >&2
+      tail -n 50 "$OUT/$stack.log" >&2
+      exit 1
+    fi
+    sleep 1
+  done
+
+  url="http://localhost:$PORT/v1/weather?city=$CITIES"
+  wrk -t"$THREADS" -c"$CONNECTIONS" -d10s "$url" > /dev/null
+  wrk -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" --latency "$url" | tee "$OUT/$stack.txt"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  trap - EXIT
+}
+
+run_stack servlet default
+run_stack reactive reactive
+
+echo
+echo "Requests/sec:"
+grep -H "Requests/sec" "$OUT/servlet.txt" "$OUT/reactive.txt"
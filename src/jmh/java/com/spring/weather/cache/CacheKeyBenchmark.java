@@ -0,0 +1,57 @@
+package com.spring.weather.cache;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the normalization of a requested city name into its cache key, through the intern table as on
+ * the request path and without it for the cost of a first request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CacheKeyBenchmark {
+
+  /**
+   * The requested city name: already normalized, mixed case, and upper case with diacritics.
+   */
+  @Param({"melbourne", "Melbourne", "S\u00C3O PAULO"})
+  public String city;
+
+  private CityKeyNormalizer normalizer;
+
+  /**
+   * Creates the normalizer with its default settings.
+   */
+  @Setup
+  public void setUp() {
+    normalizer = new CityKeyNormalizer(true, 10_000);
+  }
+
+  /**
+   * Measures deriving the cache key of a city seen before, as on most requests.
+   *
+   * @return The cache key.
+   */
+  @Benchmark
+  public String cacheKey() {
+    return normalizer.normalize(city);
+  }
+
+  /**
+   * Measures computing the canonical form of a city without the intern table.
+   *
+   * @return The canonical form.
+   */
+  @Benchmark
+  public String canonicalize() {
+    return normalizer.canonicalize(city);
+  }
+}
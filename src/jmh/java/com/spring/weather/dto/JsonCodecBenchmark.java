@@ -0,0 +1,121 @@
+package com.spring.weather.dto;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.spring.weather.cache.CachedWeather;
+import com.spring.weather.cache.WeatherResponseEncoder;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks decoding the provider payloads into their DTOs and encoding the {@link WeatherResponse}
+ * returned to clients. The payloads are trimmed copies of real provider responses, including the fields
+ * the service ignores, so the cost of skipping unknown properties is part of the measurement.
+ * The cache hit path, which writes the body memoized with the cache entry, is measured for comparison
+ * with encoding the response on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonCodecBenchmark {
+
+  private static final String WEATHERSTACK_JSON = """
+      {"request":{"type":"City","query":"Melbourne, Australia","language":"en","unit":"m"},
+       "location":{"name":"Melbourne","country":"Australia","region":"Victoria","lat":"-37.817",
+       "lon":"144.967","timezone_id":"Australia/Melbourne","localtime":"2025-05-11 11:00",
+       "localtime_epoch":1746961200,"utc_offset":"10.0"},
+       "current":{"observation_time":"01:00 AM","temperature":29,"weather_code":113,
+       "weather_descriptions":["Sunny"],"wind_speed":20,"wind_degree":200,"wind_dir":"SSW",
+       "pressure":1015,"precip":0,"humidity":40,"cloudcover":0,"feelslike":30,"uv_index":6,
+       "visibility":10,"is_day":"yes"}}
+      """;
+
+  private static final String OPENWEATHERMAP_JSON = """
+      {"coord":{"lon":144.9633,"lat":-37.814},"weather":[{"id":800,"main":"Clear",
+       "description":"clear sky","icon":"01d"}],"base":"stations","main":{"temp":29.0,
+       "feels_like":28.5,"temp_min":27.8,"temp_max":30.1,"pressure":1015,"humidity":40},
+       "visibility":10000,"wind":{"speed":5.56,"deg":200},"clouds":{"all":0},"dt":1746961200,
+       "sys":{"type":2,"id":2080970,"country":"AU","sunrise":1746911700,"sunset":1746948900},
+       "timezone":36000,"id":2158177,"name":"Melbourne","cod":200}
+      """;
+
+  private ObjectReader weatherStackReader;
+  private ObjectReader openWeatherMapReader;
+  private ObjectWriter weatherResponseWriter;
+  private byte[] weatherStackJson;
+  private byte[] openWeatherMapJson;
+  private WeatherResponse weatherResponse;
+  private CachedWeather cachedWeather;
+  private WeatherResponseEncoder weatherResponseEncoder;
+
+  /**
+   * Creates readers and writers configured like the application's codecs.
+   */
+  @Setup
+  public void setUp() {
+    ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    weatherStackReader = objectMapper.readerFor(WeatherStackResponse.class);
+    openWeatherMapReader = objectMapper.readerFor(OpenWeatherMapResponse.class);
+    weatherResponseWriter = objectMapper.writerFor(WeatherResponse.class);
+    weatherStackJson = WEATHERSTACK_JSON.getBytes(StandardCharsets.UTF_8);
+    openWeatherMapJson = OPENWEATHERMAP_JSON.getBytes(StandardCharsets.UTF_8);
+    weatherResponse = new WeatherResponse(20.0, 29.0);
+    weatherResponseEncoder = new WeatherResponseEncoder(objectMapper, false);
+    cachedWeather = new CachedWeather(weatherResponse, Instant.now());
+  }
+
+  /**
+   * Measures decoding a WeatherStack payload.
+   *
+   * @return The decoded response.
+   * @throws IOException if the payload cannot be decoded
+   */
+  @Benchmark
+  public WeatherStackResponse decodeWeatherStack() throws IOException {
+    return weatherStackReader.readValue(weatherStackJson);
+  }
+
+  /**
+   * Measures decoding an OpenWeatherMap payload.
+   *
+   * @return The decoded response.
+   * @throws IOException if the payload cannot be decoded
+   */
+  @Benchmark
+  public OpenWeatherMapResponse decodeOpenWeatherMap() throws IOException {
+    return openWeatherMapReader.readValue(openWeatherMapJson);
+  }
+
+  /**
+   * Measures encoding the response returned to clients.
+   *
+   * @return The encoded response.
+   * @throws IOException if the response cannot be encoded
+   */
+  @Benchmark
+  public byte[] encodeWeatherResponse() throws IOException {
+    return weatherResponseWriter.writeValueAsBytes(weatherResponse);
+  }
+
+  /**
+   * Measures reading the body memoized with a cache entry, as done on every cache hit.
+   *
+   * @return The encoded response.
+   */
+  @Benchmark
+  public byte[] memoizedWeatherResponse() {
+    return cachedWeather.getEncoded(weatherResponseEncoder).json();
+  }
+}
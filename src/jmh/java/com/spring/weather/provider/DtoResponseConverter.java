@@ -0,0 +1,56 @@
+package com.spring.weather.provider;
+
+import com.spring.weather.dto.OpenWeatherMapResponse;
+import com.spring.weather.dto.WeatherResponse;
+import com.spring.weather.dto.WeatherStackResponse;
+import com.spring.weather.exception.WeatherProviderException;
+import com.spring.weather.exception.WeatherStackApiException;
+
+/**
+ * The conversion of provider response DTOs into a {@link WeatherResponse} that the providers used before
+ * they decoded responses with {@link WeatherResponseDecoders}. Kept for benchmarks only, as the baseline the
+ * streaming decoders are compared against.
+ */
+final class DtoResponseConverter {
+
+  private DtoResponseConverter() {
+  }
+
+  /**
+   * Converts a WeatherStack response DTO.
+   *
+   * @param response The WeatherStack response.
+   * @return The converted WeatherResponse object.
+   * @throws WeatherStackApiException If the response is an API error.
+   * @throws WeatherProviderException If the response is missing the current weather data.
+   */
+  static WeatherResponse weatherStack(WeatherStackResponse response) {
+    if (response.getError() != null) {
+      throw new WeatherStackApiException(response.getError().getCode(), response.getError().getType(),
+          response.getError().getInfo());
+    }
+    if (response.getCurrent() == null) {
+      throw new WeatherProviderException("Invalid response from WeatherStack: missing current weather data");
+    }
+    return new WeatherResponse(response.getCurrent().getWindSpeed(), response.getCurrent().getTemperature());
+  }
+
+  /**
+   * Converts an OpenWeatherMap response DTO.
+   *
+   * @param response The OpenWeatherMap response.
+   * @return The converted WeatherResponse object.
+   * @throws WeatherStackApiException If the response is an API error.
+   * @throws WeatherProviderException If the response is missing the current weather data.
+   */
+  static WeatherResponse openWeatherMap(OpenWeatherMapResponse response) {
+    if (response.getError() != null) {
+      throw new WeatherStackApiException(response.getError().getCode(), response.getError().getType(),
+          response.getError().getInfo());
+    }
+    if (response.getMain() == null) {
+      throw new WeatherProviderException("Invalid response from OpenWeatherMap: missing current weather data");
+    }
+    return new WeatherResponse(response.getWind().getSpeed(), response.getMain().getTemp());
+  }
+}
@@ -0,0 +1,161 @@
+package com.spring.weather.provider;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.spring.weather.dto.OpenWeatherMapResponse;
+import com.spring.weather.dto.WeatherResponse;
+import com.spring.weather.dto.WeatherStackResponse;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigurationProperties;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Compares the per-request work of the provider I/O path before and after the lean request path: building the
+ * request URI with {@link UriComponentsBuilder} against the precomputed prefix, and binding the response to
+ * its DTO and converting it with {@link DtoResponseConverter} against the streaming decoders. Run with the GC
+ * profiler (the default of {@code ./gradlew jmh}) and compare {@code gc.alloc.rate.norm} of each pair for bytes
+ * allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProviderRequestBenchmark {
+
+  private static final String BASE_URL = "http://api.weatherstack.com";
+  private static final String API_KEY = "1ec7d23783baff1171adf8e4580fc342";
+  private static final String CITY = "Melbourne";
+
+  private static final String WEATHERSTACK_JSON = """
+      {"request":{"type":"City","query":"Melbourne, Australia","language":"en","unit":"m"},
+       "location":{"name":"Melbourne","country":"Australia","region":"Victoria","lat":"-37.817",
+       "lon":"144.967","timezone_id":"Australia/Melbourne","localtime":"2025-05-11 11:00",
+       "localtime_epoch":1746961200,"utc_offset":"10.0"},
+       "current":{"observation_time":"01:00 AM","temperature":29,"weather_code":113,
+       "weather_descriptions":["Sunny"],"wind_speed":20,"wind_degree":200,"wind_dir":"SSW",
+       "pressure":1015,"precip":0,"humidity":40,"cloudcover":0,"feelslike":30,"uv_index":6,
+       "visibility":10,"is_day":"yes"}}
+      """;
+
+  private static final String OPENWEATHERMAP_JSON = """
+      {"coord":{"lon":144.9633,"lat":-37.814},"weather":[{"id":800,"main":"Clear",
+       "description":"clear sky","icon":"01d"}],"base":"stations","main":{"temp":29.0,
+       "feels_like":28.5,"temp_min":27.8,"temp_max":30.1,"pressure":1015,"humidity":40},
+       "visibility":10000,"wind":{"speed":5.56,"deg":200},"clouds":{"all":0},"dt":1746961200,
+       "sys":{"type":2,"id":2080970,"country":"AU","sunrise":1746911700,"sunset":1746948900},
+       "timezone":36000,"id":2158177,"name":"Melbourne","cod":200}
+      """;
+
+  private WeatherStackProvider weatherStackProvider;
+  private ObjectReader weatherStackReader;
+  private ObjectReader openWeatherMapReader;
+  private byte[] weatherStackJson;
+  private byte[] openWeatherMapJson;
+
+  /**
+   * Creates the provider, the DTO readers and the payloads.
+   */
+  @Setup
+  public void setUp() {
+    ReactiveResilience4JCircuitBreakerFactory circuitBreakerFactory = new ReactiveResilience4JCircuitBreakerFactory(
+        CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(),
+        new Resilience4JConfigurationProperties());
+    WebClient webClient = WebClient.create();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    ProviderBudgets providerBudgets =
+        new ProviderBudgets(new StandardEnvironment(), Clock.systemUTC(), meterRegistry);
+    weatherStackProvider = new WeatherStackProvider(webClient, circuitBreakerFactory, API_KEY, BASE_URL,
+        meterRegistry, providerBudgets);
+
+    ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    weatherStackReader = objectMapper.readerFor(WeatherStackResponse.class);
+    openWeatherMapReader = objectMapper.readerFor(OpenWeatherMapResponse.class);
+    weatherStackJson = WEATHERSTACK_JSON.getBytes(StandardCharsets.UTF_8);
+    openWeatherMapJson = OPENWEATHERMAP_JSON.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Measures building the WeatherStack request URL with {@link UriComponentsBuilder}, as before.
+   *
+   * @return The request URL.
+   */
+  @Benchmark
+  public String weatherStackUriBuilder() {
+    return UriComponentsBuilder.fromHttpUrl(BASE_URL + "/current").queryParam("access_key", API_KEY)
+        .queryParam("query", CITY).build().toUriString();
+  }
+
+  /**
+   * Measures building the WeatherStack request URI from the precomputed prefix.
+   *
+   * @return The request URI.
+   */
+  @Benchmark
+  public URI weatherStackUriPrefix() {
+    return weatherStackProvider.uri(CITY);
+  }
+
+  /**
+   * Measures binding a WeatherStack payload to its DTO and converting it, as before.
+   *
+   * @return The converted response.
+   * @throws IOException if the payload cannot be decoded
+   */
+  @Benchmark
+  public WeatherResponse weatherStackDtoDecode() throws IOException {
+    return DtoResponseConverter.weatherStack(weatherStackReader.readValue(weatherStackJson));
+  }
+
+  /**
+   * Measures decoding a WeatherStack payload with the streaming decoder, including the buffer wrapping done
+   * for every response.
+   *
+   * @return The decoded response.
+   */
+  @Benchmark
+  public WeatherResponse weatherStackStreamingDecode() {
+    return WeatherResponseDecoders.decode(DefaultDataBufferFactory.sharedInstance.wrap(weatherStackJson),
+        WeatherResponseDecoders::weatherStack, "WeatherStack");
+  }
+
+  /**
+   * Measures binding an OpenWeatherMap payload to its DTO and converting it, as before.
+   *
+   * @return The converted response.
+   * @throws IOException if the payload cannot be decoded
+   */
+  @Benchmark
+  public WeatherResponse openWeatherMapDtoDecode() throws IOException {
+    return DtoResponseConverter.openWeatherMap(openWeatherMapReader.readValue(openWeatherMapJson));
+  }
+
+  /**
+   * Measures decoding an OpenWeatherMap payload with the streaming decoder.
+   *
+   * @return The decoded response.
+   */
+  @Benchmark
+  public WeatherResponse openWeatherMapStreamingDecode() {
+    return WeatherResponseDecoders.decode(DefaultDataBufferFactory.sharedInstance.wrap(openWeatherMapJson),
+        WeatherResponseDecoders::openWeatherMap, "OpenWeatherMap");
+  }
+}
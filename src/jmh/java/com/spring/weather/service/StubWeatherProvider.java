@@ -0,0 +1,49 @@
+package com.spring.weather.service;
+
+import com.spring.weather.dto.WeatherResponse;
+import com.spring.weather.exception.ExternalRequestException;
+import com.spring.weather.provider.WeatherProvider;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-memory weather provider for benchmarks. It either answers immediately with a fixed response or fails
+ * with an {@link ExternalRequestException}, which makes the service fail over to the next provider.
+ */
+class StubWeatherProvider implements WeatherProvider {
+
+  private final String name;
+  private final int priority;
+  private final boolean failing;
+  private final WeatherResponse response = new WeatherResponse(20.0, 29.0);
+
+  /**
+   * Constructs a new StubWeatherProvider.
+   *
+   * @param name The name of the provider.
+   * @param priority The priority of the provider.
+   * @param failing Whether every call fails with an {@link ExternalRequestException}.
+   */
+  StubWeatherProvider(String name, int priority, boolean failing) {
+    this.name = name;
+    this.priority = priority;
+    this.failing = failing;
+  }
+
+  @Override
+  public Mono<WeatherResponse> getWeatherData(String city) {
+    if (failing) {
+      return Mono.error(new ExternalRequestException("External Service Down error: Request failed"));
+    }
+    return Mono.just(response);
+  }
+
+  @Override
+  public String getProviderName() {
+    return name;
+  }
+
+  @Override
+  public int getPriority() {
+    return priority;
+  }
+}
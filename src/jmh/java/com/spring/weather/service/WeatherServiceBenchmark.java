@@ -0,0 +1,96 @@
+package com.spring.weather.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.weather.cache.CityGazetteer;
+import com.spring.weather.cache.CityKeyNormalizer;
+import com.spring.weather.cache.UnknownCityCache;
+import com.spring.weather.cache.WeatherCache;
+import com.spring.weather.dto.WeatherResponse;
+import com.spring.weather.factory.ProviderScoreboard;
+import com.spring.weather.factory.WeatherProviderFactory;
+import com.spring.weather.history.WeatherHistory;
+import com.spring.weather.history.WeatherHistoryRepository;
+import com.spring.weather.provider.WeatherProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Benchmarks the request hot path of {@link WeatherServiceImpl}: a cache hit through
+ * {@link WeatherServiceImpl#getWeatherData(String)} and the provider failover chain without the cache.
+ * Providers are in-memory stubs, so only the service, cache and Reactor overhead is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WeatherServiceBenchmark {
+
+  private static final int FRESH_TTL_SECONDS = 3600;
+
+  /**
+   * The number of providers failing before the one that answers.
+   */
+  @Param({"0", "1"})
+  public int failingProviders;
+
+  private WeatherServiceImpl weatherService;
+
+  /**
+   * Creates the service with stub providers and caches the benchmarked city.
+   */
+  @Setup
+  public void setUp() {
+    List<WeatherProvider> providers = List.of(
+        new StubWeatherProvider("Primary", 1, failingProviders > 0),
+        new StubWeatherProvider("Secondary", 2, false));
+    Clock clock = Clock.systemUTC();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    CityKeyNormalizer cityKeyNormalizer = new CityKeyNormalizer(true, 10_000);
+    CityGazetteer gazetteer = new CityGazetteer(new DefaultResourceLoader(), "", cityKeyNormalizer);
+    WeatherCache weatherCache = new WeatherCache(Caffeine.newBuilder().buildAsync(), clock, Optional.empty(), FRESH_TTL_SECONDS);
+    weatherService = new WeatherServiceImpl(
+        new WeatherProviderFactory(providers),
+        weatherCache,
+        new HedgingPolicy(false, 300, true, 0.1, 10, meterRegistry),
+        new ProviderScoreboard(clock, false, 10, 0.25, 10, 5000),
+        meterRegistry,
+        cityKeyNormalizer,
+        new UnknownCityCache(gazetteer, clock, meterRegistry, 3600, 10_000),
+        new AdaptiveConcurrencyLimiter(true, 20, 4, 200, 1.5, 1, meterRegistry),
+        new WeatherHistory(new WeatherHistoryRepository(new JdbcTemplate()), cityKeyNormalizer, clock, meterRegistry,
+            false, 1, 1, 1000, 7, 730, 2000));
+    weatherService.getWeatherData("Melbourne").block();
+  }
+
+  /**
+   * Measures a lookup served from a fresh cache entry.
+   *
+   * @return The cached weather data.
+   */
+  @Benchmark
+  public WeatherResponse cacheHit() {
+    return weatherService.getWeatherData("Melbourne").block();
+  }
+
+  /**
+   * Measures fetching through the provider chain, including failover when the primary provider fails.
+   *
+   * @return The weather data of the first provider that answers.
+   */
+  @Benchmark
+  public WeatherResponse providerFailoverChain() {
+    return weatherService.tryProviders("Melbourne").block();
+  }
+}
@@ -0,0 +1,51 @@
+package com.spring.weather.loadtest;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+/**
+ * Log-normal latency distribution described by its median and 99th percentile, which is how provider
+ * latency is usually reported and matches the long right tail of real upstream calls.
+ *
+ * @param median The median latency.
+ * @param p99 The 99th percentile latency, at least the median.
+ */
+public record LatencyDistribution(Duration median, Duration p99) {
+
+  private static final double Z_99 = 2.3263;
+
+  /**
+   * Creates a distribution from millisecond values.
+   *
+   * @param medianMillis The median latency in milliseconds.
+   * @param p99Millis The 99th percentile latency in milliseconds.
+   * @return The distribution.
+   */
+  public static LatencyDistribution ofMillis(long medianMillis, long p99Millis) {
+    return new LatencyDistribution(Duration.ofMillis(medianMillis), Duration.ofMillis(p99Millis));
+  }
+
+  /**
+   * Draws a latency from the distribution.
+   *
+   * @param random The random source.
+   * @return The latency in milliseconds.
+   */
+  public long sampleMillis(SplittableRandom random) {
+    double mu = Math.log(Math.max(1, median.toMillis()));
+    double sigma = Math.log((double) Math.max(p99.toMillis(), median.toMillis()) / Math.max(1, median.toMillis())) / Z_99;
+    return Math.round(Math.exp(mu + sigma * gaussian(random)));
+  }
+
+  /**
+   * Draws a standard normal value with the Box-Muller transform.
+   *
+   * @param random The random source.
+   * @return A normally distributed value with mean 0 and standard deviation 1.
+   */
+  private static double gaussian(SplittableRandom random) {
+    double u1 = 1.0 - random.nextDouble();
+    double u2 = random.nextDouble();
+    return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+  }
+}
@@ -0,0 +1,123 @@
+package com.spring.weather.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Open-model load generator: requests are started at a fixed arrival rate whether or not earlier requests have
+ * completed, and each latency is measured from the time the request was scheduled rather than sent. A slow
+ * service therefore shows up as higher latency instead of silently lowering the offered load.
+ */
+public class LoadGenerator implements AutoCloseable {
+
+  private static final int MAX_IN_FLIGHT = 8192;
+
+  private final ConnectionProvider connectionProvider;
+  private final WebClient webClient;
+  private final List<String> cities;
+  private final ZipfianGenerator zipf;
+  private final SplittableRandom random;
+  private final Duration requestTimeout;
+
+  /**
+   * Constructs a new LoadGenerator.
+   *
+   * @param baseUrl The base URL of the service under test.
+   * @param cities The cities to request, most popular first.
+   * @param zipfExponent The skew of the city popularity.
+   * @param seed The seed of the city sequence, so runs are repeatable.
+   * @param requestTimeout The time after which a request is counted as timed out.
+   */
+  public LoadGenerator(String baseUrl, List<String> cities, double zipfExponent, long seed, Duration requestTimeout) {
+    this.connectionProvider = ConnectionProvider.builder("loadtest")
+        .maxConnections(MAX_IN_FLIGHT)
+        .pendingAcquireMaxCount(-1)
+        .build();
+    this.webClient = WebClient.builder()
+        .baseUrl(baseUrl)
+        .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+        .build();
+    this.cities = List.copyOf(cities);
+    this.zipf = new ZipfianGenerator(cities.size(), zipfExponent);
+    this.random = new SplittableRandom(seed);
+    this.requestTimeout = requestTimeout;
+  }
+
+  /**
+   * Applies load for the given duration and waits for all requests to complete.
+   *
+   * @param rate The arrival rate in requests per second.
+   * @param duration How long requests are started for.
+   * @return The outcome of the run.
+   */
+  public LoadResult run(double rate, Duration duration) {
+    long total = (long) (rate * duration.toNanos() / 1e9);
+    if (total == 0) {
+      return new LoadResult(0, Map.of(), new long[0], Duration.ZERO);
+    }
+    long periodNanos = Math.max(1, Math.round(1e9 / rate));
+    long[] latencies = new long[(int) total];
+    AtomicInteger recorded = new AtomicInteger();
+    Map<String, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    long startNanos = System.nanoTime();
+
+    Flux.interval(Duration.ofNanos(periodNanos))
+        .take(total)
+        .onBackpressureBuffer()
+        .flatMap(i -> {
+          // Drawn on the interval thread, which emits sequentially, so the shared random stays consistent.
+          String city = cities.get(zipf.next(random));
+          long scheduledNanos = startNanos + (i + 1) * periodNanos;
+          return request(city).doOnNext(outcome -> {
+            latencies[recorded.getAndIncrement()] = System.nanoTime() - scheduledNanos;
+            statusCounts.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+          });
+        }, MAX_IN_FLIGHT)
+        .blockLast(duration.plus(requestTimeout).plusSeconds(10));
+
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+    long[] completed = Arrays.copyOf(latencies, recorded.get());
+    Arrays.sort(completed);
+    Map<String, Long> counts = new TreeMap<>();
+    statusCounts.forEach((status, count) -> counts.put(status, count.sum()));
+    return new LoadResult(total, counts, completed, elapsed);
+  }
+
+  /**
+   * Sends a single weather request and discards the body.
+   *
+   * @param city The city to request.
+   * @return A Mono emitting the outcome: the HTTP status code, {@code timeout} or {@code error}.
+   */
+  private Mono<String> request(String city) {
+    return webClient.get()
+        .uri(uri -> uri.path("/v1/weather").queryParam("city", city).build())
+        .exchangeToMono(response -> response.releaseBody()
+            .thenReturn(String.valueOf(response.statusCode().value())))
+        .timeout(requestTimeout)
+        .onErrorResume(TimeoutException.class, e -> Mono.just("timeout"))
+        .onErrorResume(e -> Mono.just("error"));
+  }
+
+  /**
+   * Closes the connections of the load generator.
+   */
+  @Override
+  public void close() {
+    connectionProvider.dispose();
+  }
+}
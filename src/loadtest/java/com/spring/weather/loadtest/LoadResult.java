@@ -0,0 +1,57 @@
+package com.spring.weather.loadtest;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Outcome of one load generator run.
+ *
+ * @param scheduled The number of requests scheduled by the arrival rate.
+ * @param statusCounts The number of completed requests per outcome: the HTTP status, or {@code error} and
+ *     {@code timeout} for requests without a response.
+ * @param latencyNanos The sorted latencies of all completed requests, measured from their scheduled start.
+ * @param elapsed The wall clock time from the first scheduled request to the last completion.
+ */
+public record LoadResult(long scheduled, Map<String, Long> statusCounts, long[] latencyNanos, Duration elapsed) {
+
+  /**
+   * Returns the number of requests answered with HTTP 200.
+   *
+   * @return The number of successful requests.
+   */
+  public long succeeded() {
+    return statusCounts.getOrDefault("200", 0L);
+  }
+
+  /**
+   * Returns the number of completed requests, successful or not.
+   *
+   * @return The number of latencies recorded.
+   */
+  public long completed() {
+    return latencyNanos.length;
+  }
+
+  /**
+   * Returns the completed requests per second.
+   *
+   * @return The achieved throughput.
+   */
+  public double throughput() {
+    return elapsed.isZero() ? 0 : completed() / (elapsed.toNanos() / 1e9);
+  }
+
+  /**
+   * Returns a latency percentile using the nearest rank method.
+   *
+   * @param percentile The percentile, between 0 and 1, e.g. 0.999.
+   * @return The latency, or zero if no request completed.
+   */
+  public Duration percentile(double percentile) {
+    if (latencyNanos.length == 0) {
+      return Duration.ZERO;
+    }
+    int rank = (int) Math.ceil(percentile * latencyNanos.length);
+    return Duration.ofNanos(latencyNanos[Math.max(0, Math.min(latencyNanos.length, rank) - 1)]);
+  }
+}
@@ -0,0 +1,95 @@
+package com.spring.weather.loadtest;
+
+import com.spring.weather.cache.WeatherCacheStats;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Summary of a measured load test run: throughput, latency percentiles, upstream calls per provider stand-in
+ * and the cache behaviour during the measured phase.
+ *
+ * @param scenario The scenario that was run.
+ * @param rate The offered arrival rate in requests per second.
+ * @param result The outcome of the measured phase.
+ * @param upstreamRequests The weather requests received by each stand-in during the measured phase.
+ * @param upstreamErrors The error responses returned by each stand-in during the measured phase.
+ * @param cache The cache counters accumulated during the measured phase.
+ */
+public record LoadTestReport(
+    Scenario scenario,
+    double rate,
+    LoadResult result,
+    Map<String, Long> upstreamRequests,
+    Map<String, Long> upstreamErrors,
+    WeatherCacheStats cache) {
+
+  /**
+   * Formats the report as plain text.
+   *
+   * @return The report.
+   */
+  public String format() {
+    StringBuilder report = new StringBuilder();
+    line(report, "Scenario", scenario.getKey() + " - " + scenario.getDescription());
+    line(report, "Offered rate", "%.1f req/s".formatted(rate));
+    line(report, "Throughput", "%.1f req/s over %.1fs".formatted(result.throughput(),
+        result.elapsed().toMillis() / 1000.0));
+    line(report, "Requests", "%d scheduled, %d completed, %d ok".formatted(result.scheduled(),
+        result.completed(), result.succeeded()));
+    line(report, "Outcomes", result.statusCounts().toString());
+    line(report, "Latency p50", millis(result.percentile(0.50)));
+    line(report, "Latency p99", millis(result.percentile(0.99)));
+    line(report, "Latency p999", millis(result.percentile(0.999)));
+    line(report, "Latency max", millis(result.percentile(1.0)));
+    upstreamRequests.forEach((name, count) -> line(report, "Upstream " + name,
+        "%d calls, %d errors".formatted(count, upstreamErrors.getOrDefault(name, 0L))));
+    line(report, "Cache hit ratio", "%.2f%%".formatted(cache.hitRatio() * 100));
+    line(report, "Cache lookups", "%d hit, %d stale, %d miss, %d coalesced".formatted(cache.hitCount(),
+        cache.staleHitCount(), cache.missCount(), cache.coalescedCount()));
+    return report.toString();
+  }
+
+  /**
+   * Appends an aligned label and value.
+   *
+   * @param report The report being built.
+   * @param label The label.
+   * @param value The value.
+   */
+  private static void line(StringBuilder report, String label, String value) {
+    report.append(String.format(Locale.ROOT, "%-26s %s%n", label + ":", value));
+  }
+
+  /**
+   * Formats a latency in milliseconds.
+   *
+   * @param latency The latency.
+   * @return The formatted latency.
+   */
+  private static String millis(Duration latency) {
+    return String.format(Locale.ROOT, "%.1f ms", latency.toNanos() / 1e6);
+  }
+
+  /**
+   * Subtracts two cache snapshots, so the report only covers the measured phase.
+   *
+   * @param after The counters at the end of the measured phase.
+   * @param before The counters at its start.
+   * @return The counters accumulated in between.
+   */
+  public static WeatherCacheStats delta(WeatherCacheStats after, WeatherCacheStats before) {
+    return new WeatherCacheStats(
+        after.hitCount() - before.hitCount(),
+        after.staleHitCount() - before.staleHitCount(),
+        after.missCount() - before.missCount(),
+        after.coalescedCount() - before.coalescedCount(),
+        after.loadSuccessCount() - before.loadSuccessCount(),
+        after.loadFailureCount() - before.loadFailureCount(),
+        after.revalidationSuccessCount() - before.revalidationSuccessCount(),
+        after.revalidationFailureCount() - before.revalidationFailureCount(),
+        after.refreshAheadIssuedCount() - before.refreshAheadIssuedCount(),
+        after.refreshAheadWastedCount() - before.refreshAheadWastedCount(),
+        after.lookupNanos() - before.lookupNanos());
+  }
+}
@@ -0,0 +1,187 @@
+package com.spring.weather.loadtest;
+
+import com.spring.weather.WeatherApplication;
+import com.spring.weather.cache.WeatherCache;
+import com.spring.weather.cache.WeatherCacheStats;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs an end-to-end load test: starts local stand-ins for WeatherStack and OpenWeatherMap, starts the service
+ * against them, applies Zipf distributed city traffic at a fixed arrival rate and prints a report.
+ *
+ * <p>Options are passed as {@code --name=value}: {@code scenario}, {@code rate} (requests per second),
+ * {@code duration}, {@code warmup}, {@code cities}, {@code zipf} (exponent), {@code seed}, {@code timeout},
+ * {@code profile} (e.g. {@code reactive}) and {@code out} (report directory). Any other option is passed to the
+ * service as an application property, e.g. {@code --weather.hedging.enabled=true}.
+ */
+public final class LoadTestRunner {
+
+  private static final long SCENARIO_TICK_MILLIS = 100;
+
+  /**
+   * Prevents instantiation.
+   */
+  private LoadTestRunner() {
+  }
+
+  /**
+   * Runs the load test.
+   *
+   * @param args The command line options.
+   * @throws Exception If the stand-ins or the service cannot be started, or the report cannot be written.
+   */
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = parse(args);
+    Scenario scenario = Scenario.fromKey(options.getOrDefault("scenario", Scenario.STEADY.getKey()));
+    double rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+    Duration duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "60s"));
+    Duration warmup = scenario.warmup(DurationStyle.detectAndParse(options.getOrDefault("warmup", "15s")));
+    Duration timeout = DurationStyle.detectAndParse(options.getOrDefault("timeout", "10s"));
+    int cityCount = Integer.parseInt(options.getOrDefault("cities", "1000"));
+    double zipfExponent = Double.parseDouble(options.getOrDefault("zipf", "1.0"));
+    long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+    Path out = Path.of(options.getOrDefault("out", "build/loadtest"));
+
+    try (ProviderStandIn primary = new ProviderStandIn("weatherstack", ProviderStandIn.Api.WEATHERSTACK, seed);
+        ProviderStandIn secondary = new ProviderStandIn("openweathermap", ProviderStandIn.Api.OPENWEATHERMAP,
+            seed + 1)) {
+      primary.start();
+      secondary.start();
+      scenario.apply(0, primary, secondary);
+
+      try (ConfigurableApplicationContext context = startService(options, primary, secondary);
+          LoadGenerator generator = new LoadGenerator(
+              "http://localhost:" + context.getEnvironment().getProperty("local.server.port"),
+              cities(cityCount), zipfExponent, seed, timeout)) {
+        WeatherCache cache = context.getBean(WeatherCache.class);
+        if (!warmup.isZero()) {
+          generator.run(rate, warmup);
+        }
+
+        WeatherCacheStats cacheBefore = cache.stats();
+        long primaryBefore = primary.requestCount();
+        long secondaryBefore = secondary.requestCount();
+        long primaryErrorsBefore = primary.errorCount();
+        long secondaryErrorsBefore = secondary.errorCount();
+
+        LoadResult result = runScenario(scenario, generator, rate, duration, primary, secondary);
+
+        Map<String, Long> upstreamRequests = new LinkedHashMap<>();
+        upstreamRequests.put(primary.getName(), primary.requestCount() - primaryBefore);
+        upstreamRequests.put(secondary.getName(), secondary.requestCount() - secondaryBefore);
+        Map<String, Long> upstreamErrors = new HashMap<>();
+        upstreamErrors.put(primary.getName(), primary.errorCount() - primaryErrorsBefore);
+        upstreamErrors.put(secondary.getName(), secondary.errorCount() - secondaryErrorsBefore);
+        LoadTestReport report = new LoadTestReport(scenario, rate, result, upstreamRequests, upstreamErrors,
+            LoadTestReport.delta(cache.stats(), cacheBefore));
+
+        String text = report.format();
+        System.out.print(text);
+        Files.createDirectories(out);
+        Files.writeString(out.resolve(scenario.getKey() + ".txt"), text);
+      }
+    }
+  }
+
+  /**
+   * Applies the measured load while a background task moves the stand-ins through the scenario.
+   *
+   * @param scenario The scenario to run.
+   * @param generator The load generator.
+   * @param rate The arrival rate in requests per second.
+   * @param duration The duration of the measured phase.
+   * @param primary The stand-in of the primary provider.
+   * @param secondary The stand-in of the secondary provider.
+   * @return The outcome of the measured phase.
+   */
+  private static LoadResult runScenario(Scenario scenario, LoadGenerator generator, double rate, Duration duration,
+      ProviderStandIn primary, ProviderStandIn secondary) {
+    ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+    long startNanos = System.nanoTime();
+    ticker.scheduleAtFixedRate(() -> {
+      double progress = (double) (System.nanoTime() - startNanos) / duration.toNanos();
+      scenario.apply(Math.min(1.0, progress), primary, secondary);
+    }, 0, SCENARIO_TICK_MILLIS, TimeUnit.MILLISECONDS);
+    try {
+      return generator.run(rate, duration);
+    } finally {
+      ticker.shutdownNow();
+    }
+  }
+
+  /**
+   * Starts the service on a random port, pointed at the stand-ins.
+   *
+   * @param options The command line options; unknown options are passed on as application properties.
+   * @param primary The stand-in of WeatherStack.
+   * @param secondary The stand-in of OpenWeatherMap.
+   * @return The running application context.
+   */
+  private static ConfigurableApplicationContext startService(Map<String, String> options, ProviderStandIn primary,
+      ProviderStandIn secondary) {
+    List<String> properties = new ArrayList<>(List.of(
+        "server.port=0",
+        "weatherstack.api.url=" + primary.baseUrl("/"),
+        "weatherstack.api.key=loadtest",
+        "openweathermap.api.url=" + secondary.baseUrl("/data/2.5"),
+        "openweathermap.api.key=loadtest",
+        "logging.level.root=WARN"));
+    options.forEach((name, value) -> {
+      if (name.contains(".")) {
+        properties.add(name + "=" + value);
+      }
+    });
+    SpringApplicationBuilder builder = new SpringApplicationBuilder(WeatherApplication.class)
+        .properties(properties.toArray(String[]::new));
+    if (options.containsKey("profile")) {
+      builder.profiles(options.get("profile"));
+    }
+    return builder.run();
+  }
+
+  /**
+   * Returns the synthetic city names, ordered by popularity rank.
+   *
+   * @param count The number of cities.
+   * @return The city names.
+   */
+  private static List<String> cities(int count) {
+    List<String> cities = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      cities.add("city-" + i);
+    }
+    return cities;
+  }
+
+  /**
+   * Parses {@code --name=value} options.
+   *
+   * @param args The command line arguments.
+   * @return The options by name.
+   * @throws IllegalArgumentException If an argument is not of the form {@code --name=value}.
+   */
+  private static Map<String, String> parse(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      if (!arg.startsWith("--") || separator < 0) {
+        throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+      }
+      options.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+    return options;
+  }
+}
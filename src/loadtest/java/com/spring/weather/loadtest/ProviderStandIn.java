@@ -0,0 +1,197 @@
+package com.spring.weather.loadtest;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Local stand-in for a weather provider API, serving canned responses from a {@link MockWebServer} with a
+ * configurable latency distribution and error rate. The behaviour can be changed while the load test runs,
+ * which is how scenarios simulate brownouts and outages.
+ */
+public class ProviderStandIn implements AutoCloseable {
+
+  /**
+   * Latency and failure behaviour of a stand-in.
+   *
+   * @param latency The latency distribution of successful and failed responses.
+   * @param errorRate The share of requests answered with the provider's error response, between 0 and 1.
+   */
+  public record Behaviour(LatencyDistribution latency, double errorRate) {
+
+    /**
+     * A healthy provider: fast, with a moderate tail and no errors.
+     */
+    public static final Behaviour HEALTHY = new Behaviour(LatencyDistribution.ofMillis(40, 150), 0.0);
+
+    /**
+     * A provider that is down: every request fails quickly.
+     */
+    public static final Behaviour DOWN = new Behaviour(LatencyDistribution.ofMillis(5, 20), 1.0);
+  }
+
+  /**
+   * The kind of provider API a stand-in imitates.
+   */
+  public enum Api {
+    /**
+     * WeatherStack: errors are HTTP 200 responses carrying error code 615, which the service fails over on.
+     */
+    WEATHERSTACK("{\"current\":{\"temperature\":%d,\"wind_speed\":%d}}",
+        "{\"success\":false,\"error\":{\"code\":615,\"type\":\"request_failed\",\"info\":\"Stand-in failure\"}}", 200),
+
+    /**
+     * OpenWeatherMap: errors are HTTP 503 responses.
+     */
+    OPENWEATHERMAP("{\"main\":{\"temp\":%d},\"wind\":{\"speed\":%d}}",
+        "{\"cod\":503,\"message\":\"Stand-in failure\"}", 503);
+
+    private final String successBody;
+    private final String errorBody;
+    private final int errorStatus;
+
+    /**
+     * Constructs a new Api.
+     *
+     * @param successBody The format of a successful response body, taking temperature and wind speed.
+     * @param errorBody The body of an error response.
+     * @param errorStatus The HTTP status of an error response.
+     */
+    Api(String successBody, String errorBody, int errorStatus) {
+      this.successBody = successBody;
+      this.errorBody = errorBody;
+      this.errorStatus = errorStatus;
+    }
+  }
+
+  private final String name;
+  private final Api api;
+  private final MockWebServer server = new MockWebServer();
+  private final SplittableRandom seed;
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private volatile Behaviour behaviour = Behaviour.HEALTHY;
+
+  /**
+   * Constructs a new ProviderStandIn.
+   *
+   * @param name The name of the stand-in, used in the report.
+   * @param api The provider API to imitate.
+   * @param seed The seed of the latency and error sampling, so runs are repeatable.
+   */
+  public ProviderStandIn(String name, Api api, long seed) {
+    this.name = name;
+    this.api = api;
+    this.seed = new SplittableRandom(seed);
+    server.setDispatcher(new StandInDispatcher());
+  }
+
+  /**
+   * Starts the stand-in on a free local port.
+   *
+   * @throws IOException If the server cannot be started.
+   */
+  public void start() throws IOException {
+    server.start();
+  }
+
+  /**
+   * Returns the base URL the service should be pointed at.
+   *
+   * @param path The path prefix of the provider API, e.g. {@code /data/2.5}.
+   * @return The base URL without a trailing slash.
+   */
+  public String baseUrl(String path) {
+    String url = server.url(path).toString();
+    return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+  }
+
+  /**
+   * Changes the latency and failure behaviour of subsequent requests.
+   *
+   * @param behaviour The new behaviour.
+   */
+  public void setBehaviour(Behaviour behaviour) {
+    this.behaviour = behaviour;
+  }
+
+  /**
+   * Returns the name of the stand-in.
+   *
+   * @return The name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the number of weather requests received, excluding connection warm-up requests.
+   *
+   * @return The number of weather requests.
+   */
+  public long requestCount() {
+    return requests.sum();
+  }
+
+  /**
+   * Returns the number of weather requests answered with an error.
+   *
+   * @return The number of error responses.
+   */
+  public long errorCount() {
+    return errors.sum();
+  }
+
+  /**
+   * Stops the stand-in.
+   *
+   * @throws IOException If the server cannot be stopped.
+   */
+  @Override
+  public void close() throws IOException {
+    server.shutdown();
+  }
+
+  /**
+   * Returns a random source for one request. {@link SplittableRandom} is not thread safe, so each request gets
+   * its own split of the seeded generator.
+   *
+   * @return A random source.
+   */
+  private synchronized SplittableRandom nextRandom() {
+    return seed.split();
+  }
+
+  /**
+   * Answers requests according to the current behaviour. The latency is applied as a header delay, so it is
+   * observed by the client as time to first byte.
+   */
+  private final class StandInDispatcher extends Dispatcher {
+
+    /**
+     * Builds the response to a single request.
+     */
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+      if ("HEAD".equals(request.getMethod())) {
+        return new MockResponse().setResponseCode(200);
+      }
+      requests.increment();
+      Behaviour current = behaviour;
+      SplittableRandom random = nextRandom();
+      MockResponse response = new MockResponse()
+          .addHeader("Content-Type", "application/json")
+          .setHeadersDelay(current.latency().sampleMillis(random), TimeUnit.MILLISECONDS);
+      if (random.nextDouble() < current.errorRate()) {
+        errors.increment();
+        return response.setResponseCode(api.errorStatus).setBody(api.errorBody);
+      }
+      return response.setBody(api.successBody.formatted(random.nextInt(-5, 40), random.nextInt(0, 60)));
+    }
+  }
+}
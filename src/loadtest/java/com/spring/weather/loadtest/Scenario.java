@@ -0,0 +1,139 @@
+package com.spring.weather.loadtest;
+
+import com.spring.weather.loadtest.ProviderStandIn.Behaviour;
+import java.time.Duration;
+
+/**
+ * Named load test scenarios. Each scenario decides whether the service is warmed up before measuring and how
+ * the provider stand-ins behave over the course of the measured run.
+ */
+public enum Scenario {
+
+  /**
+   * Both providers stay healthy; the baseline the other scenarios are compared against.
+   */
+  STEADY("steady", "Both providers healthy for the whole run", true) {
+    @Override
+    void apply(double progress, ProviderStandIn primary, ProviderStandIn secondary) {
+      primary.setBehaviour(Behaviour.HEALTHY);
+      secondary.setBehaviour(Behaviour.HEALTHY);
+    }
+  },
+
+  /**
+   * The primary provider becomes slow and partially failing for the middle half of the run, then recovers.
+   */
+  PRIMARY_BROWNOUT("primary-brownout",
+      "Primary slow (p50 400ms, p99 2.5s) with 30% errors from 25% to 75% of the run", true) {
+    @Override
+    void apply(double progress, ProviderStandIn primary, ProviderStandIn secondary) {
+      primary.setBehaviour(inWindow(progress) ? BROWNOUT : Behaviour.HEALTHY);
+      secondary.setBehaviour(Behaviour.HEALTHY);
+    }
+  },
+
+  /**
+   * Both providers fail every request for the middle half of the run, so only stale cache entries can be served.
+   */
+  FULL_OUTAGE("full-outage", "Both providers down from 25% to 75% of the run", true) {
+    @Override
+    void apply(double progress, ProviderStandIn primary, ProviderStandIn secondary) {
+      Behaviour behaviour = inWindow(progress) ? Behaviour.DOWN : Behaviour.HEALTHY;
+      primary.setBehaviour(behaviour);
+      secondary.setBehaviour(behaviour);
+    }
+  },
+
+  /**
+   * Both providers healthy, but the measurement starts on an empty cache without a warm-up phase.
+   */
+  COLD_START("cold-start", "Both providers healthy, measured from the first request on an empty cache", false) {
+    @Override
+    void apply(double progress, ProviderStandIn primary, ProviderStandIn secondary) {
+      primary.setBehaviour(Behaviour.HEALTHY);
+      secondary.setBehaviour(Behaviour.HEALTHY);
+    }
+  };
+
+  private static final Behaviour BROWNOUT = new Behaviour(LatencyDistribution.ofMillis(400, 2500), 0.3);
+
+  private final String key;
+  private final String description;
+  private final boolean warmedUp;
+
+  /**
+   * Constructs a new Scenario.
+   *
+   * @param key The name used to select the scenario on the command line.
+   * @param description A short description printed in the report.
+   * @param warmedUp Whether load is applied for the warm-up duration before measuring.
+   */
+  Scenario(String key, String description, boolean warmedUp) {
+    this.key = key;
+    this.description = description;
+    this.warmedUp = warmedUp;
+  }
+
+  /**
+   * Sets the behaviour of the stand-ins for the given point of the measured run.
+   *
+   * @param progress The elapsed share of the measured run, between 0 and 1.
+   * @param primary The stand-in of the primary provider.
+   * @param secondary The stand-in of the secondary provider.
+   */
+  abstract void apply(double progress, ProviderStandIn primary, ProviderStandIn secondary);
+
+  /**
+   * Returns the warm-up duration to use for this scenario.
+   *
+   * @param requested The warm-up duration requested on the command line.
+   * @return The requested duration, or zero if the scenario measures from a cold start.
+   */
+  public Duration warmup(Duration requested) {
+    return warmedUp ? requested : Duration.ZERO;
+  }
+
+  /**
+   * Returns the name used to select the scenario on the command line.
+   *
+   * @return The scenario key.
+   */
+  public String getKey() {
+    return key;
+  }
+
+  /**
+   * Returns a short description of the scenario.
+   *
+   * @return The description.
+   */
+  public String getDescription() {
+    return description;
+  }
+
+  /**
+   * Looks up a scenario by its key.
+   *
+   * @param key The scenario key, e.g. {@code primary-brownout}.
+   * @return The scenario.
+   * @throws IllegalArgumentException If no scenario has the given key.
+   */
+  public static Scenario fromKey(String key) {
+    for (Scenario scenario : values()) {
+      if (scenario.key.equalsIgnoreCase(key)) {
+        return scenario;
+      }
+    }
+    throw new IllegalArgumentException("Unknown scenario: " + key);
+  }
+
+  /**
+   * Returns whether the run is inside the disturbed middle half.
+   *
+   * @param progress The elapsed share of the measured run.
+   * @return True between 25% and 75% of the run.
+   */
+  private static boolean inWindow(double progress) {
+    return progress >= 0.25 && progress < 0.75;
+  }
+}
@@ -0,0 +1,217 @@
+package com.spring.weather.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Measures how long the packaged service takes to become useful: the time from launching the JVM to the first
+ * successful {@code /v1/weather} response, per startup variant. Every run starts a fresh JVM against local
+ * provider stand-ins that answer within a few milliseconds, so provider latency does not hide startup time.
+ *
+ * <p>Variants: {@code jar} runs the boot jar; {@code aot} runs it with {@code -Dspring.aot.enabled=true},
+ * which needs a jar built with {@code -Paot}; {@code cds} runs the extracted jar with the class data sharing
+ * archive, and {@code aot-cds} combines both.
+ *
+ * <p>Options are passed as {@code --name=value}: {@code jar}, {@code cds-jar}, {@code cds-archive},
+ * {@code variants} (comma separated), {@code runs}, {@code timeout} and {@code out} (report directory).
+ */
+public final class StartupBenchmark {
+
+  private static final String CITY = "melbourne";
+  private static final long POLL_INTERVAL_MILLIS = 5;
+  private static final ProviderStandIn.Behaviour FAST = new ProviderStandIn.Behaviour(
+      LatencyDistribution.ofMillis(1, 2), 0.0);
+
+  /**
+   * Prevents instantiation.
+   */
+  private StartupBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args The command line options.
+   * @throws Exception If the stand-ins cannot be started, a run does not become ready in time or the report
+   *     cannot be written.
+   */
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = parse(args);
+    List<String> variants = Arrays.asList(options.getOrDefault("variants", "jar,cds").split(","));
+    int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+    Duration timeout = DurationStyle.detectAndParse(options.getOrDefault("timeout", "60s"));
+    Path out = Path.of(options.getOrDefault("out", "build/startup"));
+    Files.createDirectories(out);
+
+    Map<String, List<Duration>> results = new LinkedHashMap<>();
+    try (ProviderStandIn primary = new ProviderStandIn("weatherstack", ProviderStandIn.Api.WEATHERSTACK, 42);
+        ProviderStandIn secondary = new ProviderStandIn("openweathermap", ProviderStandIn.Api.OPENWEATHERMAP,
+            43)) {
+      primary.setBehaviour(FAST);
+      secondary.setBehaviour(FAST);
+      primary.start();
+      secondary.start();
+      HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+      for (String variant : variants) {
+        List<Duration> times = new ArrayList<>(runs);
+        for (int run = 0; run < runs; run++) {
+          Duration time = measure(client, command(variant, options, primary, secondary), timeout,
+              out.resolve(variant + "-" + run + ".log"));
+          System.out.printf(Locale.ROOT, "%-8s run %d: %d ms%n", variant, run + 1, time.toMillis());
+          times.add(time);
+        }
+        results.put(variant, times);
+      }
+    }
+
+    String report = format(results);
+    System.out.print(report);
+    Files.writeString(out.resolve("startup.txt"), report);
+  }
+
+  /**
+   * Launches the service and waits for its first successful weather response.
+   *
+   * @param client The client polling the service.
+   * @param command The command launching the service, with the port as last argument still to be added.
+   * @param timeout How long to wait for the first response.
+   * @param log The file receiving the output of the service.
+   * @return The time from launching the JVM to the first successful response.
+   * @throws Exception If the service exits or does not answer in time.
+   */
+  private static Duration measure(HttpClient client, List<String> command, Duration timeout, Path log)
+      throws Exception {
+    int port = freePort();
+    List<String> arguments = new ArrayList<>(command);
+    arguments.add("--server.port=" + port);
+    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v1/weather?city=" + CITY))
+        .timeout(Duration.ofSeconds(5))
+        .build();
+
+    long startNanos = System.nanoTime();
+    Process process = new ProcessBuilder(arguments)
+        .redirectErrorStream(true)
+        .redirectOutput(log.toFile())
+        .start();
+    try {
+      while (System.nanoTime() - startNanos < timeout.toNanos()) {
+        if (!process.isAlive()) {
+          throw new IllegalStateException("Service exited with " + process.exitValue() + ", see " + log);
+        }
+        try {
+          if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+            return Duration.ofNanos(System.nanoTime() - startNanos);
+          }
+        } catch (IOException e) {
+          // Not listening yet.
+        }
+        Thread.sleep(POLL_INTERVAL_MILLIS);
+      }
+      throw new IllegalStateException("Service did not answer within " + timeout + ", see " + log);
+    } finally {
+      process.destroy();
+      if (!process.waitFor(10, TimeUnit.SECONDS)) {
+        process.destroyForcibly();
+      }
+    }
+  }
+
+  /**
+   * Builds the command launching a variant against the stand-ins.
+   *
+   * @param variant The startup variant.
+   * @param options The command line options holding the jar and archive locations.
+   * @param primary The stand-in of WeatherStack.
+   * @param secondary The stand-in of OpenWeatherMap.
+   * @return The command.
+   * @throws IllegalArgumentException If the variant is unknown.
+   */
+  private static List<String> command(String variant, Map<String, String> options, ProviderStandIn primary,
+      ProviderStandIn secondary) {
+    List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    switch (variant) {
+      case "jar" -> command.addAll(List.of("-jar", options.get("jar")));
+      case "aot" -> command.addAll(List.of("-Dspring.aot.enabled=true", "-jar", options.get("jar")));
+      case "cds" -> command.addAll(List.of("-XX:SharedArchiveFile=" + options.get("cds-archive"),
+          "-jar", options.get("cds-jar")));
+      case "aot-cds" -> command.addAll(List.of("-XX:SharedArchiveFile=" + options.get("cds-archive"),
+          "-Dspring.aot.enabled=true", "-jar", options.get("cds-jar")));
+      default -> throw new IllegalArgumentException("Unknown startup variant: " + variant);
+    }
+    command.addAll(List.of(
+        "--weatherstack.api.url=" + primary.baseUrl("/"),
+        "--weatherstack.api.key=startup",
+        "--openweathermap.api.url=" + secondary.baseUrl("/data/2.5"),
+        "--openweathermap.api.key=startup",
+        "--weather.cache.snapshot.enabled=false"));
+    return command;
+  }
+
+  /**
+   * Formats the times of every variant as plain text.
+   *
+   * @param results The times of each run, by variant.
+   * @return The report.
+   */
+  private static String format(Map<String, List<Duration>> results) {
+    StringBuilder report = new StringBuilder();
+    report.append(String.format(Locale.ROOT, "%nTime to first successful /v1/weather response%n"));
+    report.append(String.format(Locale.ROOT, "%-8s %5s %8s %8s %8s%n", "Variant", "Runs", "Min", "Median",
+        "Max"));
+    results.forEach((variant, times) -> {
+      long[] millis = times.stream().mapToLong(Duration::toMillis).sorted().toArray();
+      report.append(String.format(Locale.ROOT, "%-8s %5d %6dms %6dms %6dms%n", variant, millis.length,
+          millis[0], millis[millis.length / 2], millis[millis.length - 1]));
+    });
+    return report.toString();
+  }
+
+  /**
+   * Finds a free local port.
+   *
+   * @return The port.
+   * @throws IOException If no port can be bound.
+   */
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  /**
+   * Parses {@code --name=value} options.
+   *
+   * @param args The command line arguments.
+   * @return The options by name.
+   * @throws IllegalArgumentException If an argument is not of the form {@code --name=value}.
+   */
+  private static Map<String, String> parse(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      if (!arg.startsWith("--") || separator < 0) {
+        throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+      }
+      options.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+    return options;
+  }
+}
@@ -0,0 +1,51 @@
+package com.spring.weather.loadtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * Draws city ranks from a Zipf distribution, so a few cities receive most of the traffic as in production.
+ * The cumulative distribution is precomputed and sampled with a binary search.
+ */
+public class ZipfianGenerator {
+
+  private final double[] cumulative;
+
+  /**
+   * Constructs a new ZipfianGenerator.
+   *
+   * @param items The number of distinct items.
+   * @param exponent The skew of the distribution; 0 is uniform, around 1 is typical for popularity.
+   */
+  public ZipfianGenerator(int items, double exponent) {
+    cumulative = new double[items];
+    double sum = 0;
+    for (int rank = 1; rank <= items; rank++) {
+      sum += 1.0 / Math.pow(rank, exponent);
+      cumulative[rank - 1] = sum;
+    }
+    for (int i = 0; i < items; i++) {
+      cumulative[i] /= sum;
+    }
+  }
+
+  /**
+   * Draws an item.
+   *
+   * @param random The random source.
+   * @return The zero based index of the item, where 0 is the most popular.
+   */
+  public int next(SplittableRandom random) {
+    double u = random.nextDouble();
+    int low = 0;
+    int high = cumulative.length - 1;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (cumulative[mid] < u) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
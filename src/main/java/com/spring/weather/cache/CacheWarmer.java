@@ -0,0 +1,287 @@
+package com.spring.weather.cache;
+
+import com.spring.weather.service.WeatherService;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Loads the most requested cities into the weather cache after startup, so their first requests do not wait
+ * on the providers.
+ *
+ * <p>The cities come from {@code weather.warmup.cities}, a comma separated list, followed by the file at
+ * {@code weather.warmup.location}, one city per line with blank lines and lines starting with {@code #}
+ * ignored. Both are read most popular first and only the first {@code weather.warmup.max.cities} distinct cities
+ * are loaded. Cities that already have a fresh entry, e.g. restored from a snapshot, and cities the
+ * {@link UnknownCityCache} rejects, e.g. misspellings missing from the gazetteer, are skipped.
+ *
+ * <p>Each city is loaded through {@link WeatherService#refreshWeatherData(String)}, i.e. the provider failover
+ * order of the factory, as background work that the provider budgets may refuse. Loads run with bounded
+ * concurrency and are started at no more than the configured rate, so the warm-up neither trips the circuit
+ * breakers nor burns the provider quota; after a number of consecutive failures the warm-up stops, since the
+ * providers are then unlikely to answer the remaining cities either. Progress is reported by the
+ * {@link CacheWarmupHealthIndicator}, which can hold readiness back until a fraction of the cities is warm.
+ */
+@Slf4j
+@Component
+@Order(WeatherCacheSnapshots.ORDER + 1)
+public class CacheWarmer implements ApplicationRunner {
+
+  private static final String COMMENT = "#";
+
+  private final WeatherService weatherService;
+  private final WeatherCache weatherCache;
+  private final UnknownCityCache unknownCityCache;
+  private final CityKeyNormalizer cityKeyNormalizer;
+  private final boolean enabled;
+  private final List<String> cities;
+  private final int concurrency;
+  private final Duration interval;
+  private final int maxConsecutiveFailures;
+  private final double readinessFraction;
+
+  private final AtomicInteger warmCount = new AtomicInteger();
+  private final AtomicInteger failureCount = new AtomicInteger();
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+  private volatile boolean finished;
+  private Disposable task;
+
+  /**
+   * Constructs a new CacheWarmer, reading the configured city list.
+   *
+   * @param weatherService The service the cities are loaded through.
+   * @param weatherCache The cache checked for entries that are already fresh.
+   * @param unknownCityCache The cache of cities known not to exist, checked before a city is loaded.
+   * @param cityKeyNormalizer The normalizer used to tell apart spellings of the same city.
+   * @param resourceLoader The loader used to resolve the city file.
+   * @param enabled Whether the warm-up runs.
+   * @param cities The cities to load, most popular first.
+   * @param location The location of a file listing further cities, or an empty string for none.
+   * @param maxCities The maximum number of distinct cities loaded.
+   * @param concurrency The maximum number of loads running at once.
+   * @param ratePerSecond The maximum number of loads started per second, or 0 for no limit.
+   * @param maxConsecutiveFailures The number of consecutive failed loads after which the warm-up stops.
+   * @param readinessFraction The fraction of the cities that must be warm before the instance reports ready,
+   *     or 0 to report ready without waiting.
+   * @throws IllegalStateException If a location is configured but the file does not exist.
+   */
+  public CacheWarmer(
+      WeatherService weatherService,
+      WeatherCache weatherCache,
+      UnknownCityCache unknownCityCache,
+      CityKeyNormalizer cityKeyNormalizer,
+      ResourceLoader resourceLoader,
+      @Value("${weather.warmup.enabled:false}") boolean enabled,
+      @Value("${weather.warmup.cities:}") List<String> cities,
+      @Value("${weather.warmup.location:}") String location,
+      @Value("${weather.warmup.max.cities:100}") int maxCities,
+      @Value("${weather.warmup.concurrency:4}") int concurrency,
+      @Value("${weather.warmup.rate.per.second:10}") double ratePerSecond,
+      @Value("${weather.warmup.max.consecutive.failures:5}") int maxConsecutiveFailures,
+      @Value("${weather.warmup.readiness.fraction:0}") double readinessFraction) {
+    this.weatherService = weatherService;
+    this.weatherCache = weatherCache;
+    this.unknownCityCache = unknownCityCache;
+    this.cityKeyNormalizer = cityKeyNormalizer;
+    this.enabled = enabled;
+    this.cities = enabled ? topCities(cities, resourceLoader, location, maxCities, cityKeyNormalizer) : List.of();
+    this.concurrency = concurrency;
+    this.interval = ratePerSecond > 0 ? Duration.ofNanos((long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond))
+        : Duration.ZERO;
+    this.maxConsecutiveFailures = maxConsecutiveFailures;
+    this.readinessFraction = enabled ? readinessFraction : 0;
+    this.finished = !enabled;
+  }
+
+  /**
+   * Starts the warm-up in the background; startup does not wait for it.
+   *
+   * @param args The application arguments.
+   */
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!enabled) {
+      return;
+    }
+    log.info("Warming up the cache with {} cities, {} at a time", cities.size(), concurrency);
+    task = warmUp().subscribe();
+  }
+
+  /**
+   * Loads every listed city that is not fresh in the cache yet and not known to be unknown. A city only counts as
+   * warm once its load returned an entry, not when it found a reload already running.
+   *
+   * @return A Mono completing when every city was loaded or the warm-up stopped.
+   */
+  Mono<Void> warmUp() {
+    long startNanos = System.nanoTime();
+    Flux<String> due = Flux.fromIterable(cities)
+        .filter(city -> {
+          String cacheKey = cityKeyNormalizer.normalize(city);
+          CachedWeather cached = weatherCache.getIfPresent(cacheKey);
+          if (cached != null && weatherCache.isFresh(cached)) {
+            warmCount.incrementAndGet();
+            return false;
+          }
+          if (unknownCityCache.isUnknown(cacheKey)) {
+            log.warn("Skipping unknown city {} in the cache warm-up list", city);
+            return false;
+          }
+          return true;
+        });
+    if (!interval.isZero()) {
+      due = due.delayElements(interval);
+    }
+    return due
+        .takeWhile(city -> consecutiveFailures.get() < maxConsecutiveFailures)
+        .flatMap(city -> weatherService.refreshWeatherData(city)
+            .doOnNext(cached -> {
+              warmCount.incrementAndGet();
+              consecutiveFailures.set(0);
+            })
+            .onErrorResume(e -> {
+              failureCount.incrementAndGet();
+              consecutiveFailures.incrementAndGet();
+              log.warn("Cache warm-up failed for {}: {}", city, e.getMessage());
+              return Mono.empty();
+            }), concurrency)
+        .then()
+        .doFinally(signal -> {
+          finished = true;
+          log.info("Cache warm-up finished: {} of {} cities warm, {} failed in {} ms", warmCount.get(),
+              cities.size(), failureCount.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        });
+  }
+
+  /**
+   * Stops a running warm-up.
+   */
+  @PreDestroy
+  public void stop() {
+    if (task != null) {
+      task.dispose();
+    }
+  }
+
+  /**
+   * Returns whether enough of the cities are warm for the instance to serve traffic. This is the case once the
+   * warm-up has finished, whatever its outcome, so a provider outage at startup does not keep the instance out
+   * of service.
+   *
+   * @return True if the warm-up is disabled or finished, or the readiness fraction of the cities is warm.
+   */
+  public boolean isReady() {
+    return finished || cities.isEmpty() || (double) warmCount.get() / cities.size() >= readinessFraction;
+  }
+
+  /**
+   * Returns whether the warm-up has finished.
+   *
+   * @return True if the warm-up is disabled, or every city was loaded or the warm-up stopped.
+   */
+  public boolean isFinished() {
+    return finished;
+  }
+
+  /**
+   * Returns the number of distinct cities to warm up.
+   *
+   * @return The number of cities.
+   */
+  public int getCityCount() {
+    return cities.size();
+  }
+
+  /**
+   * Returns the number of cities that are warm, loaded by the warm-up or fresh before it.
+   *
+   * @return The number of warm cities.
+   */
+  public int getWarmCount() {
+    return warmCount.get();
+  }
+
+  /**
+   * Returns the number of cities whose load failed.
+   *
+   * @return The number of failed cities.
+   */
+  public int getFailureCount() {
+    return failureCount.get();
+  }
+
+  /**
+   * Returns the fraction of the cities that must be warm before the instance reports ready.
+   *
+   * @return The fraction between 0 and 1.
+   */
+  public double getReadinessFraction() {
+    return readinessFraction;
+  }
+
+  /**
+   * Reads the configured cities and keeps the first of each canonical key, up to the maximum.
+   *
+   * @param cities The cities listed in the properties.
+   * @param resourceLoader The loader used to resolve the city file.
+   * @param location The location of the city file, or an empty string for none.
+   * @param maxCities The maximum number of cities kept.
+   * @param cityKeyNormalizer The normalizer the cities are compared with.
+   * @return The distinct cities, most popular first.
+   */
+  private static List<String> topCities(List<String> cities, ResourceLoader resourceLoader, String location,
+      int maxCities, CityKeyNormalizer cityKeyNormalizer) {
+    List<String> listed = new ArrayList<>(cities);
+    if (!location.isBlank()) {
+      Resource resource = resourceLoader.getResource(location);
+      if (!resource.exists()) {
+        throw new IllegalStateException("Warm-up city list not found: " + location);
+      }
+      try (BufferedReader reader = new BufferedReader(
+          new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (!line.isBlank() && !line.startsWith(COMMENT)) {
+            listed.add(line);
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to read warm-up city list " + resource.getDescription(), e);
+      }
+    }
+
+    Set<String> keys = new LinkedHashSet<>();
+    List<String> top = new ArrayList<>();
+    for (String city : listed) {
+      String trimmed = city.trim();
+      if (top.size() >= maxCities) {
+        break;
+      }
+      if (!trimmed.isEmpty() && keys.add(cityKeyNormalizer.normalize(trimmed))) {
+        top.add(trimmed);
+      }
+    }
+    return top;
+  }
+}
@@ -0,0 +1,35 @@
+package com.spring.weather.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the progress of the {@link CacheWarmer} under the {@code cacheWarmup} health component.
+ * The component is out of service until the configured fraction of the warm-up cities is warm or the warm-up
+ * has finished, so including it in the readiness group keeps traffic away from an instance with a cold cache.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+  private final CacheWarmer cacheWarmer;
+
+  /**
+   * Reports whether enough cities are warm, with the warm-up counters as details.
+   *
+   * @return UP once the warm-up no longer holds readiness back, OUT_OF_SERVICE before.
+   */
+  @Override
+  public Health health() {
+    Health.Builder health = cacheWarmer.isReady() ? Health.up() : Health.outOfService();
+    return health
+        .withDetail("cities", cacheWarmer.getCityCount())
+        .withDetail("warm", cacheWarmer.getWarmCount())
+        .withDetail("failed", cacheWarmer.getFailureCount())
+        .withDetail("finished", cacheWarmer.isFinished())
+        .withDetail("readinessFraction", cacheWarmer.getReadinessFraction())
+        .build();
+  }
+}
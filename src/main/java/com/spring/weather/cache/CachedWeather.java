@@ -0,0 +1,163 @@
+package com.spring.weather.cache;
+
+import com.spring.weather.dto.WeatherResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.Getter;
+
+/**
+ * A weather response held by the {@link WeatherCache} together with the time it was fetched upstream.
+ * The fetch time travels with the value so callers can report its age and decide whether it is still fresh.
+ *
+ * <p>The entry also tracks when it was last read, which the refresh-ahead sweep uses to tell hot keys
+ * from cold ones, and whether a speculative refresh produced it without anyone reading it since.
+ *
+ * <p>The encoded response body and its entity tag are memoized on first use, since the response cannot change
+ * while the entry is cached, so cache hits are written without serializing the response again.
+ */
+public final class CachedWeather {
+
+  @Getter
+  private final WeatherResponse response;
+
+  @Getter
+  private final Instant fetchedAt;
+
+  private final boolean speculative;
+  private final AtomicBoolean wasteRecorded = new AtomicBoolean();
+  private volatile long lastAccessedAt;
+  private volatile boolean read;
+  private volatile EncodedWeather encoded;
+  private volatile String entityTag;
+
+  /**
+   * Constructs a new CachedWeather.
+   *
+   * @param response The weather response returned by the provider.
+   * @param fetchedAt The instant at which the response was fetched from the provider.
+   */
+  public CachedWeather(WeatherResponse response, Instant fetchedAt) {
+    this(response, fetchedAt, false);
+  }
+
+  /**
+   * Constructs a new CachedWeather.
+   *
+   * @param response The weather response returned by the provider.
+   * @param fetchedAt The instant at which the response was fetched from the provider.
+   * @param speculative Whether the entry was loaded by refresh-ahead rather than by a request.
+   */
+  CachedWeather(WeatherResponse response, Instant fetchedAt, boolean speculative) {
+    this.response = response;
+    this.fetchedAt = fetchedAt;
+    this.speculative = speculative;
+    // A speculative entry has not been read by anyone yet; it inherits its predecessor's access time.
+    this.lastAccessedAt = speculative ? 0L : fetchedAt.toEpochMilli();
+  }
+
+  /**
+   * Returns the time elapsed since the response was fetched.
+   *
+   * @param clock The clock used to read the current time.
+   * @return The age of the response, never negative.
+   */
+  public Duration getAge(Clock clock) {
+    Duration age = Duration.between(fetchedAt, clock.instant());
+    return age.isNegative() ? Duration.ZERO : age;
+  }
+
+  /**
+   * Returns whether the response is younger than the given time-to-live.
+   *
+   * @param clock The clock used to read the current time.
+   * @param timeToLive The freshness window.
+   * @return True if the response is still fresh, false if it is stale.
+   */
+  public boolean isFresh(Clock clock, Duration timeToLive) {
+    return getAge(clock).compareTo(timeToLive) < 0;
+  }
+
+  /**
+   * Returns the encoded response body, encoding it on first use.
+   * Concurrent first readers may each encode it; they produce identical bytes and one of them is kept.
+   *
+   * @param encoder The encoder used if the body has not been encoded yet.
+   * @return The encoded response body.
+   */
+  public EncodedWeather getEncoded(WeatherResponseEncoder encoder) {
+    EncodedWeather current = encoded;
+    if (current == null) {
+      current = encoder.encode(response);
+      encoded = current;
+    }
+    return current;
+  }
+
+  /**
+   * Returns the entity tag of the response, computed on first use. It is derived from the exact bits of the
+   * weather values, so it changes whenever the encoded body would and never otherwise.
+   *
+   * @return The unquoted entity tag.
+   */
+  public String getEntityTag() {
+    String current = entityTag;
+    if (current == null) {
+      current = Long.toHexString(Double.doubleToLongBits(response.getWindSpeed())) + '-'
+          + Long.toHexString(Double.doubleToLongBits(response.getTemperatureDegrees()));
+      entityTag = current;
+    }
+    return current;
+  }
+
+  /**
+   * Records a read of this entry.
+   *
+   * @param nowMillis The current time in epoch milliseconds.
+   */
+  void recordAccess(long nowMillis) {
+    if (!read) {
+      read = true;
+    }
+    // Skip redundant volatile writes from concurrent readers within the same millisecond.
+    if (lastAccessedAt != nowMillis) {
+      lastAccessedAt = nowMillis;
+    }
+  }
+
+  /**
+   * Returns the time of the last known read of this key.
+   *
+   * @return The last access time in epoch milliseconds.
+   */
+  long lastAccessedAt() {
+    return lastAccessedAt;
+  }
+
+  /**
+   * Carries over the last access time of the entry this one replaces, if it is more recent.
+   *
+   * @param previous The entry being replaced.
+   */
+  void inheritAccess(CachedWeather previous) {
+    long previousAccess = previous.lastAccessedAt;
+    if (previousAccess > lastAccessedAt) {
+      lastAccessedAt = previousAccess;
+    }
+  }
+
+  /**
+   * Marks a speculative entry that was never read as wasted, at most once.
+   *
+   * @return True if this call classified the entry as a wasted refresh.
+   */
+  boolean markWastedIfUnread() {
+    return speculative && !read && wasteRecorded.compareAndSet(false, true);
+  }
+
+  @Override
+  public String toString() {
+    return "CachedWeather(response=" + response + ", fetchedAt=" + fetchedAt + ")";
+  }
+}
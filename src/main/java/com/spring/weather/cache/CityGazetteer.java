@@ -0,0 +1,133 @@
+package com.spring.weather.cache;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+/**
+ * Optional local list of known city names, used to reject unknown cities before any provider is called.
+ *
+ * <p>The file is read from {@code weather.gazetteer.location}, any Spring resource location such as
+ * {@code file:/data/cities.txt} or {@code classpath:cities.txt}. It holds one city name per line; blank lines
+ * and lines starting with {@code #} are ignored. Tab separated lines are read as a GeoNames dump, taking the
+ * name and the ASCII name columns. Every name is stored as its canonical key in a sorted array, which needs
+ * no per-entry objects beyond the strings themselves and is searched in logarithmic time.
+ *
+ * <p>Without a configured location the gazetteer is disabled and every city is considered known.
+ */
+@Slf4j
+@Component
+public class CityGazetteer {
+
+  private static final String COMMENT = "#";
+  private static final char GEONAMES_SEPARATOR = '\t';
+
+  private final String[] keys;
+
+  /**
+   * Constructs a new CityGazetteer, loading the configured file.
+   *
+   * @param resourceLoader The loader used to resolve the gazetteer location.
+   * @param location The location of the gazetteer file, or an empty string to disable it.
+   * @param cityKeyNormalizer The normalizer the file entries are converted to cache keys with.
+   * @throws IllegalStateException If a location is configured but the file does not exist.
+   */
+  public CityGazetteer(
+      ResourceLoader resourceLoader,
+      @Value("${weather.gazetteer.location:}") String location,
+      CityKeyNormalizer cityKeyNormalizer) {
+    if (location.isBlank()) {
+      this.keys = null;
+      return;
+    }
+    Resource resource = resourceLoader.getResource(location);
+    if (!resource.exists()) {
+      throw new IllegalStateException("Gazetteer not found: " + location);
+    }
+    this.keys = load(resource, cityKeyNormalizer);
+    log.info("Loaded {} city names from gazetteer {}", keys.length, location);
+  }
+
+  /**
+   * Returns whether a gazetteer file is configured.
+   *
+   * @return True if cities are checked against the gazetteer.
+   */
+  public boolean isEnabled() {
+    return keys != null;
+  }
+
+  /**
+   * Returns whether the city may exist, i.e. the gazetteer is disabled or lists the city.
+   *
+   * @param cacheKey The canonical key of the city.
+   * @return False only if the gazetteer is enabled and does not list the city.
+   */
+  public boolean mayExist(String cacheKey) {
+    return keys == null || Arrays.binarySearch(keys, cacheKey) >= 0;
+  }
+
+  /**
+   * Returns the number of distinct city keys in the gazetteer.
+   *
+   * @return The number of keys, or 0 if the gazetteer is disabled.
+   */
+  public int size() {
+    return keys == null ? 0 : keys.length;
+  }
+
+  /**
+   * Reads the gazetteer file into a sorted array of distinct canonical keys.
+   *
+   * @param resource The gazetteer file.
+   * @param cityKeyNormalizer The normalizer the entries are converted to cache keys with.
+   * @return The sorted keys.
+   */
+  private static String[] load(Resource resource, CityKeyNormalizer cityKeyNormalizer) {
+    List<String> names = new ArrayList<>();
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank() || line.startsWith(COMMENT)) {
+          continue;
+        }
+        if (line.indexOf(GEONAMES_SEPARATOR) >= 0) {
+          // GeoNames: geonameid, name, asciiname, alternatenames, ...
+          String[] columns = line.split("\t", 4);
+          add(names, columns.length > 1 ? columns[1] : "", cityKeyNormalizer);
+          add(names, columns.length > 2 ? columns[2] : "", cityKeyNormalizer);
+        } else {
+          add(names, line, cityKeyNormalizer);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read gazetteer " + resource.getDescription(), e);
+    }
+
+    return names.stream().distinct().sorted().toArray(String[]::new);
+  }
+
+  /**
+   * Adds the canonical key of a name, unless the name is blank.
+   *
+   * @param names The keys read so far.
+   * @param name The city name as written in the file.
+   * @param cityKeyNormalizer The normalizer the name is converted with.
+   */
+  private static void add(List<String> names, String name, CityKeyNormalizer cityKeyNormalizer) {
+    if (!name.isBlank()) {
+      names.add(cityKeyNormalizer.canonicalize(name));
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.spring.weather.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Interner;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Derives the canonical key of a requested city name. The key is used for the weather cache, the stale
+ * lookup and the provider query, so every spelling of a city that normalizes to the same key shares one
+ * cache entry and one upstream call.
+ *
+ * <p>Normalization applies compatibility composition (so full-width and ligature forms match their plain
+ * letters), locale-independent case folding, optional removal of diacritics, and collapses runs of whitespace
+ * into a single space with none at either end. It is idempotent, so a key normalizes to itself.
+ *
+ * <p>Recently seen inputs are mapped to their key in a bounded table, and keys are interned, so repeated
+ * requests for a city reuse one key instance instead of allocating a new one per request.
+ */
+@Component
+public class CityKeyNormalizer {
+
+  private static final Pattern WHITESPACE = Pattern.compile("[\\s\\p{Z}]+");
+  private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+  private final boolean stripDiacritics;
+  private final Cache<String, String> keysByInput;
+  private final Interner<String> keys = Interner.newWeakInterner();
+
+  /**
+   * Constructs a new CityKeyNormalizer.
+   *
+   * @param stripDiacritics Whether diacritics are removed, so that e.g. S&atilde;o Paulo and Sao Paulo
+   *     share a key.
+   * @param internMaxSize The maximum number of distinct inputs whose key is remembered.
+   */
+  public CityKeyNormalizer(
+      @Value("${weather.city.strip.diacritics:true}") boolean stripDiacritics,
+      @Value("${weather.city.intern.max.size:10000}") long internMaxSize) {
+    this.stripDiacritics = stripDiacritics;
+    this.keysByInput = Caffeine.newBuilder().maximumSize(internMaxSize).build();
+  }
+
+  /**
+   * Returns the canonical key of a city name.
+   *
+   * @param city The city name as requested.
+   * @return The canonical key, possibly empty if the name only consists of whitespace.
+   */
+  public String normalize(String city) {
+    String key = keysByInput.getIfPresent(city);
+    if (key == null) {
+      key = keys.intern(canonicalize(city));
+      keysByInput.put(city, key);
+    }
+    return key;
+  }
+
+  /**
+   * Computes the canonical form of a city name without consulting the intern table.
+   *
+   * @param city The city name.
+   * @return The canonical form.
+   */
+  String canonicalize(String city) {
+    if (isCanonicalAscii(city)) {
+      return city;
+    }
+    String folded = Normalizer.normalize(city, Normalizer.Form.NFKC)
+        .toUpperCase(Locale.ROOT)
+        .toLowerCase(Locale.ROOT);
+    if (stripDiacritics) {
+      folded = COMBINING_MARKS.matcher(Normalizer.normalize(folded, Normalizer.Form.NFD)).replaceAll("");
+    }
+    folded = Normalizer.normalize(folded, Normalizer.Form.NFC);
+    return WHITESPACE.matcher(folded).replaceAll(" ").strip();
+  }
+
+  /**
+   * Returns whether a name is already canonical and plain ASCII: printable, no upper case letters, and single
+   * spaces only between words. Most requests take this path, which does not allocate.
+   *
+   * @param city The city name.
+   * @return True if the name is its own canonical form.
+   */
+  private static boolean isCanonicalAscii(String city) {
+    int length = city.length();
+    if (length == 0) {
+      return true;
+    }
+    if (city.charAt(0) == ' ' || city.charAt(length - 1) == ' ') {
+      return false;
+    }
+    char previous = 0;
+    for (int i = 0; i < length; i++) {
+      char c = city.charAt(i);
+      if (c < ' ' || c > '~' || (c >= 'A' && c <= 'Z') || (c == ' ' && previous == ' ')) {
+        return false;
+      }
+      previous = c;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,11 @@
+package com.spring.weather.cache;
+
+/**
+ * The response body of a cached weather entry, encoded once and shared by every request that reads the entry.
+ * The arrays are written to responses as they are and must never be modified.
+ *
+ * @param json The JSON encoding of the weather response.
+ * @param gzip The gzip compressed JSON, or null if compression is disabled.
+ */
+public record EncodedWeather(byte[] json, byte[] gzip) {
+}
@@ -0,0 +1,86 @@
+package com.spring.weather.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.time.Duration;
+import reactor.core.publisher.Mono;
+
+/**
+ * A {@link SharedWeatherCache} held in the memory of this instance. It is only shared by the caches of one
+ * JVM, so it stands in for a remote tier in development and tests, where it exercises the same lookup and
+ * write-through paths without a server.
+ */
+public class InProcessSharedWeatherCache implements SharedWeatherCache {
+
+  private final Cache<String, StoredEntry> entries;
+
+  /**
+   * Constructs a new InProcessSharedWeatherCache.
+   *
+   * @param maxSize The maximum number of entries kept.
+   */
+  public InProcessSharedWeatherCache(long maxSize) {
+    this.entries = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfter(new StoredEntryExpiry())
+        .build();
+  }
+
+  /**
+   * Returns a copy of the entry stored for the key.
+   *
+   * @param key The normalized cache key.
+   * @return A Mono emitting the entry, or completing empty if the key is not stored.
+   */
+  @Override
+  public Mono<CachedWeather> get(String key) {
+    return Mono.fromSupplier(() -> {
+      StoredEntry stored = entries.getIfPresent(key);
+      return stored == null ? null : new CachedWeather(stored.entry().getResponse(), stored.entry().getFetchedAt());
+    });
+  }
+
+  /**
+   * Stores the entry for the key until the time-to-live has elapsed.
+   *
+   * @param key The normalized cache key.
+   * @param entry The entry to store.
+   * @param timeToLive How long the entry is kept.
+   * @return A Mono completing once the entry is stored.
+   */
+  @Override
+  public Mono<Void> put(String key, CachedWeather entry, Duration timeToLive) {
+    return Mono.fromRunnable(() -> entries.put(key, new StoredEntry(entry, timeToLive.toNanos())));
+  }
+
+  /**
+   * An entry together with the time-to-live it was stored with.
+   *
+   * @param entry The stored entry.
+   * @param timeToLiveNanos How long the entry is kept, in nanoseconds.
+   */
+  private record StoredEntry(CachedWeather entry, long timeToLiveNanos) {
+  }
+
+  /**
+   * Expires each entry after the time-to-live it was stored with.
+   */
+  private static final class StoredEntryExpiry implements Expiry<String, StoredEntry> {
+
+    @Override
+    public long expireAfterCreate(String key, StoredEntry value, long currentTime) {
+      return value.timeToLiveNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, StoredEntry value, long currentTime, long currentDuration) {
+      return value.timeToLiveNanos();
+    }
+
+    @Override
+    public long expireAfterRead(String key, StoredEntry value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.spring.weather.cache;
+
+import com.spring.weather.service.WeatherService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Periodically reloads hot weather cache entries shortly before their fresh window ends, so requests for
+ * frequently read cities never wait on an upstream call. Entries that were not read within the access
+ * window are left to expire. Reloads go through {@link WeatherService#refreshWeatherData(String)} and
+ * therefore use the provider failover order.
+ */
+@Slf4j
+@Component
+public class RefreshAheadScheduler {
+
+  private final WeatherCache weatherCache;
+  private final WeatherService weatherService;
+  private final boolean enabled;
+  private final Duration refreshAhead;
+  private final Duration accessWindow;
+  private final Duration checkInterval;
+  private final int concurrency;
+
+  private Disposable task;
+
+  /**
+   * Constructs a new RefreshAheadScheduler.
+   *
+   * @param weatherCache The cache whose entries are kept warm.
+   * @param weatherService The service used to reload entries from the providers.
+   * @param enabled Whether refresh-ahead is enabled.
+   * @param refreshAheadMillis How long before the end of the fresh window an entry is reloaded, in milliseconds.
+   * @param accessWindowSeconds How recently an entry must have been read to be reloaded, in seconds.
+   * @param checkIntervalMillis How often the cache is scanned for due entries, in milliseconds.
+   * @param concurrency The maximum number of reloads running at once.
+   */
+  public RefreshAheadScheduler(
+      WeatherCache weatherCache,
+      WeatherService weatherService,
+      @Value("${weather.cache.refresh.ahead.enabled:false}") boolean enabled,
+      @Value("${weather.cache.refresh.ahead.millis:1000}") long refreshAheadMillis,
+      @Value("${weather.cache.refresh.access.window.seconds:30}") long accessWindowSeconds,
+      @Value("${weather.cache.refresh.check.interval.millis:250}") long checkIntervalMillis,
+      @Value("${weather.cache.refresh.concurrency:8}") int concurrency) {
+    this.weatherCache = weatherCache;
+    this.weatherService = weatherService;
+    this.enabled = enabled;
+    this.refreshAhead = Duration.ofMillis(refreshAheadMillis);
+    this.accessWindow = Duration.ofSeconds(accessWindowSeconds);
+    this.checkInterval = Duration.ofMillis(checkIntervalMillis);
+    this.concurrency = concurrency;
+  }
+
+  /**
+   * Starts the periodic sweep if refresh-ahead is enabled.
+   */
+  @PostConstruct
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+    log.info("Refresh-ahead enabled: reloading entries read within {} when less than {} of freshness remains",
+        accessWindow, refreshAhead);
+    task = Flux.interval(checkInterval)
+        .onBackpressureDrop()
+        .concatMap(tick -> refreshDueEntries(), 1)
+        .subscribe();
+  }
+
+  /**
+   * Stops the periodic sweep.
+   */
+  @PreDestroy
+  public void stop() {
+    if (task != null) {
+      task.dispose();
+    }
+  }
+
+  /**
+   * Reloads every entry that is due, with bounded concurrency.
+   * Failures are logged and leave the current entry in place.
+   *
+   * @return A Mono completing when all due entries have been reloaded.
+   */
+  Mono<Void> refreshDueEntries() {
+    return Flux.fromIterable(weatherCache.refreshAheadCandidates(refreshAhead, accessWindow))
+        .flatMap(key -> weatherService.refreshWeatherData(key)
+            .onErrorResume(e -> {
+              log.warn("Refresh-ahead failed for {}: {}", key, e.getMessage());
+              return Mono.empty();
+            }), concurrency)
+        .then();
+  }
+}
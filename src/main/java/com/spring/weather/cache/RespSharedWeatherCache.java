@@ -0,0 +1,345 @@
+package com.spring.weather.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.spring.weather.dto.WeatherResponse;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A {@link SharedWeatherCache} stored in a server speaking the Redis serialization protocol (RESP), such as
+ * Redis or Valkey. It only needs {@code GET} and {@code SET ... PX}, so it speaks the protocol directly over a
+ * small pool of blocking connections instead of pulling in a client library; calls run on the bounded elastic
+ * scheduler.
+ *
+ * <p>Each entry is stored under the key prefix followed by the cache key, as its fetch time in epoch
+ * milliseconds, a space and the JSON of the weather response. Connect and read timeouts bound how long a
+ * request waits for an unreachable or slow server; a connection that failed is closed rather than returned to
+ * the pool.
+ */
+@Slf4j
+public class RespSharedWeatherCache implements SharedWeatherCache, AutoCloseable {
+
+  private static final byte[] GET = "GET".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] SET = "SET".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] PX = "PX".getBytes(StandardCharsets.US_ASCII);
+
+  private final InetSocketAddress address;
+  private final int timeoutMillis;
+  private final String keyPrefix;
+  private final ObjectReader reader;
+  private final ObjectWriter writer;
+  private final BlockingQueue<RespConnection> idle;
+  private volatile boolean closed;
+
+  /**
+   * Constructs a new RespSharedWeatherCache. Connections are opened on first use.
+   *
+   * @param host The host of the server.
+   * @param port The port of the server.
+   * @param poolSize The maximum number of idle connections kept open.
+   * @param timeout The connect and read timeout of each call.
+   * @param keyPrefix The prefix of the stored keys, separating them from other data on the server.
+   * @param objectMapper The object mapper used to encode the weather responses.
+   */
+  public RespSharedWeatherCache(String host, int port, int poolSize, Duration timeout, String keyPrefix,
+      ObjectMapper objectMapper) {
+    this.address = InetSocketAddress.createUnresolved(host, port);
+    this.timeoutMillis = (int) timeout.toMillis();
+    this.keyPrefix = keyPrefix;
+    this.reader = objectMapper.readerFor(WeatherResponse.class);
+    this.writer = objectMapper.writerFor(WeatherResponse.class);
+    this.idle = new ArrayBlockingQueue<>(poolSize);
+  }
+
+  /**
+   * Reads the entry stored for the key.
+   *
+   * @param key The normalized cache key.
+   * @return A Mono emitting the entry, completing empty if the key is not stored, or failing if the server
+   *     cannot be reached or the stored value cannot be decoded.
+   */
+  @Override
+  public Mono<CachedWeather> get(String key) {
+    return Mono.fromCallable(() -> {
+      Object reply = execute(GET, storedKey(key));
+      return reply == null ? null : decode((byte[]) reply);
+    }).subscribeOn(Schedulers.boundedElastic());
+  }
+
+  /**
+   * Stores the entry for the key with a millisecond expiry.
+   *
+   * @param key The normalized cache key.
+   * @param entry The entry to store.
+   * @param timeToLive How long the server keeps the entry; entries with less than a millisecond left are not
+   *     stored.
+   * @return A Mono completing once the server has acknowledged the entry.
+   */
+  @Override
+  public Mono<Void> put(String key, CachedWeather entry, Duration timeToLive) {
+    long ttlMillis = timeToLive.toMillis();
+    if (ttlMillis <= 0) {
+      return Mono.empty();
+    }
+    return Mono.<Void>fromCallable(() -> {
+      execute(SET, storedKey(key), encode(entry), PX, ascii(Long.toString(ttlMillis)));
+      return null;
+    }).subscribeOn(Schedulers.boundedElastic());
+  }
+
+  /**
+   * Closes the idle connections. Connections in use are closed when they are returned.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    RespConnection connection;
+    while ((connection = idle.poll()) != null) {
+      connection.close();
+    }
+  }
+
+  /**
+   * Sends a command on a pooled connection and reads its reply.
+   *
+   * @param arguments The command and its arguments.
+   * @return The reply: a byte array for a bulk string, a String for a status, a Long for an integer, or null.
+   * @throws IOException if the server cannot be reached, times out or replies with an error.
+   */
+  private Object execute(byte[]... arguments) throws IOException {
+    RespConnection connection = idle.poll();
+    if (connection == null) {
+      connection = RespConnection.open(address, timeoutMillis);
+    }
+    Object reply;
+    try {
+      reply = connection.execute(arguments);
+    } catch (IOException | RuntimeException e) {
+      connection.close();
+      throw e;
+    }
+    if (closed || !idle.offer(connection)) {
+      connection.close();
+    }
+    return reply;
+  }
+
+  /**
+   * Encodes an entry as its fetch time and the JSON of its response.
+   *
+   * @param entry The entry.
+   * @return The stored value.
+   * @throws IOException if the response cannot be encoded.
+   */
+  private byte[] encode(CachedWeather entry) throws IOException {
+    byte[] json = writer.writeValueAsBytes(entry.getResponse());
+    byte[] fetchedAt = ascii(entry.getFetchedAt().toEpochMilli() + " ");
+    byte[] value = new byte[fetchedAt.length + json.length];
+    System.arraycopy(fetchedAt, 0, value, 0, fetchedAt.length);
+    System.arraycopy(json, 0, value, fetchedAt.length, json.length);
+    return value;
+  }
+
+  /**
+   * Decodes a stored value into a new entry.
+   *
+   * @param value The stored value.
+   * @return The entry.
+   * @throws IOException if the value is not in the stored format.
+   */
+  private CachedWeather decode(byte[] value) throws IOException {
+    int separator = 0;
+    while (separator < value.length && value[separator] != ' ') {
+      separator++;
+    }
+    if (separator == 0 || separator == value.length) {
+      throw new IOException("Malformed shared cache value");
+    }
+    long fetchedAt;
+    try {
+      fetchedAt = Long.parseLong(new String(value, 0, separator, StandardCharsets.US_ASCII));
+    } catch (NumberFormatException e) {
+      throw new IOException("Malformed shared cache value", e);
+    }
+    WeatherResponse response = reader.readValue(value, separator + 1, value.length - separator - 1);
+    return new CachedWeather(response, Instant.ofEpochMilli(fetchedAt));
+  }
+
+  /**
+   * Returns the key an entry is stored under.
+   *
+   * @param key The normalized cache key.
+   * @return The prefixed key as UTF-8.
+   */
+  private byte[] storedKey(String key) {
+    return (keyPrefix + key).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Encodes an ASCII string.
+   *
+   * @param value The string.
+   * @return Its bytes.
+   */
+  private static byte[] ascii(String value) {
+    return value.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * A single connection to the server, sending one command at a time.
+   */
+  static final class RespConnection {
+
+    private final Socket socket;
+    private final InputStream in;
+    private final OutputStream out;
+
+    /**
+     * Constructs a new RespConnection over a connected socket.
+     *
+     * @param socket The connected socket.
+     * @throws IOException if the socket streams cannot be opened.
+     */
+    private RespConnection(Socket socket) throws IOException {
+      this.socket = socket;
+      this.in = new BufferedInputStream(socket.getInputStream());
+      this.out = new BufferedOutputStream(socket.getOutputStream());
+    }
+
+    /**
+     * Opens a connection to the server.
+     *
+     * @param address The address of the server, resolved on every connect.
+     * @param timeoutMillis The connect and read timeout.
+     * @return The connection.
+     * @throws IOException if the server cannot be reached in time.
+     */
+    static RespConnection open(InetSocketAddress address, int timeoutMillis) throws IOException {
+      Socket socket = new Socket();
+      try {
+        socket.setTcpNoDelay(true);
+        socket.setSoTimeout(timeoutMillis);
+        socket.connect(new InetSocketAddress(address.getHostString(), address.getPort()), timeoutMillis);
+        return new RespConnection(socket);
+      } catch (IOException e) {
+        socket.close();
+        throw e;
+      }
+    }
+
+    /**
+     * Sends a command as an array of bulk strings and reads the reply.
+     *
+     * @param arguments The command and its arguments.
+     * @return The reply.
+     * @throws IOException if the connection fails or the server replies with an error.
+     */
+    Object execute(byte[]... arguments) throws IOException {
+      writeHeader('*', arguments.length);
+      for (byte[] argument : arguments) {
+        writeHeader('$', argument.length);
+        out.write(argument);
+        out.write('\r');
+        out.write('\n');
+      }
+      out.flush();
+      return readReply();
+    }
+
+    /**
+     * Closes the connection, ignoring failures.
+     */
+    void close() {
+      try {
+        socket.close();
+      } catch (IOException e) {
+        log.debug("Failed to close shared cache connection: {}", e.getMessage());
+      }
+    }
+
+    /**
+     * Writes a type marker followed by a length and a line break.
+     *
+     * @param type The type marker.
+     * @param length The length.
+     * @throws IOException if the connection fails.
+     */
+    private void writeHeader(char type, int length) throws IOException {
+      out.write(type);
+      out.write(ascii(Integer.toString(length)));
+      out.write('\r');
+      out.write('\n');
+    }
+
+    /**
+     * Reads one reply. Arrays are not needed by the commands sent, so they are rejected.
+     *
+     * @return The reply.
+     * @throws IOException if the connection fails, the reply is an error or it cannot be parsed.
+     */
+    private Object readReply() throws IOException {
+      int type = in.read();
+      String line = readLine();
+      switch (type) {
+        case '+':
+          return line;
+        case '-':
+          throw new IOException("Shared cache error: " + line);
+        case ':':
+          return Long.parseLong(line);
+        case '$':
+          int length = Integer.parseInt(line);
+          if (length < 0) {
+            return null;
+          }
+          byte[] value = in.readNBytes(length);
+          if (value.length < length || in.read() != '\r' || in.read() != '\n') {
+            throw new EOFException("Truncated shared cache reply");
+          }
+          return value;
+        case -1:
+          throw new EOFException("Shared cache connection closed");
+        default:
+          throw new IOException("Unexpected shared cache reply type: " + (char) type);
+      }
+    }
+
+    /**
+     * Reads a line terminated by CRLF.
+     *
+     * @return The line without its terminator.
+     * @throws IOException if the connection fails before the line ends.
+     */
+    private String readLine() throws IOException {
+      ByteArrayOutputStream line = new ByteArrayOutputStream(16);
+      int current;
+      while ((current = in.read()) != '\r') {
+        if (current == -1) {
+          throw new EOFException("Shared cache connection closed");
+        }
+        line.write(current);
+      }
+      if (in.read() != '\n') {
+        throw new IOException("Malformed shared cache reply");
+      }
+      return line.toString(StandardCharsets.UTF_8);
+    }
+  }
+}
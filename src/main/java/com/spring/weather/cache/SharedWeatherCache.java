@@ -0,0 +1,39 @@
+package com.spring.weather.cache;
+
+import java.time.Duration;
+import reactor.core.publisher.Mono;
+
+/**
+ * A second cache tier shared by every instance of the service, consulted by the {@link WeatherCache} when its
+ * in-process tier misses and before it reloads an entry from the providers, so a city fetched by one instance
+ * is not fetched again by the others.
+ *
+ * <p>Implementations hold copies: an entry returned by {@link #get} must not share state with the entry that
+ * was {@link #put}. A failing tier must never fail a request; the {@link WeatherCache} treats errors as misses,
+ * so implementations should bound the time they wait for a remote store. The exception is a tier that answers
+ * for the key on behalf of another instance: a lookup failing with a
+ * {@link com.spring.weather.exception.MissingQueryException} or
+ * {@link com.spring.weather.exception.WeatherServiceException} reports that instance's final answer, which
+ * fails the load instead of calling the providers again.
+ */
+public interface SharedWeatherCache {
+
+  /**
+   * Returns the entry stored for the key.
+   *
+   * @param key The normalized cache key.
+   * @return A Mono emitting the entry, completing empty if the key is not stored, or failing with the final
+   *     answer for the key.
+   */
+  Mono<CachedWeather> get(String key);
+
+  /**
+   * Stores an entry for the key, replacing any previous one.
+   *
+   * @param key The normalized cache key.
+   * @param entry The entry to store.
+   * @param timeToLive How long the store should keep the entry.
+   * @return A Mono completing once the entry is stored.
+   */
+  Mono<Void> put(String key, CachedWeather entry, Duration timeToLive);
+}
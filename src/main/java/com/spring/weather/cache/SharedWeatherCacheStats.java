@@ -0,0 +1,42 @@
+package com.spring.weather.cache;
+
+/**
+ * Point-in-time snapshot of the counters of the {@link SharedWeatherCache} tier, as seen by the
+ * {@link WeatherCache}.
+ *
+ * @param hitCount The number of lookups answered with a fresh entry.
+ * @param missCount The number of lookups that found no entry or only a stale one.
+ * @param errorCount The number of lookups that failed and were treated as misses.
+ * @param answerCount The number of lookups answered with an error for the key, e.g. by a peer owner.
+ * @param lookupNanos The total time spent in lookups, in nanoseconds.
+ * @param writeCount The number of entries written.
+ * @param writeFailureCount The number of writes that failed.
+ */
+public record SharedWeatherCacheStats(
+    long hitCount,
+    long missCount,
+    long errorCount,
+    long answerCount,
+    long lookupNanos,
+    long writeCount,
+    long writeFailureCount) {
+
+  /**
+   * Returns the total number of lookups.
+   *
+   * @return The sum of hits, misses, errors and error answers.
+   */
+  public long lookupCount() {
+    return hitCount + missCount + errorCount + answerCount;
+  }
+
+  /**
+   * Returns the share of lookups answered by the shared tier.
+   *
+   * @return The hit ratio between 0 and 1, or 0 if there were no lookups.
+   */
+  public double hitRatio() {
+    long lookups = lookupCount();
+    return lookups == 0 ? 0 : (double) hitCount / lookups;
+  }
+}
@@ -0,0 +1,105 @@
+package com.spring.weather.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Negative cache of cities the providers have confirmed not to exist, checked together with the optional
+ * {@link CityGazetteer} before any provider is called.
+ *
+ * <p>A city is recorded once a provider rejects it as an unknown location, and is rejected locally for
+ * {@code weather.unknown.city.ttl.seconds} after that, timed by the application {@link Clock}. The cache holds
+ * at most {@code weather.unknown.city.max.size} cities, so a stream of random names cannot grow it without
+ * bound.
+ * Rejections are counted in {@code weather.unknown.city.rejections}, tagged with the {@code source} that
+ * rejected the city.
+ */
+@Component
+public class UnknownCityCache {
+
+  private final Cache<String, Boolean> unknownCities;
+  private final CityGazetteer gazetteer;
+  private final Counter negativeCacheRejections;
+  private final Counter gazetteerRejections;
+
+  /**
+   * Constructs a new UnknownCityCache.
+   *
+   * @param gazetteer The gazetteer of known cities, consulted before the negative cache.
+   * @param clock The clock used to expire entries.
+   * @param meterRegistry The registry the rejection counters and the size gauge are registered in.
+   * @param ttlSeconds How long a city confirmed as unknown is rejected without asking a provider, in seconds.
+   * @param maxSize The maximum number of unknown cities remembered.
+   */
+  public UnknownCityCache(
+      CityGazetteer gazetteer,
+      Clock clock,
+      MeterRegistry meterRegistry,
+      @Value("${weather.unknown.city.ttl.seconds:3600}") long ttlSeconds,
+      @Value("${weather.unknown.city.max.size:100000}") long maxSize) {
+    this.gazetteer = gazetteer;
+    this.unknownCities = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+        .build();
+    this.negativeCacheRejections = Counter.builder("weather.unknown.city.rejections")
+        .tag("source", "negative_cache")
+        .description("Requests for cities rejected without calling a provider")
+        .register(meterRegistry);
+    this.gazetteerRejections = Counter.builder("weather.unknown.city.rejections")
+        .tag("source", "gazetteer")
+        .description("Requests for cities rejected without calling a provider")
+        .register(meterRegistry);
+    Gauge.builder("weather.unknown.city.size", this, UnknownCityCache::estimatedSize)
+        .description("Estimated number of cities remembered as unknown")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Returns whether the city is known not to exist, either because the gazetteer does not list it or because a
+   * provider rejected it within the TTL. Every positive answer is counted as a rejection.
+   *
+   * @param cacheKey The canonical key of the city.
+   * @return True if the city must be rejected without calling a provider.
+   */
+  public boolean isUnknown(String cacheKey) {
+    if (!gazetteer.mayExist(cacheKey)) {
+      gazetteerRejections.increment();
+      return true;
+    }
+    if (unknownCities.getIfPresent(cacheKey) == null) {
+      return false;
+    }
+    negativeCacheRejections.increment();
+    return true;
+  }
+
+  /**
+   * Records that a provider confirmed the city does not exist.
+   *
+   * @param cacheKey The canonical key of the city.
+   */
+  public void recordUnknown(String cacheKey) {
+    unknownCities.put(cacheKey, Boolean.TRUE);
+  }
+
+  /**
+   * Returns the approximate number of cities remembered as unknown. Expired entries are removed first, so they
+   * are not counted.
+   *
+   * @return The estimated number of entries.
+   */
+  public long estimatedSize() {
+    unknownCities.cleanUp();
+    return unknownCities.estimatedSize();
+  }
+}
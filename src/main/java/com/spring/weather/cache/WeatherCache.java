@@ -0,0 +1,506 @@
+package com.spring.weather.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.spring.weather.dto.WeatherResponse;
+import com.spring.weather.exception.MissingQueryException;
+import com.spring.weather.exception.WeatherServiceException;
+import com.spring.weather.provider.CallPriority;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive cache of resolved weather data keyed by the normalized city name.
+ * Stores completed {@link CachedWeather} values rather than cold publishers, and lets all concurrent
+ * misses for the same key share a single upstream load.
+ *
+ * <p>Entries are fresh for `weather.cache.expiry.seconds` and are then retained as stale until the
+ * Caffeine expiry evicts them. A stale entry is returned immediately while a single background
+ * revalidation reloads it. Entries can also be reloaded ahead of expiry through {@link #refresh}, which
+ * the refresh-ahead sweep uses for keys that are still being read.
+ *
+ * <p>When a {@link SharedWeatherCache} is configured it forms a second tier shared with the other instances.
+ * Hits in this in-process tier never leave the JVM. A miss, a revalidation and a refresh first look for a fresh
+ * entry in the shared tier, and only call the loader if there is none; a newer shared entry also replaces the
+ * local one on refresh. Every upstream result is written to both tiers, to the shared one for the rest of its
+ * fresh window only, so stale fallback stays local. Shared tier failures count as misses.
+ */
+@Slf4j
+@Component
+public class WeatherCache {
+
+  /**
+   * The name under which the cache is registered with the {@link org.springframework.cache.CacheManager}.
+   */
+  public static final String CACHE_NAME = "weatherCache";
+
+  private final AsyncCache<String, CachedWeather> cache;
+  private final SharedWeatherCache sharedCache;
+  private final Clock clock;
+  private final Duration freshTtl;
+  private final Map<String, CompletableFuture<CachedWeather>> reloading = new ConcurrentHashMap<>();
+  private final Set<String> refreshAheadKeys = ConcurrentHashMap.newKeySet();
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder staleHitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder coalescedCount = new LongAdder();
+  private final LongAdder loadSuccessCount = new LongAdder();
+  private final LongAdder loadFailureCount = new LongAdder();
+  private final LongAdder revalidationSuccessCount = new LongAdder();
+  private final LongAdder revalidationFailureCount = new LongAdder();
+  private final LongAdder refreshAheadIssuedCount = new LongAdder();
+  private final LongAdder refreshAheadWastedCount = new LongAdder();
+  private final LongAdder lookupNanos = new LongAdder();
+  private final LongAdder sharedHitCount = new LongAdder();
+  private final LongAdder sharedMissCount = new LongAdder();
+  private final LongAdder sharedErrorCount = new LongAdder();
+  private final LongAdder sharedAnswerCount = new LongAdder();
+  private final LongAdder sharedLookupNanos = new LongAdder();
+  private final LongAdder sharedWriteCount = new LongAdder();
+  private final LongAdder sharedWriteFailureCount = new LongAdder();
+
+  /**
+   * Constructs a new WeatherCache backed by the given Caffeine cache.
+   *
+   * @param cache The Caffeine cache holding the in-flight and completed loads.
+   * @param clock The clock used to timestamp entries and compute their age.
+   * @param sharedCache The shared second tier, if one is configured.
+   * @param freshTtlSeconds How long an entry is served without revalidation, in seconds.
+   */
+  public WeatherCache(
+      AsyncCache<String, CachedWeather> cache,
+      Clock clock,
+      Optional<SharedWeatherCache> sharedCache,
+      @Value("${weather.cache.expiry.seconds:3}") int freshTtlSeconds) {
+    this.cache = cache;
+    this.sharedCache = sharedCache.orElse(null);
+    this.clock = clock;
+    this.freshTtl = Duration.ofSeconds(freshTtlSeconds);
+  }
+
+  /**
+   * Returns the cached weather data for the key, loading it with the given loader on a miss.
+   * Only the first caller for an absent key subscribes to the loader; callers arriving while that
+   * load is in flight wait on the same result. Failed or empty loads are not cached. A stale entry
+   * is returned as is and triggers at most one background revalidation per key. On a miss the shared tier,
+   * if any, is consulted before the loader.
+   *
+   * @param key The normalized cache key.
+   * @param loader The function used to load the weather data from the providers.
+   * @return A Mono emitting the cached or freshly loaded weather data.
+   */
+  public Mono<CachedWeather> get(String key, Function<String, Mono<WeatherResponse>> loader) {
+    return Mono.defer(() -> {
+      long startNanos = System.nanoTime();
+      CompletableFuture<CachedWeather> future = cache.getIfPresent(key);
+      if (future == null) {
+        CompletableFuture<CachedWeather> promise = new CompletableFuture<>();
+        future = cache.get(key, (k, executor) -> promise);
+        if (future == promise) {
+          missCount.increment();
+          load(key, loader, promise);
+          lookupNanos.add(System.nanoTime() - startNanos);
+          return Mono.fromFuture(promise, true);
+        }
+      }
+
+      CachedWeather cached = completedValue(future);
+      if (cached == null) {
+        coalescedCount.increment();
+        lookupNanos.add(System.nanoTime() - startNanos);
+        // Cancellation of one waiter must not cancel the load shared with the others.
+        return Mono.fromFuture(future, true);
+      }
+      cached.recordAccess(clock.millis());
+      if (cached.isFresh(clock, freshTtl)) {
+        hitCount.increment();
+      } else {
+        staleHitCount.increment();
+        revalidate(key, loader);
+      }
+      lookupNanos.add(System.nanoTime() - startNanos);
+      return Mono.just(cached);
+    });
+  }
+
+  /**
+   * Returns fresh weather data for the key. Unlike {@link #get}, a stale entry is never returned: the caller
+   * waits for the reload, and gets its error if the reload fails. Used to answer other instances, which would
+   * otherwise reload the key themselves, and which keep serving their own stale copy when given the error.
+   *
+   * @param key The normalized cache key.
+   * @param loader The function used to load the weather data.
+   * @return A Mono emitting fresh weather data, or failing if it cannot be reloaded.
+   */
+  public Mono<CachedWeather> getFresh(String key, Function<String, Mono<WeatherResponse>> loader) {
+    return get(key, loader).flatMap(cached -> {
+      if (isFresh(cached)) {
+        return Mono.just(cached);
+      }
+      CompletableFuture<CachedWeather> reload = reloading.get(key);
+      Mono<CachedWeather> reloaded = reload != null
+          ? Mono.fromFuture(reload, true)
+          : Mono.defer(() -> {
+            CachedWeather current = getIfPresent(key);
+            return current != null && isFresh(current) ? Mono.just(current) : refresh(key, loader);
+          });
+      return reloaded.switchIfEmpty(Mono.error(() -> new WeatherServiceException("Could not reload " + key)));
+    });
+  }
+
+  /**
+   * Reloads the entry for the key from the loader and replaces the cached value, even if it is still fresh.
+   * A fresh entry in the shared tier that was fetched after the local one is taken instead of calling the
+   * loader, since another instance has just reloaded it.
+   * At most one reload per key runs at a time; a call made while one is running completes empty.
+   * Keys previously returned by {@link #refreshAheadCandidates} are stored as speculative refreshes.
+   * The loader runs with {@link CallPriority#BACKGROUND}, since a cached entry can be served meanwhile.
+   *
+   * @param key The normalized cache key.
+   * @param loader The function used to load the weather data from the providers.
+   * @return A Mono emitting the reloaded entry, or empty if a reload for the key is already running.
+   */
+  public Mono<CachedWeather> refresh(String key, Function<String, Mono<WeatherResponse>> loader) {
+    return Mono.defer(() -> {
+      boolean speculative = refreshAheadKeys.remove(key);
+      CompletableFuture<CachedWeather> reload = new CompletableFuture<>();
+      if (reloading.putIfAbsent(key, reload) != null) {
+        return Mono.empty();
+      }
+      if (speculative) {
+        refreshAheadIssuedCount.increment();
+      }
+      CachedWeather current = getIfPresent(key);
+      Mono<CachedWeather> upstream = Mono.defer(() -> loader.apply(key))
+          .contextWrite(CallPriority.BACKGROUND.asContext())
+          .map(value -> store(key, new CachedWeather(value, clock.instant(), speculative)))
+          .doOnNext(entry -> writeShared(key, entry));
+      return lookupShared(key, current == null ? Instant.MIN : current.getFetchedAt())
+          .map(shared -> store(key, new CachedWeather(shared.getResponse(), shared.getFetchedAt(), speculative)))
+          .switchIfEmpty(upstream)
+          .doOnSuccess(reload::complete)
+          .doOnError(reload::completeExceptionally)
+          .doFinally(signal -> {
+            reloading.remove(key, reload);
+            reload.complete(null);
+          });
+    });
+  }
+
+  /**
+   * Selects the keys that should be reloaded ahead of expiry: entries whose fresh window ends within
+   * {@code refreshAhead} and that were read within {@code accessWindow}. Keys that went cold are left
+   * to expire. Speculative entries that reached the end of their fresh window unread are counted as
+   * wasted refreshes.
+   *
+   * @param refreshAhead How long before the end of the fresh window an entry becomes due.
+   * @param accessWindow How recently an entry must have been read to be kept warm.
+   * @return The keys due for a refresh.
+   */
+  public List<String> refreshAheadCandidates(Duration refreshAhead, Duration accessWindow) {
+    long nowMillis = clock.millis();
+    Duration dueAge = freshTtl.minus(refreshAhead);
+    List<String> candidates = new ArrayList<>();
+    cache.asMap().forEach((key, future) -> {
+      CachedWeather cached = completedValue(future);
+      if (cached == null) {
+        return;
+      }
+      Duration age = cached.getAge(clock);
+      if (age.compareTo(freshTtl) >= 0 && cached.markWastedIfUnread()) {
+        refreshAheadWastedCount.increment();
+      }
+      boolean due = age.compareTo(dueAge) >= 0;
+      boolean hot = nowMillis - cached.lastAccessedAt() <= accessWindow.toMillis();
+      if (due && hot && !reloading.containsKey(key)) {
+        candidates.add(key);
+      }
+    });
+    refreshAheadKeys.addAll(candidates);
+    return candidates;
+  }
+
+  /**
+   * Returns the completed value cached for the key without triggering a load.
+   * The value may be stale; it is only guaranteed to be within the stale retention window.
+   *
+   * @param key The normalized cache key.
+   * @return The cached entry or null if no completed value is available.
+   */
+  public CachedWeather getIfPresent(String key) {
+    return completedValue(cache.getIfPresent(key));
+  }
+
+  /**
+   * Passes every completed entry to the action, without counting reads. Entries being loaded are skipped.
+   *
+   * @param action Receives each cache key and its entry.
+   */
+  public void forEachEntry(BiConsumer<String, CachedWeather> action) {
+    cache.asMap().forEach((key, future) -> {
+      CachedWeather cached = completedValue(future);
+      if (cached != null) {
+        action.accept(key, cached);
+      }
+    });
+  }
+
+  /**
+   * Adds an entry restored from a snapshot, unless the key already has an entry or a load in flight. The entry
+   * keeps its fetch time, so it is fresh, stale or expired exactly as it would have been without a restart.
+   * Restored entries are not counted as loads.
+   *
+   * @param key The normalized cache key.
+   * @param entry The restored entry.
+   * @return True if the entry was added.
+   */
+  public boolean restore(String key, CachedWeather entry) {
+    return cache.asMap().putIfAbsent(key, CompletableFuture.completedFuture(entry)) == null;
+  }
+
+  /**
+   * Looks up several keys at once and returns the entries that are completed and still fresh.
+   * Each returned entry counts as a hit; absent, in-flight and stale keys are left for {@link #get}.
+   *
+   * @param keys The normalized cache keys.
+   * @return The fresh entries, keyed by cache key.
+   */
+  public Map<String, CachedWeather> getAllFresh(Iterable<String> keys) {
+    Map<String, CachedWeather> present = cache.synchronous().getAllPresent(keys);
+    long nowMillis = clock.millis();
+    Map<String, CachedWeather> fresh = new HashMap<>(present.size() * 2);
+    present.forEach((key, cached) -> {
+      if (cached.isFresh(clock, freshTtl)) {
+        cached.recordAccess(nowMillis);
+        fresh.put(key, cached);
+      }
+    });
+    hitCount.add(fresh.size());
+    return fresh;
+  }
+
+  /**
+   * Returns whether the given entry is still within the fresh window.
+   *
+   * @param cachedWeather The cached entry.
+   * @return True if the entry is fresh, false if it is stale.
+   */
+  public boolean isFresh(CachedWeather cachedWeather) {
+    return cachedWeather.isFresh(clock, freshTtl);
+  }
+
+  /**
+   * Returns the approximate number of entries in the cache.
+   *
+   * @return The estimated cache size.
+   */
+  public long estimatedSize() {
+    return cache.synchronous().estimatedSize();
+  }
+
+  /**
+   * Returns a snapshot of the cache counters.
+   *
+   * @return The current {@link WeatherCacheStats}.
+   */
+  public WeatherCacheStats stats() {
+    return new WeatherCacheStats(
+        hitCount.sum(),
+        staleHitCount.sum(),
+        missCount.sum(),
+        coalescedCount.sum(),
+        loadSuccessCount.sum(),
+        loadFailureCount.sum(),
+        revalidationSuccessCount.sum(),
+        revalidationFailureCount.sum(),
+        refreshAheadIssuedCount.sum(),
+        refreshAheadWastedCount.sum(),
+        lookupNanos.sum());
+  }
+
+  /**
+   * Returns whether a shared second tier is configured.
+   *
+   * @return True if misses consult a {@link SharedWeatherCache}.
+   */
+  public boolean isSharedTierEnabled() {
+    return sharedCache != null;
+  }
+
+  /**
+   * Returns a snapshot of the shared tier counters.
+   *
+   * @return The current {@link SharedWeatherCacheStats}, all zero if no shared tier is configured.
+   */
+  public SharedWeatherCacheStats sharedStats() {
+    return new SharedWeatherCacheStats(
+        sharedHitCount.sum(),
+        sharedMissCount.sum(),
+        sharedErrorCount.sum(),
+        sharedAnswerCount.sum(),
+        sharedLookupNanos.sum(),
+        sharedWriteCount.sum(),
+        sharedWriteFailureCount.sum());
+  }
+
+  /**
+   * Completes the shared promise with a fresh entry of the shared tier, or else with the outcome of the
+   * loader, whose value is also written to the shared tier.
+   *
+   * @param key The normalized cache key.
+   * @param loader The function used to load the weather data.
+   * @param promise The future registered in the cache for this load.
+   */
+  private void load(String key, Function<String, Mono<WeatherResponse>> loader,
+      CompletableFuture<CachedWeather> promise) {
+    Mono<CachedWeather> upstream = Mono.defer(() -> loader.apply(key))
+        .map(value -> new CachedWeather(value, clock.instant()))
+        .doOnNext(entry -> {
+          loadSuccessCount.increment();
+          writeShared(key, entry);
+        })
+        .doOnError(error -> {
+          loadFailureCount.increment();
+          log.debug("Load failed for cache key {}: {}", key, error.getMessage());
+        });
+    lookupShared(key, Instant.MIN)
+        .doOnNext(shared -> shared.recordAccess(clock.millis()))
+        .switchIfEmpty(upstream)
+        .subscribe(promise::complete, promise::completeExceptionally, () -> promise.complete(null));
+  }
+
+  /**
+   * Looks up a fresh entry in the shared tier that was fetched after the given instant. Other entries count
+   * as misses, and failures of the tier are logged and treated as misses, so an unavailable tier can only cost
+   * provider calls, never fail a load. A {@link MissingQueryException} or {@link WeatherServiceException} is
+   * the tier's answer for the key rather than a failure of the tier, e.g. a peer owner whose providers failed,
+   * and fails the load without calling the providers here.
+   *
+   * @param key The normalized cache key.
+   * @param fetchedAfter The instant the shared entry must have been fetched after.
+   * @return A Mono emitting the shared entry, or completing empty.
+   */
+  private Mono<CachedWeather> lookupShared(String key, Instant fetchedAfter) {
+    if (sharedCache == null) {
+      return Mono.empty();
+    }
+    return Mono.defer(() -> {
+      long startNanos = System.nanoTime();
+      return sharedCache.get(key)
+          .filter(shared -> shared.isFresh(clock, freshTtl) && shared.getFetchedAt().isAfter(fetchedAfter))
+          .doOnSuccess(shared -> {
+            sharedLookupNanos.add(System.nanoTime() - startNanos);
+            (shared == null ? sharedMissCount : sharedHitCount).increment();
+          })
+          .onErrorResume(error -> !isSharedAnswer(error), error -> {
+            sharedLookupNanos.add(System.nanoTime() - startNanos);
+            sharedErrorCount.increment();
+            log.debug("Shared cache lookup failed for cache key {}: {}", key, error.getMessage());
+            return Mono.empty();
+          })
+          .doOnError(error -> {
+            sharedLookupNanos.add(System.nanoTime() - startNanos);
+            sharedAnswerCount.increment();
+          });
+    });
+  }
+
+  /**
+   * Returns whether a shared tier lookup failed with the tier's answer for the key rather than because the tier
+   * is unavailable.
+   *
+   * @param error The error of the lookup.
+   * @return True if the error is a final answer that must fail the load.
+   */
+  private static boolean isSharedAnswer(Throwable error) {
+    return error instanceof MissingQueryException || error instanceof WeatherServiceException;
+  }
+
+  /**
+   * Writes an upstream result to the shared tier in the background, for the rest of its fresh window.
+   *
+   * @param key The normalized cache key.
+   * @param entry The entry loaded from the providers.
+   */
+  private void writeShared(String key, CachedWeather entry) {
+    if (sharedCache == null) {
+      return;
+    }
+    sharedCache.put(key, entry, freshTtl.minus(entry.getAge(clock)))
+        .subscribe(
+            unused -> { },
+            error -> {
+              sharedWriteFailureCount.increment();
+              log.debug("Shared cache write failed for cache key {}: {}", key, error.getMessage());
+            },
+            sharedWriteCount::increment);
+  }
+
+  /**
+   * Reloads a stale entry in the background unless a revalidation for the key is already running.
+   * The stale entry stays in place until the reload succeeds, so a failing provider keeps it servable.
+   *
+   * @param key The normalized cache key.
+   * @param loader The function used to load the weather data.
+   */
+  private void revalidate(String key, Function<String, Mono<WeatherResponse>> loader) {
+    if (reloading.containsKey(key)) {
+      return;
+    }
+    refresh(key, loader)
+        .subscribe(
+            value -> revalidationSuccessCount.increment(),
+            error -> {
+              revalidationFailureCount.increment();
+              log.warn("Revalidation failed for cache key {}, keeping stale entry: {}", key, error.getMessage());
+            });
+  }
+
+  /**
+   * Replaces the cached value for the key, accounting for a speculative predecessor that was never read.
+   *
+   * @param key The normalized cache key.
+   * @param entry The new entry.
+   * @return The stored entry.
+   */
+  private CachedWeather store(String key, CachedWeather entry) {
+    CachedWeather previous = getIfPresent(key);
+    if (previous != null) {
+      entry.inheritAccess(previous);
+      if (previous.markWastedIfUnread()) {
+        refreshAheadWastedCount.increment();
+      }
+    }
+    cache.put(key, CompletableFuture.completedFuture(entry));
+    return entry;
+  }
+
+  /**
+   * Returns the value of a future that has completed normally.
+   *
+   * @param future The cached future, possibly null.
+   * @return The completed value, or null if the future is absent, pending or failed.
+   */
+  private static CachedWeather completedValue(CompletableFuture<CachedWeather> future) {
+    if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+      return null;
+    }
+    return future.join();
+  }
+}
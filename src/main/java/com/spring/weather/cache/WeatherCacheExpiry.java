@@ -0,0 +1,53 @@
+package com.spring.weather.cache;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Caffeine expiry policy that evicts a weather entry once it is older than the stale retention window.
+ * The remaining lifetime is derived from the entry's own fetch time, so an entry keeps its original age
+ * no matter when it was written to the cache.
+ */
+public class WeatherCacheExpiry implements Expiry<String, CachedWeather> {
+
+  private final Clock clock;
+  private final Duration staleRetention;
+
+  /**
+   * Constructs a new WeatherCacheExpiry.
+   *
+   * @param clock The clock used to compute entry ages.
+   * @param staleRetention How long an entry is retained after it was fetched.
+   */
+  public WeatherCacheExpiry(Clock clock, Duration staleRetention) {
+    this.clock = clock;
+    this.staleRetention = staleRetention;
+  }
+
+  @Override
+  public long expireAfterCreate(String key, CachedWeather value, long currentTime) {
+    return remainingNanos(value);
+  }
+
+  @Override
+  public long expireAfterUpdate(String key, CachedWeather value, long currentTime, long currentDuration) {
+    return remainingNanos(value);
+  }
+
+  @Override
+  public long expireAfterRead(String key, CachedWeather value, long currentTime, long currentDuration) {
+    return currentDuration;
+  }
+
+  /**
+   * Computes how long the entry may still be retained.
+   *
+   * @param value The cached weather entry.
+   * @return The remaining retention in nanoseconds, or zero if it has already elapsed.
+   */
+  private long remainingNanos(CachedWeather value) {
+    Duration remaining = staleRetention.minus(value.getAge(clock));
+    return remaining.isNegative() ? 0L : remaining.toNanos();
+  }
+}
@@ -0,0 +1,131 @@
+package com.spring.weather.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds the {@link WeatherCache} counters to the Micrometer registry.
+ * Tags are limited to fixed outcome values so the meter count does not grow with the number of cities.
+ */
+@Component
+@RequiredArgsConstructor
+public class WeatherCacheMetrics implements MeterBinder {
+
+  private final WeatherCache weatherCache;
+
+  /**
+   * Registers the cache request and load counters, the size and hit ratio gauges and the lookup latency of each
+   * tier. The shared tier meters are only registered when a shared tier is configured.
+   *
+   * @param registry The registry to bind the meters to.
+   */
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("weather.cache.requests", weatherCache, cache -> cache.stats().hitCount())
+        .tag("result", "hit")
+        .description("Weather cache lookups served from a fresh entry")
+        .register(registry);
+    FunctionCounter.builder("weather.cache.requests", weatherCache, cache -> cache.stats().staleHitCount())
+        .tag("result", "stale")
+        .description("Weather cache lookups served from a stale entry while it was revalidated")
+        .register(registry);
+    FunctionCounter.builder("weather.cache.requests", weatherCache, cache -> cache.stats().missCount())
+        .tag("result", "miss")
+        .description("Weather cache lookups that started an upstream load")
+        .register(registry);
+    FunctionCounter.builder("weather.cache.requests", weatherCache, cache -> cache.stats().coalescedCount())
+        .tag("result", "coalesced")
+        .description("Weather cache lookups that joined an upstream load already in flight")
+        .register(registry);
+    FunctionCounter.builder("weather.cache.loads", weatherCache, cache -> cache.stats().loadSuccessCount())
+        .tag("result", "success")
+        .description("Upstream loads triggered by the weather cache")
+        .register(registry);
+    FunctionCounter.builder("weather.cache.loads", weatherCache, cache -> cache.stats().loadFailureCount())
+        .tag("result", "failure")
+        .description("Upstream loads triggered by the weather cache")
+        .register(registry);
+    FunctionCounter.builder("weather.cache.revalidations", weatherCache,
+            cache -> cache.stats().revalidationSuccessCount())
+        .tag("result", "success")
+        .description("Background revalidations of stale weather cache entries")
+        .register(registry);
+    FunctionCounter.builder("weather.cache.revalidations", weatherCache,
+            cache -> cache.stats().revalidationFailureCount())
+        .tag("result", "failure")
+        .description("Background revalidations of stale weather cache entries")
+        .register(registry);
+    FunctionCounter.builder("weather.cache.refresh.ahead", weatherCache,
+            cache -> cache.stats().refreshAheadIssuedCount())
+        .tag("result", "issued")
+        .description("Reloads of hot weather cache entries issued ahead of expiry")
+        .register(registry);
+    FunctionCounter.builder("weather.cache.refresh.ahead", weatherCache,
+            cache -> cache.stats().refreshAheadWastedCount())
+        .tag("result", "wasted")
+        .description("Refresh-ahead results that were replaced or expired without being read")
+        .register(registry);
+    Gauge.builder("weather.cache.size", weatherCache, WeatherCache::estimatedSize)
+        .description("Estimated number of weather cache entries, fresh or stale")
+        .register(registry);
+    Gauge.builder("weather.cache.hit.ratio", weatherCache, cache -> cache.stats().hitRatio())
+        .description("Share of weather cache lookups served from a fresh or stale entry since startup")
+        .register(registry);
+    FunctionTimer.builder("weather.cache.latency", weatherCache,
+            cache -> cache.stats().lookupCount(), cache -> cache.stats().lookupNanos(), TimeUnit.NANOSECONDS)
+        .tag("tier", "l1")
+        .description("Time spent looking up keys in a weather cache tier")
+        .register(registry);
+    if (weatherCache.isSharedTierEnabled()) {
+      bindSharedTier(registry);
+    }
+  }
+
+  /**
+   * Registers the shared tier request and write counters, hit ratio and lookup latency.
+   *
+   * @param registry The registry to bind the meters to.
+   */
+  private void bindSharedTier(MeterRegistry registry) {
+    FunctionCounter.builder("weather.cache.l2.requests", weatherCache, cache -> cache.sharedStats().hitCount())
+        .tag("result", "hit")
+        .description("Shared weather cache lookups answered with a fresh entry")
+        .register(registry);
+    FunctionCounter.builder("weather.cache.l2.requests", weatherCache, cache -> cache.sharedStats().missCount())
+        .tag("result", "miss")
+        .description("Shared weather cache lookups that found no usable entry")
+        .register(registry);
+    FunctionCounter.builder("weather.cache.l2.requests", weatherCache, cache -> cache.sharedStats().errorCount())
+        .tag("result", "error")
+        .description("Shared weather cache lookups that failed and were treated as misses")
+        .register(registry);
+    FunctionCounter.builder("weather.cache.l2.requests", weatherCache, cache -> cache.sharedStats().answerCount())
+        .tag("result", "answer")
+        .description("Shared weather cache lookups answered with an error for the key")
+        .register(registry);
+    FunctionCounter.builder("weather.cache.l2.writes", weatherCache, cache -> cache.sharedStats().writeCount())
+        .tag("result", "success")
+        .description("Upstream results written to the shared weather cache")
+        .register(registry);
+    FunctionCounter.builder("weather.cache.l2.writes", weatherCache,
+            cache -> cache.sharedStats().writeFailureCount())
+        .tag("result", "failure")
+        .description("Upstream results written to the shared weather cache")
+        .register(registry);
+    Gauge.builder("weather.cache.l2.hit.ratio", weatherCache, cache -> cache.sharedStats().hitRatio())
+        .description("Share of shared weather cache lookups answered with a fresh entry since startup")
+        .register(registry);
+    FunctionTimer.builder("weather.cache.latency", weatherCache,
+            cache -> cache.sharedStats().lookupCount(), cache -> cache.sharedStats().lookupNanos(),
+            TimeUnit.NANOSECONDS)
+        .tag("tier", "l2")
+        .description("Time spent looking up keys in a weather cache tier")
+        .register(registry);
+  }
+}
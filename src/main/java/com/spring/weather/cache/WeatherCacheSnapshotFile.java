@@ -0,0 +1,149 @@
+package com.spring.weather.cache;
+
+import com.spring.weather.dto.WeatherResponse;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * The binary file format of weather cache snapshots, read and written through memory-mapped I/O.
+ *
+ * <p>A snapshot is a header (magic number, format version, creation time in epoch milliseconds and entry count)
+ * followed by one record per entry: the key length as an unsigned short, the UTF-8 key, the fetch time in epoch
+ * milliseconds, the wind speed and the temperature. Numbers are big-endian. A record takes 26 bytes plus its
+ * key, so a million cities fit in a few tens of megabytes; a snapshot is limited to 2 GiB, the size of one
+ * mapping.
+ *
+ * <p>Snapshots are written to a temporary file next to the target and moved over it, so a crash while writing
+ * never leaves a truncated snapshot behind.
+ */
+public final class WeatherCacheSnapshotFile {
+
+  /**
+   * The magic number at the start of every snapshot, "WCS1" in ASCII.
+   */
+  static final int MAGIC = 0x57435331;
+
+  /**
+   * The format version written by this class.
+   */
+  static final int VERSION = 1;
+
+  private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+  private static final int RECORD_BYTES = 2 + 8 + 8 + 8;
+  private static final int MAX_KEY_BYTES = 0xffff;
+
+  /**
+   * Prevents instantiation.
+   */
+  private WeatherCacheSnapshotFile() {
+  }
+
+  /**
+   * Writes the completed entries of a cache to a snapshot, replacing any previous one. Keys longer than 65535
+   * bytes are skipped.
+   *
+   * @param path The snapshot file.
+   * @param weatherCache The cache to snapshot.
+   * @param createdAt The time recorded as the creation time of the snapshot.
+   * @return The number of entries written.
+   * @throws IOException if the snapshot cannot be written or would exceed 2 GiB.
+   */
+  public static int write(Path path, WeatherCache weatherCache, Instant createdAt) throws IOException {
+    List<byte[]> keys = new ArrayList<>();
+    List<CachedWeather> entries = new ArrayList<>();
+    long[] size = {HEADER_BYTES};
+    weatherCache.forEachEntry((key, entry) -> {
+      byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+      if (keyBytes.length > MAX_KEY_BYTES) {
+        return;
+      }
+      keys.add(keyBytes);
+      entries.add(entry);
+      size[0] += RECORD_BYTES + keyBytes.length;
+    });
+    if (size[0] > Integer.MAX_VALUE) {
+      throw new IOException("Snapshot of " + entries.size() + " entries exceeds " + Integer.MAX_VALUE + " bytes");
+    }
+
+    Path absolute = path.toAbsolutePath();
+    Files.createDirectories(absolute.getParent());
+    Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size[0]);
+      buffer.putInt(MAGIC)
+          .putInt(VERSION)
+          .putLong(createdAt.toEpochMilli())
+          .putInt(entries.size());
+      for (int i = 0; i < entries.size(); i++) {
+        CachedWeather entry = entries.get(i);
+        WeatherResponse response = entry.getResponse();
+        buffer.putShort((short) keys.get(i).length)
+            .put(keys.get(i))
+            .putLong(entry.getFetchedAt().toEpochMilli())
+            .putDouble(response.getWindSpeed())
+            .putDouble(response.getTemperatureDegrees());
+      }
+      buffer.force();
+    }
+    Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    return entries.size();
+  }
+
+  /**
+   * Reads the entries of a snapshot in the order they were written, passing each to a consumer until the
+   * consumer declines further entries.
+   *
+   * @param path The snapshot file.
+   * @param consumer Receives each key and a new entry with its original fetch time, and returns whether to
+   *     continue reading.
+   * @return The number of entries passed to the consumer.
+   * @throws IOException if the file cannot be read, is not a snapshot or is truncated.
+   */
+  public static int read(Path path, BiPredicate<String, CachedWeather> consumer) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+        throw new IOException("Not a weather cache snapshot: " + path);
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      if (buffer.getInt() != MAGIC) {
+        throw new IOException("Not a weather cache snapshot: " + path);
+      }
+      int version = buffer.getInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported weather cache snapshot version " + version + ": " + path);
+      }
+      buffer.getLong();
+      int count = buffer.getInt();
+      int read = 0;
+      try {
+        while (read < count) {
+          byte[] key = new byte[Short.toUnsignedInt(buffer.getShort())];
+          buffer.get(key);
+          Instant fetchedAt = Instant.ofEpochMilli(buffer.getLong());
+          WeatherResponse response = new WeatherResponse(buffer.getDouble(), buffer.getDouble());
+          read++;
+          if (!consumer.test(new String(key, StandardCharsets.UTF_8), new CachedWeather(response, fetchedAt))) {
+            break;
+          }
+        }
+      } catch (BufferUnderflowException e) {
+        throw new IOException("Truncated weather cache snapshot after " + read + " of " + count + " entries: "
+            + path, e);
+      }
+      return read;
+    }
+  }
+}
@@ -0,0 +1,180 @@
+package com.spring.weather.cache;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Keeps the weather cache across restarts by periodically writing it to a {@link WeatherCacheSnapshotFile} and
+ * restoring the last snapshot at startup, so a rollout does not start every instance with an empty cache and
+ * send a burst of misses to the providers.
+ *
+ * <p>Restored entries keep their original fetch time, so the usual fresh and stale windows apply to them;
+ * entries past the stale retention are skipped. The restore runs in the background and startup waits for it
+ * at most the configured load timeout, after which the application becomes ready and the rest of the snapshot
+ * keeps loading. Entries loaded from the providers in the meantime are never replaced. Snapshots are only
+ * written once the restore has finished, so a partly restored cache never replaces a complete snapshot, and a
+ * last snapshot is written on shutdown. Snapshots are written one at a time, so the last one waits for a
+ * periodic snapshot still running rather than writing the same temporary file at once.
+ */
+@Slf4j
+@Component
+@Order(WeatherCacheSnapshots.ORDER)
+public class WeatherCacheSnapshots implements ApplicationRunner {
+
+  /**
+   * The order of the restore among the application runners, ahead of the {@link CacheWarmer} so the warm-up
+   * skips restored entries that are still fresh.
+   */
+  public static final int ORDER = 0;
+
+  private final WeatherCache weatherCache;
+  private final Clock clock;
+  private final boolean enabled;
+  private final Path path;
+  private final Duration interval;
+  private final Duration loadTimeout;
+  private final Duration retention;
+  private final Object snapshotLock = new Object();
+
+  private volatile boolean restored;
+  private volatile boolean stopping;
+  private Disposable task;
+
+  /**
+   * Constructs a new WeatherCacheSnapshots.
+   *
+   * @param weatherCache The cache to snapshot and restore.
+   * @param clock The clock used to age restored entries.
+   * @param enabled Whether snapshots are written and restored.
+   * @param path The snapshot file.
+   * @param intervalSeconds How often a snapshot is written, in seconds.
+   * @param loadTimeoutMillis How long startup waits for the restore, in milliseconds.
+   * @param freshTtlSeconds The fresh window of cached entries, in seconds.
+   * @param staleRetentionSeconds How long entries are kept after their fresh window, in seconds.
+   */
+  public WeatherCacheSnapshots(
+      WeatherCache weatherCache,
+      Clock clock,
+      @Value("${weather.cache.snapshot.enabled:false}") boolean enabled,
+      @Value("${weather.cache.snapshot.path:weather-cache.snapshot}") Path path,
+      @Value("${weather.cache.snapshot.interval.seconds:60}") long intervalSeconds,
+      @Value("${weather.cache.snapshot.load.timeout.millis:2000}") long loadTimeoutMillis,
+      @Value("${weather.cache.expiry.seconds:3}") long freshTtlSeconds,
+      @Value("${weather.cache.stale.retention.seconds:600}") long staleRetentionSeconds) {
+    this.weatherCache = weatherCache;
+    this.clock = clock;
+    this.enabled = enabled;
+    this.path = path;
+    this.interval = Duration.ofSeconds(intervalSeconds);
+    this.loadTimeout = Duration.ofMillis(loadTimeoutMillis);
+    this.retention = Duration.ofSeconds(freshTtlSeconds + staleRetentionSeconds);
+  }
+
+  /**
+   * Restores the last snapshot, waiting at most the load timeout, and starts the periodic snapshots.
+   *
+   * @param args The application arguments.
+   */
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!enabled) {
+      return;
+    }
+    CompletableFuture<Void> restore = Mono.<Void>fromRunnable(this::restore)
+        .subscribeOn(Schedulers.boundedElastic())
+        .toFuture();
+    try {
+      restore.get(loadTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      log.info("Cache snapshot not restored within {}, continuing in the background", loadTimeout);
+    } catch (ExecutionException e) {
+      log.warn("Failed to restore cache snapshot from {}", path, e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    task = Flux.interval(interval)
+        .onBackpressureDrop()
+        .concatMap(tick -> Mono.fromRunnable(this::snapshot).subscribeOn(Schedulers.boundedElastic()), 1)
+        .subscribe();
+  }
+
+  /**
+   * Stops the periodic snapshots and writes a last one, once a periodic snapshot still running has finished.
+   */
+  @PreDestroy
+  public void stop() {
+    stopping = true;
+    if (task != null) {
+      task.dispose();
+    }
+    if (enabled) {
+      snapshot();
+    }
+  }
+
+  /**
+   * Restores the entries of the last snapshot that are still within the stale retention. A missing or
+   * unreadable snapshot leaves the cache empty. The restore stops early if the application shuts down.
+   */
+  void restore() {
+    long startNanos = System.nanoTime();
+    int[] added = {0};
+    try {
+      int read = WeatherCacheSnapshotFile.read(path, (key, entry) -> {
+        if (entry.getAge(clock).compareTo(retention) < 0 && weatherCache.restore(key, entry)) {
+          added[0]++;
+        }
+        return !stopping;
+      });
+      log.info("Restored {} of {} cache entries from {} in {} ms", added[0], read, path,
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    } catch (NoSuchFileException e) {
+      log.info("No cache snapshot at {}, starting with an empty cache", path);
+    } catch (IOException e) {
+      log.warn("Failed to restore cache snapshot from {} after {} entries: {}", path, added[0], e.getMessage());
+    } finally {
+      // A restore cut short by shutdown must not be written back over the complete snapshot.
+      restored = !stopping;
+    }
+  }
+
+  /**
+   * Writes a snapshot of the cache, unless the restore has not finished yet, after any snapshot still being
+   * written. Failures are logged and the previous snapshot is kept.
+   */
+  void snapshot() {
+    if (!restored) {
+      return;
+    }
+    synchronized (snapshotLock) {
+      long startNanos = System.nanoTime();
+      try {
+        int written = WeatherCacheSnapshotFile.write(path, weatherCache, Instant.now(clock));
+        log.debug("Wrote {} cache entries to {} ({} bytes) in {} ms", written, path, Files.size(path),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+      } catch (IOException e) {
+        log.warn("Failed to write cache snapshot to {}: {}", path, e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.spring.weather.cache;
+
+/**
+ * Point-in-time snapshot of the {@link WeatherCache} counters.
+ *
+ * @param hitCount The number of lookups served from a fresh entry.
+ * @param staleHitCount The number of lookups served from a stale entry while it was revalidated.
+ * @param missCount The number of lookups that started an upstream load.
+ * @param coalescedCount The number of lookups that joined a load already in flight.
+ * @param loadSuccessCount The number of loads that completed with a value.
+ * @param loadFailureCount The number of loads that completed with an error.
+ * @param revalidationSuccessCount The number of background revalidations that replaced a stale entry.
+ * @param revalidationFailureCount The number of background revalidations that failed.
+ * @param refreshAheadIssuedCount The number of refresh-ahead reloads started for hot keys.
+ * @param refreshAheadWastedCount The number of refresh-ahead results that were never read.
+ * @param lookupNanos The total time spent looking up keys in the in-process tier, in nanoseconds.
+ */
+public record WeatherCacheStats(
+    long hitCount,
+    long staleHitCount,
+    long missCount,
+    long coalescedCount,
+    long loadSuccessCount,
+    long loadFailureCount,
+    long revalidationSuccessCount,
+    long revalidationFailureCount,
+    long refreshAheadIssuedCount,
+    long refreshAheadWastedCount,
+    long lookupNanos) {
+
+  /**
+   * Returns the total number of loads that have completed.
+   *
+   * @return The sum of successful and failed loads.
+   */
+  public long loadCount() {
+    return loadSuccessCount + loadFailureCount;
+  }
+
+  /**
+   * Returns the total number of lookups.
+   *
+   * @return The sum of hits, stale hits, misses and coalesced lookups.
+   */
+  public long lookupCount() {
+    return hitCount + staleHitCount + missCount + coalescedCount;
+  }
+
+  /**
+   * Returns the share of lookups answered from the cache, from a fresh or a stale entry.
+   * Lookups that joined a load in flight count as misses, since they waited for the provider.
+   *
+   * @return The hit ratio between 0 and 1, or 0 if there were no lookups.
+   */
+  public double hitRatio() {
+    long hits = hitCount + staleHitCount;
+    long lookups = hits + missCount + coalescedCount;
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+}
@@ -0,0 +1,76 @@
+package com.spring.weather.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.spring.weather.dto.WeatherResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Encodes weather responses into the bytes memoized by {@link CachedWeather}, using the application's
+ * {@link ObjectMapper} so the body is identical to what the HTTP message converters would write.
+ */
+@Component
+public class WeatherResponseEncoder {
+
+  private final ObjectWriter writer;
+  private final boolean gzipEnabled;
+
+  /**
+   * Constructs a new WeatherResponseEncoder.
+   *
+   * @param objectMapper The object mapper configured for the application.
+   * @param gzipEnabled Whether a gzip compressed copy of the body is kept for clients that accept it.
+   */
+  public WeatherResponseEncoder(
+      ObjectMapper objectMapper,
+      @Value("${weather.response.gzip.enabled:false}") boolean gzipEnabled) {
+    this.writer = objectMapper.writerFor(WeatherResponse.class);
+    this.gzipEnabled = gzipEnabled;
+  }
+
+  /**
+   * Encodes a weather response.
+   *
+   * @param response The weather response.
+   * @return The encoded body, with a gzip copy if compression is enabled.
+   */
+  public EncodedWeather encode(WeatherResponse response) {
+    try {
+      byte[] json = writer.writeValueAsBytes(response);
+      return new EncodedWeather(json, gzipEnabled ? gzip(json) : null);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot encode weather response", e);
+    }
+  }
+
+  /**
+   * Returns whether encoded bodies carry a gzip compressed copy.
+   *
+   * @return True if compression is enabled.
+   */
+  public boolean isGzipEnabled() {
+    return gzipEnabled;
+  }
+
+  /**
+   * Compresses a body with gzip.
+   *
+   * @param body The body to compress.
+   * @return The compressed body.
+   */
+  private static byte[] gzip(byte[] body) {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length + 32);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(body);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return compressed.toByteArray();
+  }
+}
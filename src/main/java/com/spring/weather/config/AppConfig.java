@@ -1,17 +1,30 @@
 package com.spring.weather.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.weather.cache.CachedWeather;
+import com.spring.weather.cache.InProcessSharedWeatherCache;
+import com.spring.weather.cache.RespSharedWeatherCache;
+import com.spring.weather.cache.SharedWeatherCache;
+import com.spring.weather.cache.WeatherCache;
+import com.spring.weather.cache.WeatherCacheExpiry;
+import java.time.Clock;
 import java.time.Duration;
+import java.util.List;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.reactive.function.client.WebClient;
 
 /**
  * Configuration class for application wide beans and settings.
- * This Configuration class defines beans for caching and web client functionality.
+ * This Configuration class defines beans for caching functionality, including the optional shared second
+ * cache tier selected with `weather.cache.l2.type` (`in-process` or `resp`; unset disables it).
+ * The `peer` tier is defined in {@link PeerConfiguration}.
+ * The provider web clients are defined in {@link ProviderHttpClientConfiguration}.
  */
 @Configuration
 public class AppConfig {
@@ -24,36 +37,110 @@ public class AppConfig {
   private int cacheExpirySeconds;
 
   /**
-   * Creates a {@link WebClient} bean for making reactive HTTP requests.
+   * How long an entry is kept after its fresh window has elapsed, so it can still be served while
+   * it is revalidated or when every provider is failing. Configurable via the property
+   * `weather.cache.stale.retention.seconds`. Defaults to 600 seconds if not specified.
+   */
+  @Value("${weather.cache.stale.retention.seconds:600}")
+  private int staleRetentionSeconds;
+
+  /**
+   * The maximum number of cities kept in the cache, configurable via the property
+   * `weather.cache.max.size`. Defaults to 10000 if not specified. Beyond it, the entries least likely to be
+   * requested again are evicted before they expire, so requests for many distinct cities cannot grow the heap
+   * without bound.
+   */
+  @Value("${weather.cache.max.size:10000}")
+  private long cacheMaxSize;
+
+  /**
+   * Creates the {@link Clock} used to timestamp and age cached data.
+   *
+   * @return the system UTC clock
+   */
+  @Bean
+  public Clock clock() {
+    return Clock.systemUTC();
+  }
+
+  /**
+   * Creates the asynchronous Caffeine cache backing the {@link WeatherCache}.
+   * Values are the resolved weather responses, so concurrent misses can share one in-flight load.
+   * Entries are evicted once they are older than the fresh window plus the stale retention, or earlier once
+   * the cache holds more than `weather.cache.max.size` entries.
    *
-   * @return a configured {@link WebClient} instance
+   * @param clock the clock used to age cached entries
+   * @return a configured {@link AsyncCache} instance
    */
   @Bean
-  public WebClient webClient() {
-    return WebClient.builder().build();
+  public AsyncCache<String, CachedWeather> weatherAsyncCache(Clock clock) {
+    Duration retention = Duration.ofSeconds((long) cacheExpirySeconds + staleRetentionSeconds);
+    return caffeineCacheBuilder()
+        .maximumSize(cacheMaxSize)
+        .expireAfter(new WeatherCacheExpiry(clock, retention))
+        .buildAsync();
   }
 
   /**
    * Creates a {@link CacheManager} bean using Caffeine for caching.
-   * The cache manager is configured with a cache named "weatherCache".
+   * The weather cache is registered under the name "weatherCache" so it stays visible to the actuator.
    *
+   * @param weatherAsyncCache the cache backing the {@link WeatherCache}
    * @return a configured {@link CacheManager} instance
    */
   @Bean
-  public CacheManager cacheManager() {
-    CaffeineCacheManager cacheManager = new CaffeineCacheManager("weatherCache");
-    cacheManager.setCaffeine(caffeineCacheBuilder());
+  @SuppressWarnings("unchecked")
+  public CacheManager cacheManager(AsyncCache<String, CachedWeather> weatherAsyncCache) {
+    CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+    cacheManager.setCacheNames(List.of());
+    cacheManager.registerCustomCache(WeatherCache.CACHE_NAME,
+        (AsyncCache<Object, Object>) (AsyncCache<?, ?>) weatherAsyncCache);
     return cacheManager;
   }
 
   /**
-   * Configures the Caffeine cache builder with an expiry time and statistics recording.
+   * Creates a shared cache tier held in this instance's memory, standing in for a remote one.
+   *
+   * @param maxSize the maximum number of entries kept
+   * @return the in-process {@link SharedWeatherCache}
+   */
+  @Bean
+  @ConditionalOnProperty(name = "weather.cache.l2.type", havingValue = "in-process")
+  public SharedWeatherCache inProcessSharedWeatherCache(@Value("${weather.cache.l2.max.size:10000}") long maxSize) {
+    return new InProcessSharedWeatherCache(maxSize);
+  }
+
+  /**
+   * Creates a shared cache tier stored in a Redis protocol server. Its connections are closed on shutdown.
+   *
+   * @param objectMapper the object mapper used to encode stored responses
+   * @param host the host of the server
+   * @param port the port of the server
+   * @param poolSize the maximum number of idle connections kept open
+   * @param timeoutMillis the connect and read timeout of each call, in milliseconds
+   * @param keyPrefix the prefix of the stored keys
+   * @return the Redis protocol {@link SharedWeatherCache}
+   */
+  @Bean
+  @ConditionalOnProperty(name = "weather.cache.l2.type", havingValue = "resp")
+  public RespSharedWeatherCache respSharedWeatherCache(
+      ObjectMapper objectMapper,
+      @Value("${weather.cache.l2.host:localhost}") String host,
+      @Value("${weather.cache.l2.port:6379}") int port,
+      @Value("${weather.cache.l2.pool.size:8}") int poolSize,
+      @Value("${weather.cache.l2.timeout.millis:50}") long timeoutMillis,
+      @Value("${weather.cache.l2.key.prefix:weather:}") String keyPrefix) {
+    return new RespSharedWeatherCache(host, port, poolSize, Duration.ofMillis(timeoutMillis), keyPrefix,
+        objectMapper);
+  }
+
+  /**
+   * Configures the Caffeine cache builder with statistics recording.
    *
    * @return a {@link Caffeine} builder instance
    */
   private Caffeine<Object, Object> caffeineCacheBuilder() {
     return Caffeine.newBuilder()
-        .expireAfterWrite(Duration.ofSeconds(cacheExpirySeconds))
         .recordStats();
   }
 }
\ No newline at end of file
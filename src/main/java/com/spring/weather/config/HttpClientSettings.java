@@ -0,0 +1,72 @@
+package com.spring.weather.config;
+
+import java.time.Duration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Connection pool and timeout settings of the HTTP client used for one weather provider.
+ * Each setting is read from {@code weather.http.<provider>.<setting>}, falling back to the shared
+ * {@code weather.http.<setting>} and then to the default below.
+ *
+ * @param maxConnections The maximum number of open connections in the pool.
+ * @param pendingAcquireMaxCount The maximum number of requests waiting for a connection before new ones are rejected.
+ * @param pendingAcquireTimeout How long a request waits for a connection before it fails.
+ * @param maxIdleTime How long an idle connection is kept open.
+ * @param maxLifeTime How long a connection is reused before it is closed, so DNS changes are picked up.
+ * @param evictionInterval How often idle and expired connections are closed in the background.
+ * @param connectTimeout The TCP connect timeout.
+ * @param responseTimeout The maximum time between sending a request and receiving the response headers.
+ * @param dnsCacheMaxTimeToLive The maximum time a resolved address is cached, regardless of its DNS TTL.
+ * @param warmupConnections The number of connections opened to the provider at startup.
+ */
+public record HttpClientSettings(
+    int maxConnections,
+    int pendingAcquireMaxCount,
+    Duration pendingAcquireTimeout,
+    Duration maxIdleTime,
+    Duration maxLifeTime,
+    Duration evictionInterval,
+    Duration connectTimeout,
+    Duration responseTimeout,
+    Duration dnsCacheMaxTimeToLive,
+    int warmupConnections) {
+
+  private static final String PREFIX = "weather.http.";
+
+  /**
+   * Reads the settings of the given provider from the environment.
+   *
+   * @param environment The environment holding the application properties.
+   * @param provider The provider key used in the property names, e.g. {@code weatherstack}.
+   * @return The settings of the provider.
+   */
+  public static HttpClientSettings from(Environment environment, String provider) {
+    return new HttpClientSettings(
+        get(environment, provider, "max.connections", Integer.class, 50),
+        get(environment, provider, "pending.acquire.max.count", Integer.class, 200),
+        get(environment, provider, "pending.acquire.timeout", Duration.class, Duration.ofSeconds(2)),
+        get(environment, provider, "max.idle.time", Duration.class, Duration.ofSeconds(30)),
+        get(environment, provider, "max.life.time", Duration.class, Duration.ofMinutes(5)),
+        get(environment, provider, "eviction.interval", Duration.class, Duration.ofSeconds(30)),
+        get(environment, provider, "connect.timeout", Duration.class, Duration.ofSeconds(2)),
+        get(environment, provider, "response.timeout", Duration.class, Duration.ofSeconds(5)),
+        get(environment, provider, "dns.cache.max.ttl", Duration.class, Duration.ofMinutes(1)),
+        get(environment, provider, "warmup.connections", Integer.class, 2));
+  }
+
+  /**
+   * Reads a single setting, preferring the provider specific property over the shared one.
+   *
+   * @param environment The environment holding the application properties.
+   * @param provider The provider key used in the property names.
+   * @param setting The setting name.
+   * @param type The type of the setting.
+   * @param defaultValue The value used if neither property is set.
+   * @param <T> The type of the setting.
+   * @return The value of the setting.
+   */
+  private static <T> T get(Environment environment, String provider, String setting, Class<T> type, T defaultValue) {
+    T shared = environment.getProperty(PREFIX + setting, type, defaultValue);
+    return environment.getProperty(PREFIX + provider + "." + setting, type, shared);
+  }
+}
@@ -0,0 +1,75 @@
+package com.spring.weather.config;
+
+import com.spring.weather.peer.PeerRing;
+import com.spring.weather.peer.PeerWeatherCache;
+import io.netty.channel.ChannelOption;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Configuration of the peer sharding mode, enabled with `weather.cache.l2.type=peer`.
+ * The instances listed in `weather.peer.members` form a consistent-hash ring over the cache keys, and each
+ * instance uses the others as its shared cache tier, fetching every key it does not own from its owner.
+ * Membership is static: every instance must be configured with the same member list.
+ */
+@Configuration
+@ConditionalOnProperty(name = "weather.cache.l2.type", havingValue = "peer")
+public class PeerConfiguration {
+
+  /**
+   * Creates the ring assigning cache keys to instances.
+   *
+   * @param self The base URL of this instance, as listed in the members.
+   * @param members The base URLs of all instances, including this one.
+   * @param virtualNodes The number of points each member takes on the ring.
+   * @return the {@link PeerRing}
+   */
+  @Bean
+  public PeerRing peerRing(
+      @Value("${weather.peer.self}") String self,
+      @Value("${weather.peer.members}") List<String> members,
+      @Value("${weather.peer.virtual.nodes:100}") int virtualNodes) {
+    return new PeerRing(self, members, virtualNodes);
+  }
+
+  /**
+   * Creates the connection pool used to call peers, kept apart from the provider pools.
+   *
+   * @return a configured {@link ConnectionProvider} instance
+   */
+  @Bean(destroyMethod = "dispose")
+  public ConnectionProvider peerConnectionProvider() {
+    return ConnectionProvider.builder("peers")
+        .metrics(true)
+        .build();
+  }
+
+  /**
+   * Creates the shared cache tier served by the owners of the keys.
+   *
+   * @param ring The ring assigning cache keys to instances.
+   * @param connectionProvider The connection pool used to call peers.
+   * @param timeoutMillis How long to wait for an owner's answer before loading a key locally, in milliseconds.
+   * @param connectTimeoutMillis How long to wait for a connection to an owner, in milliseconds.
+   * @return the {@link PeerWeatherCache}
+   */
+  @Bean
+  public PeerWeatherCache peerWeatherCache(
+      PeerRing ring,
+      @Qualifier("peerConnectionProvider") ConnectionProvider connectionProvider,
+      @Value("${weather.peer.timeout.millis:10000}") long timeoutMillis,
+      @Value("${weather.peer.connect.timeout.millis:500}") long connectTimeoutMillis) {
+    Duration timeout = Duration.ofMillis(timeoutMillis);
+    HttpClient httpClient = HttpClient.create(connectionProvider)
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeoutMillis)
+        .responseTimeout(timeout);
+    return new PeerWeatherCache(ring, ProviderHttpClientConfiguration.createWebClient(httpClient), timeout);
+  }
+}
@@ -0,0 +1,85 @@
+package com.spring.weather.config;
+
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Prepares the provider HTTP clients at startup so the first requests do not pay for event loop creation,
+ * DNS resolution and TCP/TLS connection setup. Each client is warmed up and then opens its configured number
+ * of connections with HEAD requests to the provider base URL; the connections stay in the pool afterwards.
+ * Failures are logged and never prevent the application from starting.
+ */
+@Slf4j
+@Component
+public class ProviderConnectionWarmer implements ApplicationRunner {
+
+  private final HttpClient weatherStackHttpClient;
+  private final HttpClient openWeatherMapHttpClient;
+  private final Environment environment;
+  private final Duration timeout;
+
+  /**
+   * Constructs a new ProviderConnectionWarmer.
+   *
+   * @param weatherStackHttpClient The HTTP client dedicated to WeatherStack.
+   * @param openWeatherMapHttpClient The HTTP client dedicated to OpenWeatherMap.
+   * @param environment The environment holding the number of connections to open per provider.
+   * @param timeout The maximum time startup waits for the warm-up.
+   */
+  public ProviderConnectionWarmer(
+      @Qualifier("weatherStackHttpClient") HttpClient weatherStackHttpClient,
+      @Qualifier("openWeatherMapHttpClient") HttpClient openWeatherMapHttpClient,
+      Environment environment,
+      @Value("${weather.http.warmup.timeout:5s}") Duration timeout) {
+    this.weatherStackHttpClient = weatherStackHttpClient;
+    this.openWeatherMapHttpClient = openWeatherMapHttpClient;
+    this.environment = environment;
+    this.timeout = timeout;
+  }
+
+  /**
+   * Warms up both provider clients in parallel, waiting at most the configured timeout.
+   *
+   * @param args The application arguments.
+   */
+  @Override
+  public void run(ApplicationArguments args) {
+    Mono.when(
+            warmUp(ProviderHttpClientConfiguration.WEATHERSTACK, weatherStackHttpClient),
+            warmUp(ProviderHttpClientConfiguration.OPENWEATHERMAP, openWeatherMapHttpClient))
+        .block();
+  }
+
+  /**
+   * Warms up a single provider client.
+   *
+   * @param name The provider key used in the property names.
+   * @param httpClient The HTTP client to warm up.
+   * @return A Mono completing when the connections are open, or when the warm-up failed or timed out.
+   */
+  Mono<Void> warmUp(String name, HttpClient httpClient) {
+    int connections = HttpClientSettings.from(environment, name).warmupConnections();
+    if (connections <= 0) {
+      return Mono.empty();
+    }
+    return httpClient.warmup()
+        .then(Flux.range(0, connections)
+            .flatMap(i -> httpClient.head().uri("/").response(), connections)
+            .then())
+        .timeout(timeout)
+        .doOnSuccess(ignored -> log.info("Opened {} warm connections to {}", connections, name))
+        .onErrorResume(e -> {
+          log.warn("Failed to warm up connections to {}: {}", name, e.getMessage());
+          return Mono.empty();
+        });
+  }
+}
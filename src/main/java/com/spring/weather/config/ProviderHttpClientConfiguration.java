@@ -0,0 +1,157 @@
+package com.spring.weather.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Configuration of the HTTP clients used to call the weather providers.
+ * Each provider gets its own Reactor Netty connection pool, so a slow provider cannot exhaust the connections
+ * of the other, with bounded pending acquisition, idle and lifetime eviction, Netty level timeouts and a
+ * DNS cache. Pool metrics are published to Micrometer under {@code reactor.netty.connection.provider.*},
+ * tagged with the pool name.
+ */
+@Configuration
+public class ProviderHttpClientConfiguration {
+
+  /**
+   * The pool and circuit breaker name of the WeatherStack provider.
+   */
+  public static final String WEATHERSTACK = "weatherstack";
+
+  /**
+   * The pool and circuit breaker name of the OpenWeatherMap provider.
+   */
+  public static final String OPENWEATHERMAP = "openweathermap";
+
+  /**
+   * Creates the connection pool dedicated to WeatherStack.
+   *
+   * @param environment The environment holding the pool settings.
+   * @return a configured {@link ConnectionProvider} instance
+   */
+  @Bean(destroyMethod = "dispose")
+  public ConnectionProvider weatherStackConnectionProvider(Environment environment) {
+    return createConnectionProvider(WEATHERSTACK, HttpClientSettings.from(environment, WEATHERSTACK));
+  }
+
+  /**
+   * Creates the connection pool dedicated to OpenWeatherMap.
+   *
+   * @param environment The environment holding the pool settings.
+   * @return a configured {@link ConnectionProvider} instance
+   */
+  @Bean(destroyMethod = "dispose")
+  public ConnectionProvider openWeatherMapConnectionProvider(Environment environment) {
+    return createConnectionProvider(OPENWEATHERMAP, HttpClientSettings.from(environment, OPENWEATHERMAP));
+  }
+
+  /**
+   * Creates the HTTP client used to call WeatherStack.
+   *
+   * @param connectionProvider The connection pool dedicated to WeatherStack.
+   * @param environment The environment holding the timeout settings.
+   * @param baseUrl The base URL of the WeatherStack API, used to warm up connections.
+   * @return a configured {@link HttpClient} instance
+   */
+  @Bean
+  public HttpClient weatherStackHttpClient(
+      @Qualifier("weatherStackConnectionProvider") ConnectionProvider connectionProvider,
+      Environment environment,
+      @Value("${weatherstack.api.url}") String baseUrl) {
+    return createHttpClient(connectionProvider, HttpClientSettings.from(environment, WEATHERSTACK), baseUrl);
+  }
+
+  /**
+   * Creates the HTTP client used to call OpenWeatherMap.
+   *
+   * @param connectionProvider The connection pool dedicated to OpenWeatherMap.
+   * @param environment The environment holding the timeout settings.
+   * @param baseUrl The base URL of the OpenWeatherMap API, used to warm up connections.
+   * @return a configured {@link HttpClient} instance
+   */
+  @Bean
+  public HttpClient openWeatherMapHttpClient(
+      @Qualifier("openWeatherMapConnectionProvider") ConnectionProvider connectionProvider,
+      Environment environment,
+      @Value("${openweathermap.api.url}") String baseUrl) {
+    return createHttpClient(connectionProvider, HttpClientSettings.from(environment, OPENWEATHERMAP), baseUrl);
+  }
+
+  /**
+   * Creates a {@link WebClient} bean for making reactive HTTP requests to WeatherStack.
+   *
+   * @param httpClient The HTTP client dedicated to WeatherStack.
+   * @return a configured {@link WebClient} instance
+   */
+  @Bean
+  public WebClient weatherStackWebClient(@Qualifier("weatherStackHttpClient") HttpClient httpClient) {
+    return createWebClient(httpClient);
+  }
+
+  /**
+   * Creates a {@link WebClient} bean for making reactive HTTP requests to OpenWeatherMap.
+   *
+   * @param httpClient The HTTP client dedicated to OpenWeatherMap.
+   * @return a configured {@link WebClient} instance
+   */
+  @Bean
+  public WebClient openWeatherMapWebClient(@Qualifier("openWeatherMapHttpClient") HttpClient httpClient) {
+    return createWebClient(httpClient);
+  }
+
+  /**
+   * Creates a connection pool with Micrometer metrics enabled.
+   *
+   * @param name The name of the pool, used as the metrics tag.
+   * @param settings The pool settings.
+   * @return a configured {@link ConnectionProvider} instance
+   */
+  static ConnectionProvider createConnectionProvider(String name, HttpClientSettings settings) {
+    return ConnectionProvider.builder(name)
+        .maxConnections(settings.maxConnections())
+        .pendingAcquireMaxCount(settings.pendingAcquireMaxCount())
+        .pendingAcquireTimeout(settings.pendingAcquireTimeout())
+        .maxIdleTime(settings.maxIdleTime())
+        .maxLifeTime(settings.maxLifeTime())
+        .evictInBackground(settings.evictionInterval())
+        .metrics(true)
+        .build();
+  }
+
+  /**
+   * Creates an HTTP client on the given connection pool with Netty level timeouts and a DNS cache.
+   *
+   * @param connectionProvider The connection pool to use.
+   * @param settings The timeout and DNS settings.
+   * @param baseUrl The base URL of the provider.
+   * @return a configured {@link HttpClient} instance
+   */
+  static HttpClient createHttpClient(ConnectionProvider connectionProvider, HttpClientSettings settings,
+      String baseUrl) {
+    return HttpClient.create(connectionProvider)
+        .baseUrl(baseUrl)
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) settings.connectTimeout().toMillis())
+        .responseTimeout(settings.responseTimeout())
+        .resolver(spec -> spec.cacheMaxTimeToLive(settings.dnsCacheMaxTimeToLive()));
+  }
+
+  /**
+   * Creates a {@link WebClient} using the given HTTP client.
+   *
+   * @param httpClient The HTTP client to send requests with.
+   * @return a configured {@link WebClient} instance
+   */
+  static WebClient createWebClient(HttpClient httpClient) {
+    return WebClient.builder()
+        .clientConnector(new ReactorClientHttpConnector(httpClient))
+        .build();
+  }
+}
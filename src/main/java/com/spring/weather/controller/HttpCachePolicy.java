@@ -0,0 +1,116 @@
+package com.spring.weather.controller;
+
+import com.spring.weather.cache.CachedWeather;
+import java.time.Clock;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+/**
+ * Derives the HTTP caching headers of a weather response from the cache entry it is served from, so clients
+ * and edge caches keep a response exactly as long as the service itself would.
+ *
+ * <p>{@code max-age} is the remainder of the entry's fresh window, and {@code stale-if-error} the remainder of
+ * its stale retention, during which the service itself would still fall back to it when every provider fails.
+ * A stale entry is sent with {@code max-age=0}, so a cache revalidates it but may keep serving it while the
+ * service is failing. The entity tag is strong and derived from the weather values, so a reload that returns
+ * the same values keeps the tag and conditional requests keep being answered with 304.
+ */
+@Component
+public class HttpCachePolicy {
+
+    private final Clock clock;
+    private final Duration freshTtl;
+    private final Duration retention;
+
+    /**
+     * Constructs a new HttpCachePolicy.
+     *
+     * @param clock The clock used to age cache entries.
+     * @param freshTtlSeconds How long a cache entry is fresh, in seconds.
+     * @param staleRetentionSeconds How long a cache entry is kept after its fresh window, in seconds.
+     */
+    public HttpCachePolicy(
+        Clock clock,
+        @Value("${weather.cache.expiry.seconds:3}") int freshTtlSeconds,
+        @Value("${weather.cache.stale.retention.seconds:600}") int staleRetentionSeconds) {
+        this.clock = clock;
+        this.freshTtl = Duration.ofSeconds(freshTtlSeconds);
+        this.retention = Duration.ofSeconds((long) freshTtlSeconds + staleRetentionSeconds);
+    }
+
+    /**
+     * Returns the {@code Cache-Control} directives for a response served from the given entry.
+     *
+     * @param cached The cache entry.
+     *
+     * @return The cache control with the remaining fresh and stale windows.
+     */
+    public CacheControl cacheControl(CachedWeather cached) {
+        Duration age = cached.getAge(clock);
+        return CacheControl.maxAge(remaining(freshTtl, age)).staleIfError(remaining(retention, age));
+    }
+
+    /**
+     * Returns the value of the {@code Age} header for a response served from the given entry.
+     *
+     * @param cached The cache entry.
+     *
+     * @return The seconds elapsed since the entry was fetched upstream.
+     */
+    public long age(CachedWeather cached) {
+        return cached.getAge(clock).toSeconds();
+    }
+
+    /**
+     * Returns the strong entity tag of a response served from the given entry. The gzip body is a different
+     * representation of the same value, so it gets its own tag.
+     *
+     * @param cached The cache entry.
+     * @param gzip Whether the response body is gzip compressed.
+     *
+     * @return The quoted entity tag.
+     */
+    public String entityTag(CachedWeather cached, boolean gzip) {
+        return '"' + cached.getEntityTag() + (gzip ? "-gzip\"" : "\"");
+    }
+
+    /**
+     * Returns whether an {@code If-None-Match} header matches an entity tag, using the weak comparison
+     * the header calls for.
+     *
+     * @param ifNoneMatch The header value, or null if the request has none.
+     * @param entityTag The quoted entity tag of the current representation.
+     *
+     * @return True if the header lists the tag or is {@code *}.
+     */
+    static boolean matches(String ifNoneMatch, String entityTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(entityTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the part of a window not yet covered by an age.
+     *
+     * @param window The window.
+     * @param age The age of the entry.
+     *
+     * @return The remaining window, never negative.
+     */
+    private static Duration remaining(Duration window, Duration age) {
+        Duration remaining = window.minus(age);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+}
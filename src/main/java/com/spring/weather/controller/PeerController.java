@@ -0,0 +1,67 @@
+package com.spring.weather.controller;
+
+import com.spring.weather.cache.CachedWeather;
+import com.spring.weather.cache.WeatherResponseEncoder;
+import com.spring.weather.peer.PeerWeatherCache;
+import com.spring.weather.service.WeatherService;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controller answering other instances in peer sharding mode.
+ * A peer asks the owner of a key through this endpoint instead of calling the providers itself, so the
+ * endpoint is only registered when `weather.cache.l2.type=peer`.
+ */
+@RestController
+@RequestMapping(PeerWeatherCache.PATH)
+@ConditionalOnProperty(name = "weather.cache.l2.type", havingValue = "peer")
+@RequiredArgsConstructor
+@Validated
+@Slf4j
+public class PeerController {
+
+    private final WeatherService weatherService;
+    private final WeatherResponseEncoder responseEncoder;
+
+    /**
+     * Returns the fresh weather data for a city, as the owner of its key.
+     * A stale entry is not returned while it is being reloaded; the answer waits for the reload, so the peer
+     * can keep it for a full fresh window. The body is the {@link com.spring.weather.dto.WeatherResponse} as
+     * JSON, written from the bytes memoized with the cached entry, and the fetch time is sent in the
+     * {@value PeerWeatherCache#FETCHED_AT_HEADER} header, so the peer ages the entry from the original fetch.
+     *
+     * @param city The canonical cache key of the city.
+     *
+     * @return A {@link Mono} emitting a {@link ResponseEntity} containing the encoded weather data.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> getWeather(@RequestParam(value = "city") @NotBlank String city) {
+        log.debug("Received peer request for weather data for city: {}", city);
+        return weatherService.getFreshWeatherData(city)
+            .map(this::toResponse);
+    }
+
+    /**
+     * Builds the response for cached weather data from its memoized encoding.
+     *
+     * @param cached The cached weather data.
+     *
+     * @return The response entity carrying the JSON body and the fetch time.
+     */
+    private ResponseEntity<byte[]> toResponse(CachedWeather cached) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(PeerWeatherCache.FETCHED_AT_HEADER, String.valueOf(cached.getFetchedAt().toEpochMilli()))
+            .body(cached.getEncoded(responseEncoder).json());
+    }
+}
@@ -1,17 +1,33 @@
 package com.spring.weather.controller;
 
 
+import com.spring.weather.cache.CachedWeather;
+import com.spring.weather.cache.EncodedWeather;
+import com.spring.weather.cache.WeatherResponseEncoder;
+import com.spring.weather.dto.CityWeatherResult;
 import com.spring.weather.dto.WeatherResponse;
 import com.spring.weather.service.WeatherService;
+import com.spring.weather.service.WeatherUpdateStreams;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -25,22 +41,164 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class WeatherController {
 
+    /**
+     * The maximum number of cities accepted in a single batch request.
+     */
+    static final int MAX_BATCH_SIZE = 1000;
+
+    /**
+     * The maximum number of cities a single update stream can subscribe to.
+     */
+    static final int MAX_STREAM_CITIES = 50;
+
     private final WeatherService weatherService;
+    private final HttpCachePolicy cachePolicy;
+    private final WeatherResponseEncoder responseEncoder;
+    private final WeatherUpdateStreams updateStreams;
 
     /**
      * Retrieves weather data for a specified city.
+     * The response carries an {@code Age} header with the seconds elapsed since the data was fetched upstream,
+     * a {@code Cache-Control} header with the remaining fresh and stale windows of the cached entry and a strong
+     * {@code ETag}. A request whose {@code If-None-Match} lists the current tag is answered with 304 and no
+     * body. Otherwise the body is the {@link WeatherResponse} as JSON, written from the bytes memoized with the
+     * cached entry, so cache hits are not serialized again. When compression is enabled and the client accepts
+     * gzip, the memoized gzip bytes are written instead.
      *
      * @param city The name of the city for which weather data is requested.
+     * @param acceptEncoding The {@code Accept-Encoding} header of the request, if any.
+     * @param ifNoneMatch The {@code If-None-Match} header of the request, if any.
      *
-     * @return A {@link Mono} emitting a {@link ResponseEntity} containing the {@link WeatherResponse}.
+     * @return A {@link Mono} emitting a {@link ResponseEntity} containing the encoded {@link WeatherResponse}.
      */
     @GetMapping
-    public Mono<ResponseEntity<WeatherResponse>> getWeather(
-        @RequestParam(value = "city") @NotBlank String city) {
+    public Mono<ResponseEntity<byte[]>> getWeather(
+        @RequestParam(value = "city") @NotBlank String city,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Received request for weather data for city: {}", city);
-        return weatherService.getWeatherData(city)
-            .map(ResponseEntity::ok)
+        return weatherService.getCachedWeatherData(city)
+            .map(cached -> toResponse(cached, acceptEncoding, ifNoneMatch))
             .doOnSuccess(response -> log.info("Successfully returned weather data for city: {}", city))
             .doOnError(error -> log.error("Error retrieving weather data for city: {}", city, error));
     }
+
+    /**
+     * Retrieves weather data for several cities in one request.
+     * Results are streamed as newline-delimited JSON in completion order, so cached cities are returned
+     * without waiting for slower upstream lookups. A city that cannot be resolved is reported inline with
+     * an error message.
+     *
+     * @param cities The names of the cities for which weather data is requested.
+     *
+     * @return A {@link Flux} emitting one {@link CityWeatherResult} per distinct city.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CityWeatherResult> getWeatherBatch(
+        @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<String> cities) {
+        log.info("Received batch request for weather data for {} cities", cities.size());
+        return weatherService.getWeatherDataForCities(cities)
+            .doOnComplete(() -> log.info("Completed batch request for {} cities", cities.size()));
+    }
+
+    /**
+     * Streams weather updates for one or more cities as server-sent events.
+     * Each city first sends its current weather data, then a new {@code weather} event whenever the data
+     * changes. Subscribers of the same city share one refresh cycle, and a client that falls behind loses
+     * updates rather than buffering them without bound. A keepalive comment is sent periodically so idle
+     * connections are not closed by proxies.
+     *
+     * @param cities The names of the cities to subscribe to.
+     *
+     * @return A {@link Flux} emitting a {@link ServerSentEvent} per update, until the client disconnects.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<CityWeatherResult>> streamWeather(
+        @RequestParam(value = "city") @NotEmpty @Size(max = MAX_STREAM_CITIES) List<@NotBlank String> cities) {
+        log.info("Received stream subscription for {} cities", cities.size());
+        Flux<ServerSentEvent<CityWeatherResult>> updates = updateStreams.subscribe(cities)
+            .map(result -> ServerSentEvent.builder(result).event("weather").build());
+        Flux<ServerSentEvent<CityWeatherResult>> heartbeats = Flux.interval(updateStreams.getHeartbeatInterval())
+            .onBackpressureDrop()
+            .map(tick -> ServerSentEvent.<CityWeatherResult>builder().comment("keepalive").build());
+        return Flux.merge(updates, heartbeats)
+            .doFinally(signal -> log.info("Closed stream subscription for {} cities", cities.size()));
+    }
+
+    /**
+     * Builds the response for cached weather data from its memoized encoding, or a 304 without a body if the
+     * client already holds the current representation.
+     *
+     * @param cached The cached weather data.
+     * @param acceptEncoding The {@code Accept-Encoding} header of the request, if any.
+     * @param ifNoneMatch The {@code If-None-Match} header of the request, if any.
+     *
+     * @return The response entity carrying the encoded body.
+     */
+    private ResponseEntity<byte[]> toResponse(CachedWeather cached, String acceptEncoding, String ifNoneMatch) {
+        boolean gzip = responseEncoder.isGzipEnabled() && acceptsGzip(acceptEncoding);
+        String entityTag = cachePolicy.entityTag(cached, gzip);
+        boolean notModified = HttpCachePolicy.matches(ifNoneMatch, entityTag);
+        HttpStatus status = notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK;
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status)
+            .eTag(entityTag)
+            .cacheControl(cachePolicy.cacheControl(cached))
+            .header(HttpHeaders.AGE, String.valueOf(cachePolicy.age(cached)));
+        if (responseEncoder.isGzipEnabled()) {
+            response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (notModified) {
+            return response.build();
+        }
+        EncodedWeather encoded = cached.getEncoded(responseEncoder);
+        response.contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(encoded.gzip());
+        }
+        return response.body(encoded.json());
+    }
+
+    /**
+     * Returns whether an {@code Accept-Encoding} header allows a gzip response.
+     *
+     * @param acceptEncoding The header value, or null if the request has none.
+     *
+     * @return True if gzip or any encoding is accepted with a non-zero quality.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") && isZeroQuality(parameter.substring(2))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether a quality value is zero, which means the coding is not acceptable.
+     *
+     * @param quality The quality value.
+     *
+     * @return True if the quality is zero or cannot be parsed.
+     */
+    private static boolean isZeroQuality(String quality) {
+        try {
+            return Double.parseDouble(quality.trim()) <= 0;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
 }
@@ -0,0 +1,77 @@
+package com.spring.weather.controller;
+
+import com.spring.weather.dto.WeatherHistoryBucket;
+import com.spring.weather.history.WeatherHistory;
+import jakarta.validation.constraints.NotBlank;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controller for weather history requests.
+ * Provides an endpoint returning the weather a city had over a time range, aggregated into time buckets.
+ */
+@RestController
+@RequestMapping("/v1/weather/history")
+@RequiredArgsConstructor
+@Validated
+@Slf4j
+public class WeatherHistoryController {
+
+    /**
+     * The range returned when the request does not give a start.
+     */
+    static final Duration DEFAULT_RANGE = Duration.ofDays(1);
+
+    private final WeatherHistory weatherHistory;
+    private final Clock clock;
+
+    /**
+     * Retrieves the minimum, maximum and average temperature and wind speed of a city per time bucket.
+     * The answer is read from hourly rollups, so the range is widened to whole hours and the bucket must be a
+     * whole number of hours; buckets without any fetch are left out.
+     *
+     * @param city The name of the city for which the history is requested.
+     * @param from The start of the range as an ISO-8601 instant, by default one day before its end.
+     * @param to The end of the range as an ISO-8601 instant, by default now.
+     * @param bucket The width of a bucket, e.g. {@code 1h}, {@code 1d} or {@code PT6H}.
+     *
+     * @return A {@link Mono} emitting the buckets, oldest first.
+     * @throws ResponseStatusException With status 400 if the range or bucket is invalid.
+     */
+    @GetMapping
+    public Mono<List<WeatherHistoryBucket>> getHistory(
+        @RequestParam(value = "city") @NotBlank String city,
+        @RequestParam(value = "from", required = false) String from,
+        @RequestParam(value = "to", required = false) String to,
+        @RequestParam(value = "bucket", defaultValue = "1h") String bucket) {
+        log.info("Received request for weather history for city: {}", city);
+        Instant end;
+        Instant start;
+        Duration width;
+        try {
+            end = to != null ? Instant.parse(to) : clock.instant();
+            start = from != null ? Instant.parse(from) : end.minus(DEFAULT_RANGE);
+            width = DurationStyle.detectAndParse(bucket);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid history query: "
+                + e.getMessage()));
+        }
+        return weatherHistory.query(city, start, end, width)
+            .onErrorMap(IllegalArgumentException.class,
+                e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.spring.weather.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the weather result for a single city in a multi-city response.
+ * Contains either the weather data for the city or the error that prevented it from being resolved.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CityWeatherResult {
+  private String city;
+
+  @JsonUnwrapped
+  private WeatherResponse weather;
+
+  private String error;
+
+  /**
+   * Creates a successful result for the given city.
+   *
+   * @param city The city as requested by the client.
+   * @param weather The weather data for the city.
+   * @return The result carrying the weather data.
+   */
+  public static CityWeatherResult success(String city, WeatherResponse weather) {
+    return new CityWeatherResult(city, weather, null);
+  }
+
+  /**
+   * Creates a failed result for the given city.
+   *
+   * @param city The city as requested by the client.
+   * @param error The error message describing why the city could not be resolved.
+   * @return The result carrying the error message.
+   */
+  public static CityWeatherResult failure(String city, String error) {
+    return new CityWeatherResult(city, null, error);
+  }
+}
@@ -0,0 +1,41 @@
+package com.spring.weather.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the weather of a city aggregated over one time bucket of a history query.
+ * Contains the number of provider fetches in the bucket and the minimum, maximum and average temperature and
+ * wind speed they reported.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeatherHistoryBucket {
+  @JsonProperty("bucket_start")
+  private Instant bucketStart;
+
+  @JsonProperty("samples")
+  private long samples;
+
+  @JsonProperty("temperature_min")
+  private double temperatureMin;
+
+  @JsonProperty("temperature_max")
+  private double temperatureMax;
+
+  @JsonProperty("temperature_avg")
+  private double temperatureAvg;
+
+  @JsonProperty("wind_speed_min")
+  private double windSpeedMin;
+
+  @JsonProperty("wind_speed_max")
+  private double windSpeedMax;
+
+  @JsonProperty("wind_speed_avg")
+  private double windSpeedAvg;
+}
@@ -2,11 +2,14 @@ package com.spring.weather.exception;
 
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.MissingRequestValueException;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
@@ -16,6 +19,8 @@ import org.springframework.web.servlet.resource.NoResourceFoundException;
 /**
  * Global exception handler for the application.
  * Handles specific exceptions and provides appropriate HTTP responses.
+ * The same error bodies are produced on the servlet stack and on the reactive stack, where framework
+ * errors are raised as {@link ResponseStatusException} subclasses instead of servlet specific exceptions.
  */
 @RestControllerAdvice
 @Slf4j
@@ -33,6 +38,22 @@ public class GlobalExceptionHandler {
     return buildErrorResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
   }
 
+  /**
+   * Handles exceptions of type {@link ServiceOverloadedException}, telling the client when to retry.
+   * Logged at debug level only, since shed requests are counted in {@code weather.concurrency.rejections}.
+   *
+   * @param ex The exception to handle.
+   * @return A {@link ResponseEntity} containing the error details, HTTP status and {@code Retry-After} header.
+   */
+  @ExceptionHandler(ServiceOverloadedException.class)
+  public ResponseEntity<Object> handleServiceOverloadedException(ServiceOverloadedException ex) {
+    log.debug("Request shed: {}", ex.getMessage());
+    ResponseEntity<Object> response = buildErrorResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    return ResponseEntity.status(response.getStatusCode())
+        .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, ex.getRetryAfter().toSeconds())))
+        .body(response.getBody());
+  }
+
   /**
    * Handles exceptions of type {@link WeatherProviderException}.
    *
@@ -141,6 +162,36 @@ public class GlobalExceptionHandler {
     return buildErrorResponse("Missing required parameter: " + ex.getParameterName(), HttpStatus.BAD_REQUEST);
   }
 
+  /**
+   * Handles exceptions of type {@link MissingRequestValueException}, raised by the reactive stack
+   * when a required request parameter is missing.
+   *
+   * @param ex The exception to handle.
+   * @return A {@link ResponseEntity} containing the error details and HTTP status.
+   */
+  @ExceptionHandler(MissingRequestValueException.class)
+  public ResponseEntity<Object> handleMissingRequestValueException(MissingRequestValueException ex) {
+    log.error("Missing request parameter: {}", ex.getMessage());
+    return buildErrorResponse("Missing required parameter: " + ex.getName(), HttpStatus.BAD_REQUEST);
+  }
+
+  /**
+   * Handles exceptions of type {@link ResponseStatusException}, raised by the reactive stack for
+   * unknown resources and other request errors, keeping the status they carry.
+   *
+   * @param ex The exception to handle.
+   * @return A {@link ResponseEntity} containing the error details and HTTP status.
+   */
+  @ExceptionHandler(ResponseStatusException.class)
+  public ResponseEntity<Object> handleResponseStatusException(ResponseStatusException ex) {
+    log.error("Request error: {}", ex.getMessage());
+    HttpStatus status = HttpStatus.resolve(ex.getStatusCode().value());
+    if (status == null) {
+      status = HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+    return buildErrorResponse(ex.getReason() != null ? ex.getReason() : status.getReasonPhrase(), status);
+  }
+
   /**
    * Handles generic exceptions of type {@link Exception}.
    *
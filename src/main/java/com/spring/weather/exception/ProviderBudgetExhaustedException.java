@@ -0,0 +1,12 @@
+package com.spring.weather.exception;
+
+/**
+ * Exception thrown when a call is refused by the upstream budget of a provider before it is sent.
+ * As an {@link ExternalRequestException} it makes the service fail over to the next provider, and to stale
+ * cached data once every provider is out of budget.
+ */
+public class ProviderBudgetExhaustedException extends ExternalRequestException {
+  public ProviderBudgetExhaustedException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,26 @@
+package com.spring.weather.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a request is shed because too many upstream requests are already in flight.
+ * This exception is mapped to the HTTP 503 Service Unavailable status code with a {@code Retry-After} header.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+  private final Duration retryAfter;
+
+  public ServiceOverloadedException(String message, Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+
+  /**
+   * Returns how long the client should wait before retrying.
+   *
+   * @return The suggested retry delay.
+   */
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
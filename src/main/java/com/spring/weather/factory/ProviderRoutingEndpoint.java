@@ -0,0 +1,34 @@
+package com.spring.weather.factory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint exposing the live provider routing scores at {@code /actuator/providers},
+ * so shifts in traffic between weather providers can be explained.
+ */
+@Component
+@Endpoint(id = "providers")
+@RequiredArgsConstructor
+public class ProviderRoutingEndpoint {
+
+  private final WeatherProviderFactory weatherProviderFactory;
+  private final ProviderScoreboard providerScoreboard;
+
+  /**
+   * Returns whether adaptive routing is enabled and the score of every provider in routing order.
+   *
+   * @return The routing mode and provider scores.
+   */
+  @ReadOperation
+  public Map<String, Object> providers() {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("adaptive", providerScoreboard.isEnabled());
+    result.put("providers", weatherProviderFactory.getProviderScores());
+    return result;
+  }
+}
@@ -0,0 +1,26 @@
+package com.spring.weather.factory;
+
+import java.time.Instant;
+
+/**
+ * Point-in-time routing score of a weather provider, as reported by the provider routing actuator endpoint.
+ *
+ * @param provider The name of the provider.
+ * @param priority The static priority of the provider, used as the tiebreaker.
+ * @param rank The position of the provider in the current routing order, starting at 1.
+ * @param latencyMillis The decaying average latency of the provider, in milliseconds.
+ * @param successRate The decaying average share of successful calls, between 0 and 1.
+ * @param costMillis The routing cost: the average latency inflated by the failure rate, in milliseconds.
+ * @param samples The number of calls recorded for the provider.
+ * @param lastSampleAt The time of the last recorded call, or null if the provider has not been called yet.
+ */
+public record ProviderScore(
+    String provider,
+    int priority,
+    int rank,
+    double latencyMillis,
+    double successRate,
+    double costMillis,
+    long samples,
+    Instant lastSampleAt) {
+}
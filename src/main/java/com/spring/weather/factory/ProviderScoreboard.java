@@ -0,0 +1,306 @@
+package com.spring.weather.factory;
+
+import com.spring.weather.dto.WeatherResponse;
+import com.spring.weather.exception.ExternalRequestException;
+import com.spring.weather.exception.ProviderBudgetExhaustedException;
+import com.spring.weather.exception.WeatherServiceException;
+import com.spring.weather.provider.WeatherProvider;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps a decaying latency and success score for each weather provider and derives the routing order from it.
+ *
+ * <p>Latency and success rate are exponentially weighted moving averages over time, so older calls lose weight
+ * with the configured decay time however busy the provider is. The routing cost is the average latency divided
+ * by the success rate. A provider only moves ahead of a provider with higher static priority when its cost is
+ * lower by more than the configured tolerance, so small latency differences never reorder providers.
+ * Providers without recorded calls are treated as tied with the best scored provider.
+ *
+ * <p>Only failures of the provider itself count against it: unavailability, timeouts and server errors. A failed
+ * call is recorded with at least the failure penalty as latency, so a provider failing fast does not look
+ * cheaper than a slow provider that answers. Unknown cities and calls refused by the budget are not recorded.
+ *
+ * <p>A provider that has been moved behind a lower-priority provider receives no traffic and therefore no new
+ * samples. Once per probe interval it is tried first for a single call, so its recovery is noticed.
+ */
+@Component
+public class ProviderScoreboard {
+
+  private static final double MIN_SAMPLE_WEIGHT = 0.1;
+  private static final double MIN_SUCCESS_RATE = 0.05;
+
+  private final Clock clock;
+  private final boolean enabled;
+  private final double decayMillis;
+  private final double toleranceFactor;
+  private final long probeIntervalMillis;
+  private final double failurePenaltyMillis;
+  private final Map<String, Score> scores = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs a new ProviderScoreboard.
+   *
+   * @param clock The clock used to time-weight samples.
+   * @param enabled Whether providers are ordered by their scores instead of their static priority.
+   * @param decaySeconds The time constant after which a sample has lost about two thirds of its weight, in seconds.
+   * @param tolerance The relative cost difference below which providers are considered equal, e.g. 0.25 for 25%.
+   * @param probeIntervalSeconds How often a demoted provider is tried first to re-measure it, in seconds.
+   * @param failurePenaltyMillis The least latency a failed call is recorded with, in milliseconds.
+   */
+  public ProviderScoreboard(
+      Clock clock,
+      @Value("${weather.routing.adaptive.enabled:false}") boolean enabled,
+      @Value("${weather.routing.decay.seconds:10}") long decaySeconds,
+      @Value("${weather.routing.tolerance:0.25}") double tolerance,
+      @Value("${weather.routing.probe.interval.seconds:10}") long probeIntervalSeconds,
+      @Value("${weather.routing.failure.penalty.millis:5000}") long failurePenaltyMillis) {
+    this.clock = clock;
+    this.enabled = enabled;
+    this.decayMillis = Duration.ofSeconds(decaySeconds).toMillis();
+    this.toleranceFactor = 1 + tolerance;
+    this.probeIntervalMillis = Duration.ofSeconds(probeIntervalSeconds).toMillis();
+    this.failurePenaltyMillis = failurePenaltyMillis;
+  }
+
+  /**
+   * Returns whether providers are ordered by their scores.
+   *
+   * @return True if adaptive routing is enabled.
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Records the latency and outcome of a provider call when it completes. Errors that are not failures of the
+   * provider are not recorded. A call cancelled because another
+   * provider answered first only raises the latency average, since its real latency is unknown but at least
+   * the time it had been running.
+   *
+   * @param provider The provider being called.
+   * @param call The provider call.
+   * @return The provider call, recording its outcome.
+   */
+  public Mono<WeatherResponse> track(WeatherProvider provider, Mono<WeatherResponse> call) {
+    if (!enabled) {
+      return call;
+    }
+    return Mono.defer(() -> {
+      long startNanos = System.nanoTime();
+      return call
+          .doOnSuccess(response -> record(provider, elapsedMillis(startNanos), true))
+          .doOnError(e -> {
+            if (isProviderFailure(e)) {
+              record(provider, elapsedMillis(startNanos), false);
+            }
+          })
+          .doOnCancel(() -> scoreFor(provider).recordLowerBound(elapsedMillis(startNanos), clock.millis()));
+    });
+  }
+
+  /**
+   * Records a completed provider call. A failed call is recorded with at least the failure penalty as latency.
+   *
+   * @param provider The provider that was called.
+   * @param latencyMillis The latency of the call, in milliseconds.
+   * @param success Whether the call returned weather data.
+   */
+  void record(WeatherProvider provider, double latencyMillis, boolean success) {
+    double sampleMillis = success ? latencyMillis : Math.max(latencyMillis, failurePenaltyMillis);
+    scoreFor(provider).record(sampleMillis, success, clock.millis());
+  }
+
+  /**
+   * Returns whether a provider call failed because of the provider, rather than because of the query or the
+   * budget of this service.
+   *
+   * @param error The error the call failed with.
+   * @return True if the error counts against the provider.
+   */
+  static boolean isProviderFailure(Throwable error) {
+    if (error instanceof ProviderBudgetExhaustedException) {
+      return false;
+    }
+    return error instanceof ExternalRequestException || error instanceof WeatherServiceException;
+  }
+
+  /**
+   * Orders the providers by routing cost, keeping the static priority order between providers of similar cost.
+   * A demoted provider due for a probe is moved to the front.
+   *
+   * @param providersByPriority The providers sorted by static priority.
+   * @return The providers in routing order.
+   */
+  public List<WeatherProvider> rank(List<WeatherProvider> providersByPriority) {
+    long now = clock.millis();
+    List<WeatherProvider> ranked = order(providersByPriority);
+    if (ranked.isEmpty()) {
+      return ranked;
+    }
+
+    // Providers with a higher static priority than the current leader have been demoted.
+    for (WeatherProvider provider : providersByPriority) {
+      if (provider == ranked.get(0)) {
+        break;
+      }
+      Score score = scores.get(provider.getProviderName());
+      if (score != null && score.tryClaimProbe(now, probeIntervalMillis)) {
+        ranked.remove(provider);
+        ranked.add(0, provider);
+        break;
+      }
+    }
+    return ranked;
+  }
+
+  /**
+   * Returns the current scores in routing order, without triggering probes.
+   *
+   * @param providersByPriority The providers sorted by static priority.
+   * @return The score of every provider.
+   */
+  public List<ProviderScore> scores(List<WeatherProvider> providersByPriority) {
+    List<WeatherProvider> ranked = order(providersByPriority);
+    List<ProviderScore> result = new ArrayList<>(ranked.size());
+    for (int i = 0; i < ranked.size(); i++) {
+      WeatherProvider provider = ranked.get(i);
+      Score score = scores.get(provider.getProviderName());
+      result.add(score == null
+          ? new ProviderScore(provider.getProviderName(), provider.getPriority(), i + 1, 0, 1, 0, 0, null)
+          : score.snapshot(provider, i + 1));
+    }
+    return result;
+  }
+
+  /**
+   * Orders the providers by cost. Starting from the static priority order, a provider only moves ahead of another
+   * if it is cheaper by more than the tolerance.
+   *
+   * @param providersByPriority The providers sorted by static priority.
+   * @return A new list of the providers in cost order.
+   */
+  private List<WeatherProvider> order(List<WeatherProvider> providersByPriority) {
+    Map<WeatherProvider, Double> costs = new IdentityHashMap<>();
+    double bestKnownCost = Double.NaN;
+    for (WeatherProvider provider : providersByPriority) {
+      Score score = scores.get(provider.getProviderName());
+      if (score != null) {
+        double cost = score.cost();
+        costs.put(provider, cost);
+        bestKnownCost = Double.isNaN(bestKnownCost) ? cost : Math.min(bestKnownCost, cost);
+      }
+    }
+
+    double unscoredCost = Double.isNaN(bestKnownCost) ? 0.0 : bestKnownCost;
+    List<WeatherProvider> ranked = new ArrayList<>(providersByPriority.size());
+    for (WeatherProvider provider : providersByPriority) {
+      double cost = costs.getOrDefault(provider, unscoredCost);
+      int position = ranked.size();
+      while (position > 0
+          && cost * toleranceFactor < costs.getOrDefault(ranked.get(position - 1), unscoredCost)) {
+        position--;
+      }
+      ranked.add(position, provider);
+    }
+    return ranked;
+  }
+
+  /**
+   * Returns the score of the provider, creating it on its first call.
+   *
+   * @param provider The provider.
+   * @return The score of the provider.
+   */
+  private Score scoreFor(WeatherProvider provider) {
+    return scores.computeIfAbsent(provider.getProviderName(), name -> new Score());
+  }
+
+  /**
+   * Returns the time elapsed since the given {@link System#nanoTime()} value.
+   *
+   * @param startNanos The start of the measured interval.
+   * @return The elapsed time in milliseconds.
+   */
+  private static double elapsedMillis(long startNanos) {
+    return (System.nanoTime() - startNanos) / 1_000_000.0;
+  }
+
+  /**
+   * The decaying averages of a single provider.
+   */
+  private final class Score {
+    private double latencyMillis;
+    private double successRate = 1.0;
+    private long samples;
+    private long lastSampleAt;
+    private long lastProbeAt;
+
+    /**
+     * Adds a completed call to the averages.
+     */
+    synchronized void record(double sampleLatencyMillis, boolean success, long now) {
+      double weight = samples == 0 ? 0.0 : previousWeight(now);
+      latencyMillis = latencyMillis * weight + sampleLatencyMillis * (1 - weight);
+      successRate = successRate * weight + (success ? 1.0 : 0.0) * (1 - weight);
+      samples++;
+      lastSampleAt = now;
+    }
+
+    /**
+     * Adds a call whose latency is only known to be at least the given value to the latency average, leaving the
+     * success rate as it is since the call has no outcome.
+     */
+    synchronized void recordLowerBound(double minLatencyMillis, long now) {
+      if (samples == 0 || minLatencyMillis > latencyMillis) {
+        double weight = samples == 0 ? 0.0 : previousWeight(now);
+        latencyMillis = latencyMillis * weight + minLatencyMillis * (1 - weight);
+        samples++;
+        lastSampleAt = now;
+      }
+    }
+
+    /**
+     * Returns the average latency inflated by the failure rate.
+     */
+    synchronized double cost() {
+      return latencyMillis / Math.max(successRate, MIN_SUCCESS_RATE);
+    }
+
+    /**
+     * Claims a probe if none was made within the probe interval.
+     */
+    synchronized boolean tryClaimProbe(long now, long intervalMillis) {
+      if (now - Math.max(lastSampleAt, lastProbeAt) < intervalMillis) {
+        return false;
+      }
+      lastProbeAt = now;
+      return true;
+    }
+
+    /**
+     * Returns the current averages as a score for the actuator endpoint.
+     */
+    synchronized ProviderScore snapshot(WeatherProvider provider, int rank) {
+      return new ProviderScore(provider.getProviderName(), provider.getPriority(), rank, latencyMillis, successRate,
+          cost(), samples, Instant.ofEpochMilli(lastSampleAt));
+    }
+
+    /**
+     * Returns the weight the current averages keep when a sample is added, based on the time since the last one.
+     */
+    private double previousWeight(long now) {
+      double decayed = Math.exp(-(now - lastSampleAt) / decayMillis);
+      return Math.min(decayed, 1 - MIN_SAMPLE_WEIGHT);
+    }
+  }
+}
@@ -3,14 +3,14 @@ package com.spring.weather.factory;
 import com.spring.weather.provider.WeatherProvider;
 import java.util.Comparator;
 import java.util.List;
-import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
  * Factory class for managing and providing a sorted list of weather providers.
- * This class ensures that the list of weather providers is sorted by their priority.
+ * This class ensures that the list of weather providers is sorted by their priority,
+ * or by their live scores when adaptive routing is enabled.
  */
-@Getter
 @Component
 public class WeatherProviderFactory {
 
@@ -19,6 +19,11 @@ public class WeatherProviderFactory {
    */
   private final List<WeatherProvider> providers;
 
+  /**
+   * The scoreboard used to reorder the providers, or null to always use the priority order.
+   */
+  private final ProviderScoreboard providerScoreboard;
+
   /**
    * Constructs a new WeatherProviderFactory with the given list of weather providers.
    * The providers are sorted by their priority in ascending order.
@@ -26,9 +31,48 @@ public class WeatherProviderFactory {
    * @param providers The list of weather providers to be managed by the factory.
    */
   public WeatherProviderFactory(List<WeatherProvider> providers) {
+    this(providers, null);
+  }
+
+  /**
+   * Constructs a new WeatherProviderFactory with the given list of weather providers and scoreboard.
+   * The providers are sorted by their priority in ascending order, which remains the tiebreaker
+   * when the scoreboard reorders them.
+   *
+   * @param providers The list of weather providers to be managed by the factory.
+   * @param providerScoreboard The scoreboard used to reorder the providers by their live scores.
+   */
+  @Autowired
+  public WeatherProviderFactory(List<WeatherProvider> providers, ProviderScoreboard providerScoreboard) {
     this.providers = providers.stream()
         .sorted(Comparator.comparing(WeatherProvider::getPriority))
         .toList();
+    this.providerScoreboard = providerScoreboard;
+  }
+
+  /**
+   * Returns the weather providers in the order they should be tried for the next request.
+   * Callers should take one snapshot per request, as the adaptive order can change between calls.
+   *
+   * @return The weather providers in routing order.
+   */
+  public List<WeatherProvider> getProviders() {
+    if (providerScoreboard == null || !providerScoreboard.isEnabled()) {
+      return providers;
+    }
+    return providerScoreboard.rank(providers);
+  }
+
+  /**
+   * Returns the current routing scores of the providers.
+   *
+   * @return The score of every provider in routing order, or an empty list if adaptive routing is not configured.
+   */
+  public List<ProviderScore> getProviderScores() {
+    if (providerScoreboard == null) {
+      return List.of();
+    }
+    return providerScoreboard.scores(providers);
   }
 
 }
\ No newline at end of file
@@ -0,0 +1,266 @@
+package com.spring.weather.history;
+
+import com.spring.weather.cache.CityKeyNormalizer;
+import com.spring.weather.dto.WeatherHistoryBucket;
+import com.spring.weather.dto.WeatherResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Keeps the weather fetched from the providers in the {@link WeatherHistoryRepository} and answers history
+ * queries from its hourly rollups.
+ *
+ * <p>Writes are write-behind: {@link #record(String, WeatherResponse)} only offers the observation to a bounded
+ * in-memory queue, so the request path never waits on JDBC. Every {@code weather.history.flush.interval.millis}
+ * the queue is drained on the bounded elastic scheduler in batches of {@code weather.history.batch.size}, each
+ * appended in one transaction. When the queue is full, e.g. while the database is slow, new observations are
+ * dropped and counted rather than held back; a batch that fails to write is dropped and counted as well.
+ * Flushes run one at a time, and the queue is flushed once more on shutdown. Observations and rollups older
+ * than their retention are deleted hourly, so raw rows stay bounded while the rollups keep long ranges
+ * queryable.
+ */
+@Slf4j
+@Component
+public class WeatherHistory {
+
+  private static final Duration PRUNE_INTERVAL = Duration.ofHours(1);
+
+  private final WeatherHistoryRepository repository;
+  private final CityKeyNormalizer cityKeyNormalizer;
+  private final Clock clock;
+  private final boolean enabled;
+  private final BlockingQueue<WeatherObservation> queue;
+  private final int batchSize;
+  private final Duration flushInterval;
+  private final Duration observationRetention;
+  private final Duration rollupRetention;
+  private final int maxBuckets;
+  private final Counter writtenCounter;
+  private final Counter droppedCounter;
+  private final Counter failedCounter;
+  private final Counter rejectedCounter;
+  private final Object flushLock = new Object();
+
+  private Instant nextPrune = Instant.MIN;
+  private Disposable task;
+
+  /**
+   * Constructs a new WeatherHistory.
+   *
+   * @param repository The repository the observations are written to and the rollups read from.
+   * @param cityKeyNormalizer The normalizer mapping queried cities to the keys observations are stored under.
+   * @param clock The clock giving the observation times.
+   * @param meterRegistry The registry the queue metrics are published to.
+   * @param enabled Whether observations are recorded.
+   * @param queueCapacity The maximum number of observations waiting to be written.
+   * @param batchSize The maximum number of observations appended in one transaction.
+   * @param flushIntervalMillis The interval between flushes of the queue, in milliseconds.
+   * @param observationRetentionDays The number of days observations are kept.
+   * @param rollupRetentionDays The number of days hourly rollups are kept.
+   * @param maxBuckets The maximum number of buckets a query may span.
+   */
+  public WeatherHistory(
+      WeatherHistoryRepository repository,
+      CityKeyNormalizer cityKeyNormalizer,
+      Clock clock,
+      MeterRegistry meterRegistry,
+      @Value("${weather.history.enabled:false}") boolean enabled,
+      @Value("${weather.history.queue.capacity:10000}") int queueCapacity,
+      @Value("${weather.history.batch.size:500}") int batchSize,
+      @Value("${weather.history.flush.interval.millis:1000}") long flushIntervalMillis,
+      @Value("${weather.history.observation.retention.days:7}") int observationRetentionDays,
+      @Value("${weather.history.rollup.retention.days:730}") int rollupRetentionDays,
+      @Value("${weather.history.max.buckets:2000}") int maxBuckets) {
+    this.repository = repository;
+    this.cityKeyNormalizer = cityKeyNormalizer;
+    this.clock = clock;
+    this.enabled = enabled;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.batchSize = batchSize;
+    this.flushInterval = Duration.ofMillis(flushIntervalMillis);
+    this.observationRetention = Duration.ofDays(observationRetentionDays);
+    this.rollupRetention = Duration.ofDays(rollupRetentionDays);
+    this.maxBuckets = maxBuckets;
+    this.writtenCounter = Counter.builder("weather.history.observations")
+        .tag("result", "written")
+        .description("Observations appended to the weather history")
+        .register(meterRegistry);
+    this.droppedCounter = Counter.builder("weather.history.observations")
+        .tag("result", "dropped")
+        .description("Observations dropped because the write-behind queue was full")
+        .register(meterRegistry);
+    this.failedCounter = Counter.builder("weather.history.observations")
+        .tag("result", "failed")
+        .description("Observations dropped because their batch failed to write")
+        .register(meterRegistry);
+    this.rejectedCounter = Counter.builder("weather.history.observations")
+        .tag("result", "rejected")
+        .description("Observations dropped because their city key is too long to store")
+        .register(meterRegistry);
+    Gauge.builder("weather.history.queue.size", queue, BlockingQueue::size)
+        .description("Observations waiting to be written to the weather history")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Starts flushing the queue periodically, if the history is enabled.
+   */
+  @PostConstruct
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+    log.info("Recording weather history, flushing every {}", flushInterval);
+    task = Flux.interval(flushInterval)
+        .onBackpressureDrop()
+        .concatMap(tick -> Mono.fromRunnable(this::flushAndPrune).subscribeOn(Schedulers.boundedElastic()), 1)
+        .subscribe();
+  }
+
+  /**
+   * Stops the periodic flush and writes the observations still queued, once a periodic flush still running has
+   * finished, so the two never merge into the same rollups at once.
+   */
+  @PreDestroy
+  public void stop() {
+    if (task != null) {
+      task.dispose();
+    }
+    if (enabled) {
+      flush();
+    }
+  }
+
+  /**
+   * Queues the weather fetched for a city for writing. Never blocks; the observation is dropped if the queue
+   * is full, or if the city key is too long to store, so it cannot fail the batch it would be written in.
+   *
+   * @param cacheKey The canonical key of the city.
+   * @param response The weather fetched from a provider.
+   */
+  public void record(String cacheKey, WeatherResponse response) {
+    if (!enabled) {
+      return;
+    }
+    if (cacheKey.length() > WeatherHistoryRepository.MAX_CITY_LENGTH) {
+      rejectedCounter.increment();
+      log.debug("Not recording weather history for a city key of {} characters", cacheKey.length());
+      return;
+    }
+    WeatherObservation observation = new WeatherObservation(cacheKey, clock.instant(), response.getWindSpeed(),
+        response.getTemperatureDegrees());
+    if (!queue.offer(observation)) {
+      droppedCounter.increment();
+    }
+  }
+
+  /**
+   * Aggregates the history of a city into buckets, reading the rollups on the bounded elastic scheduler.
+   * Observations still queued are not included.
+   *
+   * @param city The name of the city.
+   * @param from The start of the range, inclusive; widened to the start of its hour.
+   * @param to The end of the range, exclusive; widened to the end of its hour.
+   * @param bucket The width of a bucket, a whole number of hours.
+   * @return A Mono emitting the buckets with observations, oldest first, or failing with an
+   *     {@link IllegalArgumentException} if the range or bucket is invalid.
+   */
+  public Mono<List<WeatherHistoryBucket>> query(String city, Instant from, Instant to, Duration bucket) {
+    if (!from.isBefore(to)) {
+      return Mono.error(new IllegalArgumentException("The start of the range must be before its end"));
+    }
+    long hourMillis = WeatherHistoryRepository.ROLLUP_INTERVAL.toMillis();
+    if (bucket.toMillis() <= 0 || bucket.toMillis() % hourMillis != 0) {
+      return Mono.error(new IllegalArgumentException("Bucket must be a positive whole number of hours: " + bucket));
+    }
+    if (Duration.between(from, to).dividedBy(bucket) >= maxBuckets) {
+      return Mono.error(new IllegalArgumentException("The range spans more than " + maxBuckets + " buckets"));
+    }
+    String cacheKey = cityKeyNormalizer.normalize(city);
+    return Mono.fromCallable(() -> repository.findBuckets(cacheKey, from, to, bucket))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  /**
+   * Writes every queued observation, in batches, after any flush still running. Observations queued while
+   * flushing wait for the next flush.
+   *
+   * @return The number of observations taken from the queue.
+   */
+  int flush() {
+    synchronized (flushLock) {
+      int pending = queue.size();
+      int taken = 0;
+      List<WeatherObservation> batch = new ArrayList<>(Math.min(batchSize, pending));
+      while (taken < pending) {
+        int drained = queue.drainTo(batch, Math.min(batchSize, pending - taken));
+        if (drained == 0) {
+          break;
+        }
+        taken += drained;
+        write(batch);
+        batch.clear();
+      }
+      return taken;
+    }
+  }
+
+  /**
+   * Deletes observations and rollups past their retention.
+   */
+  void prune() {
+    Instant now = clock.instant();
+    int observations = repository.deleteObservationsBefore(now.minus(observationRetention));
+    int rollups = repository.deleteRollupsBefore(now.minus(rollupRetention));
+    log.debug("Pruned {} observations and {} hourly rollups from the weather history", observations, rollups);
+  }
+
+  /**
+   * Flushes the queue and, once an hour, prunes the history. A failed prune is logged and retried an hour later.
+   */
+  private void flushAndPrune() {
+    flush();
+    Instant now = clock.instant();
+    if (now.isBefore(nextPrune)) {
+      return;
+    }
+    nextPrune = now.plus(PRUNE_INTERVAL);
+    try {
+      prune();
+    } catch (RuntimeException e) {
+      log.warn("Failed to prune the weather history: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Appends a batch of observations, dropping it if the write fails.
+   *
+   * @param batch The observations.
+   */
+  private void write(List<WeatherObservation> batch) {
+    try {
+      repository.append(batch);
+      writtenCounter.increment(batch.size());
+    } catch (RuntimeException e) {
+      failedCounter.increment(batch.size());
+      log.warn("Failed to write {} observations to the weather history: {}", batch.size(), e.getMessage());
+    }
+  }
+}
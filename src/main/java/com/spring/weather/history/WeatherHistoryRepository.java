@@ -0,0 +1,225 @@
+package com.spring.weather.history;
+
+import com.spring.weather.dto.WeatherHistoryBucket;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stores the weather history in the {@code weather_observation} and {@code weather_rollup_hourly} tables
+ * created by {@code schema.sql}.
+ *
+ * <p>Every observation is kept as a row, and folded into the hourly rollup of its city in the same
+ * transaction: the rollup keeps the sample count and the minimum, maximum and sum of the temperature and wind
+ * speed, which are all mergeable, so a batch is aggregated per city and hour first and then merged into the
+ * existing rows. Queries read the rollups only and combine hours into coarser buckets, so their cost depends
+ * on the number of hours in the range rather than the number of fetches.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WeatherHistoryRepository {
+
+  /**
+   * The width of a rollup row.
+   */
+  public static final Duration ROLLUP_INTERVAL = Duration.ofHours(1);
+
+  /**
+   * The longest city key the history tables hold, matching the {@code city} columns of the schema.
+   */
+  public static final int MAX_CITY_LENGTH = 255;
+
+  private static final String INSERT_OBSERVATION =
+      "INSERT INTO weather_observation (city, observed_at, wind_speed, temperature_degrees) VALUES (?, ?, ?, ?)";
+
+  private static final String MERGE_ROLLUP = """
+      MERGE INTO weather_rollup_hourly r
+      USING (SELECT CAST(? AS VARCHAR(255)) AS city, CAST(? AS BIGINT) AS bucket_start,
+          CAST(? AS BIGINT) AS sample_count,
+          CAST(? AS DOUBLE PRECISION) AS temperature_min, CAST(? AS DOUBLE PRECISION) AS temperature_max,
+          CAST(? AS DOUBLE PRECISION) AS temperature_sum,
+          CAST(? AS DOUBLE PRECISION) AS wind_speed_min, CAST(? AS DOUBLE PRECISION) AS wind_speed_max,
+          CAST(? AS DOUBLE PRECISION) AS wind_speed_sum) s
+      ON r.city = s.city AND r.bucket_start = s.bucket_start
+      WHEN MATCHED THEN UPDATE SET
+          sample_count = r.sample_count + s.sample_count,
+          temperature_min = LEAST(r.temperature_min, s.temperature_min),
+          temperature_max = GREATEST(r.temperature_max, s.temperature_max),
+          temperature_sum = r.temperature_sum + s.temperature_sum,
+          wind_speed_min = LEAST(r.wind_speed_min, s.wind_speed_min),
+          wind_speed_max = GREATEST(r.wind_speed_max, s.wind_speed_max),
+          wind_speed_sum = r.wind_speed_sum + s.wind_speed_sum
+      WHEN NOT MATCHED THEN INSERT (city, bucket_start, sample_count, temperature_min, temperature_max,
+          temperature_sum, wind_speed_min, wind_speed_max, wind_speed_sum)
+        VALUES (s.city, s.bucket_start, s.sample_count, s.temperature_min, s.temperature_max, s.temperature_sum,
+          s.wind_speed_min, s.wind_speed_max, s.wind_speed_sum)
+      """;
+
+  private static final String SELECT_BUCKETS = """
+      SELECT bucket, SUM(sample_count) AS samples,
+          MIN(temperature_min) AS temperature_min, MAX(temperature_max) AS temperature_max,
+          SUM(temperature_sum) AS temperature_sum,
+          MIN(wind_speed_min) AS wind_speed_min, MAX(wind_speed_max) AS wind_speed_max,
+          SUM(wind_speed_sum) AS wind_speed_sum
+      FROM (SELECT (bucket_start - CAST(? AS BIGINT)) / CAST(? AS BIGINT) AS bucket, sample_count,
+            temperature_min, temperature_max, temperature_sum, wind_speed_min, wind_speed_max, wind_speed_sum
+          FROM weather_rollup_hourly
+          WHERE city = ? AND bucket_start >= ? AND bucket_start < ?) hours
+      GROUP BY bucket
+      ORDER BY bucket
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Appends observations to the history and merges them into the hourly rollups, in one transaction.
+   *
+   * @param observations The observations to append.
+   */
+  @Transactional
+  public void append(List<WeatherObservation> observations) {
+    if (observations.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(INSERT_OBSERVATION, observations, observations.size(), (statement, observation) -> {
+      statement.setString(1, observation.city());
+      statement.setLong(2, observation.observedAt().toEpochMilli());
+      statement.setDouble(3, observation.windSpeed());
+      statement.setDouble(4, observation.temperatureDegrees());
+    });
+
+    List<HourlyRollup> rollups = rollUp(observations);
+    jdbcTemplate.batchUpdate(MERGE_ROLLUP, rollups, rollups.size(), (statement, rollup) -> {
+      statement.setString(1, rollup.city);
+      statement.setLong(2, rollup.bucketStart);
+      statement.setLong(3, rollup.sampleCount);
+      statement.setDouble(4, rollup.temperatureMin);
+      statement.setDouble(5, rollup.temperatureMax);
+      statement.setDouble(6, rollup.temperatureSum);
+      statement.setDouble(7, rollup.windSpeedMin);
+      statement.setDouble(8, rollup.windSpeedMax);
+      statement.setDouble(9, rollup.windSpeedSum);
+    });
+  }
+
+  /**
+   * Aggregates the rollups of a city into buckets. The range is widened to whole hours, and the buckets start
+   * at the start of the range; buckets without observations are left out.
+   *
+   * @param city The canonical key of the city.
+   * @param from The start of the range, inclusive.
+   * @param to The end of the range, exclusive.
+   * @param bucket The width of a bucket, a whole number of hours.
+   * @return The buckets with observations, oldest first.
+   * @throws IllegalArgumentException If the bucket is not a positive whole number of hours.
+   */
+  public List<WeatherHistoryBucket> findBuckets(String city, Instant from, Instant to, Duration bucket) {
+    long bucketMillis = bucket.toMillis();
+    long hourMillis = ROLLUP_INTERVAL.toMillis();
+    if (bucketMillis <= 0 || bucketMillis % hourMillis != 0) {
+      throw new IllegalArgumentException("Bucket must be a positive whole number of hours: " + bucket);
+    }
+    long start = Math.floorDiv(from.toEpochMilli(), hourMillis) * hourMillis;
+    long end = Math.ceilDiv(to.toEpochMilli(), hourMillis) * hourMillis;
+    return jdbcTemplate.query(SELECT_BUCKETS, (row, rowNumber) -> {
+      long samples = row.getLong("samples");
+      return new WeatherHistoryBucket(
+          Instant.ofEpochMilli(start + row.getLong("bucket") * bucketMillis),
+          samples,
+          row.getDouble("temperature_min"),
+          row.getDouble("temperature_max"),
+          row.getDouble("temperature_sum") / samples,
+          row.getDouble("wind_speed_min"),
+          row.getDouble("wind_speed_max"),
+          row.getDouble("wind_speed_sum") / samples);
+    }, start, bucketMillis, city, start, end);
+  }
+
+  /**
+   * Deletes the observations fetched before a time. Their rollups are kept.
+   *
+   * @param before The time before which observations are deleted.
+   * @return The number of deleted observations.
+   */
+  public int deleteObservationsBefore(Instant before) {
+    return jdbcTemplate.update("DELETE FROM weather_observation WHERE observed_at < ?", before.toEpochMilli());
+  }
+
+  /**
+   * Deletes the rollups of the hours starting before a time.
+   *
+   * @param before The time before which rollups are deleted.
+   * @return The number of deleted rollups.
+   */
+  public int deleteRollupsBefore(Instant before) {
+    return jdbcTemplate.update("DELETE FROM weather_rollup_hourly WHERE bucket_start < ?", before.toEpochMilli());
+  }
+
+  /**
+   * Aggregates observations per city and hour.
+   *
+   * @param observations The observations.
+   * @return One rollup per city and hour with observations.
+   */
+  private static List<HourlyRollup> rollUp(List<WeatherObservation> observations) {
+    long hourMillis = ROLLUP_INTERVAL.toMillis();
+    Map<String, Map<Long, HourlyRollup>> byCity = new LinkedHashMap<>();
+    for (WeatherObservation observation : observations) {
+      long bucketStart = Math.floorDiv(observation.observedAt().toEpochMilli(), hourMillis) * hourMillis;
+      byCity.computeIfAbsent(observation.city(), city -> new LinkedHashMap<>())
+          .computeIfAbsent(bucketStart, start -> new HourlyRollup(observation.city(), start))
+          .add(observation);
+    }
+    List<HourlyRollup> rollups = new ArrayList<>();
+    byCity.values().forEach(hours -> rollups.addAll(hours.values()));
+    return rollups;
+  }
+
+  /**
+   * The aggregate of the observations of one city in one hour of a batch.
+   */
+  private static final class HourlyRollup {
+    private final String city;
+    private final long bucketStart;
+    private long sampleCount;
+    private double temperatureMin = Double.POSITIVE_INFINITY;
+    private double temperatureMax = Double.NEGATIVE_INFINITY;
+    private double temperatureSum;
+    private double windSpeedMin = Double.POSITIVE_INFINITY;
+    private double windSpeedMax = Double.NEGATIVE_INFINITY;
+    private double windSpeedSum;
+
+    /**
+     * Creates an empty rollup.
+     *
+     * @param city The canonical key of the city.
+     * @param bucketStart The start of the hour, in epoch milliseconds.
+     */
+    HourlyRollup(String city, long bucketStart) {
+      this.city = city;
+      this.bucketStart = bucketStart;
+    }
+
+    /**
+     * Adds an observation to the rollup.
+     *
+     * @param observation The observation.
+     */
+    void add(WeatherObservation observation) {
+      sampleCount++;
+      temperatureMin = Math.min(temperatureMin, observation.temperatureDegrees());
+      temperatureMax = Math.max(temperatureMax, observation.temperatureDegrees());
+      temperatureSum += observation.temperatureDegrees();
+      windSpeedMin = Math.min(windSpeedMin, observation.windSpeed());
+      windSpeedMax = Math.max(windSpeedMax, observation.windSpeed());
+      windSpeedSum += observation.windSpeed();
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package com.spring.weather.history;
+
+import java.time.Instant;
+
+/**
+ * A single weather response fetched from a provider, as kept in the weather history.
+ *
+ * @param city The canonical key of the city.
+ * @param observedAt The time the response was fetched.
+ * @param windSpeed The wind speed.
+ * @param temperatureDegrees The temperature in degrees.
+ */
+public record WeatherObservation(String city, Instant observedAt, double windSpeed, double temperatureDegrees) {
+}
@@ -0,0 +1,141 @@
+package com.spring.weather.peer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A consistent-hash ring assigning every cache key to one instance of the service, its owner.
+ *
+ * <p>Each member is placed on the ring at a number of virtual nodes derived from its base URL, and a key belongs
+ * to the first virtual node at or after the key's hash. Every instance built from the same member list computes
+ * the same owners, whatever the order of the list, and adding or removing a member only moves the keys of its
+ * neighbours on the ring.
+ */
+public class PeerRing {
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final String self;
+  private final List<String> members;
+  private final long[] hashes;
+  private final String[] owners;
+
+  /**
+   * Constructs a new PeerRing.
+   *
+   * @param self The base URL of this instance, which must be one of the members.
+   * @param members The base URLs of all instances, including this one.
+   * @param virtualNodes The number of points each member takes on the ring; more points spread keys more evenly.
+   * @throws IllegalArgumentException if the members are empty or do not include this instance.
+   */
+  public PeerRing(String self, List<String> members, int virtualNodes) {
+    Set<String> distinct = new LinkedHashSet<>();
+    members.forEach(member -> distinct.add(normalize(member)));
+    this.self = normalize(self);
+    if (!distinct.contains(this.self)) {
+      throw new IllegalArgumentException("Peer members " + distinct + " do not include this instance " + this.self);
+    }
+    this.members = List.copyOf(distinct);
+
+    int points = this.members.size() * virtualNodes;
+    long[] pointHashes = new long[points];
+    String[] pointOwners = new String[points];
+    List<long[]> sorted = new ArrayList<>(points);
+    for (int m = 0; m < this.members.size(); m++) {
+      for (int v = 0; v < virtualNodes; v++) {
+        sorted.add(new long[] {hash(this.members.get(m) + '#' + v), m});
+      }
+    }
+    // Ties are broken by member URL, so every instance orders colliding points the same way.
+    sorted.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0])
+        : this.members.get((int) a[1]).compareTo(this.members.get((int) b[1])));
+    for (int i = 0; i < points; i++) {
+      pointHashes[i] = sorted.get(i)[0];
+      pointOwners[i] = this.members.get((int) sorted.get(i)[1]);
+    }
+    this.hashes = pointHashes;
+    this.owners = pointOwners;
+  }
+
+  /**
+   * Returns the owner of a key.
+   *
+   * @param key The normalized cache key.
+   * @return The base URL of the member owning the key.
+   */
+  public String ownerOf(String key) {
+    int index = Arrays.binarySearch(hashes, hash(key));
+    if (index < 0) {
+      index = -index - 1;
+    }
+    return owners[index == hashes.length ? 0 : index];
+  }
+
+  /**
+   * Returns whether this instance owns a key.
+   *
+   * @param key The normalized cache key.
+   * @return True if the key is loaded from the providers here.
+   */
+  public boolean isOwner(String key) {
+    return self.equals(ownerOf(key));
+  }
+
+  /**
+   * Returns the base URL of this instance.
+   *
+   * @return The base URL without a trailing slash.
+   */
+  public String getSelf() {
+    return self;
+  }
+
+  /**
+   * Returns the base URLs of all members.
+   *
+   * @return The members without trailing slashes.
+   */
+  public List<String> getMembers() {
+    return members;
+  }
+
+  /**
+   * Strips surrounding whitespace and trailing slashes from a base URL, so equal URLs place equal points.
+   *
+   * @param url The base URL.
+   * @return The normalized URL.
+   */
+  private static String normalize(String url) {
+    String normalized = url.trim();
+    while (normalized.endsWith("/")) {
+      normalized = normalized.substring(0, normalized.length() - 1);
+    }
+    return normalized;
+  }
+
+  /**
+   * Hashes a string with 64-bit FNV-1a over its UTF-8 bytes, followed by a finalizer that spreads the bits of
+   * similar inputs such as consecutive virtual node names.
+   *
+   * @param value The string.
+   * @return The hash.
+   */
+  static long hash(String value) {
+    long hash = FNV_OFFSET_BASIS;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xff;
+      hash *= FNV_PRIME;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
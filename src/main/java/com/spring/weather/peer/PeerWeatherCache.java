@@ -0,0 +1,134 @@
+package com.spring.weather.peer;
+
+import com.spring.weather.cache.CachedWeather;
+import com.spring.weather.cache.SharedWeatherCache;
+import com.spring.weather.dto.WeatherResponse;
+import com.spring.weather.exception.MissingQueryException;
+import com.spring.weather.exception.WeatherServiceException;
+import java.time.Duration;
+import java.time.Instant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * A {@link SharedWeatherCache} formed by the instances of the service themselves, in the style of groupcache.
+ *
+ * <p>The {@link PeerRing} assigns every key to one owner. A lookup of a key owned by another instance fetches it
+ * from the owner's {@value #PATH} endpoint, which answers from the owner's cache and only calls the providers on
+ * the owner, so each key is fetched upstream once per fresh window across the fleet and only the owner's
+ * circuit breakers see its failures. The answer keeps the owner's fetch time and is kept in the local cache
+ * for the rest of its fresh window, so every instance holds a replica of the keys it serves and the owner is
+ * asked at most once per window by each of them, however hot the key. A lookup of an owned key completes
+ * empty, so the local cache loads it.
+ *
+ * <p>Nothing is written to peers; each owner caches what it loads. An error status from the owner is its final
+ * answer: a 400 fails the lookup with a {@link MissingQueryException}, e.g. for an unknown city, and any other
+ * error status with a {@link WeatherServiceException}, e.g. when every provider failed on the owner or it could
+ * not reload a stale entry, so the other instances do not retry the providers for the key and keep serving
+ * their own stale copy. An owner shedding the request, with a 429 or a 503 carrying {@code Retry-After}, has
+ * not answered for the key, so it is loaded locally, as it is when the owner cannot be reached in time. An instance going down or overloaded only costs its keys extra upstream calls.
+ */
+@Slf4j
+public class PeerWeatherCache implements SharedWeatherCache {
+
+  /**
+   * The path of the endpoint answering peers.
+   */
+  public static final String PATH = "/internal/v1/weather";
+
+  /**
+   * The response header carrying the fetch time of the answer, in epoch milliseconds.
+   */
+  public static final String FETCHED_AT_HEADER = "X-Weather-Fetched-At";
+
+  private final PeerRing ring;
+  private final WebClient webClient;
+  private final Duration timeout;
+
+  /**
+   * Constructs a new PeerWeatherCache.
+   *
+   * @param ring The ring assigning keys to owners.
+   * @param webClient The client used to call the owners.
+   * @param timeout How long to wait for an owner before loading the key locally.
+   */
+  public PeerWeatherCache(PeerRing ring, WebClient webClient, Duration timeout) {
+    this.ring = ring;
+    this.webClient = webClient;
+    this.timeout = timeout;
+  }
+
+  /**
+   * Fetches a key from its owner, unless this instance owns it.
+   *
+   * @param key The normalized cache key.
+   * @return A Mono emitting the owner's entry, completing empty for an owned key, failing with a
+   *     {@link MissingQueryException} or {@link WeatherServiceException} if the owner answered with an error
+   *     status, or failing with another error if the owner shed the request or cannot be reached in time.
+   */
+  @Override
+  public Mono<CachedWeather> get(String key) {
+    String owner = ring.ownerOf(key);
+    if (owner.equals(ring.getSelf())) {
+      return Mono.empty();
+    }
+    return webClient.get()
+        .uri(owner + PATH + "?city={city}", key)
+        .accept(MediaType.APPLICATION_JSON)
+        .exchangeToMono(response -> {
+          if (isShed(response)) {
+            return response.createError();
+          }
+          if (response.statusCode().isSameCodeAs(HttpStatus.BAD_REQUEST)) {
+            return response.releaseBody()
+                .then(Mono.error(new MissingQueryException("Peer " + owner + " rejected city: " + key)));
+          }
+          if (response.statusCode().isError()) {
+            return response.releaseBody()
+                .then(Mono.error(new WeatherServiceException(
+                    "Peer " + owner + " answered " + response.statusCode().value() + " for " + key)));
+          }
+          if (!response.statusCode().is2xxSuccessful()) {
+            return response.createError();
+          }
+          String fetchedAt = response.headers().asHttpHeaders().getFirst(FETCHED_AT_HEADER);
+          if (fetchedAt == null) {
+            return Mono.error(new IllegalStateException("Peer " + owner + " sent no " + FETCHED_AT_HEADER));
+          }
+          return response.bodyToMono(WeatherResponse.class)
+              .map(weather -> new CachedWeather(weather, Instant.ofEpochMilli(Long.parseLong(fetchedAt))));
+        })
+        .timeout(timeout)
+        .doOnError(error -> log.debug("Peer {} could not answer for {}: {}", owner, key, error.getMessage()));
+  }
+
+  /**
+   * Returns whether the owner shed the request instead of answering for the key.
+   *
+   * @param response The response of the owner.
+   * @return True for a 429, or a 503 with a {@code Retry-After} header.
+   */
+  private static boolean isShed(ClientResponse response) {
+    return response.statusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)
+        || response.statusCode().isSameCodeAs(HttpStatus.SERVICE_UNAVAILABLE)
+            && response.headers().asHttpHeaders().containsKey(HttpHeaders.RETRY_AFTER);
+  }
+
+  /**
+   * Does nothing, since every owner caches the keys it loads itself.
+   *
+   * @param key The normalized cache key.
+   * @param entry The entry loaded locally.
+   * @param timeToLive Unused.
+   * @return An empty Mono.
+   */
+  @Override
+  public Mono<Void> put(String key, CachedWeather entry, Duration timeToLive) {
+    return Mono.empty();
+  }
+}
@@ -1,17 +1,33 @@
 package com.spring.weather.provider;
 
 import com.spring.weather.dto.WeatherResponse;
+import com.spring.weather.exception.ProviderBudgetExhaustedException;
 import com.spring.weather.exception.WeatherProviderException;
 import com.spring.weather.exception.WeatherStackApiException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
 /**
  * Abstract base class for weather providers.
  * Provides common functionality for executing HTTP requests and handling errors.
+ * Every call is timed in the {@code weather.provider.requests} timer, tagged with the provider and a fixed
+ * set of outcome values, so the number of meters does not depend on the cities requested.
+ * Every call is first charged to the {@link ProviderBudget} of the provider; a call the budget refuses fails
+ * with a {@link ProviderBudgetExhaustedException} without being sent or timed, and a call rejected by the open
+ * circuit breaker is given back to the budget.
  */
 @Slf4j
 public abstract class AbstractWeatherProvider implements WeatherProvider {
@@ -19,6 +35,11 @@ public abstract class AbstractWeatherProvider implements WeatherProvider {
   protected final ReactiveCircuitBreaker circuitBreaker;
   protected final String apiKey;
   protected final String baseUrl;
+  private static final int USAGE_LIMIT_CODE = 104;
+
+  private final MeterRegistry meterRegistry;
+  private final ProviderBudget budget;
+  private final Map<String, Timer> timersByOutcome = new ConcurrentHashMap<>();
 
   /**
    * Constructs a new AbstractWeatherProvider with the specified dependencies.
@@ -28,57 +49,164 @@ public abstract class AbstractWeatherProvider implements WeatherProvider {
    * @param apiKey The API key for authenticating requests.
    * @param baseUrl The base URL of the weather provider's API.
    * @param providerName The name of the weather provider, used for circuit breaker configuration.
+   * @param meterRegistry The registry the provider call timers are registered in.
+   * @param providerBudgets The factory of the upstream call budget, configured under the provider name.
    */
   protected AbstractWeatherProvider(
       WebClient webClient,
       ReactiveCircuitBreakerFactory circuitBreakerFactory,
       String apiKey,
       String baseUrl,
-      String providerName) {
+      String providerName,
+      MeterRegistry meterRegistry,
+      ProviderBudgets providerBudgets) {
     this.webClient = webClient;
     this.circuitBreaker = circuitBreakerFactory.create(providerName);
     this.apiKey = apiKey;
     this.baseUrl = baseUrl;
+    this.meterRegistry = meterRegistry;
+    this.budget = providerBudgets.create(providerName, getProviderName());
   }
 
   /**
-   * Executes an HTTP GET request to the specified URL and processes the response.
-   * Uses a circuit breaker to handle failures gracefully.
+   * Executes an HTTP GET request to the specified, already encoded URI and decodes the response body
+   * directly from the network buffer, without binding it to a response DTO.
+   * Uses a circuit breaker to handle failures gracefully. The call is timed from subscription until it
+   * completes, fails or is cancelled.
    *
-   * @param url The URL to send the request to.
-   * @param responseType The expected type of the response body.
-   * @param <T> The type of the response body.
-   * @return A Mono emitting the converted WeatherResponse object or an error.
+   * @param uri The encoded URI to send the request to.
+   * @param decoder The decoder reading the weather data from the response body.
+   * @return A Mono emitting the decoded WeatherResponse object or an error.
    */
-  protected <T> Mono<WeatherResponse> executeRequest(String url, Class<T> responseType) {
-    return circuitBreaker.run(
+  protected Mono<WeatherResponse> executeRequest(URI uri, WeatherResponseDecoder decoder) {
+    return budgeted(timed(circuitBreaker.run(
         webClient.get()
-            .uri(url)
+            .uri(uri)
             .retrieve()
-            .bodyToMono(responseType)
-            .doOnSuccess(response -> log.info("Successfully fetched data from {} for current request", getProviderName()))
-            .map(this::convertToWeatherResponse),
-        throwable -> {
-          log.error("Circuit breaker triggered for {}: {}", getProviderName(), throwable.getMessage());
-          if (throwable instanceof WeatherStackApiException weatherStackApiException) {
-            return  Mono.error(new WeatherStackApiException(weatherStackApiException.getCode(), weatherStackApiException.getType(),weatherStackApiException.getInfo()));
-          }
-          return Mono.error(
-              new WeatherProviderException(getProviderName() + " service is currently unavailable", throwable));
+            .bodyToMono(DataBuffer.class)
+            .map(buffer -> WeatherResponseDecoders.decode(buffer, decoder, getProviderName()))
+            .doOnSuccess(response -> log.info("Successfully fetched data from {} for current request", getProviderName())),
+        this::fallback)));
+  }
+
+  /**
+   * Charges a provider call to the budget at subscription, with the {@link CallPriority} found in the subscriber
+   * context. A refused call fails without reaching the provider, and a call the circuit breaker does not let
+   * through is released again. A usage limit error from the provider marks the budget as used up for the rest
+   * of the month.
+   *
+   * @param call The provider call.
+   * @return The provider call, guarded by the budget.
+   */
+  private Mono<WeatherResponse> budgeted(Mono<WeatherResponse> call) {
+    return Mono.deferContextual(context -> {
+      if (!budget.tryAcquire(CallPriority.from(context))) {
+        return Mono.error(new ProviderBudgetExhaustedException(getProviderName() + " call budget exhausted"));
+      }
+      return call.doOnError(e -> {
+        if (isCircuitOpen(e)) {
+          budget.release();
+        } else if (e instanceof WeatherStackApiException apiError && apiError.getCode() == USAGE_LIMIT_CODE) {
+          log.warn("{} reported its usage limit as reached, suspending calls until next month", getProviderName());
+          budget.markExhausted();
         }
-    );
+      });
+    });
   }
 
+  /**
+   * Returns whether a call failed because the circuit breaker did not let it through.
+   *
+   * @param error The error the call failed with.
+   * @return True if the call never reached the provider.
+   */
+  private static boolean isCircuitOpen(Throwable error) {
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof CallNotPermittedException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Times a provider call from subscription until it completes, fails or is cancelled.
+   *
+   * @param call The provider call.
+   * @return The provider call, recording its duration and outcome.
+   */
+  private Mono<WeatherResponse> timed(Mono<WeatherResponse> call) {
+    return Mono.defer(() -> {
+      Timer.Sample sample = Timer.start(meterRegistry);
+      return call
+          .doOnSuccess(response -> sample.stop(timer("success")))
+          .doOnError(e -> sample.stop(timer(outcome(e))))
+          .doOnCancel(() -> sample.stop(timer("cancelled")));
+    });
+  }
 
   /**
-   * Converts the raw response from the weather provider into a WeatherResponse object.
-   * This method must be implemented by subclasses.
+   * Maps a failed or rejected call to the error reported by the provider.
+   * WeatherStack API errors are kept so they can be mapped by the provider; anything else means the provider
+   * is unavailable.
    *
-   * @param response The raw response from the weather provider.
-   * @param <T> The type of the raw response.
-   * @return The converted WeatherResponse object.
+   * @param throwable The error the call failed with.
+   * @return A Mono failing with the mapped error.
    */
-  protected abstract <T> WeatherResponse convertToWeatherResponse(T response);
+  private Mono<WeatherResponse> fallback(Throwable throwable) {
+    log.error("Circuit breaker triggered for {}: {}", getProviderName(), throwable.getMessage());
+    if (throwable instanceof WeatherStackApiException weatherStackApiException) {
+      return  Mono.error(new WeatherStackApiException(weatherStackApiException.getCode(), weatherStackApiException.getType(),weatherStackApiException.getInfo()));
+    }
+    return Mono.error(
+        new WeatherProviderException(getProviderName() + " service is currently unavailable", throwable));
+  }
 
+  /**
+   * Returns the call timer of this provider for the given outcome.
+   *
+   * @param outcome The outcome tag value.
+   * @return The timer.
+   */
+  private Timer timer(String outcome) {
+    return timersByOutcome.computeIfAbsent(outcome, key -> Timer.builder("weather.provider.requests")
+        .description("Weather provider calls")
+        .tag("provider", getProviderName())
+        .tag("outcome", key)
+        .publishPercentileHistogram()
+        .register(meterRegistry));
+  }
 
+  /**
+   * Classifies a failed call into one of a fixed set of outcome tag values.
+   *
+   * @param error The error the call failed with.
+   * @return The outcome tag value.
+   */
+  static String outcome(Throwable error) {
+    if (error instanceof WeatherStackApiException apiError) {
+      return switch (apiError.getCode()) {
+        case 101 -> "invalid_access_key";
+        case 104 -> "usage_limit";
+        case 601 -> "missing_query";
+        case 615 -> "request_failed";
+        default -> "api_error";
+      };
+    }
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof CallNotPermittedException) {
+        return "circuit_open";
+      }
+      if (cause instanceof TimeoutException || cause instanceof io.netty.handler.timeout.TimeoutException) {
+        return "timeout";
+      }
+      if (cause instanceof WebClientResponseException responseError) {
+        return "http_" + responseError.getStatusCode().value() / 100 + "xx";
+      }
+      if (cause instanceof WebClientRequestException) {
+        return "io_error";
+      }
+    }
+    return "error";
+  }
 }
@@ -0,0 +1,42 @@
+package com.spring.weather.provider;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * How important a provider call is for the request that triggered it, carried in the Reactor context so the
+ * provider budget can tell user requests from background work. Calls without a priority are essential.
+ */
+public enum CallPriority {
+
+  /**
+   * A call a client is waiting for, such as a cache miss.
+   */
+  ESSENTIAL,
+
+  /**
+   * A call that only keeps the cache warm, such as a stale revalidation or a refresh-ahead reload.
+   */
+  BACKGROUND;
+
+  private static final String CONTEXT_KEY = CallPriority.class.getName();
+
+  /**
+   * Returns a context carrying this priority, to be written with {@code contextWrite}.
+   *
+   * @return The context.
+   */
+  public Context asContext() {
+    return Context.of(CONTEXT_KEY, this);
+  }
+
+  /**
+   * Returns the priority carried in the given context.
+   *
+   * @param context The subscriber context of the call.
+   * @return The priority, or {@link #ESSENTIAL} if none is set.
+   */
+  public static CallPriority from(ContextView context) {
+    return context.getOrDefault(CONTEXT_KEY, ESSENTIAL);
+  }
+}
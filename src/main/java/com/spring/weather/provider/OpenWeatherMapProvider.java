@@ -1,18 +1,20 @@
 package com.spring.weather.provider;
 
 import com.spring.weather.dto.WeatherResponse;
-import com.spring.weather.dto.OpenWeatherMapResponse;
 import com.spring.weather.exception.ExternalRequestException;
 import com.spring.weather.exception.InvalidAccessKeyException;
 import com.spring.weather.exception.MissingQueryException;
-import com.spring.weather.exception.WeatherProviderException;
+import com.spring.weather.exception.ProviderBudgetExhaustedException;
 import com.spring.weather.exception.WeatherServiceException;
-import com.spring.weather.exception.WeatherStackApiException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
 import reactor.core.publisher.Mono;
 
 /**
@@ -27,80 +29,66 @@ public class OpenWeatherMapProvider extends AbstractWeatherProvider {
   private static final String COUNTRY_CODE = "AU";
   private static final String PROVIDER_METRIC = "metric";
 
+  /**
+   * The request URI up to the encoded city, built once so a request only encodes the city.
+   */
+  private final String uriPrefix;
+
   /**
    * Constructs a new OpenWeatherMapProvider with the specified dependencies.
    *
-   * @param webClient             The WebClient instance for making HTTP requests.
+   * @param webClient             The WebClient dedicated to OpenWeatherMap.
    * @param circuitBreakerFactory The factory for creating ReactiveCircuitBreaker instances.
    * @param apiKey                The API key for authenticating requests to the OpenWeatherMap API.
    * @param baseUrl               The base URL of the OpenWeatherMap API.
+   * @param meterRegistry         The registry the provider call timers are registered in.
+   * @param providerBudgets       The factory of the upstream call budget of the provider.
    */
   public OpenWeatherMapProvider(
-      WebClient webClient,
+      @Qualifier("openWeatherMapWebClient") WebClient webClient,
       ReactiveCircuitBreakerFactory circuitBreakerFactory,
       @Value("${openweathermap.api.key}") String apiKey,
-      @Value("${openweathermap.api.url}") String baseUrl) {
-    super(webClient, circuitBreakerFactory, apiKey, baseUrl, "openweathermap");
+      @Value("${openweathermap.api.url}") String baseUrl,
+      MeterRegistry meterRegistry, ProviderBudgets providerBudgets) {
+    super(webClient, circuitBreakerFactory, apiKey, baseUrl, "openweathermap", meterRegistry, providerBudgets);
+    this.uriPrefix = baseUrl + "/weather?appid=" + UriUtils.encodeQueryParam(apiKey, StandardCharsets.UTF_8)
+        + "&units=" + PROVIDER_METRIC + "&q=";
   }
 
   /**
    * Fetches weather data for the specified city from the OpenWeatherMap API.
+   * The response body is decoded by {@link WeatherResponseDecoders#openWeatherMap} without creating a DTO.
    *
    * @param city The name of the city for which to fetch weather data.
    * @return A Mono emitting the weather data in a standardized format.
    */
   @Override
   public Mono<WeatherResponse> getWeatherData(String city) {
-    String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/weather")
-        .queryParam("q", city + ","+ COUNTRY_CODE)
-        .queryParam("appid", apiKey)
-        .queryParam("units", PROVIDER_METRIC)
-        .build()
-        .toUriString();
-
-    return executeRequest(url, OpenWeatherMapResponse.class).onErrorMap(this::mapWeatherStackError);
+    return executeRequest(uri(city), WeatherResponseDecoders::openWeatherMap).onErrorMap(this::mapWeatherStackError);
   }
 
   /**
-   * Maps errors from the WeatherStack API to specific exceptions.
+   * Builds the request URI for the specified city, restricted to the configured country.
    *
-   * @param error The error to map.
-   * @return A Throwable representing the mapped exception.
+   * @param city The name of the city.
+   * @return The encoded request URI.
    */
-  private Throwable mapWeatherStackError(Throwable error) {
-    return new WeatherServiceException("Weather service error: " + error.getMessage());
+  URI uri(String city) {
+    return URI.create(uriPrefix + UriUtils.encodeQueryParam(city, StandardCharsets.UTF_8) + "," + COUNTRY_CODE);
   }
 
   /**
-   * Converts the raw response from the OpenWeatherMap API into a WeatherResponse object.
+   * Maps errors from the WeatherStack API to specific exceptions.
+   * Calls refused by the budget keep their exception, so the service fails over to the next provider.
    *
-   * @param response The raw response from the OpenWeatherMap API.
-   * @param <T>      The type of the raw response.
-   * @return The converted WeatherResponse object.
-   * @throws WeatherProviderException If the response is invalid or missing required data.
+   * @param error The error to map.
+   * @return A Throwable representing the mapped exception.
    */
-  @Override
-  protected <T> WeatherResponse convertToWeatherResponse(T response) {
-    if (!(response instanceof OpenWeatherMapResponse openWeatherMapResponse)) {
-      throw new WeatherProviderException("Invalid response from OpenWeatherMap");
-    }
-
-    if (openWeatherMapResponse.getError() != null) {
-      throw new WeatherStackApiException(
-          openWeatherMapResponse.getError().getCode(),
-          openWeatherMapResponse.getError().getType(),
-          openWeatherMapResponse.getError().getInfo()
-      );
-    }
-
-    if (openWeatherMapResponse.getMain() == null) {
-      throw new WeatherProviderException("Invalid response from OpenWeatherMap: missing current weather data");
+  private Throwable mapWeatherStackError(Throwable error) {
+    if (error instanceof ProviderBudgetExhaustedException) {
+      return error;
     }
-
-    return new WeatherResponse(
-        openWeatherMapResponse.getWind().getSpeed(),
-        openWeatherMapResponse.getMain().getTemp()
-    );
+    return new WeatherServiceException("Weather service error: " + error.getMessage());
   }
 
   /**
@@ -0,0 +1,226 @@
+package com.spring.weather.provider;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Upstream call budget of a single weather provider: a token bucket limiting the call rate and a monthly
+ * allowance matching the provider plan. Every call has to be admitted by {@link #tryAcquire} before it is sent.
+ *
+ * <p>Client calls may use the allowance down to the hard reserve, so cached data is served before the provider
+ * starts rejecting calls. Background calls stop at the larger background reserve, may not run ahead of an
+ * even spend over the month and may not take the last part of the burst, so cache refreshes slow down before
+ * client requests are affected. Once the provider reports the quota as used up, every call is refused until
+ * the next calendar month (UTC).
+ *
+ * <p>Usage is counted in memory, so it starts from zero after a restart.
+ */
+public class ProviderBudget {
+
+  private final ProviderBudgetSettings settings;
+  private final Clock clock;
+  private final boolean rateLimited;
+  private final boolean monthlyLimited;
+  private final Map<CallPriority, LongAdder> denied = new EnumMap<>(CallPriority.class);
+
+  private double tokens;
+  private long refilledAt;
+  private YearMonth month;
+  private long used;
+  private boolean exhausted;
+
+  /**
+   * Constructs a new ProviderBudget with a full token bucket and an unused allowance.
+   *
+   * @param settings The budget settings of the provider.
+   * @param clock The clock used to refill the bucket and to find the current month.
+   */
+  public ProviderBudget(ProviderBudgetSettings settings, Clock clock) {
+    this.settings = settings;
+    this.clock = clock;
+    this.rateLimited = settings.ratePerSecond() > 0;
+    this.monthlyLimited = settings.monthlyAllowance() > 0;
+    this.tokens = settings.burst();
+    this.refilledAt = clock.millis();
+    this.month = monthOf(refilledAt);
+    for (CallPriority priority : CallPriority.values()) {
+      denied.put(priority, new LongAdder());
+    }
+  }
+
+  /**
+   * Admits a call if the budget allows it for the given priority, and charges it to the budget.
+   *
+   * @param priority The priority of the call.
+   * @return True if the call may be sent, false if it must not reach the provider.
+   */
+  public synchronized boolean tryAcquire(CallPriority priority) {
+    long now = clock.millis();
+    rollOver(now);
+    refill(now);
+    if (exhausted || !withinAllowance(priority, now) || !hasTokens(priority)) {
+      denied.get(priority).increment();
+      return false;
+    }
+    if (rateLimited) {
+      tokens--;
+    }
+    used++;
+    return true;
+  }
+
+  /**
+   * Gives back the token and the allowance of an admitted call that never reached the provider, such as a call
+   * rejected by an open circuit breaker.
+   */
+  public synchronized void release() {
+    long now = clock.millis();
+    rollOver(now);
+    refill(now);
+    if (rateLimited) {
+      tokens = Math.min(settings.burst(), tokens + 1);
+    }
+    if (used > 0) {
+      used--;
+    }
+  }
+
+  /**
+   * Records that the provider rejected a call because the quota is used up, so no further calls are made
+   * until the next month.
+   */
+  public synchronized void markExhausted() {
+    rollOver(clock.millis());
+    exhausted = true;
+  }
+
+  /**
+   * Returns the number of calls left in the monthly allowance.
+   *
+   * @return The remaining calls, 0 once the provider reported the quota as used up, or NaN without allowance.
+   */
+  public synchronized double monthlyRemaining() {
+    rollOver(clock.millis());
+    if (exhausted) {
+      return 0;
+    }
+    return monthlyLimited ? Math.max(0, settings.monthlyAllowance() - used) : Double.NaN;
+  }
+
+  /**
+   * Returns the number of calls admitted in the current month.
+   *
+   * @return The used calls.
+   */
+  public synchronized long monthlyUsed() {
+    rollOver(clock.millis());
+    return used;
+  }
+
+  /**
+   * Returns the number of calls that can currently be made back to back.
+   *
+   * @return The available tokens, or NaN without rate limit.
+   */
+  public synchronized double availableTokens() {
+    refill(clock.millis());
+    return rateLimited ? tokens : Double.NaN;
+  }
+
+  /**
+   * Returns the number of calls refused by the budget.
+   *
+   * @param priority The priority of the refused calls.
+   * @return The number of refused calls since startup.
+   */
+  public long deniedCount(CallPriority priority) {
+    return denied.get(priority).sum();
+  }
+
+  /**
+   * Returns whether the monthly allowance leaves room for a call of the given priority.
+   *
+   * @param priority The priority of the call.
+   * @param now The current time in milliseconds.
+   * @return True if the call fits in the allowance.
+   */
+  private boolean withinAllowance(CallPriority priority, long now) {
+    if (!monthlyLimited) {
+      return true;
+    }
+    long allowance = settings.monthlyAllowance();
+    if (priority == CallPriority.ESSENTIAL) {
+      return used < allowance * (1 - settings.hardReserve());
+    }
+    double usable = allowance * (1 - settings.backgroundReserve());
+    double paced = usable * elapsedShareOfMonth(now) + settings.burst();
+    return used < usable && used < paced;
+  }
+
+  /**
+   * Returns whether the token bucket leaves room for a call of the given priority.
+   *
+   * @param priority The priority of the call.
+   * @return True if the call fits in the rate limit.
+   */
+  private boolean hasTokens(CallPriority priority) {
+    if (!rateLimited) {
+      return true;
+    }
+    double required = priority == CallPriority.ESSENTIAL ? 1 : 1 + settings.burst() * settings.backgroundReserve();
+    return tokens >= required;
+  }
+
+  /**
+   * Adds the tokens earned since the last refill, up to the burst size.
+   *
+   * @param now The current time in milliseconds.
+   */
+  private void refill(long now) {
+    if (rateLimited && now > refilledAt) {
+      tokens = Math.min(settings.burst(), tokens + (now - refilledAt) * settings.ratePerSecond() / 1000);
+    }
+    refilledAt = Math.max(refilledAt, now);
+  }
+
+  /**
+   * Starts a new allowance when the calendar month has changed.
+   *
+   * @param now The current time in milliseconds.
+   */
+  private void rollOver(long now) {
+    YearMonth current = monthOf(now);
+    if (!current.equals(month)) {
+      month = current;
+      used = 0;
+      exhausted = false;
+    }
+  }
+
+  /**
+   * Returns the share of the current month that has elapsed.
+   *
+   * @param now The current time in milliseconds.
+   * @return A value between 0 and 1.
+   */
+  private double elapsedShareOfMonth(long now) {
+    long start = month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    long end = month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    return (double) (now - start) / (end - start);
+  }
+
+  /**
+   * Returns the calendar month of the given time, in UTC.
+   *
+   * @param millis The time in milliseconds since the epoch.
+   * @return The month.
+   */
+  private static YearMonth monthOf(long millis) {
+    return YearMonth.from(Instant.ofEpochMilli(millis).atZone(ZoneOffset.UTC));
+  }
+}
@@ -0,0 +1,58 @@
+package com.spring.weather.provider;
+
+import org.springframework.core.env.Environment;
+
+/**
+ * Upstream call budget of one weather provider.
+ * Each setting is read from {@code weather.budget.<provider>.<setting>}, falling back to the shared
+ * {@code weather.budget.<setting>} and then to the default below. The defaults impose no limit.
+ *
+ * @param ratePerSecond The sustained number of calls per second, or 0 for no rate limit.
+ * @param burst The number of calls that can be made back to back when the rate limit has not been used.
+ * @param monthlyAllowance The number of calls per calendar month included in the plan, or 0 for no allowance.
+ * @param backgroundReserve The share of the allowance and of the burst that background calls may not use,
+ *     e.g. 0.2 to keep the last 20% for client requests.
+ * @param hardReserve The share of the allowance left unused, so cached data is served before the provider
+ *     starts rejecting calls, e.g. 0.01.
+ */
+public record ProviderBudgetSettings(
+    double ratePerSecond,
+    int burst,
+    long monthlyAllowance,
+    double backgroundReserve,
+    double hardReserve) {
+
+  private static final String PREFIX = "weather.budget.";
+
+  /**
+   * Reads the settings of the given provider from the environment.
+   *
+   * @param environment The environment holding the application properties.
+   * @param provider The provider key used in the property names, e.g. {@code weatherstack}.
+   * @return The settings of the provider.
+   */
+  public static ProviderBudgetSettings from(Environment environment, String provider) {
+    return new ProviderBudgetSettings(
+        get(environment, provider, "rate.per.second", Double.class, 0.0),
+        get(environment, provider, "burst", Integer.class, 10),
+        get(environment, provider, "monthly.allowance", Long.class, 0L),
+        get(environment, provider, "background.reserve", Double.class, 0.2),
+        get(environment, provider, "hard.reserve", Double.class, 0.01));
+  }
+
+  /**
+   * Reads a single setting, preferring the provider specific property over the shared one.
+   *
+   * @param environment The environment holding the application properties.
+   * @param provider The provider key used in the property names.
+   * @param setting The setting name.
+   * @param type The type of the setting.
+   * @param defaultValue The value used if neither property is set.
+   * @param <T> The type of the setting.
+   * @return The value of the setting.
+   */
+  private static <T> T get(Environment environment, String provider, String setting, Class<T> type, T defaultValue) {
+    T shared = environment.getProperty(PREFIX + setting, type, defaultValue);
+    return environment.getProperty(PREFIX + provider + "." + setting, type, shared);
+  }
+}
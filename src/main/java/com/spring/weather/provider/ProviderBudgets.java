@@ -0,0 +1,56 @@
+package com.spring.weather.provider;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.util.Locale;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the upstream call budget of each weather provider from its {@link ProviderBudgetSettings} and
+ * publishes it to Micrometer: {@code weather.provider.budget.monthly.remaining},
+ * {@code weather.provider.budget.monthly.used}, {@code weather.provider.budget.tokens} and the
+ * {@code weather.provider.budget.denied} counter, tagged with the provider and, for denials, the call priority.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProviderBudgets {
+
+  private final Environment environment;
+  private final Clock clock;
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Creates the budget of a provider and registers its meters.
+   *
+   * @param key The provider key used in the property names, e.g. {@code weatherstack}.
+   * @param providerName The provider name used as the metrics tag.
+   * @return The budget of the provider.
+   */
+  public ProviderBudget create(String key, String providerName) {
+    ProviderBudget budget = new ProviderBudget(ProviderBudgetSettings.from(environment, key), clock);
+    Gauge.builder("weather.provider.budget.monthly.remaining", budget, ProviderBudget::monthlyRemaining)
+        .description("Calls left in the monthly allowance of the provider plan")
+        .tag("provider", providerName)
+        .register(meterRegistry);
+    Gauge.builder("weather.provider.budget.monthly.used", budget, ProviderBudget::monthlyUsed)
+        .description("Calls made to the provider in the current month")
+        .tag("provider", providerName)
+        .register(meterRegistry);
+    Gauge.builder("weather.provider.budget.tokens", budget, ProviderBudget::availableTokens)
+        .description("Calls that can currently be made back to back within the provider rate limit")
+        .tag("provider", providerName)
+        .register(meterRegistry);
+    for (CallPriority priority : CallPriority.values()) {
+      FunctionCounter.builder("weather.provider.budget.denied", budget, b -> b.deniedCount(priority))
+          .description("Provider calls refused by the budget before they were sent")
+          .tag("provider", providerName)
+          .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+          .register(meterRegistry);
+    }
+    return budget;
+  }
+}
@@ -0,0 +1,21 @@
+package com.spring.weather.provider;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.spring.weather.dto.WeatherResponse;
+import java.io.IOException;
+
+/**
+ * Reads the weather data from a provider response body with a streaming JSON parser.
+ */
+@FunctionalInterface
+public interface WeatherResponseDecoder {
+
+  /**
+   * Decodes a response body.
+   *
+   * @param parser The parser positioned before the first token of the response body.
+   * @return The weather data in a standardized format.
+   * @throws IOException If the body is not valid JSON.
+   */
+  WeatherResponse decode(JsonParser parser) throws IOException;
+}
@@ -0,0 +1,183 @@
+package com.spring.weather.provider;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.spring.weather.dto.WeatherResponse;
+import com.spring.weather.exception.WeatherProviderException;
+import com.spring.weather.exception.WeatherStackApiException;
+import java.io.IOException;
+import java.io.InputStream;
+import org.springframework.core.io.buffer.DataBuffer;
+
+/**
+ * Streaming decoders for the provider response bodies.
+ * Only the temperature, the wind speed and the error block are read; every other field is skipped by the
+ * parser without being bound, so no response DTO graph is created per call. Field names are canonicalized by
+ * the parser, so matching them does not allocate either.
+ */
+public final class WeatherResponseDecoders {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  /**
+   * Prevents instantiation.
+   */
+  private WeatherResponseDecoders() {
+  }
+
+  /**
+   * Decodes a response body held in a network buffer and releases the buffer.
+   *
+   * @param buffer The response body.
+   * @param decoder The decoder of the provider.
+   * @param providerName The name of the provider, used in error messages.
+   * @return The weather data in a standardized format.
+   * @throws WeatherProviderException If the body is not valid JSON or misses the weather data.
+   * @throws WeatherStackApiException If the body is an API error.
+   */
+  public static WeatherResponse decode(DataBuffer buffer, WeatherResponseDecoder decoder, String providerName) {
+    try (InputStream body = buffer.asInputStream(true); JsonParser parser = JSON_FACTORY.createParser(body)) {
+      return decoder.decode(parser);
+    } catch (IOException e) {
+      throw new WeatherProviderException("Invalid response from " + providerName, e);
+    }
+  }
+
+  /**
+   * Decodes a WeatherStack response: {@code current.temperature}, {@code current.wind_speed} and the
+   * {@code error} block.
+   *
+   * @param parser The parser positioned before the response body.
+   * @return The weather data in a standardized format.
+   * @throws IOException If the body is not valid JSON.
+   * @throws WeatherStackApiException If the body is an API error.
+   * @throws WeatherProviderException If the body misses the current weather data.
+   */
+  public static WeatherResponse weatherStack(JsonParser parser) throws IOException {
+    expectObject(parser, "WeatherStack");
+    double temperature = 0;
+    double windSpeed = 0;
+    boolean hasCurrent = false;
+    String field;
+    while ((field = parser.nextFieldName()) != null) {
+      JsonToken value = parser.nextToken();
+      if ("current".equals(field) && value == JsonToken.START_OBJECT) {
+        hasCurrent = true;
+        String currentField;
+        while ((currentField = parser.nextFieldName()) != null) {
+          parser.nextToken();
+          switch (currentField) {
+            case "temperature" -> temperature = parser.getValueAsDouble();
+            case "wind_speed" -> windSpeed = parser.getValueAsDouble();
+            default -> parser.skipChildren();
+          }
+        }
+      } else if ("error".equals(field) && value == JsonToken.START_OBJECT) {
+        throw readError(parser);
+      } else {
+        parser.skipChildren();
+      }
+    }
+    if (!hasCurrent) {
+      throw new WeatherProviderException("Invalid response from WeatherStack: missing current weather data");
+    }
+    return new WeatherResponse(windSpeed, temperature);
+  }
+
+  /**
+   * Decodes an OpenWeatherMap response: {@code main.temp}, {@code wind.speed} and the {@code error} block.
+   *
+   * @param parser The parser positioned before the response body.
+   * @return The weather data in a standardized format.
+   * @throws IOException If the body is not valid JSON.
+   * @throws WeatherStackApiException If the body is an API error.
+   * @throws WeatherProviderException If the body misses the current weather data.
+   */
+  public static WeatherResponse openWeatherMap(JsonParser parser) throws IOException {
+    expectObject(parser, "OpenWeatherMap");
+    double temperature = 0;
+    double windSpeed = 0;
+    boolean hasMain = false;
+    boolean hasWind = false;
+    String field;
+    while ((field = parser.nextFieldName()) != null) {
+      JsonToken value = parser.nextToken();
+      if ("main".equals(field) && value == JsonToken.START_OBJECT) {
+        hasMain = true;
+        temperature = readNumberField(parser, "temp");
+      } else if ("wind".equals(field) && value == JsonToken.START_OBJECT) {
+        hasWind = true;
+        windSpeed = readNumberField(parser, "speed");
+      } else if ("error".equals(field) && value == JsonToken.START_OBJECT) {
+        throw readError(parser);
+      } else {
+        parser.skipChildren();
+      }
+    }
+    if (!hasMain || !hasWind) {
+      throw new WeatherProviderException("Invalid response from OpenWeatherMap: missing current weather data");
+    }
+    return new WeatherResponse(windSpeed, temperature);
+  }
+
+  /**
+   * Checks that the body is a JSON object.
+   *
+   * @param parser The parser positioned before the response body.
+   * @param providerName The name of the provider, used in the error message.
+   * @throws IOException If the body is not valid JSON.
+   * @throws WeatherProviderException If the body is not an object.
+   */
+  private static void expectObject(JsonParser parser, String providerName) throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new WeatherProviderException("Invalid response from " + providerName);
+    }
+  }
+
+  /**
+   * Reads one numeric field of the current object and skips the others.
+   *
+   * @param parser The parser positioned at the start of the object.
+   * @param name The name of the field to read.
+   * @return The value of the field, or 0 if it is absent.
+   * @throws IOException If the body is not valid JSON.
+   */
+  private static double readNumberField(JsonParser parser, String name) throws IOException {
+    double result = 0;
+    String field;
+    while ((field = parser.nextFieldName()) != null) {
+      parser.nextToken();
+      if (name.equals(field)) {
+        result = parser.getValueAsDouble();
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Reads an error block.
+   *
+   * @param parser The parser positioned at the start of the error object.
+   * @return The API error to throw.
+   * @throws IOException If the body is not valid JSON.
+   */
+  private static WeatherStackApiException readError(JsonParser parser) throws IOException {
+    int code = 0;
+    String type = null;
+    String info = null;
+    String field;
+    while ((field = parser.nextFieldName()) != null) {
+      parser.nextToken();
+      switch (field) {
+        case "code" -> code = parser.getValueAsInt();
+        case "type" -> type = parser.getValueAsString();
+        case "info" -> info = parser.getValueAsString();
+        default -> parser.skipChildren();
+      }
+    }
+    return new WeatherStackApiException(code, type, info);
+  }
+}
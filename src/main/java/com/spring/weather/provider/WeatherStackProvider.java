@@ -1,19 +1,22 @@
 package com.spring.weather.provider;
 
 import com.spring.weather.dto.WeatherResponse;
-import com.spring.weather.dto.WeatherStackResponse;
 import com.spring.weather.exception.ExternalRequestException;
 import com.spring.weather.exception.InvalidAccessKeyException;
 import com.spring.weather.exception.MissingQueryException;
+import com.spring.weather.exception.ProviderBudgetExhaustedException;
 import com.spring.weather.exception.UnlimitedUsageException;
-import com.spring.weather.exception.WeatherProviderException;
 import com.spring.weather.exception.WeatherServiceException;
 import com.spring.weather.exception.WeatherStackApiException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
 import reactor.core.publisher.Mono;
 
 /**
@@ -26,41 +29,64 @@ public class WeatherStackProvider extends AbstractWeatherProvider {
   private static final String PROVIDER_NAME = "WeatherStack";
   private static final int PROVIDER_PRIORITY = 1; // Primary provider
 
+  /**
+   * The request URI up to the encoded city, built once so a request only encodes the city.
+   */
+  private final String uriPrefix;
+
   /**
    * Constructs a new WeatherStackProvider with the specified dependencies.
    *
-   * @param webClient             The WebClient instance for making HTTP requests.
+   * @param webClient             The WebClient dedicated to WeatherStack.
    * @param circuitBreakerFactory The factory for creating ReactiveCircuitBreaker instances.
    * @param apiKey                The API key for authenticating requests to the WeatherStack API.
    * @param baseUrl               The base URL of the WeatherStack API.
+   * @param meterRegistry         The registry the provider call timers are registered in.
+   * @param providerBudgets       The factory of the upstream call budget of the provider.
    */
-  public WeatherStackProvider(WebClient webClient, ReactiveCircuitBreakerFactory circuitBreakerFactory,
-      @Value("${weatherstack.api.key}") String apiKey, @Value("${weatherstack.api.url}") String baseUrl) {
-    super(webClient, circuitBreakerFactory, apiKey, baseUrl, "weatherstack");
+  public WeatherStackProvider(@Qualifier("weatherStackWebClient") WebClient webClient,
+      ReactiveCircuitBreakerFactory circuitBreakerFactory,
+      @Value("${weatherstack.api.key}") String apiKey, @Value("${weatherstack.api.url}") String baseUrl,
+      MeterRegistry meterRegistry, ProviderBudgets providerBudgets) {
+    super(webClient, circuitBreakerFactory, apiKey, baseUrl, "weatherstack", meterRegistry, providerBudgets);
+    this.uriPrefix = baseUrl + "/current?access_key=" + UriUtils.encodeQueryParam(apiKey, StandardCharsets.UTF_8)
+        + "&query=";
   }
 
   /**
    * Fetches weather data for the specified city from the WeatherStack API.
+   * The response body is decoded by {@link WeatherResponseDecoders#weatherStack} without creating a DTO.
    *
    * @param city The name of the city for which to fetch weather data.
    * @return A Mono emitting the weather data in a standardized format.
    */
   @Override
   public Mono<WeatherResponse> getWeatherData(String city) {
-    String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/current").queryParam("access_key", apiKey)
-        .queryParam("query", city).build().toUriString();
-
-    return executeRequest(url, WeatherStackResponse.class)
+    return executeRequest(uri(city), WeatherResponseDecoders::weatherStack)
         .onErrorMap(this::mapWeatherStackError);
   }
 
+  /**
+   * Builds the request URI for the specified city.
+   *
+   * @param city The name of the city.
+   * @return The encoded request URI.
+   */
+  URI uri(String city) {
+    return URI.create(uriPrefix + UriUtils.encodeQueryParam(city, StandardCharsets.UTF_8));
+  }
+
   /**
    * Maps errors from the WeatherStack API to specific exceptions.
+   * Calls refused by the budget keep their exception, so the service fails over to the next provider.
    *
    * @param error The error to map.
    * @return A Throwable representing the mapped exception.
    */
   private Throwable mapWeatherStackError(Throwable error) {
+    if (error instanceof ProviderBudgetExhaustedException) {
+      return error;
+    }
     if (error instanceof WeatherStackApiException apiError) {
       return switch (apiError.getCode()) {
         case 101 -> {
@@ -79,34 +105,6 @@ public class WeatherStackProvider extends AbstractWeatherProvider {
     return new WeatherServiceException("Weather service error: " + error.getMessage());
   }
 
-  /**
-   * Converts the raw response from the WeatherStack API into a WeatherResponse object.
-   *
-   * @param response The raw response from the WeatherStack API.
-   * @param <T>      The type of the raw response.
-   * @return The converted WeatherResponse object.
-   * @throws WeatherProviderException If the response is invalid or missing required data.
-   */
-  @Override
-  protected <T> WeatherResponse convertToWeatherResponse(T response) {
-    if (!(response instanceof WeatherStackResponse weatherStackResponse)) {
-      throw new WeatherProviderException("Invalid response from WeatherStack");
-    }
-
-    // Check for error response
-    if (weatherStackResponse.getError() != null) {
-      throw new WeatherStackApiException(weatherStackResponse.getError().getCode(),
-          weatherStackResponse.getError().getType(), weatherStackResponse.getError().getInfo());
-    }
-
-    if (weatherStackResponse.getCurrent() == null) {
-      throw new WeatherProviderException("Invalid response from WeatherStack: missing current weather data");
-    }
-
-    return new WeatherResponse(weatherStackResponse.getCurrent().getWindSpeed(),
-        weatherStackResponse.getCurrent().getTemperature());
-  }
-
   /**
    * Returns the name of the weather provider.
    *
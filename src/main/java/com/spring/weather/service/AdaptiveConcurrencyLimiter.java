@@ -0,0 +1,215 @@
+package com.spring.weather.service;
+
+import com.spring.weather.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Limits the number of upstream loads running at once and sheds the excess, so slow providers cannot pile up
+ * requests without bound. Cache hits never pass through the limiter.
+ *
+ * <p>The limit follows the gradient between the long term and the recent load latency: while the recent latency
+ * stays within the tolerance of the long term average the limit grows by a queue allowance of
+ * {@code sqrt(limit)}, and once loads get slower it shrinks in proportion, by at most half per sample. The limit
+ * is only raised while at least half of it is in use, so an idle service does not build up a limit it has never
+ * tested. A load that does not fit is refused at once with a {@link ServiceOverloadedException}.
+ *
+ * <p>The limit, the loads in flight, the estimated number of them queued behind slow providers and the
+ * rejections are published as {@code weather.concurrency.limit}, {@code weather.concurrency.inflight},
+ * {@code weather.concurrency.queue} and {@code weather.concurrency.rejections}.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+  private static final double SMOOTHING = 0.2;
+  private static final double MIN_GRADIENT = 0.5;
+  private static final int SHORT_WINDOW = 10;
+  private static final int LONG_WINDOW = 600;
+  private static final double DRIFT_RATIO = 2.0;
+  private static final double DRIFT_DECAY = 0.95;
+
+  private final boolean enabled;
+  private final int minLimit;
+  private final int maxLimit;
+  private final double tolerance;
+  private final Duration retryAfter;
+  private final AtomicInteger inflight = new AtomicInteger();
+  private final Counter rejections;
+
+  private volatile double limit;
+  private double shortRttNanos;
+  private double longRttNanos;
+  private long samples;
+
+  /**
+   * Constructs a new AdaptiveConcurrencyLimiter.
+   *
+   * @param enabled Whether upstream loads are limited.
+   * @param initialLimit The limit before any load has completed.
+   * @param minLimit The lowest the limit can shrink to.
+   * @param maxLimit The highest the limit can grow to.
+   * @param tolerance How much slower than the long term average recent loads may be before the limit shrinks,
+   *     e.g. 1.5 for 50%.
+   * @param retryAfterSeconds The delay suggested to rejected clients in the {@code Retry-After} header, in seconds.
+   * @param meterRegistry The registry the limiter meters are registered in.
+   */
+  public AdaptiveConcurrencyLimiter(
+      @Value("${weather.concurrency.enabled:true}") boolean enabled,
+      @Value("${weather.concurrency.initial.limit:20}") int initialLimit,
+      @Value("${weather.concurrency.min.limit:4}") int minLimit,
+      @Value("${weather.concurrency.max.limit:200}") int maxLimit,
+      @Value("${weather.concurrency.tolerance:1.5}") double tolerance,
+      @Value("${weather.concurrency.retry.after.seconds:1}") long retryAfterSeconds,
+      MeterRegistry meterRegistry) {
+    this.enabled = enabled;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.tolerance = tolerance;
+    this.retryAfter = Duration.ofSeconds(retryAfterSeconds);
+    this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    this.rejections = Counter.builder("weather.concurrency.rejections")
+        .description("Upstream loads shed because the concurrency limit was reached")
+        .register(meterRegistry);
+    Gauge.builder("weather.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+        .description("Current limit of concurrent upstream loads")
+        .register(meterRegistry);
+    Gauge.builder("weather.concurrency.inflight", inflight, AtomicInteger::get)
+        .description("Upstream loads in flight")
+        .register(meterRegistry);
+    Gauge.builder("weather.concurrency.queue", this, AdaptiveConcurrencyLimiter::estimatedQueue)
+        .description("Estimated upstream loads in flight waiting beyond the long term latency")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Runs the load if the limit allows it, and feeds its latency back into the limit when it completes or fails.
+   * A cancelled load releases its slot without a sample.
+   *
+   * @param load The upstream load.
+   * @param <T> The type of the loaded value.
+   * @return The load, or a Mono failing with {@link ServiceOverloadedException} if it was shed.
+   */
+  public <T> Mono<T> limit(Mono<T> load) {
+    if (!enabled) {
+      return load;
+    }
+    return Mono.defer(() -> {
+      if (!tryAcquire()) {
+        rejections.increment();
+        return Mono.error(new ServiceOverloadedException("Too many upstream requests in flight", retryAfter));
+      }
+      long startNanos = System.nanoTime();
+      return load.doFinally(signal -> release(signal, System.nanoTime() - startNanos));
+    });
+  }
+
+  /**
+   * Returns the current limit.
+   *
+   * @return The number of upstream loads allowed at once.
+   */
+  public int getLimit() {
+    return (int) limit;
+  }
+
+  /**
+   * Returns the number of upstream loads in flight.
+   *
+   * @return The loads in flight.
+   */
+  public int getInflight() {
+    return inflight.get();
+  }
+
+  /**
+   * Returns the estimated number of loads in flight that are waiting because providers are slower than usual,
+   * from the ratio of the recent to the long term latency.
+   *
+   * @return The estimated queue length.
+   */
+  public synchronized double estimatedQueue() {
+    if (samples == 0 || shortRttNanos <= longRttNanos) {
+      return 0;
+    }
+    return inflight.get() * (1 - longRttNanos / shortRttNanos);
+  }
+
+  /**
+   * Claims a slot if fewer loads than the limit are in flight.
+   *
+   * @return True if the load may run.
+   */
+  private boolean tryAcquire() {
+    int current;
+    do {
+      current = inflight.get();
+      if (current >= (int) limit) {
+        return false;
+      }
+    } while (!inflight.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  /**
+   * Releases a slot and, unless the load was cancelled, records its latency.
+   *
+   * @param signal The signal the load terminated with.
+   * @param rttNanos The latency of the load.
+   */
+  private void release(SignalType signal, long rttNanos) {
+    int inflightBefore = inflight.getAndDecrement();
+    if (signal != SignalType.CANCEL) {
+      recordSample(rttNanos, inflightBefore);
+    }
+  }
+
+  /**
+   * Updates the latency averages with a sample and derives the new limit from their gradient.
+   * Package-private so the limit can be tested without timing real loads.
+   *
+   * @param rttNanos The latency of the load.
+   * @param inflightAtCompletion The number of loads in flight when it completed, including itself.
+   */
+  synchronized void recordSample(long rttNanos, int inflightAtCompletion) {
+    samples++;
+    shortRttNanos = average(shortRttNanos, rttNanos, SHORT_WINDOW);
+    longRttNanos = average(longRttNanos, rttNanos, LONG_WINDOW);
+
+    // Once load drops the long term average lags behind; let it catch up with the recent latency.
+    if (longRttNanos / shortRttNanos > DRIFT_RATIO) {
+      longRttNanos *= DRIFT_DECAY;
+    }
+    if (inflightAtCompletion < limit / 2) {
+      return;
+    }
+
+    double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+    double target = limit * gradient + Math.sqrt(limit);
+    double smoothed = limit * (1 - SMOOTHING) + target * SMOOTHING;
+    limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+  }
+
+  /**
+   * Adds a sample to an exponential moving average over roughly the given number of samples, or starts the
+   * average with it.
+   *
+   * @param average The current average.
+   * @param sample The new sample.
+   * @param window The number of samples the average spans.
+   * @return The new average.
+   */
+  private double average(double average, long sample, int window) {
+    if (samples == 1) {
+      return sample;
+    }
+    double factor = 2.0 / (window + 1);
+    return average * (1 - factor) + sample * factor;
+  }
+}
@@ -0,0 +1,162 @@
+package com.spring.weather.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides when and how often a hedged request is sent to the next weather provider while the primary
+ * provider has not answered yet.
+ *
+ * <p>The hedge delay is either the configured fixed delay or, in adaptive mode, the observed p95 latency of
+ * the primary provider, never lower than the fixed delay. Hedges are paid for from a token budget: every
+ * primary call deposits {@code maxRatio} tokens and every hedge withdraws one, so a slow primary cannot
+ * raise upstream traffic by more than that ratio plus the burst allowance. Hedges sent and hedges denied by the
+ * budget are counted in {@code weather.hedging.requests}, tagged by {@code result}.
+ */
+@Component
+public class HedgingPolicy {
+
+  private static final int SAMPLE_SIZE = 256;
+  private static final int MIN_SAMPLES = 20;
+  private static final int RECOMPUTE_EVERY = 16;
+  private static final double PERCENTILE = 0.95;
+  private static final long TOKEN_SCALE = 1000;
+
+  private final boolean enabled;
+  private final Duration fixedDelay;
+  private final boolean adaptive;
+  private final long tokensPerCall;
+  private final long maxTokens;
+
+  private final AtomicLong tokens;
+  private final LongAdder issued = new LongAdder();
+  private final LongAdder denied = new LongAdder();
+
+  private final long[] samples = new long[SAMPLE_SIZE];
+  private int sampleCount;
+  private int nextSample;
+  private volatile Duration observedP95;
+
+  /**
+   * Constructs a new HedgingPolicy.
+   *
+   * @param enabled Whether hedged requests are enabled.
+   * @param delayMillis The delay before a hedge is sent, and the lower bound of the adaptive delay, in milliseconds.
+   * @param adaptive Whether the delay follows the observed p95 latency of the primary provider.
+   * @param maxRatio The maximum number of hedges per primary call over time, e.g. 0.1 for 10%.
+   * @param burst The maximum number of hedges that can be sent back to back when the budget is full.
+   * @param meterRegistry The registry the hedge counters are registered in.
+   */
+  public HedgingPolicy(
+      @Value("${weather.hedging.enabled:false}") boolean enabled,
+      @Value("${weather.hedging.delay.millis:300}") long delayMillis,
+      @Value("${weather.hedging.adaptive:true}") boolean adaptive,
+      @Value("${weather.hedging.max.ratio:0.1}") double maxRatio,
+      @Value("${weather.hedging.burst:10}") int burst,
+      MeterRegistry meterRegistry) {
+    this.enabled = enabled;
+    this.fixedDelay = Duration.ofMillis(delayMillis);
+    this.adaptive = adaptive;
+    this.tokensPerCall = Math.round(maxRatio * TOKEN_SCALE);
+    this.maxTokens = burst * TOKEN_SCALE;
+    this.tokens = new AtomicLong(maxTokens);
+    FunctionCounter.builder("weather.hedging.requests", this, HedgingPolicy::issuedCount)
+        .description("Hedged requests sent to the next provider")
+        .tag("result", "issued")
+        .register(meterRegistry);
+    FunctionCounter.builder("weather.hedging.requests", this, HedgingPolicy::deniedCount)
+        .description("Hedged requests suppressed because the hedge budget was exhausted")
+        .tag("result", "denied")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Returns whether hedged requests are enabled.
+   *
+   * @return True if hedging is enabled.
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns how long to wait for the primary provider before sending a hedge.
+   *
+   * @return The hedge delay.
+   */
+  public Duration hedgeDelay() {
+    Duration p95 = observedP95;
+    if (!adaptive || p95 == null || p95.compareTo(fixedDelay) < 0) {
+      return fixedDelay;
+    }
+    return p95;
+  }
+
+  /**
+   * Credits the hedge budget for a primary call.
+   */
+  public void onPrimaryCall() {
+    tokens.accumulateAndGet(tokensPerCall, (current, credit) -> Math.min(maxTokens, current + credit));
+  }
+
+  /**
+   * Withdraws one hedge from the budget.
+   *
+   * @return True if a hedge may be sent, false if the budget is exhausted.
+   */
+  public boolean tryAcquireHedge() {
+    long current;
+    do {
+      current = tokens.get();
+      if (current < TOKEN_SCALE) {
+        denied.increment();
+        return false;
+      }
+    } while (!tokens.compareAndSet(current, current - TOKEN_SCALE));
+    issued.increment();
+    return true;
+  }
+
+  /**
+   * Records the latency of a primary provider call. Calls cancelled because a hedge won are recorded with the
+   * time they had been running, which is a lower bound of their real latency.
+   *
+   * @param latency The observed latency.
+   */
+  public synchronized void recordPrimaryLatency(Duration latency) {
+    samples[nextSample] = latency.toNanos();
+    nextSample = (nextSample + 1) % SAMPLE_SIZE;
+    if (sampleCount < SAMPLE_SIZE) {
+      sampleCount++;
+    }
+    if (sampleCount >= MIN_SAMPLES && nextSample % RECOMPUTE_EVERY == 0) {
+      long[] sorted = Arrays.copyOf(samples, sampleCount);
+      Arrays.sort(sorted);
+      observedP95 = Duration.ofNanos(sorted[(int) Math.ceil(PERCENTILE * sampleCount) - 1]);
+    }
+  }
+
+  /**
+   * Returns the number of hedges sent.
+   *
+   * @return The number of hedges allowed by the budget.
+   */
+  public long issuedCount() {
+    return issued.sum();
+  }
+
+  /**
+   * Returns the number of hedges suppressed because the budget was exhausted.
+   *
+   * @return The number of hedges denied by the budget.
+   */
+  public long deniedCount() {
+    return denied.sum();
+  }
+}
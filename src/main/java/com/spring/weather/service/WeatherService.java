@@ -1,6 +1,10 @@
 package com.spring.weather.service;
 
+import com.spring.weather.cache.CachedWeather;
+import com.spring.weather.dto.CityWeatherResult;
 import com.spring.weather.dto.WeatherResponse;
+import java.util.List;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -16,4 +20,41 @@ public interface WeatherService {
    * @return A Mono emitting the weather data in a standardized format.
    */
   Mono<WeatherResponse> getWeatherData(String city);
+
+  /**
+   * Fetches weather data for the specified city together with the time it was fetched upstream.
+   * The returned data may be stale when it is being revalidated or when every provider is failing.
+   *
+   * @param city The name of the city for which to fetch weather data.
+   * @return A Mono emitting the weather data and its fetch time.
+   */
+  Mono<CachedWeather> getCachedWeatherData(String city);
+
+  /**
+   * Fetches weather data for several cities, emitting each result as soon as it is available.
+   * A city that cannot be resolved produces a failed result rather than an error signal.
+   *
+   * @param cities The names of the cities for which to fetch weather data.
+   * @return A Flux emitting one result per distinct city.
+   */
+  Flux<CityWeatherResult> getWeatherDataForCities(List<String> cities);
+
+  /**
+   * Reloads the weather data for the specified city from the providers and stores it in the cache,
+   * even if the cached entry is still fresh.
+   *
+   * @param city The name of the city for which to reload weather data.
+   * @return A Mono emitting the reloaded weather data, or empty if a reload for the city is already running.
+   */
+  Mono<CachedWeather> refreshWeatherData(String city);
+
+  /**
+   * Fetches fresh weather data for a city on behalf of another instance of the service. Unlike
+   * {@link #getCachedWeatherData}, a stale entry is only returned if it cannot be reloaded, so the other
+   * instance does not have to reload it from the providers itself.
+   *
+   * @param city The name of the city for which to fetch weather data.
+   * @return A Mono emitting the weather data and its fetch time.
+   */
+  Mono<CachedWeather> getFreshWeatherData(String city);
 }
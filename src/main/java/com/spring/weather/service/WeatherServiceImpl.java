@@ -1,21 +1,45 @@
 package com.spring.weather.service;
 
+import com.spring.weather.cache.CachedWeather;
+import com.spring.weather.cache.CityKeyNormalizer;
+import com.spring.weather.cache.UnknownCityCache;
+import com.spring.weather.cache.WeatherCache;
+import com.spring.weather.dto.CityWeatherResult;
 import com.spring.weather.dto.WeatherResponse;
 import com.spring.weather.exception.ExternalRequestException;
+import com.spring.weather.exception.MissingQueryException;
+import com.spring.weather.exception.ServiceOverloadedException;
 import com.spring.weather.exception.WeatherServiceException;
+import com.spring.weather.factory.ProviderScoreboard;
 import com.spring.weather.factory.WeatherProviderFactory;
+import com.spring.weather.history.WeatherHistory;
+import com.spring.weather.provider.WeatherProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * Implementation of the WeatherService interface.
  * Provides functionality to fetch weather data for a given city using multiple weather providers.
  * Includes caching and fallback mechanisms for handling provider failures.
+ * Failovers to the next provider and stale responses served after every provider failed are counted in
+ * {@code weather.provider.failovers} and {@code weather.stale.responses}.
+ * Cities that are not in the gazetteer, or that a provider recently rejected as unknown, are rejected without
+ * calling a provider. Upstream loads pass through the {@link AdaptiveConcurrencyLimiter}, which sheds misses
+ * once providers slow down, while cache hits are still served. Every response fetched from a provider is also
+ * handed to the {@link WeatherHistory}, which writes it behind the request.
  */
 @Service
 @RequiredArgsConstructor
@@ -23,80 +47,359 @@ import reactor.core.publisher.Mono;
 public class WeatherServiceImpl implements WeatherService {
 
   private final WeatherProviderFactory weatherProviderFactory;
-  private final CacheManager cacheManager;
+  private final WeatherCache weatherCache;
+  private final HedgingPolicy hedgingPolicy;
+  private final ProviderScoreboard providerScoreboard;
+  private final MeterRegistry meterRegistry;
+  private final CityKeyNormalizer cityKeyNormalizer;
+  private final UnknownCityCache unknownCityCache;
+  private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+  private final WeatherHistory weatherHistory;
+
+  /**
+   * The maximum number of cache misses resolved concurrently for a multi-city request,
+   * configurable via the property `weather.batch.concurrency`. Defaults to 16 if not specified.
+   */
+  @Value("${weather.batch.concurrency:16}")
+  private int batchConcurrency;
 
   /**
    * Fetches weather data for the specified city.
-   * Uses caching to store and retrieve weather data for cities.
    *
    * @param city The name of the city for which to fetch weather data.
    * @return A Mono emitting the weather data in a standardized format.
    */
   @Override
-  @Cacheable(value = "weatherCache", key = "#city.toLowerCase()")
   public Mono<WeatherResponse> getWeatherData(String city) {
-    log.info("Fetching weather data for city: {}", city);
+    return getCachedWeatherData(city).map(CachedWeather::getResponse);
+  }
+
+  /**
+   * Fetches weather data for the specified city together with the time it was fetched.
+   * Uses caching to store and retrieve weather data for cities; concurrent misses for the same
+   * city share a single upstream fetch, and stale entries are served while they are revalidated.
+   * The city is normalized to its canonical key first, which is used for the cache and the provider query.
+   *
+   * @param city The name of the city for which to fetch weather data.
+   * @return A Mono emitting the cached weather data.
+   */
+  @Override
+  public Mono<CachedWeather> getCachedWeatherData(String city) {
+    log.debug("Fetching weather data for city: {}", city);
 
     // First, validate the city name
-    if (!isValidCityName(city)) {
+    String cacheKey = canonicalKey(city);
+    if (cacheKey.isEmpty()) {
       return Mono.error(new WeatherServiceException("Invalid city name: " + city));
     }
+    if (unknownCityCache.isUnknown(cacheKey)) {
+      return Mono.error(new MissingQueryException("Unknown city: " + city));
+    }
 
-    return tryProviders(city, 0)
-        .onErrorResume(e -> {
+    return resolve(city, cacheKey);
+  }
+
+  /**
+   * Fetches weather data for several cities.
+   * Fresh cache entries are looked up in bulk and emitted first; the remaining cities are resolved through
+   * the cache and providers with bounded concurrency and emitted as each one completes. Cities that cannot
+   * be resolved, including cities known not to exist, are reported as failed results instead of failing the
+   * whole batch.
+   *
+   * @param cities The names of the cities for which to fetch weather data.
+   * @return A Flux emitting one result per distinct city.
+   */
+  @Override
+  public Flux<CityWeatherResult> getWeatherDataForCities(List<String> cities) {
+    log.info("Fetching weather data for {} cities", cities.size());
+
+    List<CityWeatherResult> immediate = new ArrayList<>();
+    Map<String, String> citiesByKey = new LinkedHashMap<>();
+    Set<String> unknownKeys = new HashSet<>();
+    for (String city : cities) {
+      String cacheKey = canonicalKey(city);
+      if (cacheKey.isEmpty()) {
+        immediate.add(CityWeatherResult.failure(city, "Invalid city name: " + city));
+      } else if (citiesByKey.containsKey(cacheKey) || unknownKeys.contains(cacheKey)) {
+        continue;
+      } else if (unknownCityCache.isUnknown(cacheKey)) {
+        unknownKeys.add(cacheKey);
+        immediate.add(CityWeatherResult.failure(city, "Unknown city: " + city));
+      } else {
+        citiesByKey.put(cacheKey, city);
+      }
+    }
+
+    Map<String, CachedWeather> hits = weatherCache.getAllFresh(citiesByKey.keySet());
+    List<Map.Entry<String, String>> misses = new ArrayList<>(citiesByKey.size() - hits.size());
+    for (Map.Entry<String, String> entry : citiesByKey.entrySet()) {
+      CachedWeather cached = hits.get(entry.getKey());
+      if (cached != null) {
+        immediate.add(CityWeatherResult.success(entry.getValue(), cached.getResponse()));
+      } else {
+        misses.add(entry);
+      }
+    }
+
+    Flux<CityWeatherResult> resolved = Flux.fromIterable(misses)
+        .flatMap(entry -> resolve(entry.getValue(), entry.getKey())
+            .map(cached -> CityWeatherResult.success(entry.getValue(), cached.getResponse()))
+            .onErrorResume(e -> Mono.just(CityWeatherResult.failure(entry.getValue(), e.getMessage()))),
+            batchConcurrency);
+    return Flux.concat(Flux.fromIterable(immediate), resolved);
+  }
 
-          log.error("All weather providers failed for {}: {}", city, e.getMessage());
-          WeatherResponse staleData = getStaleDataFromCache(city);
+  /**
+   * Resolves the weather data for a validated city through the cache, falling back to stale data
+   * when every provider fails. A city a provider rejects as unknown is remembered in the negative cache.
+   *
+   * @param city The name of the city as requested.
+   * @param cacheKey The canonical key of the city, also used as the provider query.
+   * @return A Mono emitting the cached weather data.
+   */
+  private Mono<CachedWeather> resolve(String city, String cacheKey) {
+    return weatherCache.get(cacheKey, this::load)
+        .onErrorResume(e -> {
+          if (e instanceof ServiceOverloadedException) {
+            log.debug("Upstream load for {} shed: {}", city, e.getMessage());
+          } else {
+            log.error("All weather providers failed for {}: {}", city, e.getMessage());
+          }
+          CachedWeather staleData = getStaleDataFromCache(cacheKey);
           if (staleData != null) {
             log.info("Returning stale data for {}", city);
+            meterRegistry.counter("weather.stale.responses").increment();
             return Mono.just(staleData);
           }
+          if (e instanceof MissingQueryException) {
+            unknownCityCache.recordUnknown(cacheKey);
+          }
           return Mono.error(e);
         });
   }
 
+  /**
+   * Reloads the weather data for the specified city through the providers in failover order
+   * and replaces the cached entry.
+   *
+   * @param city The name of the city for which to reload weather data.
+   * @return A Mono emitting the reloaded weather data, or empty if a reload for the city is already running.
+   */
+  @Override
+  public Mono<CachedWeather> refreshWeatherData(String city) {
+    String cacheKey = canonicalKey(city);
+    if (cacheKey.isEmpty()) {
+      return Mono.error(new WeatherServiceException("Invalid city name: " + city));
+    }
+    return weatherCache.refresh(cacheKey, this::load);
+  }
+
+  /**
+   * Fetches fresh weather data for a city on behalf of another instance, waiting for the reload of a stale
+   * entry rather than returning it.
+   *
+   * @param city The name of the city for which to fetch weather data.
+   * @return A Mono emitting the weather data, stale only if it cannot be reloaded.
+   */
+  @Override
+  public Mono<CachedWeather> getFreshWeatherData(String city) {
+    String cacheKey = canonicalKey(city);
+    if (cacheKey.isEmpty()) {
+      return Mono.error(new WeatherServiceException("Invalid city name: " + city));
+    }
+    if (unknownCityCache.isUnknown(cacheKey)) {
+      return Mono.error(new MissingQueryException("Unknown city: " + city));
+    }
+    return weatherCache.getFresh(cacheKey, this::load);
+  }
+
+  /**
+   * Loads the weather data for a city from the providers, unless the concurrency limiter sheds the load, and
+   * records the loaded data in the history.
+   *
+   * @param cacheKey The canonical key of the city, used as the provider query.
+   * @return A Mono emitting the weather data, or failing with a {@link ServiceOverloadedException} if shed.
+   */
+  private Mono<WeatherResponse> load(String cacheKey) {
+    return concurrencyLimiter.limit(Mono.defer(() -> tryProviders(cacheKey)))
+        .doOnNext(response -> weatherHistory.record(cacheKey, response));
+  }
+
+  /**
+   * Attempts to fetch weather data from the available providers, in the order the factory returns for this request.
+   * When hedging is enabled, a slow primary provider is raced against the remaining providers.
+   * Package-private so the failover chain can be benchmarked without the cache.
+   *
+   * @param city The name of the city for which to fetch weather data.
+   * @return A Mono emitting the weather data or an error if all providers fail.
+   */
+  Mono<WeatherResponse> tryProviders(String city) {
+    var providers = weatherProviderFactory.getProviders();
+
+    if (providers.size() > 1 && hedgingPolicy.isEnabled()) {
+      return hedgeProviders(city, providers);
+    }
+    return tryProviders(city, providers, 0);
+  }
 
   /**
    * Attempts to fetch weather data from the available providers in sequence.
    * If a provider fails, it falls back to the next provider.
    *
    * @param city The name of the city for which to fetch weather data.
+   * @param providers The providers in the order they are tried for this request.
    * @param providerIndex The index of the current provider to try.
    * @return A Mono emitting the weather data or an error if all providers fail.
    */
-  private Mono<WeatherResponse> tryProviders(String city, int providerIndex) {
-    var providers = weatherProviderFactory.getProviders();
-
+  private Mono<WeatherResponse> tryProviders(String city, List<WeatherProvider> providers, int providerIndex) {
     if (providerIndex >= providers.size()) {
       return Mono.error(new WeatherServiceException("No more providers available"));
     }
 
     var currentProvider = providers.get(providerIndex);
-    return currentProvider.getWeatherData(city)
+    return providerScoreboard.track(currentProvider, currentProvider.getWeatherData(city))
         .onErrorResume(e -> {
           log.warn("Failed to fetch weather from {} for {}: {}",currentProvider.getProviderName(), city, e.getMessage());
           if(e instanceof ExternalRequestException) {
-            return tryProviders(city, providerIndex + 1);
+            recordFailover(currentProvider, providers, providerIndex);
+            return tryProviders(city, providers, providerIndex + 1);
           }
           return Mono.error(e);
         });
   }
 
   /**
-   * Retrieves stale weather data from the cache for the specified city.
+   * Fetches weather data from the primary provider and, if it has not answered within the hedge delay and the
+   * hedge budget allows it, also from the remaining providers in failover order. The first answer wins and the
+   * other call is cancelled. A failed call only fails the request once no other call can still answer.
+   *
+   * @param city The name of the city for which to fetch weather data.
+   * @param providers The providers in failover order, with at least two entries.
+   * @return A Mono emitting the first weather data received or an error if every call fails.
+   */
+  private Mono<WeatherResponse> hedgeProviders(String city, List<WeatherProvider> providers) {
+    return Mono.defer(() -> {
+      var primaryProvider = providers.get(0);
+      var state = new HedgeState();
+      long startNanos = System.nanoTime();
+      hedgingPolicy.onPrimaryCall();
+
+      Mono<WeatherResponse> primary = providerScoreboard.track(primaryProvider, primaryProvider.getWeatherData(city))
+          .doOnSuccess(response -> recordPrimaryLatency(startNanos))
+          .doOnCancel(() -> recordPrimaryLatency(startNanos))
+          .onErrorResume(e -> {
+            log.warn("Failed to fetch weather from {} for {}: {}",
+                primaryProvider.getProviderName(), city, e.getMessage());
+            if (e instanceof ExternalRequestException && state.claimFailover()) {
+              recordFailover(primaryProvider, providers, 0);
+              return tryProviders(city, providers, 1);
+            }
+            return state.recordFailure() ? Mono.error(e) : Mono.never();
+          });
+
+      Duration delay = hedgingPolicy.hedgeDelay();
+      Mono<WeatherResponse> hedge = Mono.delay(delay)
+          .filter(tick -> state.claimHedge(hedgingPolicy::tryAcquireHedge))
+          .flatMap(tick -> {
+            log.info("{} has not answered for {} within {}, hedging to the next provider",
+                primaryProvider.getProviderName(), city, delay);
+            return tryProviders(city, providers, 1)
+                .onErrorResume(e -> state.recordFailure() ? Mono.error(e) : Mono.never());
+          })
+          .switchIfEmpty(Mono.never());
+
+      return Mono.firstWithSignal(primary, hedge);
+    });
+  }
+
+  /**
+   * Counts a failover away from a provider, if there is a next provider to fail over to.
+   *
+   * @param failedProvider The provider that failed.
+   * @param providers The providers in the order they are tried for this request.
+   * @param providerIndex The index of the failed provider.
+   */
+  private void recordFailover(WeatherProvider failedProvider, List<WeatherProvider> providers, int providerIndex) {
+    if (providerIndex + 1 < providers.size()) {
+      meterRegistry.counter("weather.provider.failovers", "from", failedProvider.getProviderName()).increment();
+    }
+  }
+
+  /**
+   * Records the time elapsed since a primary provider call started.
    *
-   * @param city The name of the city for which to retrieve stale data.
-   * @return The cached WeatherResponse or null if no data is available.
-   */
-  private WeatherResponse getStaleDataFromCache(String city) {
-    Cache weatherCache = cacheManager.getCache("weatherCache");
-    if (weatherCache != null) {
-      Cache.ValueWrapper valueWrapper = weatherCache.get(city.toLowerCase());
-      if (valueWrapper != null) {
-        return (WeatherResponse) valueWrapper.get();
+   * @param startNanos The value of {@link System#nanoTime()} when the call started.
+   */
+  private void recordPrimaryLatency(long startNanos) {
+    hedgingPolicy.recordPrimaryLatency(Duration.ofNanos(System.nanoTime() - startNanos));
+  }
+
+  /**
+   * Tracks a single hedged fetch: whether the secondary providers have been called, either as a hedge or as
+   * failover, and how many calls are still able to answer.
+   */
+  private static final class HedgeState {
+    private boolean secondaryStarted;
+    private int pendingLegs = 1;
+
+    /**
+     * Claims the call to the secondary providers as failover, replacing the failed primary call.
+     *
+     * @return True if the caller may call the secondary providers, false if they were already called.
+     */
+    synchronized boolean claimFailover() {
+      if (secondaryStarted) {
+        return false;
+      }
+      secondaryStarted = true;
+      return true;
+    }
+
+    /**
+     * Claims the call to the secondary providers as a hedge running alongside the primary call. The budget is
+     * only asked once the claim is certain to succeed, so no hedge is paid for or counted without being sent.
+     *
+     * @param budget Withdraws one hedge from the hedge budget.
+     * @return True if the caller may call the secondary providers, false if they were already called or the
+     *     budget is exhausted.
+     */
+    synchronized boolean claimHedge(BooleanSupplier budget) {
+      if (secondaryStarted || !budget.getAsBoolean()) {
+        return false;
       }
+      secondaryStarted = true;
+      pendingLegs++;
+      return true;
     }
-    return null;
+
+    /**
+     * Records a failed call.
+     *
+     * @return True if no other call can still answer, so the failure must be reported.
+     */
+    synchronized boolean recordFailure() {
+      return --pendingLegs == 0;
+    }
+  }
+
+  /**
+   * Retrieves stale weather data from the cache for the specified city.
+   *
+   * @param cacheKey The cache key of the city for which to retrieve stale data.
+   * @return The cached weather data or null if no data is available.
+   */
+  private CachedWeather getStaleDataFromCache(String cacheKey) {
+    return weatherCache.getIfPresent(cacheKey);
+  }
+
+  /**
+   * Derives the canonical key of the specified city, used for the cache and the provider query.
+   *
+   * @param city The name of the city.
+   * @return The canonical key, or an empty string if the city name is invalid.
+   */
+  private String canonicalKey(String city) {
+    return isValidCityName(city) ? cityKeyNormalizer.normalize(city) : "";
   }
 
   /**
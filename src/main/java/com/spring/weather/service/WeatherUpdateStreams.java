@@ -0,0 +1,189 @@
+package com.spring.weather.service;
+
+import com.spring.weather.cache.CityKeyNormalizer;
+import com.spring.weather.dto.CityWeatherResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Pushes weather updates for subscribed cities, so clients do not have to poll the weather endpoint.
+ *
+ * <p>All subscribers of a city share one update stream, keyed by the canonical city key. The stream reads the
+ * city through the {@link WeatherService} every {@code weather.stream.poll.interval.millis}, so it is served
+ * from the cache and reloaded through the usual upstream path when the cached value expires. It only emits when
+ * the result differs from the previous one, replays the latest result to new subscribers and stops polling when
+ * its last subscriber leaves.
+ *
+ * <p>Each subscriber gets a buffer of {@code weather.stream.buffer.size} updates. When a slow subscriber lets it
+ * fill up, further updates are dropped until it catches up. Drops are counted in {@code weather.stream.dropped};
+ * the open subscriptions and shared city streams are published as {@code weather.stream.subscribers} and
+ * {@code weather.stream.cities}.
+ */
+@Slf4j
+@Component
+public class WeatherUpdateStreams {
+
+  private final WeatherService weatherService;
+  private final CityKeyNormalizer cityKeyNormalizer;
+  private final Duration pollInterval;
+  private final Duration heartbeatInterval;
+  private final int bufferSize;
+  private final Map<String, CityStream> streams = new ConcurrentHashMap<>();
+  private final AtomicInteger subscribers = new AtomicInteger();
+  private final Counter dropped;
+
+  /**
+   * Constructs a new WeatherUpdateStreams.
+   *
+   * @param weatherService The service the city streams read the weather data from.
+   * @param cityKeyNormalizer The normalizer deciding which subscriptions share a stream.
+   * @param meterRegistry The registry the stream meters are registered in.
+   * @param pollIntervalMillis How often each city stream reads the weather data, in milliseconds.
+   * @param heartbeatSeconds How often an idle connection receives a keepalive comment, in seconds.
+   * @param bufferSize The maximum number of updates buffered for a slow subscriber.
+   */
+  public WeatherUpdateStreams(
+      WeatherService weatherService,
+      CityKeyNormalizer cityKeyNormalizer,
+      MeterRegistry meterRegistry,
+      @Value("${weather.stream.poll.interval.millis:1000}") long pollIntervalMillis,
+      @Value("${weather.stream.heartbeat.seconds:15}") long heartbeatSeconds,
+      @Value("${weather.stream.buffer.size:16}") int bufferSize) {
+    this.weatherService = weatherService;
+    this.cityKeyNormalizer = cityKeyNormalizer;
+    this.pollInterval = Duration.ofMillis(pollIntervalMillis);
+    this.heartbeatInterval = Duration.ofSeconds(heartbeatSeconds);
+    this.bufferSize = bufferSize;
+    this.dropped = Counter.builder("weather.stream.dropped")
+        .description("Weather updates dropped because a subscriber's buffer was full")
+        .register(meterRegistry);
+    Gauge.builder("weather.stream.subscribers", subscribers, AtomicInteger::get)
+        .description("Open weather update subscriptions")
+        .register(meterRegistry);
+    Gauge.builder("weather.stream.cities", streams, Map::size)
+        .description("Cities with a shared weather update stream")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Subscribes to the updates of the given cities. Each city first emits its current result, then every
+   * change. Results carry the city as requested; a city that cannot be resolved is reported with an error
+   * until it can.
+   *
+   * @param cities The names of the cities to subscribe to.
+   * @return A Flux emitting the updates of all cities, until cancelled.
+   */
+  public Flux<CityWeatherResult> subscribe(List<String> cities) {
+    Map<String, String> citiesByKey = new LinkedHashMap<>();
+    for (String city : cities) {
+      citiesByKey.putIfAbsent(cityKeyNormalizer.normalize(city), city);
+    }
+
+    List<Flux<CityWeatherResult>> updates = new ArrayList<>(citiesByKey.size());
+    citiesByKey.forEach((key, city) -> updates.add(stream(key)
+        .map(result -> new CityWeatherResult(city, result.getWeather(), result.getError()))));
+    return Flux.merge(updates)
+        .onBackpressureBuffer(bufferSize, update -> dropped.increment(), BufferOverflowStrategy.DROP_LATEST)
+        .doOnSubscribe(subscription -> subscribers.incrementAndGet())
+        .doFinally(signal -> subscribers.decrementAndGet());
+  }
+
+  /**
+   * Returns how often an idle connection should receive a keepalive.
+   *
+   * @return The heartbeat interval.
+   */
+  public Duration getHeartbeatInterval() {
+    return heartbeatInterval;
+  }
+
+  /**
+   * Returns the shared stream of a city, starting it for the first subscriber. Subscribers are counted under the
+   * map entry of the city, so a subscriber either joins the stream in the map or, once the last subscriber has
+   * removed it, starts a new one; a stream that is no longer in the map is never restarted.
+   *
+   * @param key The canonical key of the city.
+   * @return The shared stream.
+   */
+  private Flux<CityWeatherResult> stream(String key) {
+    return Flux.defer(() -> {
+      CityStream stream = streams.compute(key, (k, current) -> {
+        CityStream joined = current != null ? current : new CityStream(createStream(k));
+        joined.subscribers++;
+        return joined;
+      });
+      return stream.updates.doFinally(signal -> leave(key, stream));
+    });
+  }
+
+  /**
+   * Counts a subscriber of a city stream out, removing the stream with its last subscriber.
+   *
+   * @param key The canonical key of the city.
+   * @param stream The stream the subscriber had joined.
+   */
+  private void leave(String key, CityStream stream) {
+    streams.computeIfPresent(key, (k, current) -> {
+      if (current != stream) {
+        return current;
+      }
+      return --current.subscribers == 0 ? null : current;
+    });
+  }
+
+  /**
+   * Creates the shared stream of a city. It polls while it has subscribers and replays the latest result to new
+   * ones.
+   *
+   * @param key The canonical key of the city.
+   * @return The shared stream.
+   */
+  private Flux<CityWeatherResult> createStream(String key) {
+    log.debug("Started weather update stream for {}", key);
+    return Flux.interval(Duration.ZERO, pollInterval)
+        .onBackpressureDrop()
+        .concatMap(tick -> read(key), 1)
+        .distinctUntilChanged()
+        .replay(1)
+        .refCount();
+  }
+
+  /**
+   * Reads the current result of a city. The service only logs these reads at debug level, since every city
+   * stream reads once per poll interval.
+   *
+   * @param key The canonical key of the city.
+   * @return A Mono emitting the weather data, or the error that prevented it from being resolved.
+   */
+  private Mono<CityWeatherResult> read(String key) {
+    return weatherService.getCachedWeatherData(key)
+        .map(cached -> CityWeatherResult.success(key, cached.getResponse()))
+        .onErrorResume(e -> Mono.just(CityWeatherResult.failure(key, e.getMessage())));
+  }
+
+  /**
+   * The shared stream of a city and its number of subscribers, only changed under the map entry of the city.
+   */
+  private static final class CityStream {
+    private final Flux<CityWeatherResult> updates;
+    private int subscribers;
+
+    CityStream(Flux<CityWeatherResult> updates) {
+      this.updates = updates;
+    }
+  }
+}
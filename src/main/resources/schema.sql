@@ -0,0 +1,29 @@
+-- Weather history: every fresh provider fetch, and hourly rollups the history endpoint reads from.
+-- Times are epoch milliseconds in UTC.
+
+CREATE TABLE IF NOT EXISTS weather_observation (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  city VARCHAR(255) NOT NULL,
+  observed_at BIGINT NOT NULL,
+  wind_speed DOUBLE PRECISION NOT NULL,
+  temperature_degrees DOUBLE PRECISION NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS weather_observation_city_time ON weather_observation (city, observed_at);
+
+CREATE INDEX IF NOT EXISTS weather_observation_time ON weather_observation (observed_at);
+
+CREATE TABLE IF NOT EXISTS weather_rollup_hourly (
+  city VARCHAR(255) NOT NULL,
+  bucket_start BIGINT NOT NULL,
+  sample_count BIGINT NOT NULL,
+  temperature_min DOUBLE PRECISION NOT NULL,
+  temperature_max DOUBLE PRECISION NOT NULL,
+  temperature_sum DOUBLE PRECISION NOT NULL,
+  wind_speed_min DOUBLE PRECISION NOT NULL,
+  wind_speed_max DOUBLE PRECISION NOT NULL,
+  wind_speed_sum DOUBLE PRECISION NOT NULL,
+  PRIMARY KEY (city, bucket_start)
+);
+
+CREATE INDEX IF NOT EXISTS weather_rollup_hourly_time ON weather_rollup_hourly (bucket_start);
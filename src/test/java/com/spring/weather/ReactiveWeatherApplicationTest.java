@@ -0,0 +1,47 @@
+package com.spring.weather;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.spring.weather.cache.WeatherCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Application context test for the {@code reactive} profile.
+ * Verifies that the service starts on Reactor Netty with every bean wired, including the weather cache, and
+ * answers a request that needs no provider.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+class ReactiveWeatherApplicationTest {
+
+  @Autowired
+  private ApplicationContext context;
+
+  @Autowired
+  private WebTestClient webTestClient;
+
+  /**
+   * Tests that the context starts a reactive web server with the weather cache wired, and serves the weather
+   * history from the database.
+   */
+  @Test
+  @DisplayName("Should start on the reactive stack")
+  void shouldStartOnTheReactiveStack() {
+    // Then
+    assertThat(context).isInstanceOf(ReactiveWebServerApplicationContext.class);
+    assertThat(context.getBean(WeatherCache.class)).isNotNull();
+    webTestClient.get()
+        .uri("/v1/weather/history?city=Melbourne")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .json("[]");
+  }
+}
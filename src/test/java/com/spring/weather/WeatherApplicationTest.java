@@ -0,0 +1,45 @@
+package com.spring.weather;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.spring.weather.cache.WeatherCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Application context test for the default profile.
+ * Verifies that the service starts on the servlet stack with every bean wired, including the weather cache,
+ * and answers a request that needs no provider.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class WeatherApplicationTest {
+
+  @Autowired
+  private ApplicationContext context;
+
+  @Autowired
+  private WebTestClient webTestClient;
+
+  /**
+   * Tests that the context starts a servlet web server with the weather cache wired, and serves the weather
+   * history from the database.
+   */
+  @Test
+  @DisplayName("Should start on the servlet stack")
+  void shouldStartOnTheServletStack() {
+    // Then
+    assertThat(context).isInstanceOf(ServletWebServerApplicationContext.class);
+    assertThat(context.getBean(WeatherCache.class)).isNotNull();
+    webTestClient.get()
+        .uri("/v1/weather/history?city=Melbourne")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .json("[]");
+  }
+}
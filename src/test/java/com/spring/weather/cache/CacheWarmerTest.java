@@ -0,0 +1,199 @@
+package com.spring.weather.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.weather.MutableClock;
+import com.spring.weather.dto.WeatherResponse;
+import com.spring.weather.exception.WeatherProviderException;
+import com.spring.weather.service.WeatherService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.core.io.DefaultResourceLoader;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/**
+ * Unit tests for the CacheWarmer and CacheWarmupHealthIndicator classes.
+ * Verifies which cities are loaded, the rate cap, the stop after consecutive failures and the reported
+ * readiness.
+ */
+class CacheWarmerTest {
+
+  private final WeatherResponse weatherResponse = new WeatherResponse(20.0, 29.0);
+  private final CityKeyNormalizer normalizer = new CityKeyNormalizer(true, 100);
+
+  @TempDir
+  Path directory;
+
+  private WeatherService weatherService;
+  private WeatherCache weatherCache;
+  private UnknownCityCache unknownCityCache;
+
+  /**
+   * Creates an empty cache and a service whose reloads succeed before each test.
+   */
+  @BeforeEach
+  void setUp() {
+    MutableClock clock = new MutableClock(Instant.parse("2025-05-11T01:00:00Z"));
+    weatherCache = new WeatherCache(Caffeine.newBuilder().buildAsync(), clock, Optional.empty(), 3);
+    unknownCityCache = new UnknownCityCache(new CityGazetteer(new DefaultResourceLoader(), "", normalizer), clock,
+        new SimpleMeterRegistry(), 3600, 100);
+    weatherService = mock(WeatherService.class);
+    when(weatherService.refreshWeatherData(anyString()))
+        .thenAnswer(invocation -> Mono.just(new CachedWeather(weatherResponse, clock.instant())));
+  }
+
+  /**
+   * Tests that the property list and the file are read most popular first, that spellings of the same city
+   * and cities beyond the maximum are dropped, and that cities already fresh in the cache are not loaded.
+   *
+   * @throws IOException if the city file cannot be written
+   */
+  @Test
+  @DisplayName("Should load distinct top cities that are not fresh")
+  void shouldLoadDistinctTopCitiesThatAreNotFresh() throws IOException {
+    // Given
+    Path file = Files.writeString(directory.resolve("cities.txt"), "Perth\n# popular\n\nHobart\nDarwin\n");
+    StepVerifier.create(weatherCache.get("sydney", key -> Mono.just(weatherResponse)))
+        .expectNextCount(1)
+        .verifyComplete();
+    CacheWarmer warmer = newWarmer(List.of("Sydney", "melbourne", " MELBOURNE"), file.toUri().toString(), 4,
+        0, 5, 0);
+
+    // When
+    StepVerifier.create(warmer.warmUp())
+        .verifyComplete();
+
+    // Then
+    verify(weatherService).refreshWeatherData("melbourne");
+    verify(weatherService).refreshWeatherData("Perth");
+    verify(weatherService).refreshWeatherData("Hobart");
+    verify(weatherService, never()).refreshWeatherData("Sydney");
+    verify(weatherService, never()).refreshWeatherData("Darwin");
+    assertThat(warmer.getCityCount()).isEqualTo(4);
+    assertThat(warmer.getWarmCount()).isEqualTo(4);
+    assertThat(warmer.isFinished()).isTrue();
+  }
+
+  /**
+   * Tests that loads are started no faster than the rate cap and that readiness is held back until the
+   * configured fraction of the cities is warm.
+   */
+  @Test
+  @DisplayName("Should pace loads and report ready once enough cities are warm")
+  void shouldPaceLoadsAndReportReadyOnceEnoughCitiesAreWarm() {
+    // Given
+    AtomicInteger loads = new AtomicInteger();
+    when(weatherService.refreshWeatherData(anyString())).thenAnswer(invocation -> {
+      loads.incrementAndGet();
+      return Mono.just(new CachedWeather(weatherResponse, Instant.now()));
+    });
+    CacheWarmer warmer = newWarmer(List.of("sydney", "melbourne", "perth"), "", 100, 2, 5, 0.5);
+    CacheWarmupHealthIndicator health = new CacheWarmupHealthIndicator(warmer);
+
+    // When & Then
+    assertThat(health.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+    StepVerifier.withVirtualTime(warmer::warmUp)
+        .expectSubscription()
+        .thenAwait(Duration.ofMillis(499))
+        .then(() -> assertThat(loads).hasValue(0))
+        .thenAwait(Duration.ofMillis(1))
+        .then(() -> {
+          assertThat(loads).hasValue(1);
+          assertThat(health.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        })
+        .thenAwait(Duration.ofMillis(500))
+        .then(() -> {
+          assertThat(loads).hasValue(2);
+          assertThat(health.health().getStatus()).isEqualTo(Status.UP);
+          assertThat(warmer.isFinished()).isFalse();
+        })
+        .thenAwait(Duration.ofMillis(500))
+        .verifyComplete();
+    assertThat(loads).hasValue(3);
+    assertThat(health.health().getDetails()).containsEntry("warm", 3).containsEntry("finished", true);
+  }
+
+  /**
+   * Tests that the warm-up stops after consecutive failures and then no longer holds readiness back.
+   */
+  @Test
+  @DisplayName("Should stop after consecutive failures")
+  void shouldStopAfterConsecutiveFailures() {
+    // Given
+    when(weatherService.refreshWeatherData(anyString()))
+        .thenReturn(Mono.error(new WeatherProviderException("Provider error")));
+    CacheWarmer warmer = newWarmer(List.of("sydney", "melbourne", "perth", "hobart", "darwin"), "", 100, 0, 2,
+        1.0);
+
+    // When
+    StepVerifier.create(warmer.warmUp())
+        .verifyComplete();
+
+    // Then
+    verify(weatherService, times(2)).refreshWeatherData(anyString());
+    assertThat(warmer.getFailureCount()).isEqualTo(2);
+    assertThat(warmer.getWarmCount()).isZero();
+    assertThat(warmer.isReady()).isTrue();
+  }
+
+  /**
+   * Tests that cities known to be unknown are not loaded, and that a city whose reload was already running is
+   * not counted as warm.
+   */
+  @Test
+  @DisplayName("Should skip unknown cities and not count running reloads as warm")
+  void shouldSkipUnknownCitiesAndNotCountRunningReloadsAsWarm() {
+    // Given
+    unknownCityCache.recordUnknown("sydnye");
+    when(weatherService.refreshWeatherData("melbourne")).thenReturn(Mono.empty());
+    CacheWarmer warmer = newWarmer(List.of("sydnye", "melbourne", "perth"), "", 100, 0, 5, 1.0);
+
+    // When
+    StepVerifier.create(warmer.warmUp())
+        .verifyComplete();
+
+    // Then
+    verify(weatherService, never()).refreshWeatherData("sydnye");
+    verify(weatherService).refreshWeatherData("melbourne");
+    verify(weatherService).refreshWeatherData("perth");
+    assertThat(warmer.getWarmCount()).isEqualTo(1);
+    assertThat(warmer.getFailureCount()).isZero();
+  }
+
+  /**
+   * Creates an enabled warmer loading one city at a time.
+   *
+   * @param cities The cities listed in the properties.
+   * @param location The location of the city file, or an empty string for none.
+   * @param maxCities The maximum number of cities loaded.
+   * @param ratePerSecond The rate cap, or 0 for none.
+   * @param maxConsecutiveFailures The number of consecutive failures after which the warm-up stops.
+   * @param readinessFraction The fraction of cities that must be warm for readiness.
+   * @return The warmer.
+   */
+  private CacheWarmer newWarmer(List<String> cities, String location, int maxCities, double ratePerSecond,
+      int maxConsecutiveFailures, double readinessFraction) {
+    return new CacheWarmer(weatherService, weatherCache, unknownCityCache, normalizer, new DefaultResourceLoader(),
+        true, cities, location, maxCities, 1, ratePerSecond, maxConsecutiveFailures, readinessFraction);
+  }
+}
@@ -0,0 +1,105 @@
+package com.spring.weather.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+/**
+ * Unit tests for the CityGazetteer class.
+ * Verifies the supported file formats, lookups by canonical key and the disabled default.
+ */
+class CityGazetteerTest {
+
+  private final CityKeyNormalizer normalizer = new CityKeyNormalizer(true, 100);
+
+  @TempDir
+  private Path directory;
+
+  /**
+   * Tests that without a configured location every city may exist.
+   */
+  @Test
+  @DisplayName("Should accept every city when disabled")
+  void shouldAcceptEveryCityWhenDisabled() {
+    // When
+    CityGazetteer gazetteer = new CityGazetteer(new DefaultResourceLoader(), "", normalizer);
+
+    // Then
+    assertThat(gazetteer.isEnabled()).isFalse();
+    assertThat(gazetteer.mayExist("atlantis")).isTrue();
+    assertThat(gazetteer.size()).isZero();
+  }
+
+  /**
+   * Tests that a plain list is read one name per line, skipping comments and blank lines, and that names are
+   * matched by their canonical key.
+   */
+  @Test
+  @DisplayName("Should load plain list by canonical key")
+  void shouldLoadPlainListByCanonicalKey() throws IOException {
+    // Given
+    Path file = write("# Australian capitals\nMelbourne\n\n  SYDNEY \nmelbourne\nS\u00E3o Paulo\n");
+
+    // When
+    CityGazetteer gazetteer = new CityGazetteer(new DefaultResourceLoader(), "file:" + file, normalizer);
+
+    // Then
+    assertThat(gazetteer.isEnabled()).isTrue();
+    assertThat(gazetteer.size()).isEqualTo(3);
+    assertThat(gazetteer.mayExist("melbourne")).isTrue();
+    assertThat(gazetteer.mayExist("sydney")).isTrue();
+    assertThat(gazetteer.mayExist("sao paulo")).isTrue();
+    assertThat(gazetteer.mayExist("atlantis")).isFalse();
+  }
+
+  /**
+   * Tests that tab separated lines are read as a GeoNames dump, using the name and ASCII name columns.
+   */
+  @Test
+  @DisplayName("Should load name and ASCII name from GeoNames lines")
+  void shouldLoadNameAndAsciiNameFromGeoNamesLines() throws IOException {
+    // Given
+    Path file = write("2158177\tMelbourne\tMelbourne\tMelburn,Naarm\t-37.814\t144.963\n"
+        + "2643743\tL\u00F8dz\tLodz\t\t51.75\t19.46\n");
+
+    // When
+    CityGazetteer gazetteer = new CityGazetteer(new DefaultResourceLoader(), "file:" + file, normalizer);
+
+    // Then
+    assertThat(gazetteer.mayExist("melbourne")).isTrue();
+    assertThat(gazetteer.mayExist("lodz")).isTrue();
+    assertThat(gazetteer.mayExist("naarm")).isFalse();
+    assertThat(gazetteer.mayExist("2158177")).isFalse();
+  }
+
+  /**
+   * Tests that a configured gazetteer that does not exist fails startup.
+   */
+  @Test
+  @DisplayName("Should fail when configured file is missing")
+  void shouldFailWhenConfiguredFileIsMissing() {
+    // When & Then
+    assertThatThrownBy(() -> new CityGazetteer(new DefaultResourceLoader(),
+        "file:" + directory.resolve("missing.txt"), normalizer))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("Gazetteer not found");
+  }
+
+  /**
+   * Writes the gazetteer file used by a test.
+   *
+   * @param content The content of the file.
+   * @return The path of the file.
+   */
+  private Path write(String content) throws IOException {
+    return Files.writeString(directory.resolve("cities.txt"), content, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,108 @@
+package com.spring.weather.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the CityKeyNormalizer class.
+ * Verifies case folding, whitespace collapsing, the diacritic policy and key interning.
+ */
+class CityKeyNormalizerTest {
+
+  private final CityKeyNormalizer normalizer = new CityKeyNormalizer(true, 100);
+
+  /**
+   * Tests that case and surrounding or repeated whitespace do not change the key.
+   */
+  @Test
+  @DisplayName("Should fold case and collapse whitespace")
+  void shouldFoldCaseAndCollapseWhitespace() {
+    // When & Then
+    assertThat(normalizer.normalize("Melbourne")).isEqualTo("melbourne");
+    assertThat(normalizer.normalize(" melbourne")).isEqualTo("melbourne");
+    assertThat(normalizer.normalize("MELBOURNE ")).isEqualTo("melbourne");
+    assertThat(normalizer.normalize("New \t York")).isEqualTo("new york");
+    assertThat(normalizer.normalize("New\u00A0York")).isEqualTo("new york");
+  }
+
+  /**
+   * Tests that case folding does not depend on the default locale and handles characters whose upper and
+   * lower case forms differ in length.
+   */
+  @Test
+  @DisplayName("Should fold case independently of locale")
+  void shouldFoldCaseIndependentlyOfLocale() {
+    // When & Then
+    assertThat(normalizer.normalize("IZMIR")).isEqualTo("izmir");
+    assertThat(normalizer.normalize("Gie\u00DFen")).isEqualTo("giessen");
+    assertThat(normalizer.normalize("\uFF2D\uFF45\uFF4C\uFF42\uFF4F\uFF55\uFF52\uFF4E\uFF45")).isEqualTo("melbourne");
+  }
+
+  /**
+   * Tests that diacritics are removed by default, in both composed and decomposed form.
+   */
+  @Test
+  @DisplayName("Should strip diacritics when configured")
+  void shouldStripDiacriticsWhenConfigured() {
+    // When & Then
+    assertThat(normalizer.normalize("S\u00E3o Paulo")).isEqualTo("sao paulo");
+    assertThat(normalizer.normalize("Sa\u0303o Paulo")).isEqualTo("sao paulo");
+    assertThat(normalizer.normalize("Z\u00DCRICH")).isEqualTo("zurich");
+  }
+
+  /**
+   * Tests that diacritics are kept, in composed form, when stripping is disabled.
+   */
+  @Test
+  @DisplayName("Should keep composed diacritics when stripping is disabled")
+  void shouldKeepComposedDiacriticsWhenStrippingIsDisabled() {
+    // Given
+    CityKeyNormalizer keepingNormalizer = new CityKeyNormalizer(false, 100);
+
+    // When & Then
+    assertThat(keepingNormalizer.normalize("S\u00C3O PAULO")).isEqualTo("s\u00E3o paulo");
+    assertThat(keepingNormalizer.normalize("Sa\u0303o Paulo")).isEqualTo("s\u00E3o paulo");
+  }
+
+  /**
+   * Tests that a key normalizes to itself.
+   */
+  @Test
+  @DisplayName("Should be idempotent")
+  void shouldBeIdempotent() {
+    // Given
+    String key = normalizer.normalize("  Gie\u00DFen  Nord ");
+
+    // When & Then
+    assertThat(normalizer.normalize(key)).isEqualTo(key);
+    assertThat(normalizer.canonicalize(key)).isEqualTo(key);
+  }
+
+  /**
+   * Tests that all spellings of a city map to the same key instance.
+   */
+  @Test
+  @DisplayName("Should intern keys of spelling variants")
+  void shouldInternKeysOfSpellingVariants() {
+    // When
+    String first = normalizer.normalize("Melbourne");
+    String second = normalizer.normalize(" MELBOURNE");
+    String repeated = normalizer.normalize(new String("Melbourne"));
+
+    // Then
+    assertThat(second).isSameAs(first);
+    assertThat(repeated).isSameAs(first);
+  }
+
+  /**
+   * Tests that a name consisting only of whitespace normalizes to an empty key.
+   */
+  @Test
+  @DisplayName("Should normalize whitespace only name to empty key")
+  void shouldNormalizeWhitespaceOnlyNameToEmptyKey() {
+    // When & Then
+    assertThat(normalizer.normalize(" \u2003 ")).isEmpty();
+  }
+}
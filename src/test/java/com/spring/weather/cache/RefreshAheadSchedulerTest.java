@@ -0,0 +1,193 @@
+package com.spring.weather.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.weather.MutableClock;
+import com.spring.weather.dto.WeatherResponse;
+import com.spring.weather.exception.WeatherProviderException;
+import com.spring.weather.service.WeatherService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+/**
+ * Unit tests for the RefreshAheadScheduler class.
+ * Verifies which entries are reloaded, the concurrency bound, the handling of failed reloads and the
+ * disabled switch.
+ */
+class RefreshAheadSchedulerTest {
+
+  private static final int FRESH_TTL_SECONDS = 3;
+
+  private MutableClock clock;
+  private WeatherCache weatherCache;
+  private WeatherService weatherService;
+  private final WeatherResponse weatherResponse = new WeatherResponse(20.0, 29.0);
+
+  /**
+   * Fills the cache with three hot entries close to expiry and one entry that was not read recently,
+   * and creates a service whose reloads succeed.
+   */
+  @BeforeEach
+  void setUp() {
+    clock = new MutableClock(Instant.parse("2025-05-11T01:00:00Z"));
+    weatherCache = new WeatherCache(Caffeine.newBuilder().buildAsync(), clock, Optional.empty(), FRESH_TTL_SECONDS);
+    for (String city : new String[] {"melbourne", "sydney", "perth", "hobart"}) {
+      load(city);
+    }
+    clock.advance(Duration.ofMillis(2500));
+    for (String city : new String[] {"melbourne", "sydney", "perth"}) {
+      load(city);
+    }
+    weatherService = mock(WeatherService.class);
+    when(weatherService.refreshWeatherData(anyString()))
+        .thenAnswer(invocation -> Mono.just(new CachedWeather(weatherResponse, clock.instant())));
+  }
+
+  /**
+   * Resets the virtual time scheduler installed by a test.
+   */
+  @AfterEach
+  void tearDown() {
+    VirtualTimeScheduler.reset();
+  }
+
+  /**
+   * Tests that only the refresh-ahead candidates are reloaded and that entries not read within the access
+   * window are left to expire.
+   */
+  @Test
+  @DisplayName("Should reload only refresh-ahead candidates")
+  void shouldReloadOnlyRefreshAheadCandidates() {
+    // Given
+    RefreshAheadScheduler scheduler = createScheduler(true, 8);
+
+    // When
+    StepVerifier.create(scheduler.refreshDueEntries())
+        .verifyComplete();
+
+    // Then
+    verify(weatherService).refreshWeatherData("melbourne");
+    verify(weatherService).refreshWeatherData("sydney");
+    verify(weatherService).refreshWeatherData("perth");
+    verify(weatherService, never()).refreshWeatherData("hobart");
+  }
+
+  /**
+   * Tests that no more reloads than the configured concurrency run at once.
+   */
+  @Test
+  @DisplayName("Should honour refresh concurrency")
+  void shouldHonourRefreshConcurrency() {
+    // Given
+    RefreshAheadScheduler scheduler = createScheduler(true, 2);
+    Sinks.Empty<Void> release = Sinks.empty();
+    AtomicInteger started = new AtomicInteger();
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    when(weatherService.refreshWeatherData(anyString())).thenAnswer(invocation -> Mono.defer(() -> {
+          started.incrementAndGet();
+          maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+          return release.asMono()
+              .then(Mono.fromSupplier(() -> new CachedWeather(weatherResponse, clock.instant())));
+        })
+        .doFinally(signal -> running.decrementAndGet()));
+
+    // When
+    StepVerifier.create(scheduler.refreshDueEntries())
+        .then(() -> assertThat(started).hasValue(2))
+        .then(release::tryEmitEmpty)
+        .verifyComplete();
+
+    // Then
+    assertThat(started).hasValue(3);
+    assertThat(maxRunning).hasValue(2);
+  }
+
+  /**
+   * Tests that a failed reload is swallowed, so the other entries are still reloaded and the sweep
+   * completes normally.
+   */
+  @Test
+  @DisplayName("Should swallow failed reloads and continue with other entries")
+  void shouldSwallowFailedReloadsAndContinue() {
+    // Given
+    RefreshAheadScheduler scheduler = createScheduler(true, 1);
+    when(weatherService.refreshWeatherData("melbourne"))
+        .thenReturn(Mono.error(new WeatherProviderException("Provider error")));
+
+    // When
+    StepVerifier.create(scheduler.refreshDueEntries())
+        .verifyComplete();
+
+    // Then
+    verify(weatherService).refreshWeatherData("melbourne");
+    verify(weatherService).refreshWeatherData("sydney");
+    verify(weatherService).refreshWeatherData("perth");
+    assertThat(weatherCache.getIfPresent("melbourne")).isNotNull();
+  }
+
+  /**
+   * Tests that the periodic sweep only runs when refresh-ahead is enabled.
+   */
+  @Test
+  @DisplayName("Should not start sweep when disabled")
+  void shouldNotStartSweepWhenDisabled() {
+    // Given
+    VirtualTimeScheduler virtualTime = VirtualTimeScheduler.getOrSet();
+    RefreshAheadScheduler disabled = createScheduler(false, 8);
+    RefreshAheadScheduler enabled = createScheduler(true, 8);
+
+    // When
+    disabled.start();
+    virtualTime.advanceTimeBy(Duration.ofSeconds(1));
+
+    // Then
+    verifyNoInteractions(weatherService);
+    enabled.start();
+    virtualTime.advanceTimeBy(Duration.ofSeconds(1));
+    verify(weatherService, atLeastOnce()).refreshWeatherData("melbourne");
+    enabled.stop();
+    disabled.stop();
+  }
+
+  /**
+   * Creates a scheduler reloading entries with less than a second of freshness left that were read within
+   * the last second, checking every 250 milliseconds.
+   *
+   * @param enabled Whether refresh-ahead is enabled.
+   * @param concurrency The maximum number of reloads running at once.
+   * @return The scheduler.
+   */
+  private RefreshAheadScheduler createScheduler(boolean enabled, int concurrency) {
+    return new RefreshAheadScheduler(weatherCache, weatherService, enabled, 1000, 1, 250, concurrency);
+  }
+
+  /**
+   * Reads a city through the cache, loading it on a miss.
+   *
+   * @param city The normalized cache key.
+   */
+  private void load(String city) {
+    StepVerifier.create(weatherCache.get(city, key -> Mono.just(weatherResponse)))
+        .expectNextCount(1)
+        .verifyComplete();
+  }
+}
@@ -0,0 +1,332 @@
+package com.spring.weather.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.weather.dto.WeatherResponse;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+/**
+ * Unit tests for the RespSharedWeatherCache class.
+ * Verifies the commands sent, the stored format and the handling of missing keys and unreachable servers
+ * against a local fake server.
+ */
+class RespSharedWeatherCacheTest {
+
+  private static final Instant FETCHED_AT = Instant.parse("2025-05-11T01:00:00Z");
+
+  private FakeRespServer server;
+  private RespSharedWeatherCache sharedCache;
+
+  /**
+   * Starts the fake server and a client for it before each test.
+   *
+   * @throws IOException if the server cannot be started
+   */
+  @BeforeEach
+  void setUp() throws IOException {
+    server = new FakeRespServer();
+    sharedCache = new RespSharedWeatherCache("localhost", server.port(), 2, Duration.ofSeconds(1), "weather:",
+        new ObjectMapper());
+  }
+
+  /**
+   * Closes the client and stops the fake server after each test.
+   *
+   * @throws IOException if the server cannot be stopped
+   */
+  @AfterEach
+  void tearDown() throws IOException {
+    sharedCache.close();
+    server.close();
+  }
+
+  /**
+   * Tests that a stored entry is read back with its fetch time, under the prefixed key and with the expiry.
+   */
+  @Test
+  @DisplayName("Should store and read entries with expiry")
+  void shouldStoreAndReadEntriesWithExpiry() {
+    // Given
+    WeatherResponse response = new WeatherResponse(20.0, 29.0);
+
+    // When
+    StepVerifier.create(sharedCache.put("s\u00e3o paulo", new CachedWeather(response, FETCHED_AT),
+            Duration.ofMillis(2500)))
+        .verifyComplete();
+
+    // Then
+    StepVerifier.create(sharedCache.get("s\u00e3o paulo"))
+        .assertNext(entry -> {
+          assertThat(entry.getResponse()).isEqualTo(response);
+          assertThat(entry.getFetchedAt()).isEqualTo(FETCHED_AT);
+        })
+        .verifyComplete();
+    assertThat(server.commands()).containsExactly(
+        List.of("SET", "weather:s\u00e3o paulo", FETCHED_AT.toEpochMilli()
+            + " {\"wind_speed\":20.0,\"temperature_degrees\":29.0}", "PX", "2500"),
+        List.of("GET", "weather:s\u00e3o paulo"));
+    assertThat(server.connections()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that a missing key completes empty and an expired entry is not written.
+   */
+  @Test
+  @DisplayName("Should complete empty for missing keys")
+  void shouldCompleteEmptyForMissingKeys() {
+    // When & Then
+    StepVerifier.create(sharedCache.get("atlantis"))
+        .verifyComplete();
+    StepVerifier.create(sharedCache.put("atlantis", new CachedWeather(new WeatherResponse(1.0, 2.0), FETCHED_AT),
+            Duration.ZERO))
+        .verifyComplete();
+    assertThat(server.commands()).containsExactly(List.of("GET", "weather:atlantis"));
+  }
+
+  /**
+   * Tests that a server error and an unreachable server fail the call, and that the client recovers once the
+   * server is back.
+   *
+   * @throws IOException if the server cannot be restarted
+   */
+  @Test
+  @DisplayName("Should fail calls while server is unavailable")
+  void shouldFailCallsWhileServerIsUnavailable() throws IOException {
+    // Given
+    server.failNext();
+
+    // When & Then
+    StepVerifier.create(sharedCache.get("melbourne"))
+        .expectErrorMessage("Shared cache error: ERR out of memory")
+        .verify();
+
+    int port = server.port();
+    server.close();
+    StepVerifier.create(sharedCache.get("melbourne"))
+        .expectError(IOException.class)
+        .verify();
+
+    server = new FakeRespServer(port);
+    StepVerifier.create(sharedCache.get("melbourne"))
+        .verifyComplete();
+  }
+
+  /**
+   * A minimal server answering {@code GET} and {@code SET} from a map, one thread per connection.
+   */
+  private static final class FakeRespServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+    private final List<List<String>> commands = new CopyOnWriteArrayList<>();
+    private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+    private volatile boolean failNext;
+
+    /**
+     * Starts the server on a free port.
+     *
+     * @throws IOException if the server cannot be started
+     */
+    FakeRespServer() throws IOException {
+      this(0);
+    }
+
+    /**
+     * Starts the server on the given port.
+     *
+     * @param port The port, or zero for a free one.
+     * @throws IOException if the server cannot be started
+     */
+    FakeRespServer(int port) throws IOException {
+      serverSocket = new ServerSocket(port);
+      Thread acceptor = new Thread(this::accept, "fake-resp-server");
+      acceptor.setDaemon(true);
+      acceptor.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return The port.
+     */
+    int port() {
+      return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the commands received so far.
+     *
+     * @return The commands with their arguments.
+     */
+    List<List<String>> commands() {
+      return commands;
+    }
+
+    /**
+     * Returns the number of connections accepted so far.
+     *
+     * @return The connection count.
+     */
+    int connections() {
+      return sockets.size();
+    }
+
+    /**
+     * Makes the server answer the next command with an error.
+     */
+    void failNext() {
+      failNext = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+      serverSocket.close();
+      for (Socket socket : sockets) {
+        socket.close();
+      }
+    }
+
+    /**
+     * Accepts connections until the server is closed.
+     */
+    private void accept() {
+      while (!serverSocket.isClosed()) {
+        try {
+          Socket socket = serverSocket.accept();
+          sockets.add(socket);
+          Thread handler = new Thread(() -> serve(socket), "fake-resp-connection");
+          handler.setDaemon(true);
+          handler.start();
+        } catch (IOException e) {
+          return;
+        }
+      }
+    }
+
+    /**
+     * Answers the commands of one connection until it is closed.
+     *
+     * @param socket The connection.
+     */
+    private void serve(Socket socket) {
+      try (socket) {
+        InputStream in = new BufferedInputStream(socket.getInputStream());
+        OutputStream out = socket.getOutputStream();
+        while (true) {
+          List<byte[]> arguments = readCommand(in);
+          if (arguments == null) {
+            return;
+          }
+          List<String> command = new ArrayList<>();
+          arguments.forEach(argument -> command.add(new String(argument, StandardCharsets.UTF_8)));
+          commands.add(command);
+          out.write(reply(command, arguments));
+          out.flush();
+        }
+      } catch (IOException e) {
+        // The client or the test closed the connection.
+      }
+    }
+
+    /**
+     * Builds the reply to a command.
+     *
+     * @param command The command as strings.
+     * @param arguments The command as bytes.
+     * @return The encoded reply.
+     */
+    private byte[] reply(List<String> command, List<byte[]> arguments) {
+      if (failNext) {
+        failNext = false;
+        return ascii("-ERR out of memory\r\n");
+      }
+      if (command.get(0).equals("SET")) {
+        values.put(command.get(1), arguments.get(2));
+        return ascii("+OK\r\n");
+      }
+      byte[] value = values.get(command.get(1));
+      if (value == null) {
+        return ascii("$-1\r\n");
+      }
+      byte[] header = ascii("$" + value.length + "\r\n");
+      byte[] reply = new byte[header.length + value.length + 2];
+      System.arraycopy(header, 0, reply, 0, header.length);
+      System.arraycopy(value, 0, reply, header.length, value.length);
+      reply[reply.length - 2] = '\r';
+      reply[reply.length - 1] = '\n';
+      return reply;
+    }
+
+    /**
+     * Reads a command sent as an array of bulk strings.
+     *
+     * @param in The connection input.
+     * @return The arguments, or null if the connection was closed.
+     * @throws IOException if the connection fails
+     */
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+      int type = in.read();
+      if (type == -1) {
+        return null;
+      }
+      int count = Integer.parseInt(readLine(in));
+      List<byte[]> arguments = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        in.read();
+        int length = Integer.parseInt(readLine(in));
+        arguments.add(in.readNBytes(length));
+        in.readNBytes(2);
+      }
+      return arguments;
+    }
+
+    /**
+     * Reads a line terminated by CRLF.
+     *
+     * @param in The connection input.
+     * @return The line without its terminator.
+     * @throws IOException if the connection fails
+     */
+    private static String readLine(InputStream in) throws IOException {
+      StringBuilder line = new StringBuilder();
+      int current;
+      while ((current = in.read()) != '\r') {
+        if (current == -1) {
+          throw new IOException("Connection closed");
+        }
+        line.append((char) current);
+      }
+      in.read();
+      return line.toString();
+    }
+
+    /**
+     * Encodes an ASCII string.
+     *
+     * @param value The string.
+     * @return Its bytes.
+     */
+    private static byte[] ascii(String value) {
+      return value.getBytes(StandardCharsets.US_ASCII);
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.spring.weather.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.spring.weather.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+/**
+ * Unit tests for the UnknownCityCache class.
+ * Verifies the negative cache TTL, the gazetteer check and the rejection counters.
+ */
+class UnknownCityCacheTest {
+
+  private static final long TTL_SECONDS = 60;
+
+  private final CityKeyNormalizer normalizer = new CityKeyNormalizer(true, 100);
+  private final MutableClock clock = new MutableClock(Instant.parse("2025-05-11T01:00:00Z"));
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @TempDir
+  private Path directory;
+
+  /**
+   * Tests that a city recorded as unknown is rejected until the TTL has elapsed.
+   */
+  @Test
+  @DisplayName("Should reject recorded city until TTL elapses")
+  void shouldRejectRecordedCityUntilTtlElapses() {
+    // Given
+    UnknownCityCache cache = new UnknownCityCache(gazetteer(""), clock, meterRegistry, TTL_SECONDS, 100);
+    cache.recordUnknown("atlantis");
+
+    // When & Then
+    assertThat(cache.isUnknown("atlantis")).isTrue();
+    assertThat(cache.isUnknown("melbourne")).isFalse();
+
+    clock.advance(Duration.ofSeconds(TTL_SECONDS - 1));
+    assertThat(cache.isUnknown("atlantis")).isTrue();
+
+    clock.advance(Duration.ofSeconds(1));
+    assertThat(cache.isUnknown("atlantis")).isFalse();
+    assertThat(cache.estimatedSize()).isZero();
+    assertThat(rejections("negative_cache")).isEqualTo(2.0);
+  }
+
+  /**
+   * Tests that cities missing from the gazetteer are rejected without being recorded.
+   */
+  @Test
+  @DisplayName("Should reject cities missing from gazetteer")
+  void shouldRejectCitiesMissingFromGazetteer() throws IOException {
+    // Given
+    Path file = Files.writeString(directory.resolve("cities.txt"), "Melbourne\nSydney\n", StandardCharsets.UTF_8);
+    UnknownCityCache cache = new UnknownCityCache(gazetteer("file:" + file), clock, meterRegistry, TTL_SECONDS, 100);
+
+    // When & Then
+    assertThat(cache.isUnknown("melbourne")).isFalse();
+    assertThat(cache.isUnknown("atlantis")).isTrue();
+    assertThat(cache.estimatedSize()).isZero();
+    assertThat(rejections("gazetteer")).isEqualTo(1.0);
+    assertThat(rejections("negative_cache")).isZero();
+  }
+
+  /**
+   * Creates a gazetteer for the given location.
+   *
+   * @param location The gazetteer location, or an empty string to disable it.
+   * @return The gazetteer.
+   */
+  private CityGazetteer gazetteer(String location) {
+    return new CityGazetteer(new DefaultResourceLoader(), location, normalizer);
+  }
+
+  /**
+   * Returns the number of rejections counted for the given source.
+   *
+   * @param source The source tag value.
+   * @return The counted rejections.
+   */
+  private double rejections(String source) {
+    return meterRegistry.get("weather.unknown.city.rejections").tag("source", source).counter().count();
+  }
+}
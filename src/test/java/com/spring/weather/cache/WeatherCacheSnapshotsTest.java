@@ -0,0 +1,237 @@
+package com.spring.weather.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.weather.MutableClock;
+import com.spring.weather.dto.WeatherResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/**
+ * Unit tests for the WeatherCacheSnapshots and WeatherCacheSnapshotFile classes.
+ * Verifies that entries survive a restart with their original age, that expired and already cached entries
+ * are not restored, that unreadable snapshots are replaced and that snapshots are written one at a time.
+ */
+class WeatherCacheSnapshotsTest {
+
+  private static final int FRESH_TTL_SECONDS = 3;
+  private static final int STALE_RETENTION_SECONDS = 600;
+  private static final Instant START = Instant.parse("2025-05-11T01:00:00Z");
+
+  @TempDir
+  Path directory;
+
+  private Path path;
+  private MutableClock clock;
+  private final WeatherResponse weatherResponse = new WeatherResponse(20.0, 29.0);
+  private final WeatherResponse updatedResponse = new WeatherResponse(15.0, 31.0);
+
+  /**
+   * Resets the clock and the snapshot location before each test.
+   */
+  @BeforeEach
+  void setUp() {
+    clock = new MutableClock(START);
+    path = directory.resolve("snapshots").resolve("weather-cache.snapshot");
+  }
+
+  /**
+   * Tests that a snapshot restores every entry with its original fetch time, so a fresh entry stays fresh and
+   * a stale entry stays stale, without counting loads.
+   *
+   * @throws IOException if the snapshot cannot be written
+   */
+  @Test
+  @DisplayName("Should restore entries with their original age")
+  void shouldRestoreEntriesWithTheirOriginalAge() throws IOException {
+    // Given
+    WeatherCache before = newCache();
+    load(before, "s\u00e3o paulo", updatedResponse);
+    clock.advance(Duration.ofSeconds(FRESH_TTL_SECONDS + 2));
+    load(before, "melbourne", weatherResponse);
+    WeatherCacheSnapshotFile.write(path, before, clock.instant());
+
+    // When
+    clock.advance(Duration.ofSeconds(1));
+    WeatherCache after = newCache();
+    WeatherCacheSnapshots snapshots = newSnapshots(after);
+    snapshots.restore();
+
+    // Then
+    CachedWeather melbourne = after.getIfPresent("melbourne");
+    assertThat(melbourne.getResponse()).isEqualTo(weatherResponse);
+    assertThat(melbourne.getFetchedAt()).isEqualTo(START.plusSeconds(FRESH_TTL_SECONDS + 2));
+    assertThat(after.isFresh(melbourne)).isTrue();
+    CachedWeather saoPaulo = after.getIfPresent("s\u00e3o paulo");
+    assertThat(saoPaulo.getResponse()).isEqualTo(updatedResponse);
+    assertThat(saoPaulo.getFetchedAt()).isEqualTo(START);
+    assertThat(after.isFresh(saoPaulo)).isFalse();
+    assertThat(after.stats().loadSuccessCount()).isZero();
+  }
+
+  /**
+   * Tests that entries past the stale retention are skipped and that entries loaded before the restore are
+   * kept.
+   *
+   * @throws IOException if the snapshot cannot be written
+   */
+  @Test
+  @DisplayName("Should skip expired and already cached entries")
+  void shouldSkipExpiredAndAlreadyCachedEntries() throws IOException {
+    // Given
+    WeatherCache before = newCache();
+    load(before, "sydney", weatherResponse);
+    clock.advance(Duration.ofSeconds(60));
+    load(before, "melbourne", weatherResponse);
+    WeatherCacheSnapshotFile.write(path, before, clock.instant());
+
+    clock.advance(Duration.ofSeconds(FRESH_TTL_SECONDS + STALE_RETENTION_SECONDS - 30));
+    WeatherCache after = newCache();
+    load(after, "melbourne", updatedResponse);
+
+    // When
+    newSnapshots(after).restore();
+
+    // Then
+    assertThat(after.getIfPresent("sydney")).isNull();
+    assertThat(after.getIfPresent("melbourne").getResponse()).isEqualTo(updatedResponse);
+  }
+
+  /**
+   * Tests that an unreadable snapshot leaves the cache empty and is replaced by the next snapshot, while no
+   * snapshot is written before the restore has finished.
+   *
+   * @throws IOException if the files cannot be written or read
+   */
+  @Test
+  @DisplayName("Should replace unreadable snapshots")
+  void shouldReplaceUnreadableSnapshots() throws IOException {
+    // Given
+    Files.createDirectories(path.getParent());
+    Files.writeString(path, "not a snapshot");
+    WeatherCache weatherCache = newCache();
+    load(weatherCache, "melbourne", weatherResponse);
+    WeatherCacheSnapshots snapshots = newSnapshots(weatherCache);
+
+    // When
+    snapshots.snapshot();
+    assertThat(Files.readString(path)).isEqualTo("not a snapshot");
+    snapshots.restore();
+    snapshots.snapshot();
+
+    // Then
+    Map<String, CachedWeather> read = new HashMap<>();
+    int count = WeatherCacheSnapshotFile.read(path, (key, entry) -> {
+      read.put(key, entry);
+      return true;
+    });
+    assertThat(count).isEqualTo(1);
+    assertThat(read.get("melbourne").getResponse()).isEqualTo(weatherResponse);
+    assertThat(read.get("melbourne").getFetchedAt()).isEqualTo(START);
+  }
+
+  /**
+   * Tests that the last snapshot written on shutdown waits for a periodic snapshot still being written instead
+   * of writing the same temporary file at the same time.
+   *
+   * @throws Exception if a snapshot fails or does not finish in time
+   */
+  @Test
+  @DisplayName("Should write overlapping snapshots one at a time")
+  void shouldWriteOverlappingSnapshotsOneAtATime() throws Exception {
+    // Given
+    WeatherCache weatherCache = spy(newCache());
+    load(weatherCache, "melbourne", weatherResponse);
+    CountDownLatch firstWriting = new CountDownLatch(1);
+    CountDownLatch releaseFirst = new CountDownLatch(1);
+    AtomicInteger writing = new AtomicInteger();
+    AtomicInteger maxWriting = new AtomicInteger();
+    doAnswer(invocation -> {
+      maxWriting.accumulateAndGet(writing.incrementAndGet(), Math::max);
+      firstWriting.countDown();
+      releaseFirst.await(5, TimeUnit.SECONDS);
+      invocation.callRealMethod();
+      writing.decrementAndGet();
+      return null;
+    }).when(weatherCache).forEachEntry(any());
+    WeatherCacheSnapshots snapshots = newSnapshots(weatherCache);
+    snapshots.restore();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    try {
+      // When
+      Future<?> periodic = executor.submit(snapshots::snapshot);
+      assertThat(firstWriting.await(5, TimeUnit.SECONDS)).isTrue();
+      Future<?> last = executor.submit(snapshots::stop);
+      Thread.sleep(100);
+      verify(weatherCache, times(1)).forEachEntry(any());
+      releaseFirst.countDown();
+      periodic.get(5, TimeUnit.SECONDS);
+      last.get(5, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Then
+    verify(weatherCache, times(2)).forEachEntry(any());
+    assertThat(maxWriting).hasValue(1);
+    assertThat(WeatherCacheSnapshotFile.read(path, (key, entry) -> true)).isEqualTo(1);
+  }
+
+  /**
+   * Creates an empty cache on the test clock.
+   *
+   * @return The cache.
+   */
+  private WeatherCache newCache() {
+    return new WeatherCache(Caffeine.newBuilder().buildAsync(), clock, Optional.empty(), FRESH_TTL_SECONDS);
+  }
+
+  /**
+   * Creates enabled snapshots of a cache at the test location.
+   *
+   * @param weatherCache The cache.
+   * @return The snapshots.
+   */
+  private WeatherCacheSnapshots newSnapshots(WeatherCache weatherCache) {
+    return new WeatherCacheSnapshots(weatherCache, clock, true, path, 60, 2000, FRESH_TTL_SECONDS,
+        STALE_RETENTION_SECONDS);
+  }
+
+  /**
+   * Loads a key into a cache.
+   *
+   * @param weatherCache The cache.
+   * @param key The cache key.
+   * @param response The loaded response.
+   */
+  private static void load(WeatherCache weatherCache, String key, WeatherResponse response) {
+    StepVerifier.create(weatherCache.get(key, ignored -> Mono.just(response)))
+        .expectNextCount(1)
+        .verifyComplete();
+  }
+}
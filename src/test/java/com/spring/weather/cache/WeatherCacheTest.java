@@ -0,0 +1,403 @@
+package com.spring.weather.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.weather.MutableClock;
+import com.spring.weather.dto.WeatherResponse;
+import com.spring.weather.exception.WeatherProviderException;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+/**
+ * Unit tests for the WeatherCache class.
+ * Verifies single-flight loading, stale-while-revalidate behaviour and the reported counters.
+ */
+class WeatherCacheTest {
+
+  private static final int FRESH_TTL_SECONDS = 3;
+
+  private MutableClock clock;
+  private WeatherCache weatherCache;
+  private final WeatherResponse weatherResponse = new WeatherResponse(20.0, 29.0);
+  private final WeatherResponse updatedResponse = new WeatherResponse(15.0, 31.0);
+
+  /**
+   * Creates a WeatherCache backed by an unbounded Caffeine cache before each test.
+   */
+  @BeforeEach
+  void setUp() {
+    clock = new MutableClock(Instant.parse("2025-05-11T01:00:00Z"));
+    weatherCache = new WeatherCache(Caffeine.newBuilder().buildAsync(), clock, Optional.empty(), FRESH_TTL_SECONDS);
+  }
+
+  /**
+   * Tests that concurrent misses for the same key share one upstream load.
+   */
+  @Test
+  @DisplayName("Should coalesce concurrent misses into a single load")
+  void shouldCoalesceConcurrentMissesIntoSingleLoad() {
+    // Given
+    AtomicInteger loads = new AtomicInteger();
+    Sinks.One<WeatherResponse> upstream = Sinks.one();
+
+    // When
+    Mono<CachedWeather> first = weatherCache.get("melbourne", key -> {
+      loads.incrementAndGet();
+      return upstream.asMono();
+    });
+    Mono<CachedWeather> second = weatherCache.get("melbourne", key -> {
+      loads.incrementAndGet();
+      return upstream.asMono();
+    });
+
+    // Then
+    StepVerifier.create(Mono.zip(first, second))
+        .then(() -> upstream.tryEmitValue(weatherResponse))
+        .assertNext(pair -> {
+          assertThat(pair.getT1().getResponse()).isEqualTo(weatherResponse);
+          assertThat(pair.getT2().getResponse()).isEqualTo(weatherResponse);
+        })
+        .verifyComplete();
+
+    assertThat(loads).hasValue(1);
+    WeatherCacheStats stats = weatherCache.stats();
+    assertThat(stats.missCount()).isEqualTo(1);
+    assertThat(stats.coalescedCount()).isEqualTo(1);
+    assertThat(stats.loadSuccessCount()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that a resolved value is served from the cache without calling the loader again.
+   */
+  @Test
+  @DisplayName("Should serve resolved value on subsequent lookups")
+  void shouldServeResolvedValueOnSubsequentLookups() {
+    // Given
+    AtomicInteger loads = new AtomicInteger();
+
+    // When
+    for (int i = 0; i < 3; i++) {
+      StepVerifier.create(weatherCache.get("melbourne", key -> {
+            loads.incrementAndGet();
+            return Mono.just(weatherResponse);
+          }))
+          .assertNext(cached -> assertThat(cached.getResponse()).isEqualTo(weatherResponse))
+          .verifyComplete();
+    }
+
+    // Then
+    assertThat(loads).hasValue(1);
+    assertThat(weatherCache.stats().hitCount()).isEqualTo(2);
+    assertThat(weatherCache.getIfPresent("melbourne").getResponse()).isEqualTo(weatherResponse);
+  }
+
+  /**
+   * Tests that a failed load is not cached and the next lookup loads again.
+   */
+  @Test
+  @DisplayName("Should not cache failed loads")
+  void shouldNotCacheFailedLoads() {
+    // Given
+    AtomicInteger loads = new AtomicInteger();
+
+    // When & Then
+    StepVerifier.create(weatherCache.get("melbourne", key -> {
+          loads.incrementAndGet();
+          return Mono.error(new WeatherProviderException("Provider error"));
+        }))
+        .expectError(WeatherProviderException.class)
+        .verify();
+
+    assertThat(weatherCache.getIfPresent("melbourne")).isNull();
+
+    StepVerifier.create(weatherCache.get("melbourne", key -> {
+          loads.incrementAndGet();
+          return Mono.just(weatherResponse);
+        }))
+        .expectNextCount(1)
+        .verifyComplete();
+
+    assertThat(loads).hasValue(2);
+    assertThat(weatherCache.stats().loadFailureCount()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that a stale entry is returned immediately while a single background revalidation runs.
+   */
+  @Test
+  @DisplayName("Should serve stale entry while revalidating once")
+  void shouldServeStaleEntryWhileRevalidatingOnce() {
+    // Given
+    StepVerifier.create(weatherCache.get("melbourne", key -> Mono.just(weatherResponse)))
+        .expectNextCount(1)
+        .verifyComplete();
+    clock.advance(Duration.ofSeconds(FRESH_TTL_SECONDS + 2));
+
+    AtomicInteger revalidations = new AtomicInteger();
+    Sinks.One<WeatherResponse> upstream = Sinks.one();
+
+    // When
+    for (int i = 0; i < 2; i++) {
+      StepVerifier.create(weatherCache.get("melbourne", key -> {
+            revalidations.incrementAndGet();
+            return upstream.asMono();
+          }))
+          .assertNext(cached -> {
+            assertThat(cached.getResponse()).isEqualTo(weatherResponse);
+            assertThat(cached.getAge(clock)).isEqualTo(Duration.ofSeconds(FRESH_TTL_SECONDS + 2));
+          })
+          .verifyComplete();
+    }
+    upstream.tryEmitValue(updatedResponse);
+
+    // Then
+    assertThat(revalidations).hasValue(1);
+    CachedWeather refreshed = weatherCache.getIfPresent("melbourne");
+    assertThat(refreshed.getResponse()).isEqualTo(updatedResponse);
+    assertThat(weatherCache.isFresh(refreshed)).isTrue();
+    assertThat(weatherCache.stats().staleHitCount()).isEqualTo(2);
+    assertThat(weatherCache.stats().revalidationSuccessCount()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that a failed revalidation keeps the stale entry available.
+   */
+  @Test
+  @DisplayName("Should keep stale entry when revalidation fails")
+  void shouldKeepStaleEntryWhenRevalidationFails() {
+    // Given
+    StepVerifier.create(weatherCache.get("melbourne", key -> Mono.just(weatherResponse)))
+        .expectNextCount(1)
+        .verifyComplete();
+    clock.advance(Duration.ofSeconds(FRESH_TTL_SECONDS + 1));
+
+    // When
+    StepVerifier.create(weatherCache.get("melbourne",
+            key -> Mono.error(new WeatherProviderException("Provider error"))))
+        .assertNext(cached -> assertThat(cached.getResponse()).isEqualTo(weatherResponse))
+        .verifyComplete();
+
+    // Then
+    assertThat(weatherCache.getIfPresent("melbourne").getResponse()).isEqualTo(weatherResponse);
+    assertThat(weatherCache.stats().revalidationFailureCount()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that a fresh read of a stale entry waits for the pending revalidation instead of returning the stale
+   * entry, and falls back to the stale entry when the reload fails.
+   */
+  @Test
+  @DisplayName("Should wait for revalidation on fresh reads")
+  void shouldWaitForRevalidationOnFreshReads() {
+    // Given
+    StepVerifier.create(weatherCache.get("melbourne", key -> Mono.just(weatherResponse)))
+        .expectNextCount(1)
+        .verifyComplete();
+    clock.advance(Duration.ofSeconds(FRESH_TTL_SECONDS + 1));
+
+    AtomicInteger revalidations = new AtomicInteger();
+    Sinks.One<WeatherResponse> upstream = Sinks.one();
+    StepVerifier.create(weatherCache.get("melbourne", key -> {
+          revalidations.incrementAndGet();
+          return upstream.asMono();
+        }))
+        .assertNext(cached -> assertThat(cached.getResponse()).isEqualTo(weatherResponse))
+        .verifyComplete();
+
+    // When & Then
+    StepVerifier.create(weatherCache.getFresh("melbourne", key -> {
+          revalidations.incrementAndGet();
+          return Mono.just(weatherResponse);
+        }))
+        .then(() -> upstream.tryEmitValue(updatedResponse))
+        .assertNext(cached -> {
+          assertThat(cached.getResponse()).isEqualTo(updatedResponse);
+          assertThat(weatherCache.isFresh(cached)).isTrue();
+        })
+        .verifyComplete();
+    assertThat(revalidations).hasValue(1);
+
+    clock.advance(Duration.ofSeconds(FRESH_TTL_SECONDS + 1));
+    StepVerifier.create(weatherCache.getFresh("melbourne",
+            key -> Mono.error(new WeatherProviderException("Provider error"))))
+        .expectError(WeatherProviderException.class)
+        .verify();
+  }
+
+  /**
+   * Tests that only recently read entries close to expiry are selected for refresh-ahead,
+   * and that a speculative refresh nobody read is counted as wasted.
+   */
+  @Test
+  @DisplayName("Should refresh hot entries ahead of expiry and count unread refreshes as wasted")
+  void shouldRefreshHotEntriesAheadOfExpiryAndCountWastedRefreshes() {
+    // Given
+    Duration refreshAhead = Duration.ofSeconds(1);
+    Duration accessWindow = Duration.ofSeconds(1);
+    StepVerifier.create(weatherCache.get("melbourne", key -> Mono.just(weatherResponse)))
+        .expectNextCount(1)
+        .verifyComplete();
+    StepVerifier.create(weatherCache.get("sydney", key -> Mono.just(weatherResponse)))
+        .expectNextCount(1)
+        .verifyComplete();
+    clock.advance(Duration.ofMillis(2500));
+    StepVerifier.create(weatherCache.get("melbourne", key -> Mono.just(weatherResponse)))
+        .expectNextCount(1)
+        .verifyComplete();
+
+    // When
+    assertThat(weatherCache.refreshAheadCandidates(refreshAhead, accessWindow)).containsExactly("melbourne");
+    StepVerifier.create(weatherCache.refresh("melbourne", key -> Mono.just(updatedResponse)))
+        .assertNext(cached -> assertThat(cached.getResponse()).isEqualTo(updatedResponse))
+        .verifyComplete();
+    clock.advance(Duration.ofSeconds(FRESH_TTL_SECONDS));
+
+    // Then
+    assertThat(weatherCache.refreshAheadCandidates(refreshAhead, accessWindow)).isEmpty();
+    WeatherCacheStats stats = weatherCache.stats();
+    assertThat(stats.refreshAheadIssuedCount()).isEqualTo(1);
+    assertThat(stats.refreshAheadWastedCount()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that a miss in one instance is answered from the shared tier written by another, without calling
+   * the loader again and with the original fetch time.
+   */
+  @Test
+  @DisplayName("Should answer misses from shared tier before loader")
+  void shouldAnswerMissesFromSharedTierBeforeLoader() {
+    // Given
+    InProcessSharedWeatherCache shared = new InProcessSharedWeatherCache(100);
+    WeatherCache first = new WeatherCache(Caffeine.newBuilder().buildAsync(), clock, Optional.of(shared),
+        FRESH_TTL_SECONDS);
+    WeatherCache second = new WeatherCache(Caffeine.newBuilder().buildAsync(), clock, Optional.of(shared),
+        FRESH_TTL_SECONDS);
+    AtomicInteger loads = new AtomicInteger();
+    StepVerifier.create(first.get("melbourne", key -> {
+          loads.incrementAndGet();
+          return Mono.just(weatherResponse);
+        }))
+        .expectNextCount(1)
+        .verifyComplete();
+    clock.advance(Duration.ofSeconds(1));
+
+    // When
+    StepVerifier.create(second.get("melbourne", key -> {
+          loads.incrementAndGet();
+          return Mono.just(updatedResponse);
+        }))
+        .assertNext(cached -> {
+          assertThat(cached.getResponse()).isEqualTo(weatherResponse);
+          assertThat(cached.getAge(clock)).isEqualTo(Duration.ofSeconds(1));
+        })
+        .verifyComplete();
+
+    // Then
+    assertThat(loads).hasValue(1);
+    assertThat(first.sharedStats().missCount()).isEqualTo(1);
+    assertThat(first.sharedStats().writeCount()).isEqualTo(1);
+    assertThat(second.sharedStats().hitCount()).isEqualTo(1);
+    assertThat(second.sharedStats().hitRatio()).isEqualTo(1.0);
+    assertThat(second.getIfPresent("melbourne").getResponse()).isEqualTo(weatherResponse);
+  }
+
+  /**
+   * Tests that a refresh takes a shared entry fetched after the local one, and otherwise reloads and writes the
+   * result to the shared tier.
+   */
+  @Test
+  @DisplayName("Should refresh from newer shared entry or reload")
+  void shouldRefreshFromNewerSharedEntryOrReload() {
+    // Given
+    InProcessSharedWeatherCache shared = new InProcessSharedWeatherCache(100);
+    WeatherCache first = new WeatherCache(Caffeine.newBuilder().buildAsync(), clock, Optional.of(shared),
+        FRESH_TTL_SECONDS);
+    WeatherCache second = new WeatherCache(Caffeine.newBuilder().buildAsync(), clock, Optional.of(shared),
+        FRESH_TTL_SECONDS);
+    AtomicInteger loads = new AtomicInteger();
+    StepVerifier.create(first.get("melbourne", key -> {
+          loads.incrementAndGet();
+          return Mono.just(weatherResponse);
+        }))
+        .expectNextCount(1)
+        .verifyComplete();
+    StepVerifier.create(second.get("melbourne", key -> Mono.just(weatherResponse)))
+        .expectNextCount(1)
+        .verifyComplete();
+    clock.advance(Duration.ofSeconds(1));
+    StepVerifier.create(first.refresh("melbourne", key -> {
+          loads.incrementAndGet();
+          return Mono.just(updatedResponse);
+        }))
+        .assertNext(cached -> assertThat(cached.getResponse()).isEqualTo(updatedResponse))
+        .verifyComplete();
+
+    // When
+    StepVerifier.create(second.refresh("melbourne", key -> {
+          loads.incrementAndGet();
+          return Mono.just(weatherResponse);
+        }))
+        .assertNext(cached -> assertThat(cached.getResponse()).isEqualTo(updatedResponse))
+        .verifyComplete();
+
+    // Then
+    assertThat(loads).hasValue(2);
+    assertThat(second.getIfPresent("melbourne").getAge(clock)).isZero();
+  }
+
+  /**
+   * Tests that stale shared entries and shared tier failures fall through to the loader.
+   */
+  @Test
+  @DisplayName("Should load when shared entry is stale or shared tier fails")
+  void shouldLoadWhenSharedEntryIsStaleOrSharedTierFails() {
+    // Given
+    InProcessSharedWeatherCache shared = new InProcessSharedWeatherCache(100);
+    shared.put("melbourne", new CachedWeather(updatedResponse, clock.instant().minusSeconds(FRESH_TTL_SECONDS)),
+        Duration.ofMinutes(1)).block();
+    WeatherCache staleTier = new WeatherCache(Caffeine.newBuilder().buildAsync(), clock, Optional.of(shared),
+        FRESH_TTL_SECONDS);
+    WeatherCache failingTier = new WeatherCache(Caffeine.newBuilder().buildAsync(), clock,
+        Optional.of(new FailingSharedWeatherCache()), FRESH_TTL_SECONDS);
+
+    // When & Then
+    StepVerifier.create(staleTier.get("melbourne", key -> Mono.just(weatherResponse)))
+        .assertNext(cached -> assertThat(cached.getResponse()).isEqualTo(weatherResponse))
+        .verifyComplete();
+    assertThat(staleTier.sharedStats().missCount()).isEqualTo(1);
+
+    StepVerifier.create(failingTier.get("melbourne", key -> Mono.just(weatherResponse)))
+        .assertNext(cached -> assertThat(cached.getResponse()).isEqualTo(weatherResponse))
+        .verifyComplete();
+    SharedWeatherCacheStats stats = failingTier.sharedStats();
+    assertThat(stats.errorCount()).isEqualTo(1);
+    assertThat(stats.writeFailureCount()).isEqualTo(1);
+    assertThat(failingTier.stats().loadSuccessCount()).isEqualTo(1);
+  }
+
+  /**
+   * A shared tier whose server cannot be reached.
+   */
+  private static final class FailingSharedWeatherCache implements SharedWeatherCache {
+
+    @Override
+    public Mono<CachedWeather> get(String key) {
+      return Mono.error(new IOException("Connection refused"));
+    }
+
+    @Override
+    public Mono<Void> put(String key, CachedWeather entry, Duration timeToLive) {
+      return Mono.error(new IOException("Connection refused"));
+    }
+  }
+}
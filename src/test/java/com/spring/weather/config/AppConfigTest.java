@@ -3,11 +3,13 @@ package com.spring.weather.config;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.spring.weather.cache.CachedWeather;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.test.util.ReflectionTestUtils;
 
 /**
  * Unit tests for the AppConfig class.
@@ -15,18 +17,6 @@ import org.springframework.web.reactive.function.client.WebClient;
  */
 class AppConfigTest {
 
-  /**
-   * Tests that the WebClient bean is created successfully.
-   * Ensures that the returned WebClient instance is not null.
-   */
-  @DisplayName("Creates WebClient bean successfully")
-  @Test
-  void createsWebClientBeanSuccessfully() {
-    AppConfig appConfig = new AppConfig();
-    WebClient webClient = appConfig.webClient();
-    assertNotNull(webClient);
-  }
-
   /**
    * Tests that the CacheManager bean is created with the correct configuration.
    * Verifies that the CacheManager is of type CaffeineCacheManager and has the expected cache name.
@@ -35,10 +25,22 @@ class AppConfigTest {
   @Test
   void createsCacheManagerBeanWithCorrectCacheName() {
     AppConfig appConfig = new AppConfig();
-    CacheManager cacheManager = appConfig.cacheManager();
+    CacheManager cacheManager = appConfig.cacheManager(appConfig.weatherAsyncCache(appConfig.clock()));
     assertNotNull(cacheManager);
     assertEquals(CaffeineCacheManager.class, cacheManager.getClass());
     assertEquals("weatherCache", ((CaffeineCacheManager) cacheManager).getCacheNames().iterator().next());
   }
 
+  /**
+   * Tests that the weather cache is bounded by the configured maximum size.
+   */
+  @DisplayName("Bounds the weather cache by the configured maximum size")
+  @Test
+  void boundsWeatherCacheByConfiguredMaximumSize() {
+    AppConfig appConfig = new AppConfig();
+    ReflectionTestUtils.setField(appConfig, "cacheMaxSize", 500L);
+    AsyncCache<String, CachedWeather> cache = appConfig.weatherAsyncCache(appConfig.clock());
+    assertEquals(500L, cache.synchronous().policy().eviction().orElseThrow().getMaximum());
+  }
+
 }
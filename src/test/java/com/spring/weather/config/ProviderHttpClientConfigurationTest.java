@@ -0,0 +1,112 @@
+package com.spring.weather.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.test.StepVerifier;
+
+/**
+ * Unit tests for the ProviderHttpClientConfiguration and ProviderConnectionWarmer classes.
+ * Verifies how pool settings are resolved and that connections are opened at startup.
+ */
+class ProviderHttpClientConfigurationTest {
+
+  private MockWebServer mockWebServer;
+  private MockEnvironment environment;
+
+  /**
+   * Starts a mock provider server before each test.
+   *
+   * @throws IOException if the server cannot be started
+   */
+  @BeforeEach
+  void setUp() throws IOException {
+    mockWebServer = new MockWebServer();
+    mockWebServer.start();
+    environment = new MockEnvironment();
+    environment.setConversionService(new ApplicationConversionService());
+  }
+
+  /**
+   * Stops the mock provider server after each test.
+   *
+   * @throws IOException if the server cannot be stopped
+   */
+  @AfterEach
+  void tearDown() throws IOException {
+    mockWebServer.shutdown();
+  }
+
+  /**
+   * Tests that provider specific settings override shared settings, which override the defaults.
+   */
+  @Test
+  @DisplayName("Resolves provider settings before shared settings and defaults")
+  void resolvesProviderSettingsBeforeSharedSettingsAndDefaults() {
+    // Given
+    environment.setProperty("weather.http.max.connections", "20");
+    environment.setProperty("weather.http.weatherstack.max.connections", "80");
+    environment.setProperty("weather.http.weatherstack.response.timeout", "750ms");
+
+    // When
+    HttpClientSettings weatherStack = HttpClientSettings.from(environment, "weatherstack");
+    HttpClientSettings openWeatherMap = HttpClientSettings.from(environment, "openweathermap");
+
+    // Then
+    assertThat(weatherStack.maxConnections()).isEqualTo(80);
+    assertThat(weatherStack.responseTimeout()).isEqualTo(Duration.ofMillis(750));
+    assertThat(openWeatherMap.maxConnections()).isEqualTo(20);
+    assertThat(openWeatherMap.responseTimeout()).isEqualTo(Duration.ofSeconds(5));
+  }
+
+  /**
+   * Tests that the warmer opens the configured number of connections to the provider.
+   *
+   * @throws InterruptedException if interrupted while reading the recorded requests
+   */
+  @Test
+  @DisplayName("Opens configured number of connections at startup")
+  void opensConfiguredNumberOfConnectionsAtStartup() throws InterruptedException {
+    // Given
+    environment.setProperty("weather.http.weatherstack.warmup.connections", "2");
+    environment.setProperty("weather.http.openweathermap.warmup.connections", "0");
+    mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+    mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+
+    HttpClientSettings settings = HttpClientSettings.from(environment, "weatherstack");
+    ConnectionProvider connectionProvider =
+        ProviderHttpClientConfiguration.createConnectionProvider("weatherstack-test", settings);
+    HttpClient httpClient = ProviderHttpClientConfiguration.createHttpClient(
+        connectionProvider, settings, mockWebServer.url("/").toString());
+    ProviderConnectionWarmer warmer =
+        new ProviderConnectionWarmer(httpClient, httpClient, environment, Duration.ofSeconds(5));
+
+    try {
+      // When
+      StepVerifier.create(warmer.warmUp("weatherstack", httpClient))
+          .verifyComplete();
+
+      // Then
+      assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+      RecordedRequest request = mockWebServer.takeRequest();
+      assertThat(request.getMethod()).isEqualTo("HEAD");
+      StepVerifier.create(warmer.warmUp("openweathermap", httpClient))
+          .verifyComplete();
+      assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+    } finally {
+      connectionProvider.dispose();
+    }
+  }
+}
@@ -1,22 +1,41 @@
 package com.spring.weather.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.weather.cache.CachedWeather;
+import com.spring.weather.cache.WeatherResponseEncoder;
+import com.spring.weather.dto.CityWeatherResult;
 import com.spring.weather.dto.WeatherResponse;
 import com.spring.weather.exception.ExternalRequestException;
 import com.spring.weather.exception.GlobalExceptionHandler;
 import com.spring.weather.exception.InvalidAccessKeyException;
 import com.spring.weather.service.WeatherService;
+import com.spring.weather.service.WeatherUpdateStreams;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.FluxExchangeResult;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 /**
  * Unit tests for the WeatherController class.
@@ -25,10 +44,18 @@ import reactor.core.publisher.Mono;
 @ExtendWith(MockitoExtension.class)
 public class WeatherControllerTest {
 
+  private static final Instant NOW = Instant.parse("2025-05-11T01:00:00Z");
+
   @Mock
   private WeatherService weatherService;
 
-  @InjectMocks
+  @Mock
+  private WeatherUpdateStreams updateStreams;
+
+  private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+  private final HttpCachePolicy cachePolicy = new HttpCachePolicy(clock, 3, 600);
+
   private WeatherController weatherController;
 
   private WebTestClient webTestClient;
@@ -39,6 +66,8 @@ public class WeatherControllerTest {
    */
   @BeforeEach
   public void setup() {
+    weatherController = new WeatherController(weatherService, cachePolicy,
+        new WeatherResponseEncoder(new ObjectMapper(), false), updateStreams);
     webTestClient = WebTestClient.bindToController(weatherController)
         .controllerAdvice(new GlobalExceptionHandler())
         .build();
@@ -53,7 +82,8 @@ public class WeatherControllerTest {
   public void shouldReturnWeatherData() {
     // Given
     WeatherResponse weatherResponse = new WeatherResponse(20.0, 29.0);
-    when(weatherService.getWeatherData(anyString())).thenReturn(Mono.just(weatherResponse));
+    when(weatherService.getCachedWeatherData(anyString()))
+        .thenReturn(Mono.just(new CachedWeather(weatherResponse, NOW)));
 
     // When & Then
     webTestClient.get()
@@ -65,6 +95,266 @@ public class WeatherControllerTest {
         .jsonPath("$.temperature_degrees").isEqualTo(29.0);
   }
 
+  /**
+   * Tests that the response carries the age of the cached weather data.
+   * Verifies that the Age header reports the seconds elapsed since the data was fetched.
+   */
+  @Test
+  @DisplayName("Should return Age header for cached weather data")
+  public void shouldReturnAgeHeaderForCachedWeatherData() {
+    // Given
+    WeatherResponse weatherResponse = new WeatherResponse(20.0, 29.0);
+    when(weatherService.getCachedWeatherData(anyString()))
+        .thenReturn(Mono.just(new CachedWeather(weatherResponse, NOW.minusSeconds(42))));
+
+    // When & Then
+    webTestClient.get()
+        .uri("/v1/weather?city=Melbourne")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().valueEquals("Age", "42")
+        .expectBody()
+        .jsonPath("$.temperature_degrees").isEqualTo(29.0);
+  }
+
+  /**
+   * Tests that a fresh response carries its remaining fresh and stale windows and a strong entity tag.
+   */
+  @Test
+  @DisplayName("Should return caching headers for fresh weather data")
+  public void shouldReturnCachingHeadersForFreshWeatherData() {
+    // Given
+    CachedWeather cached = new CachedWeather(new WeatherResponse(20.0, 29.0), NOW.minusSeconds(1));
+    when(weatherService.getCachedWeatherData(anyString())).thenReturn(Mono.just(cached));
+
+    // When & Then
+    webTestClient.get()
+        .uri("/v1/weather?city=Melbourne")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "max-age=2, stale-if-error=602")
+        .expectHeader().valueEquals(HttpHeaders.AGE, "1")
+        .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + cached.getEntityTag() + "\"");
+  }
+
+  /**
+   * Tests that a stale response must be revalidated but may still be served by caches while the service fails.
+   */
+  @Test
+  @DisplayName("Should mark stale weather data for revalidation with stale-if-error")
+  public void shouldMarkStaleWeatherDataForRevalidationWithStaleIfError() {
+    // Given
+    when(weatherService.getCachedWeatherData(anyString()))
+        .thenReturn(Mono.just(new CachedWeather(new WeatherResponse(20.0, 29.0), NOW.minusSeconds(42))));
+
+    // When & Then
+    webTestClient.get()
+        .uri("/v1/weather?city=Melbourne")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "max-age=0, stale-if-error=561");
+  }
+
+  /**
+   * Tests that a conditional request for the current representation is answered with 304 and no body, and that
+   * the tag survives a reload that returns the same values.
+   */
+  @Test
+  @DisplayName("Should return 304 when If-None-Match lists current entity tag")
+  public void shouldReturnNotModifiedWhenIfNoneMatchListsCurrentEntityTag() {
+    // Given
+    CachedWeather reloaded = new CachedWeather(new WeatherResponse(20.0, 29.0), NOW);
+    String entityTag = "\"" + new CachedWeather(new WeatherResponse(20.0, 29.0), NOW.minusSeconds(60))
+        .getEntityTag() + "\"";
+    when(weatherService.getCachedWeatherData(anyString())).thenReturn(Mono.just(reloaded));
+
+    // When & Then
+    webTestClient.get()
+        .uri("/v1/weather?city=Melbourne")
+        .header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + entityTag)
+        .exchange()
+        .expectStatus().isNotModified()
+        .expectHeader().valueEquals(HttpHeaders.ETAG, entityTag)
+        .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "max-age=3, stale-if-error=603")
+        .expectBody().isEmpty();
+
+    webTestClient.get()
+        .uri("/v1/weather?city=Melbourne")
+        .header(HttpHeaders.IF_NONE_MATCH, "\"other\"")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.temperature_degrees").isEqualTo(29.0);
+  }
+
+  /**
+   * Tests that the entity tag changes with the weather values.
+   */
+  @Test
+  @DisplayName("Should derive entity tag from weather values")
+  public void shouldDeriveEntityTagFromWeatherValues() {
+    // Given
+    CachedWeather cached = new CachedWeather(new WeatherResponse(20.0, 29.0), NOW);
+
+    // When & Then
+    assertThat(cachePolicy.entityTag(cached, false))
+        .isEqualTo(cachePolicy.entityTag(new CachedWeather(new WeatherResponse(20.0, 29.0), NOW), false))
+        .isNotEqualTo(cachePolicy.entityTag(new CachedWeather(new WeatherResponse(20.0, 29.5), NOW), false))
+        .isNotEqualTo(cachePolicy.entityTag(cached, true));
+    assertThat(HttpCachePolicy.matches("*", cachePolicy.entityTag(cached, false))).isTrue();
+    assertThat(HttpCachePolicy.matches(null, cachePolicy.entityTag(cached, false))).isFalse();
+  }
+
+  /**
+   * Tests that the memoized gzip body is written when compression is enabled and the client accepts gzip.
+   *
+   * @throws IOException if the body cannot be decompressed
+   */
+  @Test
+  @DisplayName("Should return gzip body when client accepts gzip")
+  public void shouldReturnGzipBodyWhenClientAcceptsGzip() throws IOException {
+    // Given
+    WebTestClient client = WebTestClient.bindToController(new WeatherController(weatherService, cachePolicy,
+            new WeatherResponseEncoder(new ObjectMapper(), true), updateStreams))
+        .build();
+    when(weatherService.getCachedWeatherData(anyString()))
+        .thenReturn(Mono.just(new CachedWeather(new WeatherResponse(20.0, 29.0), NOW)));
+
+    // When
+    byte[] body = client.get()
+        .uri("/v1/weather?city=Melbourne")
+        .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+        .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+        .expectBody(byte[].class)
+        .returnResult()
+        .getResponseBody();
+
+    // Then
+    try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8))
+          .isEqualTo("{\"wind_speed\":20.0,\"temperature_degrees\":29.0}");
+    }
+  }
+
+  /**
+   * Tests that the plain JSON body is written when the client does not accept gzip.
+   */
+  @Test
+  @DisplayName("Should return plain JSON when client does not accept gzip")
+  public void shouldReturnPlainJsonWhenClientDoesNotAcceptGzip() {
+    // Given
+    WebTestClient client = WebTestClient.bindToController(new WeatherController(weatherService, cachePolicy,
+            new WeatherResponseEncoder(new ObjectMapper(), true), updateStreams))
+        .build();
+    when(weatherService.getCachedWeatherData(anyString()))
+        .thenReturn(Mono.just(new CachedWeather(new WeatherResponse(20.0, 29.0), NOW)));
+
+    // When & Then
+    client.get()
+        .uri("/v1/weather?city=Melbourne")
+        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+        .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+        .expectBody(String.class)
+        .isEqualTo("{\"wind_speed\":20.0,\"temperature_degrees\":29.0}");
+  }
+
+  /**
+   * Tests that the encoded body of a cached entry is reused by later requests.
+   */
+  @Test
+  @DisplayName("Should reuse encoded body of cached weather data")
+  public void shouldReuseEncodedBodyOfCachedWeatherData() {
+    // Given
+    CachedWeather cached = new CachedWeather(new WeatherResponse(20.0, 29.0), NOW);
+    when(weatherService.getCachedWeatherData(anyString())).thenReturn(Mono.just(cached));
+
+    // When
+    webTestClient.get().uri("/v1/weather?city=Melbourne").exchange().expectStatus().isOk();
+    byte[] first = cached.getEncoded(new WeatherResponseEncoder(new ObjectMapper(), false)).json();
+    webTestClient.get().uri("/v1/weather?city=Melbourne").exchange().expectStatus().isOk();
+
+    // Then
+    assertThat(cached.getEncoded(new WeatherResponseEncoder(new ObjectMapper(), false)).json()).isSameAs(first);
+  }
+
+  /**
+   * Tests that a batch request streams one NDJSON result per city, including inline errors.
+   */
+  @Test
+  @DisplayName("Should stream batch results as NDJSON")
+  public void shouldStreamBatchResultsAsNdjson() {
+    // Given
+    when(weatherService.getWeatherDataForCities(List.of("Melbourne", "Atlantis")))
+        .thenReturn(Flux.just(
+            CityWeatherResult.success("Melbourne", new WeatherResponse(20.0, 29.0)),
+            CityWeatherResult.failure("Atlantis", "Missing or invalid location query")));
+
+    // When & Then
+    webTestClient.post()
+        .uri("/v1/weather/batch")
+        .contentType(MediaType.APPLICATION_JSON)
+        .accept(MediaType.APPLICATION_NDJSON)
+        .bodyValue(List.of("Melbourne", "Atlantis"))
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+        .expectBody(String.class)
+        .isEqualTo("{\"city\":\"Melbourne\",\"wind_speed\":20.0,\"temperature_degrees\":29.0}\n"
+            + "{\"city\":\"Atlantis\",\"error\":\"Missing or invalid location query\"}\n");
+  }
+
+  /**
+   * Tests that a stream subscription sends each update as a server-sent event.
+   */
+  @Test
+  @DisplayName("Should stream weather updates as server-sent events")
+  public void shouldStreamWeatherUpdatesAsServerSentEvents() {
+    // Given
+    when(updateStreams.subscribe(List.of("Melbourne", "Atlantis")))
+        .thenReturn(Flux.just(
+            CityWeatherResult.success("Melbourne", new WeatherResponse(20.0, 29.0)),
+            CityWeatherResult.failure("Atlantis", "Unknown city: Atlantis")));
+    when(updateStreams.getHeartbeatInterval()).thenReturn(Duration.ofMinutes(1));
+
+    // When
+    FluxExchangeResult<String> result = webTestClient.get()
+        .uri("/v1/weather/stream?city=Melbourne&city=Atlantis")
+        .accept(MediaType.TEXT_EVENT_STREAM)
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+        .returnResult(String.class);
+
+    // Then
+    StepVerifier.create(result.getResponseBody())
+        .expectNext("{\"city\":\"Melbourne\",\"wind_speed\":20.0,\"temperature_degrees\":29.0}")
+        .expectNext("{\"city\":\"Atlantis\",\"error\":\"Unknown city: Atlantis\"}")
+        .thenCancel()
+        .verify();
+  }
+
+  /**
+   * Tests that a missing city parameter is reported with the same error body as on the servlet stack.
+   */
+  @Test
+  @DisplayName("Should return 400 when the city parameter is missing")
+  public void shouldReturnBadRequestWhenCityParameterIsMissing() {
+    // When & Then
+    webTestClient.get()
+        .uri("/v1/weather")
+        .exchange()
+        .expectStatus().isBadRequest()
+        .expectBody()
+        .jsonPath("$.status").isEqualTo(400)
+        .jsonPath("$.message").isEqualTo("Missing required parameter: city");
+  }
+
   /**
    * Tests the scenario where an invalid API key is used.
    * Verifies that a 401 status and appropriate error message are returned.
@@ -72,7 +362,7 @@ public class WeatherControllerTest {
   @Test
   @DisplayName("Should return 401 for an invalid API key")
   public void shouldReturn401ForInvalidApiKey() {
-    when(weatherService.getWeatherData("melbourne"))
+    when(weatherService.getCachedWeatherData("melbourne"))
         .thenReturn(Mono.error(new InvalidAccessKeyException("Invalid API access key provided")));
 
     webTestClient.get()
@@ -0,0 +1,132 @@
+package com.spring.weather.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.spring.weather.dto.WeatherHistoryBucket;
+import com.spring.weather.exception.GlobalExceptionHandler;
+import com.spring.weather.history.WeatherHistory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit tests for the WeatherHistoryController class.
+ * Verifies how the query parameters are parsed and how invalid queries are rejected.
+ */
+@ExtendWith(MockitoExtension.class)
+class WeatherHistoryControllerTest {
+
+  private static final Instant NOW = Instant.parse("2025-05-11T01:00:00Z");
+
+  @Mock
+  private WeatherHistory weatherHistory;
+
+  private WebTestClient webTestClient;
+
+  /**
+   * Sets up the WebTestClient with the WeatherHistoryController and GlobalExceptionHandler.
+   */
+  @BeforeEach
+  void setup() {
+    WeatherHistoryController controller = new WeatherHistoryController(weatherHistory,
+        Clock.fixed(NOW, ZoneOffset.UTC));
+    webTestClient = WebTestClient.bindToController(controller)
+        .controllerAdvice(new GlobalExceptionHandler())
+        .build();
+  }
+
+  /**
+   * Tests that the buckets of the requested range are returned with their aggregates.
+   */
+  @Test
+  @DisplayName("Should return history buckets for the requested range")
+  void shouldReturnHistoryBucketsForTheRequestedRange() {
+    // Given
+    Instant from = Instant.parse("2025-05-01T00:00:00Z");
+    Instant to = Instant.parse("2025-05-03T00:00:00Z");
+    when(weatherHistory.query("Melbourne", from, to, Duration.ofDays(1))).thenReturn(Mono.just(List.of(
+        new WeatherHistoryBucket(from, 4, 12.0, 18.0, 15.0, 3.0, 9.0, 6.0))));
+
+    // When & Then
+    webTestClient.get()
+        .uri("/v1/weather/history?city=Melbourne&from=2025-05-01T00:00:00Z&to=2025-05-03T00:00:00Z&bucket=1d")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.length()").isEqualTo(1)
+        .jsonPath("$[0].bucket_start").isEqualTo("2025-05-01T00:00:00Z")
+        .jsonPath("$[0].samples").isEqualTo(4)
+        .jsonPath("$[0].temperature_min").isEqualTo(12.0)
+        .jsonPath("$[0].temperature_max").isEqualTo(18.0)
+        .jsonPath("$[0].temperature_avg").isEqualTo(15.0)
+        .jsonPath("$[0].wind_speed_avg").isEqualTo(6.0);
+  }
+
+  /**
+   * Tests that without a range the last day is returned in hourly buckets.
+   */
+  @Test
+  @DisplayName("Should default to the last day in hourly buckets")
+  void shouldDefaultToTheLastDayInHourlyBuckets() {
+    // Given
+    when(weatherHistory.query(anyString(), any(), any(), any())).thenReturn(Mono.just(List.of()));
+
+    // When
+    webTestClient.get()
+        .uri("/v1/weather/history?city=Melbourne")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .json("[]");
+
+    // Then
+    verify(weatherHistory).query("Melbourne", NOW.minus(Duration.ofDays(1)), NOW, Duration.ofHours(1));
+  }
+
+  /**
+   * Tests that a malformed instant is rejected without querying the history.
+   */
+  @Test
+  @DisplayName("Should reject malformed instants")
+  void shouldRejectMalformedInstants() {
+    // When & Then
+    webTestClient.get()
+        .uri("/v1/weather/history?city=Melbourne&from=yesterday")
+        .exchange()
+        .expectStatus().isBadRequest();
+    verifyNoInteractions(weatherHistory);
+  }
+
+  /**
+   * Tests that a range or bucket the history rejects is answered with 400.
+   */
+  @Test
+  @DisplayName("Should reject invalid ranges and buckets")
+  void shouldRejectInvalidRangesAndBuckets() {
+    // Given
+    when(weatherHistory.query(anyString(), any(), any(), any()))
+        .thenReturn(Mono.error(new IllegalArgumentException("Bucket must be a positive whole number of hours")));
+
+    // When & Then
+    webTestClient.get()
+        .uri("/v1/weather/history?city=Melbourne&bucket=30m")
+        .exchange()
+        .expectStatus().isBadRequest()
+        .expectBody()
+        .jsonPath("$.message").isEqualTo("Bucket must be a positive whole number of hours");
+  }
+}
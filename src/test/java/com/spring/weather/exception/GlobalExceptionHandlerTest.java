@@ -5,10 +5,13 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.reactive.resource.NoResourceFoundException;
 
+import java.time.Duration;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -88,4 +91,38 @@ class GlobalExceptionHandlerTest {
     Map<String, Object> body = (Map<String, Object>) response.getBody();
     assertEquals("An unexpected error occurred", body.get("message"));
   }
+
+  /**
+   * Tests the handling of the reactive NoResourceFoundException.
+   * Verifies that the response keeps the NOT_FOUND status and the reason of the exception.
+   */
+  @DisplayName("Handles reactive NoResourceFoundException and returns NOT_FOUND status")
+  @org.junit.jupiter.api.Test
+  void handlesReactiveNoResourceFoundExceptionAndReturnsNotFoundStatus() {
+    NoResourceFoundException exception = new NoResourceFoundException("v2/weather");
+
+    ResponseEntity<Object> response = globalExceptionHandler.handleResponseStatusException(exception);
+
+    assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    Map<String, Object> body = (Map<String, Object>) response.getBody();
+    assertEquals(exception.getReason(), body.get("message"));
+  }
+
+  /**
+   * Tests the handling of ServiceOverloadedException.
+   * Verifies that the response contains a SERVICE_UNAVAILABLE status and a Retry-After header.
+   */
+  @DisplayName("Handles ServiceOverloadedException and returns SERVICE_UNAVAILABLE status with Retry-After")
+  @org.junit.jupiter.api.Test
+  void handlesServiceOverloadedExceptionAndReturnsServiceUnavailableWithRetryAfter() {
+    ServiceOverloadedException exception =
+        new ServiceOverloadedException("Too many upstream requests in flight", Duration.ofSeconds(2));
+
+    ResponseEntity<Object> response = globalExceptionHandler.handleServiceOverloadedException(exception);
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    Map<String, Object> body = (Map<String, Object>) response.getBody();
+    assertEquals("Too many upstream requests in flight", body.get("message"));
+  }
 }
\ No newline at end of file
@@ -0,0 +1,201 @@
+package com.spring.weather.factory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import com.spring.weather.dto.WeatherResponse;
+import com.spring.weather.exception.MissingQueryException;
+import com.spring.weather.exception.ProviderBudgetExhaustedException;
+import com.spring.weather.exception.WeatherServiceException;
+import com.spring.weather.provider.WeatherProvider;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/**
+ * Unit tests for the ProviderScoreboard class.
+ * Verifies how latency and failures reorder providers and how demoted providers are probed.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProviderScoreboardTest {
+
+  @Mock
+  private Clock clock;
+
+  @Mock
+  private WeatherProvider primaryProvider;
+
+  @Mock
+  private WeatherProvider secondaryProvider;
+
+  private ProviderScoreboard scoreboard;
+  private List<WeatherProvider> providersByPriority;
+
+  /**
+   * Creates an enabled scoreboard with a 25% tolerance and a 10 second probe interval before each test.
+   */
+  @BeforeEach
+  void setUp() {
+    lenient().when(clock.millis()).thenReturn(1_000L);
+    lenient().when(primaryProvider.getProviderName()).thenReturn("Primary");
+    lenient().when(primaryProvider.getPriority()).thenReturn(1);
+    lenient().when(secondaryProvider.getProviderName()).thenReturn("Secondary");
+    lenient().when(secondaryProvider.getPriority()).thenReturn(2);
+    scoreboard = new ProviderScoreboard(clock, true, 10, 0.25, 10, 5000);
+    providersByPriority = List.of(primaryProvider, secondaryProvider);
+  }
+
+  /**
+   * Tests that a provider clearly slower than a lower-priority provider is moved behind it.
+   */
+  @Test
+  @DisplayName("Should route around a slow primary provider")
+  void shouldRouteAroundSlowPrimaryProvider() {
+    // Given
+    scoreboard.record(primaryProvider, 900, true);
+    scoreboard.record(secondaryProvider, 150, true);
+
+    // When
+    List<WeatherProvider> ranked = scoreboard.rank(providersByPriority);
+
+    // Then
+    assertThat(ranked).containsExactly(secondaryProvider, primaryProvider);
+    assertThat(scoreboard.scores(providersByPriority))
+        .extracting(ProviderScore::provider, ProviderScore::rank)
+        .containsExactly(
+            tuple("Secondary", 1),
+            tuple("Primary", 2));
+  }
+
+  /**
+   * Tests that latency differences within the tolerance keep the static priority order.
+   */
+  @Test
+  @DisplayName("Should keep priority order when costs are within tolerance")
+  void shouldKeepPriorityOrderWithinTolerance() {
+    // Given
+    scoreboard.record(primaryProvider, 120, true);
+    scoreboard.record(secondaryProvider, 100, true);
+
+    // When & Then
+    assertThat(scoreboard.rank(providersByPriority)).containsExactly(primaryProvider, secondaryProvider);
+  }
+
+  /**
+   * Tests that a fast but failing provider is penalised by its success rate.
+   */
+  @Test
+  @DisplayName("Should penalise providers that fail")
+  void shouldPenaliseProvidersThatFail() {
+    // Given
+    scoreboard.record(primaryProvider, 50, true);
+    for (int i = 0; i < 30; i++) {
+      scoreboard.record(primaryProvider, 50, false);
+    }
+    scoreboard.record(secondaryProvider, 200, true);
+
+    // When & Then
+    assertThat(scoreboard.rank(providersByPriority)).containsExactly(secondaryProvider, primaryProvider);
+  }
+
+  /**
+   * Tests that a provider failing within a millisecond is not ranked ahead of a slower provider that answers.
+   */
+  @Test
+  @DisplayName("Should route around a provider that fails fast")
+  void shouldRouteAroundProviderThatFailsFast() {
+    // Given
+    scoreboard.record(primaryProvider, 50, true);
+    for (int i = 0; i < 30; i++) {
+      StepVerifier.create(scoreboard.track(primaryProvider,
+              Mono.<WeatherResponse>error(new WeatherServiceException("Weather service error: connection refused"))))
+          .expectError(WeatherServiceException.class)
+          .verify();
+    }
+    scoreboard.record(secondaryProvider, 200, true);
+
+    // When & Then
+    assertThat(scoreboard.rank(providersByPriority)).containsExactly(secondaryProvider, primaryProvider);
+  }
+
+  /**
+   * Tests that unknown cities and budget refusals are not counted as failures of the provider.
+   */
+  @Test
+  @DisplayName("Should keep order when calls fail for unknown cities or the budget")
+  void shouldKeepOrderWhenCallsFailForUnknownCitiesOrBudget() {
+    // Given
+    scoreboard.record(primaryProvider, 100, true);
+    scoreboard.record(secondaryProvider, 100, true);
+    for (int i = 0; i < 30; i++) {
+      StepVerifier.create(scoreboard.track(primaryProvider,
+              Mono.<WeatherResponse>error(new MissingQueryException("Missing or invalid location query"))))
+          .expectError(MissingQueryException.class)
+          .verify();
+      StepVerifier.create(scoreboard.track(primaryProvider,
+              Mono.<WeatherResponse>error(new ProviderBudgetExhaustedException("Primary call budget exhausted"))))
+          .expectError(ProviderBudgetExhaustedException.class)
+          .verify();
+    }
+
+    // When & Then
+    assertThat(scoreboard.rank(providersByPriority)).containsExactly(primaryProvider, secondaryProvider);
+    assertThat(scoreboard.scores(providersByPriority))
+        .extracting(ProviderScore::provider, ProviderScore::samples)
+        .containsExactly(
+            tuple("Primary", 1L),
+            tuple("Secondary", 1L));
+  }
+
+  /**
+   * Tests that a call cancelled by a hedge raises the latency average without counting as a success.
+   */
+  @Test
+  @DisplayName("Should not credit cancelled calls as successes")
+  void shouldNotCreditCancelledCallsAsSuccesses() {
+    // Given
+    scoreboard = new ProviderScoreboard(clock, true, 10, 0.25, 10, 0);
+    scoreboard.record(primaryProvider, 0, false);
+
+    // When
+    StepVerifier.create(scoreboard.track(primaryProvider, Mono.<WeatherResponse>never()))
+        .thenAwait(Duration.ofMillis(10))
+        .thenCancel()
+        .verify();
+
+    // Then
+    assertThat(scoreboard.scores(providersByPriority))
+        .filteredOn(score -> score.provider().equals("Primary"))
+        .singleElement()
+        .satisfies(score -> {
+          assertThat(score.successRate()).isZero();
+          assertThat(score.samples()).isEqualTo(2);
+        });
+  }
+
+  /**
+   * Tests that a demoted provider is tried first once per probe interval.
+   */
+  @Test
+  @DisplayName("Should probe a demoted provider once per interval")
+  void shouldProbeDemotedProviderOncePerInterval() {
+    // Given
+    scoreboard.record(primaryProvider, 900, true);
+    scoreboard.record(secondaryProvider, 150, true);
+    when(clock.millis()).thenReturn(12_000L);
+
+    // When & Then
+    assertThat(scoreboard.rank(providersByPriority)).containsExactly(primaryProvider, secondaryProvider);
+    assertThat(scoreboard.rank(providersByPriority)).containsExactly(secondaryProvider, primaryProvider);
+  }
+}
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
 import com.spring.weather.provider.WeatherProvider;
+import java.time.Clock;
 import java.util.Arrays;
 import java.util.List;
 import org.junit.jupiter.api.DisplayName;
@@ -86,4 +87,29 @@ class WeatherProviderFactoryTest {
     // Then
     assertThat(providers).isEmpty();
   }
+
+  /**
+   * Tests that the factory returns the scoreboard order when adaptive routing is enabled.
+   */
+  @Test
+  @DisplayName("Should order providers by live scores when adaptive routing is enabled")
+  void shouldOrderProvidersByLiveScores() {
+    // Given
+    when(primaryProvider.getPriority()).thenReturn(1);
+    when(primaryProvider.getProviderName()).thenReturn("Primary");
+    when(secondaryProvider.getPriority()).thenReturn(2);
+    when(secondaryProvider.getProviderName()).thenReturn("Secondary");
+
+    ProviderScoreboard scoreboard = new ProviderScoreboard(Clock.systemUTC(), true, 10, 0.25, 10, 5000);
+    scoreboard.record(primaryProvider, 900, true);
+    scoreboard.record(secondaryProvider, 150, true);
+    WeatherProviderFactory factory =
+        new WeatherProviderFactory(Arrays.asList(primaryProvider, secondaryProvider), scoreboard);
+
+    // When
+    List<WeatherProvider> providers = factory.getProviders();
+
+    // Then
+    assertThat(providers).containsExactly(secondaryProvider, primaryProvider);
+  }
 }
@@ -0,0 +1,276 @@
+package com.spring.weather.history;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.spring.weather.MutableClock;
+import com.spring.weather.cache.CityKeyNormalizer;
+import com.spring.weather.dto.WeatherHistoryBucket;
+import com.spring.weather.dto.WeatherResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import reactor.test.StepVerifier;
+
+/**
+ * Unit tests for the WeatherHistory and WeatherHistoryRepository classes, against an in-memory H2 database
+ * created from the application schema.
+ * Verifies the write-behind queue and its shutdown flush, the hourly rollups and the bucketed queries read from
+ * them, and retention.
+ */
+class WeatherHistoryTest {
+
+  private static final Instant START = Instant.parse("2025-05-11T01:00:00Z");
+
+  private EmbeddedDatabase database;
+  private JdbcTemplate jdbcTemplate;
+  private WeatherHistoryRepository repository;
+  private MutableClock clock;
+  private SimpleMeterRegistry meterRegistry;
+
+  /**
+   * Creates an empty history database before each test.
+   */
+  @BeforeEach
+  void setUp() {
+    database = new EmbeddedDatabaseBuilder()
+        .setType(EmbeddedDatabaseType.H2)
+        .generateUniqueName(true)
+        .addScript("schema.sql")
+        .build();
+    jdbcTemplate = new JdbcTemplate(database);
+    repository = new WeatherHistoryRepository(jdbcTemplate);
+    clock = new MutableClock(START);
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  /**
+   * Drops the history database after each test.
+   */
+  @AfterEach
+  void tearDown() {
+    database.shutdown();
+  }
+
+  /**
+   * Tests that queued observations are written on flush, that observations of the same hour flushed in
+   * separate batches are merged into one rollup, and that hourly and daily buckets aggregate them.
+   */
+  @Test
+  @DisplayName("Should write queued observations and aggregate them per bucket")
+  void shouldWriteQueuedObservationsAndAggregateThemPerBucket() {
+    // Given
+    WeatherHistory history = newHistory(true, 100);
+    history.record("melbourne", new WeatherResponse(10.0, 20.0));
+    clock.advance(Duration.ofMinutes(20));
+    history.record("melbourne", new WeatherResponse(4.0, 14.0));
+    history.record("sydney", new WeatherResponse(30.0, 30.0));
+    assertThat(history.flush()).isEqualTo(3);
+    clock.advance(Duration.ofMinutes(20));
+    history.record("melbourne", new WeatherResponse(7.0, 23.0));
+    clock.advance(Duration.ofMinutes(30));
+    history.record("melbourne", new WeatherResponse(2.0, 11.0));
+
+    // When
+    assertThat(history.flush()).isEqualTo(2);
+
+    // Then
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM weather_observation", Long.class)).isEqualTo(5);
+    assertThat(meterRegistry.get("weather.history.observations").tag("result", "written").counter().count())
+        .isEqualTo(5);
+    Instant from = START.minus(Duration.ofHours(1));
+    Instant to = START.plus(Duration.ofHours(3));
+    StepVerifier.create(history.query("Melbourne", from, to, Duration.ofHours(1)))
+        .assertNext(buckets -> {
+          assertThat(buckets).containsExactly(
+              new WeatherHistoryBucket(START, 3, 14.0, 23.0, 19.0, 4.0, 10.0, 7.0),
+              new WeatherHistoryBucket(START.plus(Duration.ofHours(1)), 1, 11.0, 11.0, 11.0, 2.0, 2.0, 2.0));
+        })
+        .verifyComplete();
+    StepVerifier.create(history.query("melbourne", from, to, Duration.ofDays(1)))
+        .assertNext(buckets -> {
+          assertThat(buckets).containsExactly(new WeatherHistoryBucket(from, 4, 11.0, 23.0, 17.0, 2.0, 10.0, 5.75));
+        })
+        .verifyComplete();
+  }
+
+  /**
+   * Tests that observations beyond the queue capacity are dropped and counted, and that nothing is queued
+   * while the history is disabled.
+   */
+  @Test
+  @DisplayName("Should drop observations when the queue is full")
+  void shouldDropObservationsWhenTheQueueIsFull() {
+    // Given
+    WeatherHistory history = newHistory(true, 2);
+    WeatherHistory disabled = newHistory(false, 2);
+
+    // When
+    for (int i = 0; i < 3; i++) {
+      history.record("melbourne", new WeatherResponse(10.0, 20.0));
+      disabled.record("melbourne", new WeatherResponse(10.0, 20.0));
+    }
+
+    // Then
+    assertThat(meterRegistry.get("weather.history.observations").tag("result", "dropped").counter().count())
+        .isEqualTo(1);
+    assertThat(disabled.flush()).isZero();
+    assertThat(history.flush()).isEqualTo(2);
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM weather_observation", Long.class)).isEqualTo(2);
+  }
+
+  /**
+   * Tests that an observation whose city key does not fit the schema is dropped when recorded, so the valid
+   * observations of its batch are still written.
+   */
+  @Test
+  @DisplayName("Should drop observations with oversized city keys without failing the batch")
+  void shouldDropObservationsWithOversizedCityKeysWithoutFailingTheBatch() {
+    // Given
+    WeatherHistory history = newHistory(true, 10);
+
+    // When
+    history.record("melbourne", new WeatherResponse(10.0, 20.0));
+    history.record("x".repeat(WeatherHistoryRepository.MAX_CITY_LENGTH + 1), new WeatherResponse(10.0, 20.0));
+    history.record("sydney", new WeatherResponse(10.0, 20.0));
+
+    // Then
+    assertThat(history.flush()).isEqualTo(2);
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM weather_observation", Long.class)).isEqualTo(2);
+    assertThat(meterRegistry.get("weather.history.observations").tag("result", "rejected").counter().count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.get("weather.history.observations").tag("result", "failed").counter().count())
+        .isZero();
+  }
+
+  /**
+   * Tests that observations and rollups older than their retention are deleted while newer ones are kept.
+   */
+  @Test
+  @DisplayName("Should prune observations and rollups past their retention")
+  void shouldPruneObservationsAndRollupsPastTheirRetention() {
+    // Given
+    WeatherHistory history = newHistory(true, 100);
+    history.record("melbourne", new WeatherResponse(10.0, 20.0));
+    clock.advance(Duration.ofDays(5));
+    history.record("melbourne", new WeatherResponse(10.0, 20.0));
+    clock.advance(Duration.ofDays(3));
+    history.record("melbourne", new WeatherResponse(10.0, 20.0));
+    history.flush();
+
+    // When
+    history.prune();
+
+    // Then
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM weather_observation", Long.class)).isEqualTo(2);
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM weather_rollup_hourly", Long.class)).isEqualTo(3);
+    clock.advance(Duration.ofDays(29));
+    history.prune();
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM weather_observation", Long.class)).isZero();
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM weather_rollup_hourly", Long.class)).isEqualTo(1);
+  }
+
+  /**
+   * Tests that the flush on shutdown waits for a flush still writing, so two batches are never merged into the
+   * rollups at the same time.
+   *
+   * @throws Exception if a flush fails or does not finish in time
+   */
+  @Test
+  @DisplayName("Should flush one batch at a time on shutdown")
+  void shouldFlushOneBatchAtATimeOnShutdown() throws Exception {
+    // Given
+    repository = spy(repository);
+    CountDownLatch firstWriting = new CountDownLatch(1);
+    CountDownLatch releaseFirst = new CountDownLatch(1);
+    AtomicInteger writing = new AtomicInteger();
+    AtomicInteger maxWriting = new AtomicInteger();
+    doAnswer(invocation -> {
+      maxWriting.accumulateAndGet(writing.incrementAndGet(), Math::max);
+      firstWriting.countDown();
+      releaseFirst.await(5, TimeUnit.SECONDS);
+      invocation.callRealMethod();
+      writing.decrementAndGet();
+      return null;
+    }).when(repository).append(any());
+    WeatherHistory history = newHistory(true, 100);
+    for (int i = 0; i < 4; i++) {
+      history.record("melbourne", new WeatherResponse(10.0, 20.0));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    try {
+      // When
+      Future<Integer> periodic = executor.submit(() -> history.flush());
+      assertThat(firstWriting.await(5, TimeUnit.SECONDS)).isTrue();
+      Future<?> last = executor.submit(history::stop);
+      Thread.sleep(100);
+      verify(repository, times(1)).append(any());
+      releaseFirst.countDown();
+      periodic.get(5, TimeUnit.SECONDS);
+      last.get(5, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Then
+    assertThat(maxWriting).hasValue(1);
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM weather_observation", Long.class)).isEqualTo(4);
+    assertThat(jdbcTemplate.queryForObject("SELECT sample_count FROM weather_rollup_hourly", Long.class))
+        .isEqualTo(4);
+  }
+
+  /**
+   * Tests that reversed ranges, buckets that are not whole hours and ranges spanning too many buckets are
+   * rejected.
+   */
+  @Test
+  @DisplayName("Should reject invalid ranges and buckets")
+  void shouldRejectInvalidRangesAndBuckets() {
+    // Given
+    WeatherHistory history = newHistory(true, 100);
+    Instant to = START.plus(Duration.ofDays(1));
+
+    // When & Then
+    StepVerifier.create(history.query("melbourne", to, START, Duration.ofHours(1)))
+        .expectError(IllegalArgumentException.class)
+        .verify();
+    StepVerifier.create(history.query("melbourne", START, to, Duration.ofMinutes(30)))
+        .expectError(IllegalArgumentException.class)
+        .verify();
+    StepVerifier.create(history.query("melbourne", START, START.plus(Duration.ofDays(30)), Duration.ofHours(1)))
+        .expectError(IllegalArgumentException.class)
+        .verify();
+  }
+
+  /**
+   * Creates a history on the test database keeping observations for 7 days and rollups for 30 days, with at
+   * most 100 buckets per query.
+   *
+   * @param enabled Whether observations are recorded.
+   * @param queueCapacity The capacity of the write-behind queue.
+   * @return The history.
+   */
+  private WeatherHistory newHistory(boolean enabled, int queueCapacity) {
+    return new WeatherHistory(repository, new CityKeyNormalizer(true, 100), clock, meterRegistry, enabled,
+        queueCapacity, 2, 1000, 7, 30, 100);
+  }
+}
@@ -0,0 +1,114 @@
+package com.spring.weather.peer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the PeerRing class.
+ * Verifies that instances agree on owners, that keys are spread over the members and that membership changes
+ * only move the keys of the affected member.
+ */
+class PeerRingTest {
+
+  private static final List<String> MEMBERS = List.of("http://node-a:8080", "http://node-b:8080",
+      "http://node-c:8080");
+
+  /**
+   * Tests that every instance computes the same owner for a key, whatever the order and formatting of its
+   * member list.
+   */
+  @Test
+  @DisplayName("Should agree on owners across instances")
+  void shouldAgreeOnOwnersAcrossInstances() {
+    // Given
+    PeerRing first = new PeerRing("http://node-a:8080", MEMBERS, 100);
+    PeerRing second = new PeerRing("http://node-c:8080/",
+        List.of(" http://node-c:8080/", "http://node-a:8080", "http://node-b:8080"), 100);
+
+    // When & Then
+    for (String key : keys(1000)) {
+      assertThat(second.ownerOf(key)).isEqualTo(first.ownerOf(key));
+    }
+    assertThat(second.getSelf()).isEqualTo("http://node-c:8080");
+  }
+
+  /**
+   * Tests that each member owns a reasonable share of the keys and that exactly one instance owns each key.
+   */
+  @Test
+  @DisplayName("Should spread keys over members")
+  void shouldSpreadKeysOverMembers() {
+    // Given
+    List<PeerRing> rings = MEMBERS.stream().map(self -> new PeerRing(self, MEMBERS, 100)).toList();
+    Map<String, Integer> owned = new HashMap<>();
+
+    // When
+    for (String key : keys(3000)) {
+      List<PeerRing> owners = rings.stream().filter(ring -> ring.isOwner(key)).toList();
+      assertThat(owners).hasSize(1);
+      owned.merge(owners.get(0).getSelf(), 1, Integer::sum);
+    }
+
+    // Then
+    assertThat(owned).hasSize(3);
+    assertThat(owned.values()).allSatisfy(count -> assertThat(count).isBetween(500, 1500));
+  }
+
+  /**
+   * Tests that adding a member only moves keys to the new member.
+   */
+  @Test
+  @DisplayName("Should only move keys to an added member")
+  void shouldOnlyMoveKeysToAddedMember() {
+    // Given
+    PeerRing before = new PeerRing("http://node-a:8080", MEMBERS, 100);
+    List<String> grown = new ArrayList<>(MEMBERS);
+    grown.add("http://node-d:8080");
+    PeerRing after = new PeerRing("http://node-a:8080", grown, 100);
+    int moved = 0;
+
+    // When
+    for (String key : keys(3000)) {
+      if (!after.ownerOf(key).equals(before.ownerOf(key))) {
+        assertThat(after.ownerOf(key)).isEqualTo("http://node-d:8080");
+        moved++;
+      }
+    }
+
+    // Then
+    assertThat(moved).isBetween(300, 1200);
+  }
+
+  /**
+   * Tests that a member list without this instance is rejected.
+   */
+  @Test
+  @DisplayName("Should reject members without this instance")
+  void shouldRejectMembersWithoutThisInstance() {
+    // When & Then
+    assertThatThrownBy(() -> new PeerRing("http://node-x:8080", MEMBERS, 100))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("http://node-x:8080");
+  }
+
+  /**
+   * Builds a list of distinct cache keys.
+   *
+   * @param count The number of keys.
+   * @return The keys.
+   */
+  private static List<String> keys(int count) {
+    List<String> keys = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      keys.add("city " + i);
+    }
+    return keys;
+  }
+}
@@ -0,0 +1,349 @@
+package com.spring.weather.peer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.weather.MutableClock;
+import com.spring.weather.cache.WeatherCache;
+import com.spring.weather.cache.WeatherResponseEncoder;
+import com.spring.weather.controller.PeerController;
+import com.spring.weather.dto.WeatherResponse;
+import com.spring.weather.exception.GlobalExceptionHandler;
+import com.spring.weather.exception.MissingQueryException;
+import com.spring.weather.exception.ServiceOverloadedException;
+import com.spring.weather.exception.WeatherServiceException;
+import com.spring.weather.service.WeatherService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.config.EnableWebFlux;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+/**
+ * Tests for the PeerWeatherCache class against several instances running on localhost.
+ * Each instance has its own cache, ring and provider stub, and serves the {@link PeerController} over HTTP, so
+ * the tests verify that a key is loaded upstream once across the instances, on its owner, that an error
+ * answered by the owner is final, and that instances fall back to their own providers when the owner is down.
+ */
+class PeerWeatherCacheTest {
+
+  private static final int NODE_COUNT = 3;
+  private static final int FRESH_TTL_SECONDS = 3;
+  private static final String KEY = "melbourne";
+
+  private final MutableClock clock = new MutableClock(Instant.parse("2025-05-11T01:00:00Z"));
+  private final List<Node> nodes = new ArrayList<>();
+
+  /**
+   * Starts the instances on free ports, then builds each instance's ring from the bound addresses.
+   */
+  @BeforeEach
+  void setUp() {
+    List<String> members = new ArrayList<>();
+    for (int i = 0; i < NODE_COUNT; i++) {
+      Node node = new Node();
+      nodes.add(node);
+      members.add("http://localhost:" + node.server.port());
+    }
+    for (int i = 0; i < NODE_COUNT; i++) {
+      nodes.get(i).start(new PeerRing(members.get(i), members, 100));
+    }
+  }
+
+  /**
+   * Stops the instances after each test.
+   */
+  @AfterEach
+  void tearDown() {
+    nodes.forEach(Node::stop);
+  }
+
+  /**
+   * Tests that requesting a key from every instance calls the providers once, on the owner, and that the other
+   * instances keep the owner's fetch time.
+   */
+  @Test
+  @DisplayName("Should load each key upstream once across instances")
+  void shouldLoadEachKeyUpstreamOnceAcrossInstances() {
+    // Given
+    Node owner = ownerOf(KEY);
+    StepVerifier.create(owner.cache.get(KEY, owner::load))
+        .expectNextCount(1)
+        .verifyComplete();
+    Instant fetchedAt = clock.instant();
+    clock.advance(Duration.ofSeconds(1));
+
+    // When
+    for (Node node : nodes) {
+      StepVerifier.create(node.cache.get(KEY, node::load))
+          .assertNext(cached -> {
+            assertThat(cached.getResponse()).isEqualTo(owner.response);
+            assertThat(cached.getFetchedAt()).isEqualTo(fetchedAt);
+          })
+          .verifyComplete();
+    }
+
+    // Then
+    assertThat(owner.loads).hasValue(1);
+    nodes.stream().filter(node -> node != owner)
+        .forEach(node -> assertThat(node.loads).hasValue(0));
+    verify(owner.service, times(NODE_COUNT - 1)).getFreshWeatherData(KEY);
+  }
+
+  /**
+   * Tests that an instance keeps the owner's answer for its fresh window, so a hot key does not send every
+   * request to its owner.
+   */
+  @Test
+  @DisplayName("Should serve hot keys from the local replica")
+  void shouldServeHotKeysFromLocalReplica() {
+    // Given
+    Node owner = ownerOf(KEY);
+    Node peer = nodes.stream().filter(node -> node != owner).findFirst().orElseThrow();
+
+    // When
+    for (int i = 0; i < 5; i++) {
+      StepVerifier.create(peer.cache.get(KEY, peer::load))
+          .expectNextCount(1)
+          .verifyComplete();
+    }
+
+    // Then
+    assertThat(owner.loads).hasValue(1);
+    assertThat(peer.loads).hasValue(0);
+    verify(owner.service, times(1)).getFreshWeatherData(KEY);
+    verify(peer.service, never()).getFreshWeatherData(anyString());
+  }
+
+  /**
+   * Tests that an instance loads a key from its own providers when the owner cannot be reached.
+   */
+  @Test
+  @DisplayName("Should load locally when the owner is down")
+  void shouldLoadLocallyWhenOwnerIsDown() {
+    // Given
+    Node owner = ownerOf(KEY);
+    Node peer = nodes.stream().filter(node -> node != owner).findFirst().orElseThrow();
+    owner.stop();
+
+    // When
+    StepVerifier.create(peer.cache.get(KEY, peer::load))
+        .assertNext(cached -> assertThat(cached.getResponse()).isEqualTo(peer.response))
+        .verifyComplete();
+
+    // Then
+    assertThat(peer.loads).hasValue(1);
+    assertThat(peer.cache.sharedStats().errorCount()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that an owner answering 503 because its providers failed fails the lookup on the other instances
+   * without them calling their own providers.
+   */
+  @Test
+  @DisplayName("Should not load locally when the owner's providers fail")
+  void shouldNotLoadLocallyWhenOwnersProvidersFail() {
+    // Given
+    Node owner = ownerOf(KEY);
+    Node peer = nodes.stream().filter(node -> node != owner).findFirst().orElseThrow();
+    owner.failure = new WeatherServiceException("No more providers available");
+
+    // When
+    StepVerifier.create(peer.cache.get(KEY, peer::load))
+        .expectError(WeatherServiceException.class)
+        .verify();
+
+    // Then
+    assertThat(owner.loads).hasValue(1);
+    assertThat(peer.loads).hasValue(0);
+    assertThat(peer.cache.sharedStats().errorCount()).isZero();
+    assertThat(peer.cache.sharedStats().hitCount()).isZero();
+    assertThat(peer.cache.sharedStats().answerCount()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that an owner holding only a stale entry it cannot reload answers with an error, so the other instances
+   * keep their own stale copy instead of calling their providers.
+   */
+  @Test
+  @DisplayName("Should keep the local stale copy when the owner cannot reload")
+  void shouldKeepLocalStaleCopyWhenOwnerCannotReload() {
+    // Given
+    Node owner = ownerOf(KEY);
+    Node peer = nodes.stream().filter(node -> node != owner).findFirst().orElseThrow();
+    StepVerifier.create(peer.cache.get(KEY, peer::load))
+        .expectNextCount(1)
+        .verifyComplete();
+    clock.advance(Duration.ofSeconds(FRESH_TTL_SECONDS + 1));
+    owner.failure = new WeatherServiceException("No more providers available");
+
+    // When
+    StepVerifier.create(peer.cache.refresh(KEY, peer::load))
+        .expectError(WeatherServiceException.class)
+        .verify();
+
+    // Then
+    assertThat(peer.loads).hasValue(0);
+    assertThat(peer.cache.sharedStats().answerCount()).isEqualTo(1);
+    assertThat(peer.cache.getIfPresent(KEY).getResponse()).isEqualTo(owner.response);
+  }
+
+  /**
+   * Tests that an owner shedding the request with 503 and {@code Retry-After} is not taken as its answer, so the
+   * other instances load the key from their own providers.
+   */
+  @Test
+  @DisplayName("Should load locally when the owner sheds the request")
+  void shouldLoadLocallyWhenOwnerShedsTheRequest() {
+    // Given
+    Node owner = ownerOf(KEY);
+    Node peer = nodes.stream().filter(node -> node != owner).findFirst().orElseThrow();
+    owner.failure = new ServiceOverloadedException("Too many upstream requests in flight", Duration.ofSeconds(1));
+
+    // When
+    StepVerifier.create(peer.cache.get(KEY, peer::load))
+        .assertNext(cached -> assertThat(cached.getResponse()).isEqualTo(peer.response))
+        .verifyComplete();
+
+    // Then
+    assertThat(owner.loads).hasValue(1);
+    assertThat(peer.loads).hasValue(1);
+    assertThat(peer.cache.sharedStats().errorCount()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that an owner rejecting a city with 400 fails the lookup on the other instances as an unknown city,
+   * without them calling their own providers.
+   */
+  @Test
+  @DisplayName("Should reject cities the owner rejects")
+  void shouldRejectCitiesTheOwnerRejects() {
+    // Given
+    Node owner = ownerOf(KEY);
+    Node peer = nodes.stream().filter(node -> node != owner).findFirst().orElseThrow();
+    owner.failure = new MissingQueryException("Unknown city: " + KEY);
+
+    // When
+    StepVerifier.create(peer.cache.get(KEY, peer::load))
+        .expectError(MissingQueryException.class)
+        .verify();
+
+    // Then
+    assertThat(peer.loads).hasValue(0);
+  }
+
+  /**
+   * Returns the instance owning a key.
+   *
+   * @param key The cache key.
+   * @return The owner.
+   */
+  private Node ownerOf(String key) {
+    return nodes.stream().filter(node -> node.ring.isOwner(key)).findFirst().orElseThrow();
+  }
+
+  /**
+   * Minimal web configuration serving the annotated controllers of a node.
+   */
+  @Configuration
+  @EnableWebFlux
+  static class PeerWebConfig {
+  }
+
+  /**
+   * One instance of the service: a cache using its peers as shared tier, a provider stub counting its calls and
+   * an HTTP server answering its peers.
+   */
+  private final class Node {
+
+    private final AtomicReference<ReactorHttpHandlerAdapter> handler = new AtomicReference<>();
+    private final DisposableServer server;
+    private final AtomicInteger loads = new AtomicInteger();
+    private final WeatherService service = mock(WeatherService.class);
+    private final WeatherResponse response;
+    private volatile RuntimeException failure;
+    private AnnotationConfigApplicationContext context;
+    private PeerRing ring;
+    private WeatherCache cache;
+
+    /**
+     * Binds the HTTP server on a free port. Requests are answered once the node is started.
+     */
+    Node() {
+      response = new WeatherResponse(10.0 + nodes.size(), 20.0);
+      server = HttpServer.create()
+          .host("localhost")
+          .port(0)
+          .handle((request, httpResponse) -> handler.get().apply(request, httpResponse))
+          .bindNow();
+    }
+
+    /**
+     * Builds the cache and the peer endpoint of the node.
+     *
+     * @param ring The ring of the node.
+     */
+    void start(PeerRing ring) {
+      this.ring = ring;
+      PeerWeatherCache peers = new PeerWeatherCache(ring, WebClient.create(), Duration.ofSeconds(2));
+      cache = new WeatherCache(Caffeine.newBuilder().buildAsync(), clock, Optional.of(peers), FRESH_TTL_SECONDS);
+      when(service.getFreshWeatherData(anyString()))
+          .thenAnswer(invocation -> cache.getFresh(invocation.getArgument(0), this::load));
+
+      context = new AnnotationConfigApplicationContext();
+      context.getEnvironment().getPropertySources()
+          .addFirst(new MapPropertySource("peer", Map.of("weather.cache.l2.type", "peer")));
+      context.register(PeerWebConfig.class, GlobalExceptionHandler.class);
+      context.registerBean(PeerController.class,
+          () -> new PeerController(service, new WeatherResponseEncoder(new ObjectMapper(), false)));
+      context.refresh();
+      handler.set(new ReactorHttpHandlerAdapter(WebHttpHandlerBuilder.applicationContext(context).build()));
+    }
+
+    /**
+     * Stands in for the providers of the node.
+     *
+     * @param key The cache key.
+     * @return A Mono emitting the node's weather data, or failing if the node's providers are set to fail.
+     */
+    Mono<WeatherResponse> load(String key) {
+      loads.incrementAndGet();
+      return failure != null ? Mono.error(failure) : Mono.just(response);
+    }
+
+    /**
+     * Stops the HTTP server and the web context of the node.
+     */
+    void stop() {
+      server.disposeNow();
+      if (context != null && context.isActive()) {
+        context.close();
+      }
+    }
+  }
+}
@@ -1,10 +1,21 @@
 package com.spring.weather.provider;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
 import com.spring.weather.dto.WeatherResponse;
+import com.spring.weather.exception.ProviderBudgetExhaustedException;
+import com.spring.weather.exception.WeatherProviderException;
+import com.spring.weather.exception.WeatherStackApiException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,6 +24,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -39,6 +53,10 @@ class AbstractWeatherProviderTest {
   @Mock
   private ReactiveCircuitBreaker circuitBreaker;
 
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final MockEnvironment environment = new MockEnvironment();
+
   private TestWeatherProvider provider;
 
   /**
@@ -48,10 +66,10 @@ class AbstractWeatherProviderTest {
   void setUp() {
     when(circuitBreakerFactory.create(anyString())).thenReturn(circuitBreaker);
     when(webClient.get()).thenReturn(requestHeadersUriSpec);
-    when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
+    when(requestHeadersUriSpec.uri(any(URI.class))).thenReturn(requestHeadersUriSpec);
     when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
 
-    provider = new TestWeatherProvider(webClient, circuitBreakerFactory);
+    provider = createProvider(meterRegistry);
   }
 
   /**
@@ -62,33 +80,194 @@ class AbstractWeatherProviderTest {
   @DisplayName("Should handle successful request")
   void shouldHandleSuccessfulRequest() {
     // Given
-    TestResponse testResponse = new TestResponse(20.0, 29.0);
-    when(responseSpec.bodyToMono(TestResponse.class)).thenReturn(Mono.just(testResponse));
+    when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(Mono.just(body(20.0, 29.0)));
+    when(circuitBreaker.run(any(Mono.class), any())).thenAnswer(inv -> inv.getArgument(0));
+
+    // When & Then
+    StepVerifier.create(provider.getWeatherData("Melbourne"))
+        .expectNext(new WeatherResponse(20.0, 29.0))
+        .verifyComplete();
+  }
+
+  /**
+   * Tests that a successful request is timed under the provider and a success outcome.
+   */
+  @Test
+  @DisplayName("Should time successful request with success outcome")
+  void shouldTimeSuccessfulRequestWithSuccessOutcome() {
+    // Given
+    when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(Mono.just(body(20.0, 29.0)));
+    when(circuitBreaker.run(any(Mono.class), any())).thenAnswer(inv -> inv.getArgument(0));
+
+    // When
+    provider.getWeatherData("Melbourne").block();
+
+    // Then
+    assertThat(meterRegistry.get("weather.provider.requests")
+        .tag("provider", "TestProvider")
+        .tag("outcome", "success")
+        .timer()
+        .count()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that a request rejected by an open circuit breaker is timed with the circuit open outcome.
+   */
+  @Test
+  @DisplayName("Should time rejected request with circuit open outcome")
+  void shouldTimeRejectedRequestWithCircuitOpenOutcome() {
+    // Given
+    when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(Mono.just(body(20.0, 29.0)));
+    CallNotPermittedException rejected =
+        CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("test"));
+    when(circuitBreaker.run(any(Mono.class), any())).thenReturn(Mono.error(rejected));
+
+    // When & Then
+    StepVerifier.create(provider.getWeatherData("Melbourne"))
+        .expectError(CallNotPermittedException.class)
+        .verify();
+
+    assertThat(meterRegistry.get("weather.provider.requests")
+        .tag("provider", "TestProvider")
+        .tag("outcome", "circuit_open")
+        .timer()
+        .count()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that a call refused by the budget fails with a budget exception without reaching the provider.
+   */
+  @Test
+  @DisplayName("Should refuse call beyond monthly allowance without sending it")
+  void shouldRefuseCallBeyondMonthlyAllowanceWithoutSendingIt() {
+    // Given
+    environment.setProperty("weather.budget.test.monthly.allowance", "1");
+    environment.setProperty("weather.budget.test.hard.reserve", "0");
+    SimpleMeterRegistry budgetRegistry = new SimpleMeterRegistry();
+    provider = createProvider(budgetRegistry);
+    AtomicInteger sent = new AtomicInteger();
+    when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(Mono.defer(() -> {
+      sent.incrementAndGet();
+      return Mono.just(body(20.0, 29.0));
+    }));
     when(circuitBreaker.run(any(Mono.class), any())).thenAnswer(inv -> inv.getArgument(0));
 
     // When & Then
     StepVerifier.create(provider.getWeatherData("Melbourne"))
         .expectNext(new WeatherResponse(20.0, 29.0))
         .verifyComplete();
+    StepVerifier.create(provider.getWeatherData("Melbourne"))
+        .expectError(ProviderBudgetExhaustedException.class)
+        .verify();
+
+    assertThat(sent).hasValue(1);
+    assertThat(budgetRegistry.get("weather.provider.budget.denied")
+        .tag("provider", "TestProvider")
+        .tag("priority", "essential")
+        .functionCounter()
+        .count()).isEqualTo(1);
+    assertThat(budgetRegistry.get("weather.provider.budget.monthly.remaining")
+        .tag("provider", "TestProvider")
+        .gauge()
+        .value()).isZero();
+  }
+
+  /**
+   * Tests that a call rejected by an open circuit breaker is not charged to the budget.
+   */
+  @Test
+  @DisplayName("Should not charge budget for call rejected by open circuit breaker")
+  void shouldNotChargeBudgetForCallRejectedByOpenCircuitBreaker() {
+    // Given
+    environment.setProperty("weather.budget.test.monthly.allowance", "10");
+    environment.setProperty("weather.budget.test.hard.reserve", "0");
+    environment.setProperty("weather.budget.test.rate.per.second", "1");
+    environment.setProperty("weather.budget.test.burst", "5");
+    SimpleMeterRegistry budgetRegistry = new SimpleMeterRegistry();
+    provider = createProvider(budgetRegistry);
+    CallNotPermittedException rejected =
+        CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("test"));
+    when(circuitBreaker.run(any(Mono.class), any()))
+        .thenReturn(Mono.error(new WeatherProviderException("TestProvider service is currently unavailable", rejected)));
+
+    // When
+    for (int i = 0; i < 20; i++) {
+      StepVerifier.create(provider.getWeatherData("Melbourne"))
+          .expectError(WeatherProviderException.class)
+          .verify();
+    }
+
+    // Then
+    assertThat(budgetRegistry.get("weather.provider.budget.monthly.used")
+        .tag("provider", "TestProvider")
+        .gauge()
+        .value()).isZero();
+    assertThat(budgetRegistry.get("weather.provider.budget.monthly.remaining")
+        .tag("provider", "TestProvider")
+        .gauge()
+        .value()).isEqualTo(10);
+    assertThat(budgetRegistry.get("weather.provider.budget.tokens")
+        .tag("provider", "TestProvider")
+        .gauge()
+        .value()).isEqualTo(5);
+  }
+
+  /**
+   * Tests that a usage limit error from the provider suspends further calls.
+   */
+  @Test
+  @DisplayName("Should suspend calls after provider reports usage limit")
+  void shouldSuspendCallsAfterProviderReportsUsageLimit() {
+    // Given
+    when(responseSpec.bodyToMono(DataBuffer.class))
+        .thenReturn(Mono.error(new WeatherStackApiException(104, "usage_limit_reached", "Usage limit reached")));
+    when(circuitBreaker.run(any(Mono.class), any())).thenAnswer(inv -> inv.getArgument(0));
+
+    // When & Then
+    StepVerifier.create(provider.getWeatherData("Melbourne"))
+        .expectError(WeatherStackApiException.class)
+        .verify();
+    StepVerifier.create(provider.getWeatherData("Melbourne"))
+        .expectError(ProviderBudgetExhaustedException.class)
+        .verify();
+  }
+
+  /**
+   * Creates the provider under test with the budget configured in the environment.
+   *
+   * @param registry The registry the provider meters are registered in.
+   * @return The provider.
+   */
+  private TestWeatherProvider createProvider(SimpleMeterRegistry registry) {
+    return new TestWeatherProvider(webClient, circuitBreakerFactory, registry,
+        new ProviderBudgets(environment, Clock.systemUTC(), registry));
+  }
+
+  /**
+   * Creates a WeatherStack response body with the given weather.
+   *
+   * @param windSpeed The wind speed.
+   * @param temperature The temperature.
+   * @return The response body.
+   */
+  private static DataBuffer body(double windSpeed, double temperature) {
+    String json = "{\"current\":{\"temperature\":" + temperature + ",\"wind_speed\":" + windSpeed + "}}";
+    return DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes(StandardCharsets.UTF_8));
   }
 
   /**
    * Test implementation of AbstractWeatherProvider for unit testing purposes.
    */
   private static class TestWeatherProvider extends AbstractWeatherProvider {
-    public TestWeatherProvider(WebClient webClient, ReactiveCircuitBreakerFactory circuitBreakerFactory) {
-      super(webClient, circuitBreakerFactory, "test-api-key", "http://test.api", "test");
+    public TestWeatherProvider(WebClient webClient, ReactiveCircuitBreakerFactory circuitBreakerFactory,
+        SimpleMeterRegistry meterRegistry, ProviderBudgets providerBudgets) {
+      super(webClient, circuitBreakerFactory, "test-api-key", "http://test.api", "test", meterRegistry,
+          providerBudgets);
     }
 
     @Override
     public Mono<WeatherResponse> getWeatherData(String city) {
-      return executeRequest("http://test.api/weather?city=" + city, TestResponse.class);
-    }
-
-    @Override
-    protected <T> WeatherResponse convertToWeatherResponse(T response) {
-      TestResponse testResponse = (TestResponse) response;
-      return new WeatherResponse(testResponse.getWindSpeed(), testResponse.getTemperature());
+      return executeRequest(URI.create("http://test.api/weather?city=" + city), WeatherResponseDecoders::weatherStack);
     }
 
     @Override
@@ -101,25 +280,4 @@ class AbstractWeatherProviderTest {
       return 1;
     }
   }
-
-  /**
-   * Test response class to simulate API responses.
-   */
-  private static class TestResponse {
-    private final double windSpeed;
-    private final double temperature;
-
-    public TestResponse(double windSpeed, double temperature) {
-      this.windSpeed = windSpeed;
-      this.temperature = temperature;
-    }
-
-    public double getWindSpeed() {
-      return windSpeed;
-    }
-
-    public double getTemperature() {
-      return temperature;
-    }
-  }
 }
\ No newline at end of file
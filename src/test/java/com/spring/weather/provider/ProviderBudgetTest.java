@@ -0,0 +1,156 @@
+package com.spring.weather.provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.spring.weather.MutableClock;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the ProviderBudget class.
+ * Verifies the monthly allowance and its reserves, the token bucket and the monthly reset.
+ */
+class ProviderBudgetTest {
+
+  private final MutableClock clock = new MutableClock(Instant.parse("2025-05-01T00:00:00Z"));
+
+  /**
+   * Tests that a budget without limits admits every call and reports no remaining values.
+   */
+  @Test
+  @DisplayName("Should admit every call without limits")
+  void shouldAdmitEveryCallWithoutLimits() {
+    // Given
+    ProviderBudget budget = new ProviderBudget(new ProviderBudgetSettings(0, 10, 0, 0.2, 0.01), clock);
+
+    // When & Then
+    for (int i = 0; i < 1000; i++) {
+      assertThat(budget.tryAcquire(CallPriority.BACKGROUND)).isTrue();
+    }
+    assertThat(budget.monthlyUsed()).isEqualTo(1000);
+    assertThat(budget.monthlyRemaining()).isNaN();
+    assertThat(budget.availableTokens()).isNaN();
+  }
+
+  /**
+   * Tests that client calls stop at the hard reserve, leaving part of the allowance unused.
+   */
+  @Test
+  @DisplayName("Should stop essential calls at hard reserve")
+  void shouldStopEssentialCallsAtHardReserve() {
+    // Given
+    ProviderBudget budget = new ProviderBudget(new ProviderBudgetSettings(0, 10, 100, 0.2, 0.1), clock);
+
+    // When
+    int admitted = acquireAll(budget, CallPriority.ESSENTIAL);
+
+    // Then
+    assertThat(admitted).isEqualTo(90);
+    assertThat(budget.monthlyRemaining()).isEqualTo(10);
+    assertThat(budget.deniedCount(CallPriority.ESSENTIAL)).isEqualTo(1);
+  }
+
+  /**
+   * Tests that background calls may not run ahead of an even spend over the month or into the background
+   * reserve, while client calls are still admitted.
+   */
+  @Test
+  @DisplayName("Should pace background calls over the month")
+  void shouldPaceBackgroundCallsOverTheMonth() {
+    // Given
+    ProviderBudget budget = new ProviderBudget(new ProviderBudgetSettings(0, 10, 3100, 0.2, 0.01), clock);
+
+    // When & Then
+    assertThat(acquireAll(budget, CallPriority.BACKGROUND)).isEqualTo(10);
+    assertThat(budget.tryAcquire(CallPriority.ESSENTIAL)).isTrue();
+
+    // Ten days into May the paced share is 800 of the 2480 usable calls, plus the burst.
+    clock.advance(Duration.ofDays(10));
+    assertThat(acquireAll(budget, CallPriority.BACKGROUND)).isEqualTo(810 - 11);
+
+    clock.advance(Duration.ofDays(21).minusMinutes(1));
+    assertThat(budget.monthlyUsed() + acquireAll(budget, CallPriority.BACKGROUND)).isEqualTo(2480);
+    assertThat(budget.tryAcquire(CallPriority.ESSENTIAL)).isTrue();
+  }
+
+  /**
+   * Tests that the token bucket limits bursts, refills over time and keeps headroom for client calls.
+   */
+  @Test
+  @DisplayName("Should limit call rate with token bucket")
+  void shouldLimitCallRateWithTokenBucket() {
+    // Given
+    ProviderBudget budget = new ProviderBudget(new ProviderBudgetSettings(2, 5, 0, 0.2, 0.01), clock);
+
+    // When & Then
+    assertThat(acquireAll(budget, CallPriority.BACKGROUND)).isEqualTo(4);
+    assertThat(acquireAll(budget, CallPriority.ESSENTIAL)).isEqualTo(1);
+    assertThat(budget.availableTokens()).isZero();
+
+    clock.advance(Duration.ofMillis(500));
+    assertThat(budget.tryAcquire(CallPriority.ESSENTIAL)).isTrue();
+    assertThat(budget.tryAcquire(CallPriority.ESSENTIAL)).isFalse();
+
+    clock.advance(Duration.ofSeconds(10));
+    assertThat(budget.availableTokens()).isEqualTo(5);
+  }
+
+  /**
+   * Tests that a quota reported as used up suspends calls until the next month, when the allowance resets.
+   */
+  @Test
+  @DisplayName("Should suspend calls until next month once exhausted")
+  void shouldSuspendCallsUntilNextMonthOnceExhausted() {
+    // Given
+    ProviderBudget budget = new ProviderBudget(new ProviderBudgetSettings(0, 10, 100, 0.2, 0.01), clock);
+    budget.tryAcquire(CallPriority.ESSENTIAL);
+
+    // When
+    budget.markExhausted();
+
+    // Then
+    assertThat(budget.tryAcquire(CallPriority.ESSENTIAL)).isFalse();
+    assertThat(budget.monthlyRemaining()).isZero();
+
+    clock.advance(Duration.ofDays(31));
+    assertThat(budget.monthlyUsed()).isZero();
+    assertThat(budget.tryAcquire(CallPriority.ESSENTIAL)).isTrue();
+    assertThat(budget.monthlyRemaining()).isEqualTo(99);
+  }
+
+  /**
+   * Tests that a released call gives back its token and its share of the allowance.
+   */
+  @Test
+  @DisplayName("Should give back token and allowance of released call")
+  void shouldGiveBackTokenAndAllowanceOfReleasedCall() {
+    // Given
+    ProviderBudget budget = new ProviderBudget(new ProviderBudgetSettings(2, 5, 100, 0.2, 0.01), clock);
+    budget.tryAcquire(CallPriority.ESSENTIAL);
+
+    // When
+    budget.release();
+
+    // Then
+    assertThat(budget.monthlyUsed()).isZero();
+    assertThat(budget.monthlyRemaining()).isEqualTo(100);
+    assertThat(budget.availableTokens()).isEqualTo(5);
+  }
+
+  /**
+   * Acquires calls until the budget refuses one.
+   *
+   * @param budget The budget to acquire from.
+   * @param priority The priority of the calls.
+   * @return The number of admitted calls.
+   */
+  private static int acquireAll(ProviderBudget budget, CallPriority priority) {
+    int admitted = 0;
+    while (budget.tryAcquire(priority)) {
+      admitted++;
+    }
+    return admitted;
+  }
+}
@@ -0,0 +1,141 @@
+package com.spring.weather.provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.spring.weather.dto.WeatherResponse;
+import com.spring.weather.exception.WeatherProviderException;
+import com.spring.weather.exception.WeatherStackApiException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+/**
+ * Unit tests for the WeatherResponseDecoders class.
+ * Verifies that the streaming decoders read the same data and errors as the DTO based conversion.
+ */
+class WeatherResponseDecodersTest {
+
+  /**
+   * Tests that the WeatherStack decoder reads temperature and wind speed and skips the other fields.
+   */
+  @Test
+  @DisplayName("Should decode WeatherStack response and skip unknown fields")
+  void shouldDecodeWeatherStackResponse() {
+    // Given
+    DataBuffer body = buffer("""
+        {"request":{"type":"City","query":"Melbourne"},"location":{"name":"Melbourne","lat":"-37.817"},
+         "current":{"observation_time":"01:00 AM","temperature":29,"weather_descriptions":["Sunny"],
+         "wind_speed":20,"is_day":"yes"}}
+        """);
+
+    // When
+    WeatherResponse response = WeatherResponseDecoders.decode(body, WeatherResponseDecoders::weatherStack,
+        "WeatherStack");
+
+    // Then
+    assertThat(response).isEqualTo(new WeatherResponse(20.0, 29.0));
+  }
+
+  /**
+   * Tests that a WeatherStack error block is reported with its code, type and info.
+   */
+  @Test
+  @DisplayName("Should throw WeatherStackApiException for WeatherStack error block")
+  void shouldThrowApiExceptionForWeatherStackError() {
+    // Given
+    DataBuffer body = buffer("""
+        {"success":false,"error":{"code":615,"type":"request_failed","info":"Your API request failed."}}
+        """);
+
+    // When & Then
+    assertThatThrownBy(() -> WeatherResponseDecoders.decode(body, WeatherResponseDecoders::weatherStack,
+        "WeatherStack"))
+        .isInstanceOfSatisfying(WeatherStackApiException.class, e -> {
+          assertThat(e.getCode()).isEqualTo(615);
+          assertThat(e.getType()).isEqualTo("request_failed");
+          assertThat(e.getInfo()).isEqualTo("Your API request failed.");
+        });
+  }
+
+  /**
+   * Tests that a WeatherStack response without current weather data is rejected.
+   */
+  @Test
+  @DisplayName("Should reject WeatherStack response without current weather data")
+  void shouldRejectWeatherStackResponseWithoutCurrent() {
+    // Given
+    DataBuffer body = buffer("{\"location\":{\"name\":\"Melbourne\"}}");
+
+    // When & Then
+    assertThatThrownBy(() -> WeatherResponseDecoders.decode(body, WeatherResponseDecoders::weatherStack,
+        "WeatherStack"))
+        .isInstanceOf(WeatherProviderException.class)
+        .hasMessageContaining("missing current weather data");
+  }
+
+  /**
+   * Tests that the OpenWeatherMap decoder reads temperature and wind speed and skips the other fields.
+   */
+  @Test
+  @DisplayName("Should decode OpenWeatherMap response and skip unknown fields")
+  void shouldDecodeOpenWeatherMapResponse() {
+    // Given
+    DataBuffer body = buffer("""
+        {"coord":{"lon":144.9633,"lat":-37.814},"weather":[{"id":800,"main":"Clear"}],
+         "main":{"temp":29.0,"feels_like":28.5,"pressure":1015},"wind":{"speed":5.56,"deg":200},
+         "name":"Melbourne","cod":200}
+        """);
+
+    // When
+    WeatherResponse response = WeatherResponseDecoders.decode(body, WeatherResponseDecoders::openWeatherMap,
+        "OpenWeatherMap");
+
+    // Then
+    assertThat(response).isEqualTo(new WeatherResponse(5.56, 29.0));
+  }
+
+  /**
+   * Tests that an OpenWeatherMap response without wind data is rejected.
+   */
+  @Test
+  @DisplayName("Should reject OpenWeatherMap response without wind data")
+  void shouldRejectOpenWeatherMapResponseWithoutWind() {
+    // Given
+    DataBuffer body = buffer("{\"main\":{\"temp\":29.0}}");
+
+    // When & Then
+    assertThatThrownBy(() -> WeatherResponseDecoders.decode(body, WeatherResponseDecoders::openWeatherMap,
+        "OpenWeatherMap"))
+        .isInstanceOf(WeatherProviderException.class)
+        .hasMessageContaining("missing current weather data");
+  }
+
+  /**
+   * Tests that a body that is not valid JSON is reported as an invalid provider response.
+   */
+  @Test
+  @DisplayName("Should reject malformed response body")
+  void shouldRejectMalformedResponseBody() {
+    // Given
+    DataBuffer body = buffer("<html>Bad Gateway</html>");
+
+    // When & Then
+    assertThatThrownBy(() -> WeatherResponseDecoders.decode(body, WeatherResponseDecoders::weatherStack,
+        "WeatherStack"))
+        .isInstanceOf(WeatherProviderException.class)
+        .hasMessage("Invalid response from WeatherStack");
+  }
+
+  /**
+   * Wraps a JSON string in a data buffer.
+   *
+   * @param json The JSON body.
+   * @return The data buffer.
+   */
+  private static DataBuffer buffer(String json) {
+    return DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes(StandardCharsets.UTF_8));
+  }
+}
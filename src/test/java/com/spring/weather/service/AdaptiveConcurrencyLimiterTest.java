@@ -0,0 +1,114 @@
+package com.spring.weather.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.spring.weather.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/**
+ * Unit tests for the AdaptiveConcurrencyLimiter class.
+ * Verifies load shedding, slot release and how the limit follows the load latency.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final long FAST_NANOS = Duration.ofMillis(100).toNanos();
+  private static final long SLOW_NANOS = Duration.ofSeconds(1).toNanos();
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  /**
+   * Tests that loads beyond the limit are refused at once and that a cancelled load frees its slot.
+   */
+  @Test
+  @DisplayName("Should shed loads beyond limit and release cancelled slots")
+  void shouldShedLoadsBeyondLimitAndReleaseCancelledSlots() {
+    // Given
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(true, 2, 1, 10, 1.5, 1, meterRegistry);
+    Disposable first = limiter.limit(Mono.never()).subscribe();
+    limiter.limit(Mono.never()).subscribe();
+
+    // When & Then
+    StepVerifier.create(limiter.limit(Mono.just("sydney")))
+        .expectError(ServiceOverloadedException.class)
+        .verify();
+    assertThat(limiter.getInflight()).isEqualTo(2);
+    assertThat(meterRegistry.get("weather.concurrency.rejections").counter().count()).isEqualTo(1.0);
+
+    first.dispose();
+    StepVerifier.create(limiter.limit(Mono.just("sydney")))
+        .expectNext("sydney")
+        .verifyComplete();
+    assertThat(limiter.getInflight()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that a disabled limiter runs every load.
+   */
+  @Test
+  @DisplayName("Should pass loads through when disabled")
+  void shouldPassLoadsThroughWhenDisabled() {
+    // Given
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(false, 1, 1, 1, 1.5, 1, meterRegistry);
+    limiter.limit(Mono.never()).subscribe();
+
+    // When & Then
+    StepVerifier.create(limiter.limit(Mono.just("sydney")))
+        .expectNext("sydney")
+        .verifyComplete();
+  }
+
+  /**
+   * Tests that the limit grows while latency is steady and the limit is in use, but not while mostly idle.
+   */
+  @Test
+  @DisplayName("Should grow limit under steady latency only while busy")
+  void shouldGrowLimitUnderSteadyLatencyOnlyWhileBusy() {
+    // Given
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(true, 20, 4, 200, 1.5, 1, meterRegistry);
+
+    // When
+    for (int i = 0; i < 50; i++) {
+      limiter.recordSample(FAST_NANOS, 1);
+    }
+
+    // Then
+    assertThat(limiter.getLimit()).isEqualTo(20);
+
+    for (int i = 0; i < 50; i++) {
+      limiter.recordSample(FAST_NANOS, limiter.getLimit());
+    }
+    assertThat(limiter.getLimit()).isGreaterThan(40);
+  }
+
+  /**
+   * Tests that the limit shrinks once loads become much slower than the long term average, down to the minimum,
+   * and that the slowdown shows up as an estimated queue.
+   */
+  @Test
+  @DisplayName("Should shrink limit when latency rises")
+  void shouldShrinkLimitWhenLatencyRises() {
+    // Given
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(true, 20, 4, 200, 1.5, 1, meterRegistry);
+    for (int i = 0; i < 50; i++) {
+      limiter.recordSample(FAST_NANOS, limiter.getLimit());
+    }
+    int steadyLimit = limiter.getLimit();
+    Disposable inFlight = limiter.limit(Mono.never()).subscribe();
+
+    // When
+    for (int i = 0; i < 20; i++) {
+      limiter.recordSample(SLOW_NANOS, limiter.getLimit());
+    }
+
+    // Then
+    assertThat(limiter.getLimit()).isLessThan(steadyLimit / 2).isGreaterThanOrEqualTo(4);
+    assertThat(limiter.estimatedQueue()).isGreaterThan(0.5);
+    inFlight.dispose();
+  }
+}
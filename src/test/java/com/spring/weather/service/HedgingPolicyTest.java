@@ -0,0 +1,66 @@
+package com.spring.weather.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the HedgingPolicy class.
+ * Verifies the hedge budget, its counters and the adaptive hedge delay.
+ */
+class HedgingPolicyTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  /**
+   * Tests that the budget allows the burst and then one hedge per the configured share of primary calls, and
+   * that issued and denied hedges are counted.
+   */
+  @Test
+  @DisplayName("Should cap hedges to the configured ratio of primary calls")
+  void shouldCapHedgesToConfiguredRatio() {
+    // Given
+    HedgingPolicy hedgingPolicy = new HedgingPolicy(true, 100, false, 0.1, 2, meterRegistry);
+
+    // When & Then
+    assertThat(hedgingPolicy.tryAcquireHedge()).isTrue();
+    assertThat(hedgingPolicy.tryAcquireHedge()).isTrue();
+    assertThat(hedgingPolicy.tryAcquireHedge()).isFalse();
+
+    for (int i = 0; i < 9; i++) {
+      hedgingPolicy.onPrimaryCall();
+    }
+    assertThat(hedgingPolicy.tryAcquireHedge()).isFalse();
+
+    hedgingPolicy.onPrimaryCall();
+    assertThat(hedgingPolicy.tryAcquireHedge()).isTrue();
+    assertThat(hedgingPolicy.issuedCount()).isEqualTo(3);
+    assertThat(hedgingPolicy.deniedCount()).isEqualTo(2);
+    assertThat(meterRegistry.get("weather.hedging.requests").tag("result", "issued").functionCounter().count())
+        .isEqualTo(3);
+    assertThat(meterRegistry.get("weather.hedging.requests").tag("result", "denied").functionCounter().count())
+        .isEqualTo(2);
+  }
+
+  /**
+   * Tests that the adaptive delay follows the observed p95 latency, bounded below by the fixed delay.
+   */
+  @Test
+  @DisplayName("Should use observed p95 latency as hedge delay in adaptive mode")
+  void shouldUseObservedP95LatencyAsHedgeDelay() {
+    // Given
+    HedgingPolicy hedgingPolicy = new HedgingPolicy(true, 50, true, 0.1, 10, meterRegistry);
+    assertThat(hedgingPolicy.hedgeDelay()).isEqualTo(Duration.ofMillis(50));
+
+    // When
+    for (int i = 1; i <= 160; i++) {
+      hedgingPolicy.recordPrimaryLatency(Duration.ofMillis(i * 10L));
+    }
+
+    // Then
+    assertThat(hedgingPolicy.hedgeDelay()).isEqualTo(Duration.ofMillis(1520));
+  }
+}
@@ -1,27 +1,49 @@
 package com.spring.weather.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.spring.weather.cache.CachedWeather;
+import com.spring.weather.cache.CityGazetteer;
+import com.spring.weather.cache.CityKeyNormalizer;
+import com.spring.weather.cache.UnknownCityCache;
+import com.spring.weather.cache.WeatherCache;
+import com.spring.weather.dto.CityWeatherResult;
 import com.spring.weather.dto.WeatherResponse;
 import com.spring.weather.exception.ExternalRequestException;
+import com.spring.weather.exception.MissingQueryException;
+import com.spring.weather.exception.ServiceOverloadedException;
 import com.spring.weather.exception.WeatherProviderException;
 import com.spring.weather.exception.WeatherServiceException;
+import com.spring.weather.factory.ProviderScoreboard;
 import com.spring.weather.factory.WeatherProviderFactory;
+import com.spring.weather.history.WeatherHistory;
 import com.spring.weather.provider.WeatherProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -36,13 +58,7 @@ class WeatherServiceImplTest {
   private WeatherProviderFactory weatherProviderFactory;
 
   @Mock
-  private CacheManager cacheManager;
-
-  @Mock
-  private Cache cache;
-
-  @Mock
-  private Cache.ValueWrapper valueWrapper;
+  private WeatherCache weatherCache;
 
   @Mock
   private WeatherProvider primaryProvider;
@@ -50,6 +66,18 @@ class WeatherServiceImplTest {
   @Mock
   private WeatherProvider secondaryProvider;
 
+  @Mock
+  private WeatherHistory weatherHistory;
+
+  private final ProviderScoreboard providerScoreboard =
+      new ProviderScoreboard(Clock.systemUTC(), false, 10, 0.25, 10, 5000);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final CityKeyNormalizer cityKeyNormalizer = new CityKeyNormalizer(true, 100);
+  private final UnknownCityCache unknownCityCache = new UnknownCityCache(
+      new CityGazetteer(new DefaultResourceLoader(), "", cityKeyNormalizer), Clock.systemUTC(), meterRegistry,
+      3600, 100);
+  private final AdaptiveConcurrencyLimiter concurrencyLimiter =
+      new AdaptiveConcurrencyLimiter(false, 20, 4, 200, 1.5, 1, meterRegistry);
   private WeatherServiceImpl weatherService;
   private final WeatherResponse weatherResponse = new WeatherResponse(20.0, 29.0);
 
@@ -58,11 +86,17 @@ class WeatherServiceImplTest {
    */
   @BeforeEach
   void setUp() {
-    lenient().when(cacheManager.getCache("weatherCache")).thenReturn(cache);
+    lenient().when(weatherCache.get(anyString(), any())).thenAnswer(invocation -> {
+      Function<String, Mono<WeatherResponse>> loader = invocation.getArgument(1);
+      return loader.apply(invocation.getArgument(0)).map(response -> new CachedWeather(response, Instant.now()));
+    });
     lenient().when(weatherProviderFactory.getProviders())
         .thenReturn(Arrays.asList(primaryProvider, secondaryProvider));
 
-    weatherService = new WeatherServiceImpl(weatherProviderFactory, cacheManager);
+    weatherService = new WeatherServiceImpl(weatherProviderFactory, weatherCache,
+        new HedgingPolicy(false, 300, true, 0.1, 10, meterRegistry), providerScoreboard, meterRegistry,
+        cityKeyNormalizer, unknownCityCache, concurrencyLimiter, weatherHistory);
+    ReflectionTestUtils.setField(weatherService, "batchConcurrency", 4);
   }
 
   /**
@@ -80,17 +114,81 @@ class WeatherServiceImplTest {
         .expectNext(weatherResponse)
         .verifyComplete();
 
-    verify(primaryProvider).getWeatherData("Melbourne");
+    verify(primaryProvider).getWeatherData("melbourne");
     verifyNoInteractions(secondaryProvider);
   }
 
   /**
-   * Tests that the service fails over to the secondary provider when the primary provider fails.
+   * Tests that weather fetched from a provider is recorded in the history under the canonical key, while a
+   * failed fetch is not.
+   */
+  @Test
+  @DisplayName("Should record fetched weather in the history")
+  void shouldRecordFetchedWeatherInTheHistory() {
+    // Given
+    when(primaryProvider.getWeatherData("melbourne")).thenReturn(Mono.just(weatherResponse));
+    when(primaryProvider.getWeatherData("sydney"))
+        .thenReturn(Mono.error(new WeatherProviderException("Provider error")));
+
+    // When
+    StepVerifier.create(weatherService.getWeatherData("MELBOURNE"))
+        .expectNext(weatherResponse)
+        .verifyComplete();
+    StepVerifier.create(weatherService.getWeatherData("Sydney"))
+        .expectError(WeatherProviderException.class)
+        .verify();
+
+    // Then
+    verify(weatherHistory).record("melbourne", weatherResponse);
+    verify(weatherHistory, never()).record(eq("sydney"), any());
+  }
+
+  /**
+   * Tests that the service resolves cities through the cache using the lower-cased city name as key.
+   */
+  @Test
+  @DisplayName("Should look up cache with lower-cased city key")
+  void shouldLookUpCacheWithLowerCasedCityKey() {
+    // Given
+    when(primaryProvider.getWeatherData(anyString()))
+        .thenReturn(Mono.just(weatherResponse));
+
+    // When & Then
+    StepVerifier.create(weatherService.getWeatherData("MELBOURNE"))
+        .expectNext(weatherResponse)
+        .verifyComplete();
+
+    verify(weatherCache).get(eq("melbourne"), any());
+  }
+
+  /**
+   * Tests that spelling variants of a city share the canonical key for the cache and the provider query.
+   */
+  @Test
+  @DisplayName("Should use canonical key for cache and provider query")
+  void shouldUseCanonicalKeyForCacheAndProviderQuery() {
+    // Given
+    when(primaryProvider.getWeatherData(anyString()))
+        .thenReturn(Mono.just(weatherResponse));
+
+    // When & Then
+    StepVerifier.create(weatherService.getWeatherData("  S\u00E3o   PAULO "))
+        .expectNext(weatherResponse)
+        .verifyComplete();
+
+    verify(weatherCache).get(eq("sao paulo"), any());
+    verify(primaryProvider).getWeatherData("sao paulo");
+  }
+
+  /**
+   * Tests that the service fails over to the secondary provider when the primary provider fails,
+   * and counts the failover against the primary provider.
    */
   @Test
   @DisplayName("Should failover to secondary provider on WeatherServiceException")
   void shouldFailoverToSecondaryProviderOnWeatherServiceException() {
     // Given
+    when(primaryProvider.getProviderName()).thenReturn("Primary");
     when(primaryProvider.getWeatherData(anyString()))
         .thenReturn(Mono.error(new ExternalRequestException("Primary failure")));
     when(secondaryProvider.getWeatherData(anyString()))
@@ -101,12 +199,15 @@ class WeatherServiceImplTest {
         .expectNext(weatherResponse)
         .verifyComplete();
 
-    verify(primaryProvider).getWeatherData("Melbourne");
-    verify(secondaryProvider).getWeatherData("Melbourne");
+    verify(primaryProvider).getWeatherData("melbourne");
+    verify(secondaryProvider).getWeatherData("melbourne");
+    assertThat(meterRegistry.get("weather.provider.failovers").tag("from", "Primary").counter().count())
+        .isEqualTo(1);
   }
 
   /**
-   * Tests that the service returns stale data from the cache when all providers fail with non-failover errors.
+   * Tests that the service returns stale data from the cache when all providers fail with non-failover errors,
+   * and counts the stale response.
    */
   @Test
   @DisplayName("Should return stale data when all providers fail with non-failover error")
@@ -114,17 +215,17 @@ class WeatherServiceImplTest {
     // Given
     when(primaryProvider.getWeatherData(anyString()))
         .thenReturn(Mono.error(new WeatherProviderException("Primary provider error")));
-    when(cache.get(anyString())).thenReturn(valueWrapper);
-    when(valueWrapper.get()).thenReturn(weatherResponse);
+    when(weatherCache.getIfPresent(anyString())).thenReturn(new CachedWeather(weatherResponse, Instant.now()));
 
     // When & Then
     StepVerifier.create(weatherService.getWeatherData("Melbourne"))
         .expectNext(weatherResponse)
         .verifyComplete();
 
-    verify(primaryProvider).getWeatherData("Melbourne");
+    verify(primaryProvider).getWeatherData("melbourne");
     verifyNoInteractions(secondaryProvider);
-    verify(cache).get("melbourne");
+    verify(weatherCache).getIfPresent("melbourne");
+    assertThat(meterRegistry.get("weather.stale.responses").counter().count()).isEqualTo(1);
   }
 
   /**
@@ -136,16 +237,16 @@ class WeatherServiceImplTest {
     //Given
     when(primaryProvider.getWeatherData(anyString()))
         .thenReturn(Mono.error(new WeatherProviderException("Primary error")));
-    when(cache.get(anyString())).thenReturn(null);
+    when(weatherCache.getIfPresent(anyString())).thenReturn(null);
 
     // When & Then
     StepVerifier.create(weatherService.getWeatherData("Melbourne"))
         .expectError(WeatherProviderException.class)
         .verify();
 
-    verify(primaryProvider).getWeatherData("Melbourne");
+    verify(primaryProvider).getWeatherData("melbourne");
     verifyNoInteractions(secondaryProvider);
-    verify(cache).get("melbourne");
+    verify(weatherCache).getIfPresent("melbourne");
   }
 
   /**
@@ -162,4 +263,178 @@ class WeatherServiceImplTest {
         .expectError(WeatherServiceException.class)
         .verify();
   }
+
+  /**
+   * Tests that a batch request serves fresh entries from a bulk cache lookup, resolves the remaining
+   * cities through the providers and reports failures inline.
+   */
+  @Test
+  @DisplayName("Should resolve batch from bulk cache lookup and providers with inline errors")
+  void shouldResolveBatchFromBulkCacheLookupAndProviders() {
+    // Given
+    WeatherResponse sydneyResponse = new WeatherResponse(5.0, 18.0);
+    when(weatherCache.getAllFresh(any()))
+        .thenReturn(Map.of("melbourne", new CachedWeather(weatherResponse, Instant.now())));
+    when(primaryProvider.getWeatherData("sydney")).thenReturn(Mono.just(sydneyResponse));
+    when(primaryProvider.getWeatherData("atlantis"))
+        .thenReturn(Mono.error(new WeatherProviderException("Provider error")));
+
+    // When & Then
+    StepVerifier.create(weatherService.getWeatherDataForCities(List.of("Melbourne", "Sydney", "Atlantis", " ")))
+        .expectNext(CityWeatherResult.failure(" ", "Invalid city name:  "))
+        .expectNext(CityWeatherResult.success("Melbourne", weatherResponse))
+        .expectNext(CityWeatherResult.success("Sydney", sydneyResponse))
+        .expectNext(CityWeatherResult.failure("Atlantis", "Provider error"))
+        .verifyComplete();
+
+    verify(primaryProvider, never()).getWeatherData("melbourne");
+  }
+
+  /**
+   * Tests that a slow primary provider is hedged to the secondary provider and the losing call is cancelled.
+   */
+  @Test
+  @DisplayName("Should hedge to secondary provider when primary is slow")
+  void shouldHedgeToSecondaryProviderWhenPrimaryIsSlow() {
+    // Given
+    HedgingPolicy hedgingPolicy = new HedgingPolicy(true, 20, false, 0.1, 10, meterRegistry);
+    weatherService = new WeatherServiceImpl(weatherProviderFactory, weatherCache, hedgingPolicy, providerScoreboard,
+        meterRegistry, cityKeyNormalizer, unknownCityCache, concurrencyLimiter, weatherHistory);
+    AtomicBoolean primaryCancelled = new AtomicBoolean();
+    when(primaryProvider.getWeatherData(anyString()))
+        .thenReturn(Mono.<WeatherResponse>never().doOnCancel(() -> primaryCancelled.set(true)));
+    when(secondaryProvider.getWeatherData(anyString()))
+        .thenReturn(Mono.just(weatherResponse));
+
+    // When & Then
+    StepVerifier.create(weatherService.getWeatherData("Melbourne"))
+        .expectNext(weatherResponse)
+        .expectComplete()
+        .verify(Duration.ofSeconds(5));
+
+    assertThat(primaryCancelled).isTrue();
+    assertThat(hedgingPolicy.issuedCount()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that no hedge is sent once the hedge budget is exhausted and the primary answer is awaited instead.
+   */
+  @Test
+  @DisplayName("Should not hedge when hedge budget is exhausted")
+  void shouldNotHedgeWhenHedgeBudgetIsExhausted() {
+    // Given
+    HedgingPolicy hedgingPolicy = new HedgingPolicy(true, 10, false, 0.0, 0, meterRegistry);
+    weatherService = new WeatherServiceImpl(weatherProviderFactory, weatherCache, hedgingPolicy, providerScoreboard,
+        meterRegistry, cityKeyNormalizer, unknownCityCache, concurrencyLimiter, weatherHistory);
+    when(primaryProvider.getWeatherData(anyString()))
+        .thenReturn(Mono.just(weatherResponse).delayElement(Duration.ofMillis(100)));
+
+    // When & Then
+    StepVerifier.create(weatherService.getWeatherData("Melbourne"))
+        .expectNext(weatherResponse)
+        .expectComplete()
+        .verify(Duration.ofSeconds(5));
+
+    verifyNoInteractions(secondaryProvider);
+    assertThat(hedgingPolicy.deniedCount()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that a failed hedge does not fail the request while the primary provider can still answer.
+   */
+  @Test
+  @DisplayName("Should wait for primary provider when hedge fails")
+  void shouldWaitForPrimaryProviderWhenHedgeFails() {
+    // Given
+    weatherService = new WeatherServiceImpl(weatherProviderFactory, weatherCache,
+        new HedgingPolicy(true, 10, false, 0.1, 10, meterRegistry), providerScoreboard, meterRegistry,
+        cityKeyNormalizer, unknownCityCache, concurrencyLimiter, weatherHistory);
+    when(primaryProvider.getWeatherData(anyString()))
+        .thenReturn(Mono.just(weatherResponse).delayElement(Duration.ofMillis(100)));
+    when(secondaryProvider.getWeatherData(anyString()))
+        .thenReturn(Mono.error(new WeatherProviderException("Secondary error")));
+
+    // When & Then
+    StepVerifier.create(weatherService.getWeatherData("Melbourne"))
+        .expectNext(weatherResponse)
+        .expectComplete()
+        .verify(Duration.ofSeconds(5));
+  }
+
+  /**
+   * Tests that a city a provider rejected as unknown is rejected locally on the next request.
+   */
+  @Test
+  @DisplayName("Should reject city confirmed unknown without calling providers again")
+  void shouldRejectCityConfirmedUnknownWithoutCallingProvidersAgain() {
+    // Given
+    when(primaryProvider.getWeatherData("atlantis"))
+        .thenReturn(Mono.error(new MissingQueryException("Missing or invalid location query")));
+
+    // When & Then
+    StepVerifier.create(weatherService.getWeatherData("Atlantis"))
+        .expectErrorMessage("Missing or invalid location query")
+        .verify();
+    StepVerifier.create(weatherService.getWeatherData("ATLANTIS"))
+        .expectErrorSatisfies(e -> assertThat(e)
+            .isInstanceOf(MissingQueryException.class)
+            .hasMessage("Unknown city: ATLANTIS"))
+        .verify();
+
+    verify(primaryProvider).getWeatherData("atlantis");
+    verifyNoInteractions(secondaryProvider);
+    assertThat(meterRegistry.get("weather.unknown.city.rejections").tag("source", "negative_cache")
+        .counter().count()).isEqualTo(1.0);
+  }
+
+  /**
+   * Tests that a batch request reports a city known to be unknown once, without calling a provider for it.
+   */
+  @Test
+  @DisplayName("Should report unknown city in batch once without calling providers")
+  void shouldReportUnknownCityInBatchOnceWithoutCallingProviders() {
+    // Given
+    unknownCityCache.recordUnknown("atlantis");
+    when(weatherCache.getAllFresh(any()))
+        .thenReturn(Map.of("melbourne", new CachedWeather(weatherResponse, Instant.now())));
+
+    // When & Then
+    StepVerifier.create(weatherService.getWeatherDataForCities(List.of("Atlantis", "Melbourne", "ATLANTIS")))
+        .expectNext(CityWeatherResult.failure("Atlantis", "Unknown city: Atlantis"))
+        .expectNext(CityWeatherResult.success("Melbourne", weatherResponse))
+        .verifyComplete();
+
+    verifyNoInteractions(primaryProvider, secondaryProvider);
+  }
+
+  /**
+   * Tests that a miss beyond the concurrency limit is shed with an overload error while the load in flight
+   * keeps running.
+   */
+  @Test
+  @DisplayName("Should shed misses beyond concurrency limit")
+  void shouldShedMissesBeyondConcurrencyLimit() {
+    // Given
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(true, 1, 1, 1, 1.5, 2, meterRegistry);
+    weatherService = new WeatherServiceImpl(weatherProviderFactory, weatherCache,
+        new HedgingPolicy(false, 300, true, 0.1, 10, meterRegistry), providerScoreboard, meterRegistry,
+        cityKeyNormalizer, unknownCityCache, limiter, weatherHistory);
+    when(primaryProvider.getWeatherData("melbourne")).thenReturn(Mono.never());
+
+    // When
+    Disposable inFlight = weatherService.getWeatherData("Melbourne").subscribe();
+
+    // Then
+    StepVerifier.create(weatherService.getWeatherData("Sydney"))
+        .expectErrorSatisfies(e -> assertThat(e)
+            .isInstanceOf(ServiceOverloadedException.class)
+            .extracting(error -> ((ServiceOverloadedException) error).getRetryAfter())
+            .isEqualTo(Duration.ofSeconds(2)))
+        .verify();
+    verify(primaryProvider, never()).getWeatherData("sydney");
+    assertThat(meterRegistry.get("weather.concurrency.rejections").counter().count()).isEqualTo(1.0);
+
+    inFlight.dispose();
+    assertThat(limiter.getInflight()).isZero();
+  }
 }
\ No newline at end of file
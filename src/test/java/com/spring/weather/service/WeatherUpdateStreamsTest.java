@@ -0,0 +1,186 @@
+package com.spring.weather.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.spring.weather.cache.CachedWeather;
+import com.spring.weather.cache.CityKeyNormalizer;
+import com.spring.weather.dto.CityWeatherResult;
+import com.spring.weather.dto.WeatherResponse;
+import com.spring.weather.exception.MissingQueryException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+/**
+ * Unit tests for the WeatherUpdateStreams class.
+ * Verifies change detection, sharing of city streams between subscribers and the bounded subscriber buffer.
+ */
+@ExtendWith(MockitoExtension.class)
+class WeatherUpdateStreamsTest {
+
+  private static final Instant FETCHED_AT = Instant.parse("2025-05-11T01:00:00Z");
+
+  @Mock
+  private WeatherService weatherService;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  /**
+   * Resets the virtual time scheduler installed by a test.
+   */
+  @AfterEach
+  void tearDown() {
+    VirtualTimeScheduler.reset();
+  }
+
+  /**
+   * Tests that subscribers of the same city share one poll, only receive changed values and that a late
+   * subscriber receives the latest value without another poll.
+   */
+  @Test
+  @DisplayName("Should share city stream and emit only changes")
+  void shouldShareCityStreamAndEmitOnlyChanges() {
+    // Given
+    VirtualTimeScheduler scheduler = VirtualTimeScheduler.getOrSet();
+    WeatherUpdateStreams streams = createStreams(16);
+    when(weatherService.getCachedWeatherData("melbourne")).thenReturn(
+        cached(20.0, FETCHED_AT),
+        cached(20.0, FETCHED_AT.plusSeconds(1)),
+        cached(21.0, FETCHED_AT.plusSeconds(2)));
+    List<CityWeatherResult> first = new ArrayList<>();
+    List<CityWeatherResult> second = new ArrayList<>();
+
+    // When
+    Disposable firstSubscription = streams.subscribe(List.of("Melbourne")).subscribe(first::add);
+    Disposable secondSubscription = streams.subscribe(List.of(" MELBOURNE")).subscribe(second::add);
+    scheduler.advanceTimeBy(Duration.ofSeconds(2));
+
+    // Then
+    verify(weatherService, times(3)).getCachedWeatherData("melbourne");
+    assertThat(first).extracting(CityWeatherResult::getCity).containsExactly("Melbourne", "Melbourne");
+    assertThat(first).extracting(result -> result.getWeather().getTemperatureDegrees()).containsExactly(20.0, 21.0);
+    assertThat(second).extracting(CityWeatherResult::getCity).containsExactly(" MELBOURNE", " MELBOURNE");
+
+    StepVerifier.create(streams.subscribe(List.of("melbourne")))
+        .assertNext(result -> assertThat(result.getWeather().getTemperatureDegrees()).isEqualTo(21.0))
+        .thenCancel()
+        .verify();
+    verify(weatherService, times(3)).getCachedWeatherData("melbourne");
+
+    firstSubscription.dispose();
+    secondSubscription.dispose();
+    assertThat(meterRegistry.get("weather.stream.cities").gauge().value()).isZero();
+    assertThat(meterRegistry.get("weather.stream.subscribers").gauge().value()).isZero();
+  }
+
+  /**
+   * Tests that subscribers arriving after the last one left share a single new poll of the city.
+   */
+  @Test
+  @DisplayName("Should restart one shared stream after the last subscriber left")
+  void shouldRestartOneSharedStreamAfterLastSubscriberLeft() {
+    // Given
+    VirtualTimeScheduler scheduler = VirtualTimeScheduler.getOrSet();
+    WeatherUpdateStreams streams = createStreams(16);
+    when(weatherService.getCachedWeatherData("melbourne")).thenReturn(cached(20.0, FETCHED_AT));
+    streams.subscribe(List.of("Melbourne")).subscribe().dispose();
+    assertThat(meterRegistry.get("weather.stream.cities").gauge().value()).isZero();
+
+    // When
+    Disposable firstSubscription = streams.subscribe(List.of("Melbourne")).subscribe();
+    Disposable secondSubscription = streams.subscribe(List.of("melbourne")).subscribe();
+    scheduler.advanceTimeBy(Duration.ofSeconds(1));
+
+    // Then
+    assertThat(meterRegistry.get("weather.stream.cities").gauge().value()).isEqualTo(1);
+    verify(weatherService, times(3)).getCachedWeatherData("melbourne");
+
+    firstSubscription.dispose();
+    secondSubscription.dispose();
+    assertThat(meterRegistry.get("weather.stream.cities").gauge().value()).isZero();
+  }
+
+  /**
+   * Tests that a city that cannot be resolved is reported with an error without ending the stream.
+   */
+  @Test
+  @DisplayName("Should report errors inline and keep streaming")
+  void shouldReportErrorsInlineAndKeepStreaming() {
+    // Given
+    when(weatherService.getCachedWeatherData("melbourne")).thenReturn(
+        Mono.error(new MissingQueryException("Missing or invalid location query")),
+        cached(20.0, FETCHED_AT));
+
+    // When & Then
+    StepVerifier.withVirtualTime(() -> createStreams(16).subscribe(List.of("Melbourne")))
+        .thenAwait()
+        .expectNext(CityWeatherResult.failure("Melbourne", "Missing or invalid location query"))
+        .thenAwait(Duration.ofSeconds(1))
+        .expectNext(CityWeatherResult.success("Melbourne", new WeatherResponse(10.0, 20.0)))
+        .thenCancel()
+        .verify();
+  }
+
+  /**
+   * Tests that updates beyond the buffer of a subscriber that does not keep up are dropped and counted,
+   * while the buffered ones are still delivered.
+   */
+  @Test
+  @DisplayName("Should drop latest updates for slow subscriber")
+  void shouldDropLatestUpdatesForSlowSubscriber() {
+    // Given
+    when(weatherService.getCachedWeatherData("melbourne")).thenReturn(
+        cached(20.0, FETCHED_AT),
+        cached(21.0, FETCHED_AT),
+        cached(22.0, FETCHED_AT),
+        cached(23.0, FETCHED_AT),
+        cached(24.0, FETCHED_AT));
+
+    // When & Then
+    StepVerifier.withVirtualTime(() -> createStreams(2).subscribe(List.of("Melbourne")), 0)
+        .thenAwait(Duration.ofSeconds(4))
+        .thenRequest(10)
+        .assertNext(result -> assertThat(result.getWeather().getTemperatureDegrees()).isEqualTo(20.0))
+        .assertNext(result -> assertThat(result.getWeather().getTemperatureDegrees()).isEqualTo(21.0))
+        .thenCancel()
+        .verify();
+    assertThat(meterRegistry.get("weather.stream.dropped").counter().count()).isEqualTo(3.0);
+  }
+
+  /**
+   * Creates the streams under test, polling every second.
+   *
+   * @param bufferSize The buffer size of each subscriber.
+   * @return The streams.
+   */
+  private WeatherUpdateStreams createStreams(int bufferSize) {
+    return new WeatherUpdateStreams(weatherService, new CityKeyNormalizer(true, 100), meterRegistry, 1000, 15,
+        bufferSize);
+  }
+
+  /**
+   * Creates cached weather data with the given temperature and a wind speed of 10.
+   *
+   * @param temperature The temperature.
+   * @param fetchedAt The instant the data was fetched.
+   * @return A Mono emitting the cached weather data.
+   */
+  private static Mono<CachedWeather> cached(double temperature, Instant fetchedAt) {
+    return Mono.just(new CachedWeather(new WeatherResponse(10.0, temperature), fetchedAt));
+  }
+}